@@ -0,0 +1,50 @@
+package com.mayureshpatel.pfdataservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor for background import jobs. Both the pool and its queue are bounded, so a burst of uploads
+ * is rejected instead of piling up in memory or exhausting the connection pool.
+ * <p>
+ * Synchronous bulk saves get their own executor so they never wait behind queued previews. It has no
+ * queue: when every worker is busy the account is saved on the request thread instead.
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    public static final String IMPORT_EXECUTOR = "importExecutor";
+    public static final String BULK_SAVE_EXECUTOR = "bulkSaveExecutor";
+
+    @Bean(name = IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor importExecutor(
+            @Value("${imports.executor.concurrency:4}") int concurrency,
+            @Value("${imports.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = BULK_SAVE_EXECUTOR)
+    public ThreadPoolTaskExecutor bulkSaveExecutor(
+            @Value("${imports.bulk-save.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("bulk-save-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -1,8 +1,9 @@
 package com.mayureshpatel.pfdataservice.controller;
 
 import com.mayureshpatel.pfdataservice.dto.transaction.SaveTransactionRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.AccountSaveResultDto;
 import com.mayureshpatel.pfdataservice.security.CustomUserDetails;
-import com.mayureshpatel.pfdataservice.service.TransactionImportService;
+import com.mayureshpatel.pfdataservice.service.ImportJobService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -18,12 +19,36 @@ import java.util.List;
 @RequestMapping("/api/v1/transactions")
 @RequiredArgsConstructor
 public class BulkTransactionController {
-    private final TransactionImportService transactionImportService;
+    private final ImportJobService importJobService;
 
+    /**
+     * Saves the files like {@code /bulk/accounts} and summarizes the results. Accounts that failed are
+     * named in the message; the others are still saved.
+     */
     @PostMapping("/bulk")
     public ResponseEntity<String> saveBulkTransactions(@RequestBody @Valid List<SaveTransactionRequest> requests,
                                                        @AuthenticationPrincipal CustomUserDetails userDetails) {
-        int count = transactionImportService.saveBulkTransactions(userDetails.getId(), requests);
-        return ResponseEntity.ok("Successfully saved " + count + " transactions.");
+        List<AccountSaveResultDto> results = importJobService.saveByAccount(userDetails.getId(), requests);
+        int count = results.stream().mapToInt(AccountSaveResultDto::savedCount).sum();
+        List<Long> failedAccounts = results.stream()
+                .filter(result -> !result.succeeded())
+                .map(AccountSaveResultDto::accountId)
+                .toList();
+
+        String message = "Successfully saved " + count + " transactions.";
+        if (!failedAccounts.isEmpty()) {
+            message += " Failed to save accounts: " + failedAccounts + ".";
+        }
+        return ResponseEntity.ok(message);
+    }
+
+    /**
+     * Saves the files of each account independently and in parallel, so one failing account does not roll
+     * back the others.
+     */
+    @PostMapping("/bulk/accounts")
+    public ResponseEntity<List<AccountSaveResultDto>> saveBulkTransactionsByAccount(@RequestBody @Valid List<SaveTransactionRequest> requests,
+                                                                                    @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(importJobService.saveByAccount(userDetails.getId(), requests));
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package com.mayureshpatel.pfdataservice.controller;
 
-import com.mayureshpatel.pfdataservice.dto.RuleChangePreviewDto;
+import com.mayureshpatel.pfdataservice.dto.RuleApplyPreviewDto;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleCreateRequest;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleDto;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleUpdateRequest;
@@ -14,6 +14,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/category-rules")
@@ -42,15 +43,21 @@ public class CategoryRuleController {
         return ResponseEntity.ok(categoryRuleService.updateRule(userDetails.getId(), request));
     }
 
+    /**
+     * Pages through the changes {@code /apply} would make. Category totals cover every page but are only
+     * returned with the first page, requested without a cursor; later pages return them as null.
+     */
     @GetMapping("/preview")
-    public ResponseEntity<List<RuleChangePreviewDto>> previewApply(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        return ResponseEntity.ok(categoryRuleService.previewApply(userDetails.getId()));
+    public ResponseEntity<RuleApplyPreviewDto> previewApply(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + CategoryRuleService.DEFAULT_PREVIEW_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(categoryRuleService.previewApply(userDetails.getId(), cursor, size));
     }
 
     @PostMapping("/apply")
-    public ResponseEntity<Void> applyRules(@AuthenticationPrincipal CustomUserDetails userDetails) {
-        categoryRuleService.applyRules(userDetails.getId());
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<Long, Integer>> applyRules(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(categoryRuleService.applyRules(userDetails.getId()));
     }
 
     @DeleteMapping("/{id}")
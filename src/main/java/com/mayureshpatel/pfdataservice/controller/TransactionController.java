@@ -1,20 +1,35 @@
 package com.mayureshpatel.pfdataservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.mayureshpatel.pfdataservice.dto.transaction.SaveTransactionRequest;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionPreviewDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.CommitStagedImportRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.ImportJobDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.StagedImportDto;
 import com.mayureshpatel.pfdataservice.security.CustomUserDetails;
+import com.mayureshpatel.pfdataservice.service.ImportJobService;
 import com.mayureshpatel.pfdataservice.service.TransactionImportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/accounts/{accountId}")
@@ -22,10 +37,19 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionImportService transactionImportService;
+    private final ImportJobService importJobService;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Previews a file without saving it. The previews are written to the response as a JSON array one chunk at a
+     * time, so a large file is never held in memory. Errors in the first chunk are reported with an error status;
+     * an error further into the file can only cut the array short, as the response is already committed.
+     * <p>
+     * A file the account already imported is rejected before it is parsed.
+     */
     @PostMapping("/upload")
     @PreAuthorize("@ss.isAccountOwner(#accountId, principal)")
-    public ResponseEntity<List<TransactionPreviewDto>> uploadTransactions(
+    public ResponseEntity<StreamingResponseBody> uploadTransactions(
             @PathVariable Long accountId,
             @RequestParam("file") MultipartFile file,
             @RequestParam("bankName") String bankName,
@@ -35,12 +59,30 @@ public class TransactionController {
             throw new IllegalArgumentException("File must not be empty");
         }
 
-        try (InputStream inputStream = file.getInputStream()) {
-            String fileName = file.getOriginalFilename();
-            List<TransactionPreviewDto> preview = transactionImportService.previewTransactions(
-                    userDetails.getId(), accountId, bankName, inputStream, fileName);
-            return ResponseEntity.ok(preview);
-        }
+        fingerprint(accountId, file);
+
+        Long userId = userDetails.getId();
+        String fileName = file.getOriginalFilename();
+        ObjectWriter previewWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream inputStream = file.getInputStream()) {
+                // not closed on failure, so a failed preview never ends in a well-formed array
+                SequenceWriter previews = previewWriter.writeValuesAsArray(outputStream);
+                transactionImportService.previewTransactions(userId, accountId, bankName, inputStream, fileName, chunk -> {
+                    try {
+                        previews.writeAll(chunk);
+                        previews.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                previews.close();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @PostMapping("/transactions")
@@ -60,4 +102,131 @@ public class TransactionController {
 
         return ResponseEntity.ok("Successfully saved " + count + " transactions.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Previews a file and keeps its rows on the server; the returned token is committed with
+     * {@code POST /staged-imports/{token}/commit}.
+     */
+    @PostMapping("/upload/stage")
+    @PreAuthorize("@ss.isAccountOwner(#accountId, principal)")
+    public ResponseEntity<StagedImportDto> stageTransactions(
+            @PathVariable Long accountId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("bankName") String bankName,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File must not be empty");
+        }
+
+        String fileHash = fingerprint(accountId, file);
+        try (InputStream inputStream = file.getInputStream()) {
+            StagedImportDto staged = transactionImportService.stageTransactions(
+                    userDetails.getId(), accountId, bankName, inputStream, file.getOriginalFilename(), fileHash);
+            return ResponseEntity.ok(staged);
+        }
+    }
+
+    @GetMapping("/staged-imports/{token}/rows")
+    @PreAuthorize("@ss.isAccountOwner(#accountId, principal)")
+    public ResponseEntity<List<TransactionPreviewDto>> getStagedRows(
+            @PathVariable Long accountId,
+            @PathVariable UUID token,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "500") int limit,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        return ResponseEntity.ok(transactionImportService.getStagedRows(userDetails.getId(), accountId, token, offset, limit));
+    }
+
+    @PostMapping("/staged-imports/{token}/commit")
+    @PreAuthorize("@ss.isAccountOwner(#accountId, principal)")
+    public ResponseEntity<String> commitStagedTransactions(
+            @PathVariable Long accountId,
+            @PathVariable UUID token,
+            @RequestBody(required = false) @Valid CommitStagedImportRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        int count = transactionImportService.commitStagedTransactions(
+                userDetails.getId(),
+                accountId,
+                token,
+                request != null ? request : new CommitStagedImportRequest(null, null)
+        );
+
+        return ResponseEntity.ok("Successfully saved " + count + " transactions.");
+    }
+
+    @PostMapping("/upload/jobs")
+    @PreAuthorize("@ss.isAccountOwner(#accountId, principal)")
+    public ResponseEntity<ImportJobDto> submitUpload(
+            @PathVariable Long accountId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("bankName") String bankName,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File must not be empty");
+        }
+
+        // the upload is cleaned up when this request ends, before the job reads it
+        Path content = Files.createTempFile("import-", ".upload");
+        String fileHash;
+        try {
+            file.transferTo(content);
+            try (InputStream inputStream = Files.newInputStream(content)) {
+                fileHash = transactionImportService.fingerprintUpload(accountId, inputStream);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(content);
+            throw e;
+        }
+
+        ImportJobDto job = importJobService.submitPreview(
+                userDetails.getId(), accountId, bankName, content, file.getOriginalFilename(), fileHash);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @PostMapping("/transactions/jobs")
+    @PreAuthorize("@ss.isAccountOwner(#accountId, principal)")
+    public ResponseEntity<ImportJobDto> submitSave(
+            @PathVariable Long accountId,
+            @RequestBody @Valid SaveTransactionRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        ImportJobDto job = importJobService.submitSave(userDetails.getId(), accountId, request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/import-jobs/{jobId}")
+    @PreAuthorize("@ss.isAccountOwner(#accountId, principal)")
+    public ResponseEntity<ImportJobDto> getImportJob(
+            @PathVariable Long accountId,
+            @PathVariable Long jobId,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        return ResponseEntity.ok(importJobService.getJob(userDetails.getId(), accountId, jobId));
+    }
+
+    @GetMapping("/import-jobs/{jobId}/preview")
+    @PreAuthorize("@ss.isAccountOwner(#accountId, principal)")
+    public ResponseEntity<List<TransactionPreviewDto>> getImportJobPreview(
+            @PathVariable Long accountId,
+            @PathVariable Long jobId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "500") int limit,
+            @AuthenticationPrincipal CustomUserDetails userDetails
+    ) {
+        return ResponseEntity.ok(importJobService.getPreview(userDetails.getId(), accountId, jobId, offset, limit));
+    }
+
+    /**
+     * Hashes the upload in one streaming pass and rejects files already imported into the account, before
+     * any parsing starts. The upload is buffered by the servlet container, so it can be read again.
+     */
+    private String fingerprint(Long accountId, MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return transactionImportService.fingerprintUpload(accountId, inputStream);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -65,6 +66,32 @@ public class TransactionCrudController {
         return ResponseEntity.ok(transactionService.getTransactions(userDetails.getId(), filter, pageable));
     }
 
+    @GetMapping("/seek")
+    public ResponseEntity<TransactionCursorPageDto> getTransactionPage(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @SortDefault(sort = "date", direction = Sort.Direction.DESC) Sort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String categoryName,
+            @RequestParam(required = false) String vendorName,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate
+    ) {
+
+        TransactionFilter filter = new TransactionFilter(
+                accountId, type, description, categoryName, vendorName, minAmount, maxAmount, startDate, endDate
+        );
+
+        return ResponseEntity.ok(transactionService.getTransactionPage(
+                userDetails.getId(), filter, sort, cursor, size, includeTotal));
+    }
+
     @GetMapping("/count-by-category")
     public ResponseEntity<List<CategoryTransactionsDto>> getCountByCategory(
             @AuthenticationPrincipal CustomUserDetails userDetails
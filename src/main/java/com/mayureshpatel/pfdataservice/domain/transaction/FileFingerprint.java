@@ -0,0 +1,38 @@
+package com.mayureshpatel.pfdataservice.domain.transaction;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the hash stored in {@code file_import_history.file_hash}: the hex SHA-256 of the file's bytes.
+ * <p>
+ * The content is digested as it streams through a small buffer, so large uploads are never held in memory.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FileFingerprint {
+
+    /**
+     * Reads the stream to its end; the caller still owns and closes it.
+     */
+    public static String of(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        new DigestInputStream(content, digest).transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.mayureshpatel.pfdataservice.domain.transaction;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A file preview or save that runs in the background and is polled by the client.
+ */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ImportJob {
+
+    @EqualsAndHashCode.Include
+    private final Long id;
+    private final Long userId;
+    private final Long accountId;
+    private final Type type;
+    private final Status status;
+    private final String fileName;
+    private final Integer totalRows;
+    private final int processedRows;
+    private final Integer savedCount;
+    private final String errorMessage;
+    /**
+     * Staged import holding the rows of a successful preview.
+     */
+    private final UUID stagingToken;
+    private final OffsetDateTime createdAt;
+    private final OffsetDateTime startedAt;
+    private final OffsetDateTime completedAt;
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public enum Type {
+        PREVIEW,
+        SAVE
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+}
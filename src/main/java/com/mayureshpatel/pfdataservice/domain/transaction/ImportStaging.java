@@ -0,0 +1,29 @@
+package com.mayureshpatel.pfdataservice.domain.transaction;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A previewed file whose rows are kept server side until the client commits them by token.
+ */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ImportStaging {
+
+    @EqualsAndHashCode.Include
+    private final Long id;
+    private final UUID token;
+    private final Long userId;
+    private final Long accountId;
+    private final String fileName;
+    private final String fileHash;
+    private final OffsetDateTime createdAt;
+    private final OffsetDateTime expiresAt;
+}
@@ -0,0 +1,38 @@
+package com.mayureshpatel.pfdataservice.domain.transaction;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+
+/**
+ * Computes the import signature used to detect re-imported transactions.
+ * <p>
+ * The signature is the hex SHA-256 of {@code epochSecond|amount|description|type}, with the amount at
+ * scale 2 and a null description treated as empty. Every transaction stores it, whether imported, created or
+ * edited. The V42 migration backfills existing rows with the equivalent SQL expression, so both must change
+ * together.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TransactionSignature {
+
+    public static String of(OffsetDateTime date, BigDecimal amount, String description, String type) {
+        String source = date.toEpochSecond()
+                + "|" + amount.setScale(2, RoundingMode.HALF_UP).toPlainString()
+                + "|" + (description == null ? "" : description)
+                + "|" + type;
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.mayureshpatel.pfdataservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of rule application previews.
+ *
+ * @param changes          the previewed changes on this page
+ * @param countsByCategory how many transactions each target category would receive in total;
+ *                         only computed for the first page, null otherwise
+ * @param nextCursor       the cursor for the next page, or null when this is the last page
+ */
+public record RuleApplyPreviewDto(
+        List<RuleChangePreviewDto> changes,
+        List<CategoryCount> countsByCategory,
+        Long nextCursor
+) {
+
+    public record CategoryCount(
+            Long categoryId,
+            String categoryName,
+            long count
+    ) {
+    }
+}
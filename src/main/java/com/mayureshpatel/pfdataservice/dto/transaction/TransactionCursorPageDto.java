@@ -0,0 +1,17 @@
+package com.mayureshpatel.pfdataservice.dto.transaction;
+
+import java.util.List;
+
+/**
+ * One keyset page of transactions.
+ *
+ * @param content       the transactions on this page
+ * @param nextCursor    the opaque cursor for the next page, or null when this is the last page
+ * @param totalElements the number of transactions matching the filter; only computed when requested
+ */
+public record TransactionCursorPageDto(
+        List<TransactionDto> content,
+        String nextCursor,
+        Long totalElements
+) {
+}
@@ -0,0 +1,13 @@
+package com.mayureshpatel.pfdataservice.dto.transaction.fileimport;
+
+import lombok.Builder;
+
+@Builder
+public record AccountSaveResultDto(
+        Long accountId,
+        boolean succeeded,
+        int savedCount,
+        int duplicateCount,
+        String errorMessage
+) {
+}
@@ -0,0 +1,23 @@
+package com.mayureshpatel.pfdataservice.dto.transaction.fileimport;
+
+import jakarta.validation.Valid;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adjusts a staged import before it is saved. Both fields are optional.
+ *
+ * @param excludedRows positions of staged rows that should not be saved
+ * @param overrides    changes to individual staged rows
+ */
+public record CommitStagedImportRequest(
+        Set<Integer> excludedRows,
+        List<@Valid StagedRowOverride> overrides
+) {
+
+    public CommitStagedImportRequest {
+        excludedRows = excludedRows == null ? Set.of() : excludedRows;
+        overrides = overrides == null ? List.of() : overrides;
+    }
+}
@@ -0,0 +1,25 @@
+package com.mayureshpatel.pfdataservice.dto.transaction.fileimport;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportJob;
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Builder
+public record ImportJobDto(
+        Long id,
+        Long accountId,
+        ImportJob.Type type,
+        ImportJob.Status status,
+        String fileName,
+        Integer totalRows,
+        int processedRows,
+        Integer savedCount,
+        String errorMessage,
+        UUID stagingToken,
+        OffsetDateTime createdAt,
+        OffsetDateTime startedAt,
+        OffsetDateTime completedAt
+) {
+}
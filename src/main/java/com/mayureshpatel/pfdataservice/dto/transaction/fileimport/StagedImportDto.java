@@ -0,0 +1,23 @@
+package com.mayureshpatel.pfdataservice.dto.transaction.fileimport;
+
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionPreviewDto;
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A staged preview. Rows are referenced on commit by their position in the preview, counted from 0.
+ *
+ * @param rowCount     number of staged rows
+ * @param transactions the first page of rows; later pages are read from {@code /staged-imports/{token}/rows}
+ */
+@Builder
+public record StagedImportDto(
+        UUID token,
+        OffsetDateTime expiresAt,
+        int rowCount,
+        List<TransactionPreviewDto> transactions
+) {
+}
@@ -0,0 +1,27 @@
+package com.mayureshpatel.pfdataservice.dto.transaction.fileimport;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+
+/**
+ * Replaces fields of one staged row; null fields keep the staged value.
+ */
+@Builder
+public record StagedRowOverride(
+        @NotNull(message = "Row index cannot be null.")
+        @PositiveOrZero(message = "Row index must not be negative.")
+        Integer rowIndex,
+
+        @Positive(message = "Category ID must be a positive number.")
+        Long categoryId,
+
+        @Size(max = 255, message = "Description must be less than 255 characters.")
+        String description,
+
+        TransactionType type
+) {
+}
@@ -90,6 +90,12 @@ public class GlobalExceptionHandler {
         return createProblemDetail(HttpStatus.FORBIDDEN, message, request);
     }
 
+    @ExceptionHandler(org.springframework.core.task.TaskRejectedException.class)
+    public ProblemDetail handleTaskRejected(org.springframework.core.task.TaskRejectedException ex, HttpServletRequest request) {
+        log.warn("Task Rejected: {} at {}", ex.getMessage(), request.getRequestURI());
+        return createProblemDetail(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports are running. Please try again shortly.", request);
+    }
+
     @ExceptionHandler(org.springframework.dao.DataIntegrityViolationException.class)
     public ProblemDetail handleDataIntegrityViolation(org.springframework.dao.DataIntegrityViolationException ex, HttpServletRequest request) {
         log.warn("Data Integrity Violation: {} at {}", ex.getMessage(), request.getRequestURI());
@@ -0,0 +1,32 @@
+package com.mayureshpatel.pfdataservice.mapper;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportJob;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.ImportJobDto;
+
+public final class ImportJobDtoMapper {
+
+    private ImportJobDtoMapper() {
+    }
+
+    public static ImportJobDto toDto(ImportJob job) {
+        if (job == null) {
+            return null;
+        }
+
+        return ImportJobDto.builder()
+                .id(job.getId())
+                .accountId(job.getAccountId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .fileName(job.getFileName())
+                .totalRows(job.getTotalRows())
+                .processedRows(job.getProcessedRows())
+                .savedCount(job.getSavedCount())
+                .errorMessage(job.getErrorMessage())
+                .stagingToken(job.getStagingToken())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.mayureshpatel.pfdataservice.repository;
+
+import com.mayureshpatel.pfdataservice.domain.TableAudit;
+import com.mayureshpatel.pfdataservice.domain.user.User;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
+
+/**
+ * Resolved indexes of the audit columns for one column prefix.
+ */
+public record AuditColumns(int createdAt, int updatedAt, int deletedAt, int createdBy, int updatedBy, int deletedBy) {
+
+    /**
+     * Resolves the audit columns under a prefix.
+     *
+     * @param columns the result set columns
+     * @param prefix  the normalized prefix, empty for unprefixed columns
+     * @return the resolved indexes
+     */
+    public static AuditColumns resolve(ResultSetColumns columns, String prefix) {
+        return new AuditColumns(
+                columns.indexOf(prefix + "created_at"),
+                columns.indexOf(prefix + "updated_at"),
+                columns.indexOf(prefix + "deleted_at"),
+                columns.indexOf(prefix + "created_by"),
+                columns.indexOf(prefix + "updated_by"),
+                columns.indexOf(prefix + "deleted_by"));
+    }
+
+    /**
+     * Hydrates the audit columns of the current row. Absent columns are left null.
+     *
+     * @param rs the result set, positioned on a row
+     * @return the audit columns
+     * @throws SQLException if an error occurs
+     */
+    public TableAudit read(ResultSet rs) throws SQLException {
+        return TableAudit.builder()
+                .createdAt(createdAt == ABSENT ? null : JdbcMapperUtils.getOffsetDateTime(rs, createdAt))
+                .updatedAt(updatedAt == ABSENT ? null : JdbcMapperUtils.getOffsetDateTime(rs, updatedAt))
+                .deletedAt(deletedAt == ABSENT ? null : JdbcMapperUtils.getOffsetDateTime(rs, deletedAt))
+                .createdBy(readUser(rs, createdBy))
+                .updatedBy(readUser(rs, updatedBy))
+                .deletedBy(readUser(rs, deletedBy))
+                .build();
+    }
+
+    private static User readUser(ResultSet rs, int index) throws SQLException {
+        if (index == ABSENT) {
+            return null;
+        }
+        Long userId = JdbcMapperUtils.getLongOrNull(rs, index);
+        return userId == null ? null : User.builder().id(userId).build();
+    }
+}
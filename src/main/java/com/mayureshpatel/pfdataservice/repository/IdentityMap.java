@@ -0,0 +1,63 @@
+package com.mayureshpatel.pfdataservice.repository;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
+
+/**
+ * Canonical instances of a joined entity within one result set, keyed by id.
+ * <p>
+ * Rows that join the same account, category or merchant get the instance built for the first such row,
+ * so a query returning thousands of transactions holds one object per distinct entity. The mapped entities
+ * are immutable, which makes sharing them safe.
+ *
+ * @param <T> the entity type
+ */
+public final class IdentityMap<T> {
+
+    private final int idColumn;
+    private final RowMapper<T> mapper;
+    private final Map<Long, T> instances = new HashMap<>();
+
+    /**
+     * @param idColumn the index of the entity's id column, or {@link ResultSetColumns#ABSENT}
+     * @param mapper   builds the entity from the current row the first time its id is seen
+     */
+    public IdentityMap(int idColumn, RowMapper<T> mapper) {
+        this.idColumn = idColumn;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Returns the entity joined on the current row.
+     *
+     * @param rs the result set, positioned on a row
+     * @return the shared instance, or null if the row has no such entity
+     * @throws SQLException if an error occurs while accessing the result set
+     */
+    public T get(ResultSet rs) throws SQLException {
+        if (idColumn == ABSENT) {
+            return null;
+        }
+        Long id = JdbcMapperUtils.getLongOrNull(rs, idColumn);
+        if (id == null) {
+            return null;
+        }
+
+        T instance = instances.get(id);
+        if (instance == null) {
+            instance = mapper.mapRow(rs, rs.getRow());
+            instances.put(id, instance);
+        }
+        return instance;
+    }
+
+    public int size() {
+        return instances.size();
+    }
+}
@@ -0,0 +1,61 @@
+package com.mayureshpatel.pfdataservice.repository;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Row mapper that resolves its column indexes once per {@link ResultSet} and maps every row by index.
+ * <p>
+ * Subclasses describe the columns they read as a holder {@code C}, built by {@link #resolve} from the
+ * result set's labels; it may also carry state scoped to that result set, such as an {@link IdentityMap}.
+ * The holder of the last result set seen by each thread is kept, so consecutive rows of one query reuse it
+ * without touching the metadata again. The result set is only weakly referenced, so a finished query is
+ * never kept alive by the mapper.
+ *
+ * @param <T> the mapped type
+ * @param <C> the resolved columns and any per-result-set state
+ */
+public abstract class IndexedRowMapper<T, C> extends JdbcMapperUtils implements RowMapper<T> {
+
+    private final ThreadLocal<Resolved<C>> lastResolved = new ThreadLocal<>();
+
+    @Override
+    public T mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
+        return map(rs, columns(rs));
+    }
+
+    /**
+     * Resolves the columns this mapper reads.
+     *
+     * @param columns the labels of the result set
+     * @return the resolved column indexes
+     * @throws SQLException if a required column is missing
+     */
+    protected abstract C resolve(ResultSetColumns columns) throws SQLException;
+
+    /**
+     * Maps the current row using previously resolved columns.
+     *
+     * @param rs      the result set, positioned on a row
+     * @param columns the columns resolved for this result set
+     * @return the mapped object
+     * @throws SQLException if an error occurs while accessing the result set
+     */
+    protected abstract T map(ResultSet rs, C columns) throws SQLException;
+
+    private C columns(ResultSet rs) throws SQLException {
+        Resolved<C> resolved = lastResolved.get();
+        if (resolved == null || resolved.resultSet().get() != rs) {
+            resolved = new Resolved<>(new WeakReference<>(rs), resolve(ResultSetColumns.of(rs)));
+            lastResolved.set(resolved);
+        }
+        return resolved.columns();
+    }
+
+    private record Resolved<C>(WeakReference<ResultSet> resultSet, C columns) {
+    }
+}
@@ -102,6 +102,19 @@ public class JdbcMapperUtils {
                 .build();
     }
 
+    /**
+     * Normalizes a column prefix so it can be prepended to a column name.
+     *
+     * @param prefix the prefix, with or without a trailing underscore; null or empty for none
+     * @return the prefix ending with an underscore, or an empty string
+     */
+    public static String normalizePrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return "";
+        }
+        return prefix.endsWith("_") ? prefix : prefix + "_";
+    }
+
     /**
      * Get all available column labels from ResultSet.
      *
@@ -220,4 +233,56 @@ public class JdbcMapperUtils {
         int value = rs.getInt(columnName);
         return rs.wasNull() ? null : value;
     }
+
+    /**
+     * Safely get {@link OffsetDateTime} from {@link ResultSet} by column index.
+     *
+     * @param rs          the result set
+     * @param columnIndex the 1-based column index
+     * @return the {@link OffsetDateTime}
+     * @throws SQLException if the column cannot be converted to OffsetDateTime
+     */
+    public static OffsetDateTime getOffsetDateTime(ResultSet rs, int columnIndex) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(columnIndex);
+        return timestamp != null ? timestamp.toInstant().atOffset(ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * Safely get {@link LocalDate} from {@link ResultSet} by column index.
+     *
+     * @param rs          the result set
+     * @param columnIndex the 1-based column index
+     * @return the {@link LocalDate}
+     * @throws SQLException if the column cannot be converted to LocalDate
+     */
+    public static LocalDate getLocalDate(ResultSet rs, int columnIndex) throws SQLException {
+        Date localDate = rs.getDate(columnIndex);
+        return localDate != null ? localDate.toLocalDate() : null;
+    }
+
+    /**
+     * Safely get {@link BigDecimal} from {@link ResultSet} by column index.
+     *
+     * @param rs          the result set
+     * @param columnIndex the 1-based column index
+     * @return the {@link BigDecimal} value, zero when null
+     * @throws SQLException if the column cannot be converted to BigDecimal
+     */
+    public static BigDecimal getBigDecimal(ResultSet rs, int columnIndex) throws SQLException {
+        BigDecimal value = rs.getBigDecimal(columnIndex);
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Safely get {@link Long} from {@link ResultSet} by column index.
+     *
+     * @param rs          the result set
+     * @param columnIndex the 1-based column index
+     * @return the {@link Long} value
+     * @throws SQLException if the column cannot be converted to long
+     */
+    public static Long getLongOrNull(ResultSet rs, int columnIndex) throws SQLException {
+        long value = rs.getLong(columnIndex);
+        return rs.wasNull() ? null : value;
+    }
 }
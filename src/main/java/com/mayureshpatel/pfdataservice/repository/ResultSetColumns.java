@@ -0,0 +1,65 @@
+package com.mayureshpatel.pfdataservice.repository;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column labels of a {@link ResultSet}, read from its metadata once so mappers can resolve the indexes
+ * they need up front and read every row by index.
+ * <p>
+ * Labels are matched case-insensitively and, like {@link ResultSet#findColumn}, a duplicated label
+ * resolves to its first occurrence.
+ */
+public final class ResultSetColumns {
+
+    /**
+     * Index returned for labels the result set does not contain. JDBC indexes start at 1.
+     */
+    public static final int ABSENT = 0;
+
+    private final Map<String, Integer> indexes;
+
+    private ResultSetColumns(Map<String, Integer> indexes) {
+        this.indexes = indexes;
+    }
+
+    public static ResultSetColumns of(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+
+        Map<String, Integer> indexes = new HashMap<>(columnCount * 2);
+        for (int i = 1; i <= columnCount; i++) {
+            indexes.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ResultSetColumns(indexes);
+    }
+
+    /**
+     * Finds the index of a column.
+     *
+     * @param label the column label
+     * @return the 1-based index, or {@link #ABSENT} if the result set has no such column
+     */
+    public int indexOf(String label) {
+        return indexes.getOrDefault(label.toLowerCase(Locale.ROOT), ABSENT);
+    }
+
+    /**
+     * Finds the index of a column the mapper cannot do without.
+     *
+     * @param label the column label
+     * @return the 1-based index
+     * @throws SQLException if the result set has no such column
+     */
+    public int require(String label) throws SQLException {
+        int index = indexOf(label);
+        if (index == ABSENT) {
+            throw new SQLException("The column name " + label + " was not found in this ResultSet.");
+        }
+        return index;
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository("jdbcAccountRepository")
@@ -40,6 +41,17 @@ public class AccountRepository implements JdbcRepository<Account, Long>, SoftDel
                 .optional();
     }
 
+    /**
+     * Takes the account's import lock until the surrounding transaction ends. Other writes to the account are
+     * not blocked.
+     */
+    public void lockImports(Long id) {
+        jdbcClient.sql(AccountQueries.LOCK_IMPORTS)
+                .param("id", id)
+                .query(rs -> {
+                });
+    }
+
     public List<Account> findAllByUserId(Long userId) {
         return jdbcClient.sql(AccountQueries.FIND_ALL_BY_USER_ID)
                 .param("userId", userId)
@@ -111,17 +123,52 @@ public class AccountRepository implements JdbcRepository<Account, Long>, SoftDel
         return updated;
     }
 
-    public int updateBalance(Long userId, Long accountId, BigDecimal currentBalance, Long version) {
-        int updated = jdbcClient.sql(AccountQueries.UPDATE_BALANCE)
-                .param("accountId", accountId)
+    /**
+     * Appends a balance change to the account's ledger. Concurrent writers never touch the account row, so
+     * they do not conflict with each other or with the account version.
+     *
+     * @return the number of deltas recorded; 0 when the delta is zero or the account is not the user's
+     */
+    public int addBalanceDelta(Long userId, Long accountId, BigDecimal delta) {
+        return addBalanceDeltas(userId, Map.of(accountId, delta));
+    }
+
+    /**
+     * Appends one balance change per account in a single statement. Accounts that are deleted or belong to
+     * another user are skipped.
+     *
+     * @param userId          the owner of the accounts
+     * @param deltasByAccount the change to each account's balance
+     * @return the number of deltas recorded
+     */
+    public int addBalanceDeltas(Long userId, Map<Long, BigDecimal> deltasByAccount) {
+        if (deltasByAccount.isEmpty()) {
+            return 0;
+        }
+
+        Long[] accountIds = new Long[deltasByAccount.size()];
+        BigDecimal[] deltas = new BigDecimal[deltasByAccount.size()];
+        int i = 0;
+        for (Map.Entry<Long, BigDecimal> entry : deltasByAccount.entrySet()) {
+            accountIds[i] = entry.getKey();
+            deltas[i++] = entry.getValue();
+        }
+
+        return jdbcClient.sql(AccountQueries.INSERT_BALANCE_DELTAS)
                 .param("userId", userId)
-                .param("currentBalance", currentBalance)
-                .param("version", version)
+                .param("accountIds", accountIds)
+                .param("deltas", deltas)
+                .update();
+    }
+
+    /**
+     * Folds up to {@code limit} of the oldest ledger deltas into {@code current_balance}.
+     *
+     * @return the number of accounts whose stored balance changed
+     */
+    public int compactBalanceDeltas(int limit) {
+        return jdbcClient.sql(AccountQueries.COMPACT_BALANCE_DELTAS)
+                .param("limit", limit)
                 .update();
-                
-        if (updated == 0) {
-            throw new OptimisticLockingFailureException("Account balance update failed due to concurrent modification");
-        }
-        return updated;
     }
 }
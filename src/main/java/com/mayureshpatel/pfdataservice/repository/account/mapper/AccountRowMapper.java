@@ -1,75 +1,97 @@
 package com.mayureshpatel.pfdataservice.repository.account.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.account.Account;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import com.mayureshpatel.pfdataservice.repository.currency.mapper.CurrencyRowMapper;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class AccountRowMapper extends JdbcMapperUtils implements RowMapper<Account> {
+public class AccountRowMapper extends IndexedRowMapper<Account, AccountRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public Account mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected Account map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
-     * Maps a ResultSet row to an Account object with prefix support.
+     * Maps a ResultSet row to an Account object using resolved column indexes.
      *
-     * @param rs     the ResultSet containing the row data
-     * @param prefix the prefix to use for column names
-     * @return the mapped Account object
+     * @param rs      the ResultSet containing the row data
+     * @param columns the resolved account columns
+     * @return the mapped Account object, or null if the row has no account
      * @throws SQLException if an error occurs while accessing the ResultSet
      */
-    public static Account mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
+    public static Account mapRow(ResultSet rs, Columns columns) throws SQLException {
+        if (columns.id() == ABSENT) {
+            return null;
         }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
-        Account.AccountBuilder builder = Account.builder();
-        if (hasColumn(safePrefix + "id", availableColumns)) {
-            Long id = getLongOrNull(rs, safePrefix + "id");
-            if (id == null) {
-                return null;
-            }
-            builder.id(id);
-        } else {
+        Long id = getLongOrNull(rs, columns.id());
+        if (id == null) {
             return null;
         }
 
-        if (hasColumn(safePrefix + "user_id", availableColumns)) {
-            builder.userId(getLongOrNull(rs, safePrefix + "user_id"));
+        Account.AccountBuilder builder = Account.builder();
+        builder.id(id);
+
+        if (columns.userId() != ABSENT) {
+            builder.userId(getLongOrNull(rs, columns.userId()));
         }
-        if (hasColumn(safePrefix + "name", availableColumns)) {
-            builder.name(rs.getString(safePrefix + "name"));
+        if (columns.name() != ABSENT) {
+            builder.name(rs.getString(columns.name()));
         }
-        if (hasColumn(safePrefix + "type", availableColumns)) {
-            builder.type(AccountTypeRowMapper.mapRow(rs, safePrefix + "account_type"));
+        if (columns.type() != ABSENT) {
+            builder.type(AccountTypeRowMapper.mapRow(rs, columns.accountType()));
         }
-        if (hasColumn(safePrefix + "current_balance", availableColumns)) {
-            builder.currentBalance(getBigDecimal(rs, safePrefix + "current_balance"));
+        if (columns.currentBalance() != ABSENT) {
+            builder.currentBalance(getBigDecimal(rs, columns.currentBalance()));
         }
-        if (hasColumn(safePrefix + "currency_code", availableColumns)) {
-            builder.currency(CurrencyRowMapper.mapRow(rs, safePrefix + "currency"));
+        if (columns.currencyCode() != ABSENT) {
+            builder.currency(CurrencyRowMapper.mapRow(rs, columns.currency()));
         }
-        if (hasColumn(safePrefix + "bank_name", availableColumns)) {
-            builder.bankCode(rs.getString(safePrefix + "bank_name"));
+        if (columns.bankName() != ABSENT) {
+            builder.bankCode(rs.getString(columns.bankName()));
         }
-        if (hasColumn(safePrefix + "version", availableColumns)) {
-            builder.version(rs.getLong(safePrefix + "version"));
+        if (columns.version() != ABSENT) {
+            builder.version(rs.getLong(columns.version()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Account column indexes resolved under one prefix, including the joined account type and currency.
+     */
+    public record Columns(int id, int userId, int name, int type, int currentBalance, int currencyCode,
+                          int bankName, int version, AuditColumns audit,
+                          AccountTypeRowMapper.Columns accountType, CurrencyRowMapper.Columns currency) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.indexOf(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "user_id"),
+                    columns.indexOf(safePrefix + "name"),
+                    columns.indexOf(safePrefix + "type"),
+                    columns.indexOf(safePrefix + "current_balance"),
+                    columns.indexOf(safePrefix + "currency_code"),
+                    columns.indexOf(safePrefix + "bank_name"),
+                    columns.indexOf(safePrefix + "version"),
+                    AuditColumns.resolve(columns, safePrefix),
+                    AccountTypeRowMapper.Columns.resolve(columns, safePrefix + "account_type"),
+                    CurrencyRowMapper.Columns.resolve(columns, safePrefix + "currency"));
+        }
+    }
 }
@@ -1,54 +1,68 @@
 package com.mayureshpatel.pfdataservice.repository.account.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.account.AccountSnapshot;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class AccountSnapshotRowMapper extends JdbcMapperUtils implements RowMapper<AccountSnapshot> {
+public class AccountSnapshotRowMapper extends IndexedRowMapper<AccountSnapshot, AccountSnapshotRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) throws SQLException {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public AccountSnapshot mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected AccountSnapshot map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
-     * Maps a ResultSet row to an AccountSnapshot object with prefix support.
+     * Maps a ResultSet row to an AccountSnapshot object using resolved column indexes.
      *
-     * @param rs    the ResultSet containing the row data
-     * @param prefix the prefix to use for column names
+     * @param rs      the ResultSet containing the row data
+     * @param columns the resolved account snapshot columns
      * @return the mapped AccountSnapshot object
      * @throws SQLException if an error occurs while accessing the ResultSet
      */
-    public static AccountSnapshot mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
-        }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
+    public static AccountSnapshot mapRow(ResultSet rs, Columns columns) throws SQLException {
         AccountSnapshot.AccountSnapshotBuilder builder = AccountSnapshot.builder();
-        builder.id(rs.getLong(safePrefix + "id"));
+        builder.id(rs.getLong(columns.id()));
 
-        if (hasColumn(safePrefix + "account_id", availableColumns)) {
-            builder.accountId(rs.getLong(safePrefix + "account_id"));
+        if (columns.accountId() != ABSENT) {
+            builder.accountId(rs.getLong(columns.accountId()));
         }
-        if (hasColumn(safePrefix + "snapshot_date", availableColumns)) {
-            builder.snapshotDate(getLocalDate(rs, safePrefix + "snapshot_date"));
+        if (columns.snapshotDate() != ABSENT) {
+            builder.snapshotDate(getLocalDate(rs, columns.snapshotDate()));
         }
-        if (hasColumn(safePrefix + "balance", availableColumns)) {
-            builder.balance(rs.getBigDecimal(safePrefix + "balance"));
+        if (columns.balance() != ABSENT) {
+            builder.balance(rs.getBigDecimal(columns.balance()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Account snapshot column indexes resolved under one prefix.
+     */
+    public record Columns(int id, int accountId, int snapshotDate, int balance, AuditColumns audit) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) throws SQLException {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.require(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "account_id"),
+                    columns.indexOf(safePrefix + "snapshot_date"),
+                    columns.indexOf(safePrefix + "balance"),
+                    AuditColumns.resolve(columns, safePrefix));
+        }
+    }
 }
@@ -1,71 +1,89 @@
 package com.mayureshpatel.pfdataservice.repository.account.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.account.AccountType;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class AccountTypeRowMapper extends JdbcMapperUtils implements RowMapper<AccountType> {
+public class AccountTypeRowMapper extends IndexedRowMapper<AccountType, AccountTypeRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public AccountType mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected AccountType map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
-     * Maps a ResultSet row to an AccountType object with prefix support.
+     * Maps a ResultSet row to an AccountType object using resolved column indexes.
      *
-     * @param rs    the ResultSet containing the row data
-     * @param prefix the prefix to use for column names
-     * @return the mapped AccountType object
+     * @param rs      the ResultSet containing the row data
+     * @param columns the resolved account type columns
+     * @return the mapped AccountType object, or null if the row has no account type
      * @throws SQLException if an error occurs while accessing the ResultSet
      */
-    public static AccountType mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
+    public static AccountType mapRow(ResultSet rs, Columns columns) throws SQLException {
+        if (columns.code() == ABSENT) {
+            return null;
         }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
-        AccountType.AccountTypeBuilder builder = AccountType.builder();
-        if (hasColumn(safePrefix + "code", availableColumns)) {
-            String code = rs.getString(safePrefix + "code");
-            if (code == null) {
-                return null;
-            }
-            builder.code(code);
-        } else {
+        String code = rs.getString(columns.code());
+        if (code == null) {
             return null;
         }
 
-        if (hasColumn(safePrefix + "label", availableColumns)) {
-            builder.label(rs.getString(safePrefix + "label"));
+        AccountType.AccountTypeBuilder builder = AccountType.builder();
+        builder.code(code);
+
+        if (columns.label() != ABSENT) {
+            builder.label(rs.getString(columns.label()));
         }
-        if (hasColumn(safePrefix + "color", availableColumns)) {
-            builder.color(rs.getString(safePrefix + "color"));
+        if (columns.color() != ABSENT) {
+            builder.color(rs.getString(columns.color()));
         }
-        if (hasColumn(safePrefix + "icon", availableColumns)) {
-            builder.icon(rs.getString(safePrefix + "icon"));
+        if (columns.icon() != ABSENT) {
+            builder.icon(rs.getString(columns.icon()));
         }
-        if (hasColumn(safePrefix + "is_asset", availableColumns)) {
-            builder.asset(rs.getBoolean(safePrefix + "is_asset"));
+        if (columns.asset() != ABSENT) {
+            builder.asset(rs.getBoolean(columns.asset()));
         }
-        if (hasColumn(safePrefix + "sort_order", availableColumns)) {
-            builder.sortOrder(rs.getInt(safePrefix + "sort_order"));
+        if (columns.sortOrder() != ABSENT) {
+            builder.sortOrder(rs.getInt(columns.sortOrder()));
         }
-        if (hasColumn(safePrefix + "is_active", availableColumns)) {
-            builder.active(rs.getBoolean(safePrefix + "is_active"));
+        if (columns.active() != ABSENT) {
+            builder.active(rs.getBoolean(columns.active()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Account type column indexes resolved under one prefix.
+     */
+    public record Columns(int code, int label, int color, int icon, int asset, int sortOrder, int active,
+                          AuditColumns audit) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.indexOf(safePrefix + "code"),
+                    columns.indexOf(safePrefix + "label"),
+                    columns.indexOf(safePrefix + "color"),
+                    columns.indexOf(safePrefix + "icon"),
+                    columns.indexOf(safePrefix + "is_asset"),
+                    columns.indexOf(safePrefix + "sort_order"),
+                    columns.indexOf(safePrefix + "is_active"),
+                    AuditColumns.resolve(columns, safePrefix));
+        }
+    }
 }
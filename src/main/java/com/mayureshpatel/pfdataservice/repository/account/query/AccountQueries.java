@@ -6,10 +6,27 @@ import lombok.NoArgsConstructor;
 public final class AccountQueries {
 
     /**
-     * Common SELECT columns for accounts with enriched metadata (type, currency).
+     * Common SELECT columns for accounts with enriched metadata (type, currency). The balance includes the
+     * deltas not yet compacted into {@code current_balance}.
      */
     private static final String ENRICHED_SELECT = """
-            select accounts.*,
+            select accounts.id,
+                   accounts.user_id,
+                   accounts.name,
+                   accounts.type,
+                   accounts.current_balance + coalesce((select sum(account_balance_deltas.delta)
+                                                        from account_balance_deltas
+                                                        where account_balance_deltas.account_id = accounts.id), 0)
+                       as current_balance,
+                   accounts.currency_code,
+                   accounts.bank_name,
+                   accounts.version,
+                   accounts.created_at,
+                   accounts.created_by,
+                   accounts.updated_at,
+                   accounts.updated_by,
+                   accounts.deleted_at,
+                   accounts.deleted_by,
                    account_types.code as account_type_code,
                    account_types.label as account_type_label,
                    account_types.color as account_type_color,
@@ -54,6 +71,17 @@ public final class AccountQueries {
                 and accounts.deleted_at is null
             """;
 
+    /**
+     * Serializes imports into one account, so that the signature check and the insert are not raced. An
+     * advisory lock rather than a row lock: {@code for update} on the account would also block every insert
+     * into {@code transactions} and {@code account_balance_deltas}, whose foreign keys take a key share lock
+     * on the account row.
+     */
+    // language=SQL
+    public static final String LOCK_IMPORTS = """
+            select pg_advisory_xact_lock(:id)
+            """;
+
     // language=SQL
     public static final String FIND_BY_ACCOUNT_ID_AND_USER_ID = ENRICHED_SELECT + """
             where accounts.id = :accountId
@@ -127,20 +155,50 @@ public final class AccountQueries {
             """;
 
     // language=SQL
-    public static final String UPDATE_BALANCE = """
+    public static final String INSERT_BALANCE_DELTAS = """
+            insert into account_balance_deltas (account_id, delta)
+            select deltas.account_id, deltas.delta
+            from unnest(cast(:accountIds as bigint[]), cast(:deltas as numeric[])) as deltas(account_id, delta)
+                join accounts on accounts.id = deltas.account_id
+            where accounts.user_id = :userId
+              and accounts.deleted_at is null
+              and deltas.delta <> 0
+            """;
+
+    /**
+     * Folds up to {@code :limit} of the oldest deltas into their accounts. Deltas locked by another compaction
+     * are skipped; version and audit columns are left alone because the visible balance does not change.
+     */
+    // language=SQL
+    public static final String COMPACT_BALANCE_DELTAS = """
+            with compacted as (
+                delete from account_balance_deltas
+                where id in (select id
+                             from account_balance_deltas
+                             order by id
+                             limit :limit
+                             for update skip locked)
+                returning account_id, delta
+            )
             update accounts
-            set current_balance = :currentBalance,
-                version = version + 1,
-                updated_at = CURRENT_TIMESTAMP,
-                updated_by = :userId
-            where id = :accountId
-              and user_id = :userId
-              and version = :version
-              and deleted_at is null
+            set current_balance = accounts.current_balance + totals.delta
+            from (select account_id, sum(delta) as delta
+                  from compacted
+                  group by account_id) as totals
+            where accounts.id = totals.account_id
             """;
 
     // language=SQL
     public static final String RECONCILE = """
+            with cleared as (
+                delete from account_balance_deltas
+                where account_id = (select id
+                                    from accounts
+                                    where id = :accountId
+                                      and user_id = :userId
+                                      and version = :version
+                                      and deleted_at is null)
+            )
             update accounts
             set current_balance = :targetBalance,
                 version = version + 1,
@@ -1,69 +1,87 @@
 package com.mayureshpatel.pfdataservice.repository.budget.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.budget.Budget;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import com.mayureshpatel.pfdataservice.repository.category.mapper.CategoryRowMapper;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class BudgetRowMapper extends JdbcMapperUtils implements RowMapper<Budget> {
+public class BudgetRowMapper extends IndexedRowMapper<Budget, BudgetRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public Budget mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected Budget map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
-     * Maps a ResultSet row to a Budget object using the specified prefix.
+     * Maps a ResultSet row to a Budget object using resolved column indexes.
      *
      * @param rs      the ResultSet containing the row data
-     * @param prefix  the prefix to use for column names
-     * @return        the mapped Budget object
+     * @param columns the resolved budget columns
+     * @return        the mapped Budget object, or null if the row has no budget
      * @throws SQLException if an error occurs while accessing the ResultSet
      */
-    public static Budget mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
+    public static Budget mapRow(ResultSet rs, Columns columns) throws SQLException {
+        if (columns.id() == ABSENT) {
+            return null;
         }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
-        Budget.BudgetBuilder builder = Budget.builder();
-        if (hasColumn(safePrefix + "id", availableColumns)) {
-            Long id = getLongOrNull(rs, safePrefix + "id");
-            if (id == null) {
-                return null;
-            }
-            builder.id(id);
-        } else {
+        Long id = getLongOrNull(rs, columns.id());
+        if (id == null) {
             return null;
         }
 
-        if (hasColumn(safePrefix + "user_id", availableColumns)) {
-            builder.userId(getLongOrNull(rs, safePrefix + "user_id"));
+        Budget.BudgetBuilder builder = Budget.builder();
+        builder.id(id);
+
+        if (columns.userId() != ABSENT) {
+            builder.userId(getLongOrNull(rs, columns.userId()));
         }
-        if (hasColumn(safePrefix + "category_id", availableColumns)) {
-            builder.category(CategoryRowMapper.mapRow(rs, safePrefix + "category"));
+        if (columns.categoryId() != ABSENT) {
+            builder.category(CategoryRowMapper.mapRow(rs, columns.category()));
         }
-        if (hasColumn(safePrefix + "amount", availableColumns)) {
-            builder.amount(rs.getBigDecimal(safePrefix + "amount"));
+        if (columns.amount() != ABSENT) {
+            builder.amount(rs.getBigDecimal(columns.amount()));
         }
-        if (hasColumn(safePrefix + "month", availableColumns)) {
-            builder.month(rs.getInt(safePrefix + "month"));
+        if (columns.month() != ABSENT) {
+            builder.month(rs.getInt(columns.month()));
         }
-        if (hasColumn(safePrefix + "year", availableColumns)) {
-            builder.year(rs.getInt(safePrefix + "year"));
+        if (columns.year() != ABSENT) {
+            builder.year(rs.getInt(columns.year()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Budget column indexes resolved under one prefix, including the joined category.
+     */
+    public record Columns(int id, int userId, int categoryId, int amount, int month, int year, AuditColumns audit,
+                          CategoryRowMapper.Columns category) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.indexOf(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "user_id"),
+                    columns.indexOf(safePrefix + "category_id"),
+                    columns.indexOf(safePrefix + "amount"),
+                    columns.indexOf(safePrefix + "month"),
+                    columns.indexOf(safePrefix + "year"),
+                    AuditColumns.resolve(columns, safePrefix),
+                    CategoryRowMapper.Columns.resolve(columns, safePrefix + "category"));
+        }
+    }
 }
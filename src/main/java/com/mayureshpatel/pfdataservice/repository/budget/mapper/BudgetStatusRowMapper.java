@@ -2,27 +2,40 @@ package com.mayureshpatel.pfdataservice.repository.budget.mapper;
 
 import com.mayureshpatel.pfdataservice.dto.budget.BudgetStatusDto;
 import com.mayureshpatel.pfdataservice.mapper.CategoryDtoMapper;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import com.mayureshpatel.pfdataservice.repository.category.mapper.CategoryRowMapper;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 @Component
-public class BudgetStatusRowMapper extends JdbcMapperUtils implements RowMapper<BudgetStatusDto> {
+public class BudgetStatusRowMapper extends IndexedRowMapper<BudgetStatusDto, BudgetStatusRowMapper.Columns> {
 
     @Override
-    public BudgetStatusDto mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return new BudgetStatusDto(
+    protected Columns resolve(ResultSetColumns columns) throws SQLException {
+        return new Columns(
                 // todo: make sure the query returns parent cateogry as 'category_parent_<column>'
-                CategoryDtoMapper.toDto(CategoryRowMapper.mapRow(rs, "category")),
-                rs.getBigDecimal("budgeted_amount"),
-                rs.getBigDecimal("spending_amount"),
-                rs.getBigDecimal("remaining_amount"),
-                rs.getDouble("percentage_spent")
+                CategoryRowMapper.Columns.resolve(columns, "category"),
+                columns.require("budgeted_amount"),
+                columns.require("spending_amount"),
+                columns.require("remaining_amount"),
+                columns.require("percentage_spent"));
+    }
+
+    @Override
+    protected BudgetStatusDto map(ResultSet rs, Columns columns) throws SQLException {
+        return new BudgetStatusDto(
+                CategoryDtoMapper.toDto(CategoryRowMapper.mapRow(rs, columns.category())),
+                rs.getBigDecimal(columns.budgetedAmount()),
+                rs.getBigDecimal(columns.spendingAmount()),
+                rs.getBigDecimal(columns.remainingAmount()),
+                rs.getDouble(columns.percentageSpent())
         );
     }
+
+    record Columns(CategoryRowMapper.Columns category, int budgetedAmount, int spendingAmount,
+                   int remainingAmount, int percentageSpent) {
+    }
 }
@@ -1,5 +1,6 @@
 package com.mayureshpatel.pfdataservice.repository.budget.query;
 
+import com.mayureshpatel.pfdataservice.repository.transaction.query.TransactionRollupQueries;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
@@ -107,21 +108,26 @@ public class BudgetQueries {
               and budgets.deleted_at is null
             """;
 
+    /**
+     * Budgeted and spent amounts per category for one calendar month in the session time zone.
+     */
     // language=SQL
     public static final String FIND_BUDGET_STATUS_BY_USER_ID_AND_MONTH_AND_YEAR = """
-            WITH spending AS (
+            WITH range_bounds AS (
+                SELECT 0                                                                 AS range_key,
+                       MAKE_TIMESTAMPTZ(:year, :month, 1, 0, 0, 0)                       AS range_start,
+                       MAKE_TIMESTAMPTZ(:year, :month, 1, 0, 0, 0) + INTERVAL '1 month'  AS range_end
+            ),
+            """ + TransactionRollupQueries.RANGED_ROWS + """
+            , spending AS (
                 SELECT
-                    t.category_id,
-                    SUM(t.amount) AS total_spent
-                FROM transactions t
-                         JOIN accounts a ON t.account_id = a.id
-                WHERE a.user_id     = :userId
-                  AND a.deleted_at  IS NULL
-                  AND t.deleted_at  IS NULL
-                  AND t.type        = 'EXPENSE'
-                  AND EXTRACT(YEAR  FROM t.date) = :year
-                  AND EXTRACT(MONTH FROM t.date) = :month
-                GROUP BY t.category_id
+                    r.category_id,
+                    SUM(r.total) AS total_spent
+                FROM ranged_rows r
+                         JOIN accounts a ON r.account_id = a.id
+                WHERE a.deleted_at  IS NULL
+                  AND r.type        = 'EXPENSE'
+                GROUP BY r.category_id
             )
             
             -- 1. Budgeted categories (spending may or may not exist)
@@ -1,6 +1,7 @@
 package com.mayureshpatel.pfdataservice.repository.category;
 
 import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
+import com.mayureshpatel.pfdataservice.dto.RuleApplyPreviewDto;
 import com.mayureshpatel.pfdataservice.repository.JdbcRepository;
 import com.mayureshpatel.pfdataservice.repository.category.mapper.CategoryRuleRowMapper;
 import com.mayureshpatel.pfdataservice.repository.category.query.CategoryRuleQueries;
@@ -8,8 +9,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Repository
 @RequiredArgsConstructor
@@ -33,6 +40,60 @@ public class CategoryRuleRepository implements JdbcRepository<CategoryRule, Long
                 .list();
     }
 
+    /**
+     * Returns the rule outcome for the next uncategorized transactions in id order.
+     *
+     * @param userId  the user whose rules and transactions are used
+     * @param afterId only transactions with a greater id are considered; 0 starts from the beginning
+     * @param limit   the maximum number of matches to return
+     * @return the matches, ordered by transaction id
+     */
+    public List<RuleMatch> findUncategorizedMatches(Long userId, long afterId, int limit) {
+        return this.jdbcClient.sql(CategoryRuleQueries.FIND_UNCATEGORIZED_MATCHES)
+                .param("userId", userId)
+                .param("afterId", afterId)
+                .param("limit", limit)
+                .query((rs, rowNum) -> new RuleMatch(
+                        rs.getLong("transaction_id"),
+                        rs.getString("description"),
+                        rs.getLong("category_id"),
+                        rs.getString("category_name")))
+                .list();
+    }
+
+    public List<RuleApplyPreviewDto.CategoryCount> countUncategorizedMatchesByCategory(Long userId) {
+        return this.jdbcClient.sql(CategoryRuleQueries.COUNT_UNCATEGORIZED_MATCHES_BY_CATEGORY)
+                .param("userId", userId)
+                .param("afterId", 0L)
+                .query((rs, rowNum) -> new RuleApplyPreviewDto.CategoryCount(
+                        rs.getLong("category_id"),
+                        rs.getString("category_name"),
+                        rs.getLong("transaction_count")))
+                .list();
+    }
+
+    /**
+     * Assigns every uncategorized, non-deleted transaction of the user to the category of its
+     * highest priority matching rule, in a single statement.
+     *
+     * @param userId the user whose rules and transactions are used
+     * @return the number of transactions categorized per rule and the UTC days they fall on
+     */
+    public AppliedRules applyToUncategorized(Long userId) {
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        Set<LocalDate> days = new TreeSet<>();
+        this.jdbcClient.sql(CategoryRuleQueries.APPLY_TO_UNCATEGORIZED)
+                .param("userId", userId)
+                .param("afterId", 0L)
+                .query(rs -> {
+                    counts.put(rs.getLong("rule_id"), rs.getInt("transaction_count"));
+                    for (Object day : (Object[]) rs.getArray("days").getArray()) {
+                        days.add(((Date) day).toLocalDate());
+                    }
+                });
+        return new AppliedRules(counts, days);
+    }
+
     public int insert(CategoryRule categoryRule) {
         return this.jdbcClient.sql(CategoryRuleQueries.INSERT)
                 .param("id", categoryRule.getId())
@@ -55,4 +116,10 @@ public class CategoryRuleRepository implements JdbcRepository<CategoryRule, Long
     public int deleteById(Long id) {
         throw new UnsupportedOperationException("Use deleteById with userId");
     }
+
+    public record AppliedRules(Map<Long, Integer> countsByRule, Set<LocalDate> days) {
+    }
+
+    public record RuleMatch(long transactionId, String description, Long categoryId, String categoryName) {
+    }
 }
@@ -1,115 +1,138 @@
 package com.mayureshpatel.pfdataservice.repository.category.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.category.Category;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class CategoryRowMapper extends JdbcMapperUtils implements RowMapper<Category> {
+public class CategoryRowMapper extends IndexedRowMapper<Category, CategoryRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public Category mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected Category map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
      * Maps the parent category from the result set.
      *
      * @param parentId The ID of the parent category.
-     * @param rs The result set containing parent category data.
-     * @param prefix The column prefix for parent category data.
-     * @param availableColumns The set of available columns in the result set.
-     * @return The mapped parent category or null if parentId is 0.
+     * @param rs       The result set containing parent category data.
+     * @param columns  The resolved parent category columns.
+     * @return The mapped parent category.
      * @throws SQLException If an error occurs while accessing the result set.
      */
-    private static Category mapParent(long parentId, ResultSet rs, String prefix, Set<String> availableColumns) throws SQLException {
-        if (parentId == 0) {
-            return null;
-        }
-
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
-        }
+    private static Category mapParent(long parentId, ResultSet rs, ParentColumns columns) throws SQLException {
         Category.CategoryBuilder parentBuilder = Category.builder();
         parentBuilder.id(parentId);
 
-        if (hasColumn(safePrefix + "name", availableColumns)) {
-            parentBuilder.name(rs.getString(safePrefix + "name"));
+        if (columns.name() != ABSENT) {
+            parentBuilder.name(rs.getString(columns.name()));
         }
-        if (hasColumn(safePrefix + "type", availableColumns)) {
-            parentBuilder.type(rs.getString(safePrefix + "type"));
+        if (columns.type() != ABSENT) {
+            parentBuilder.type(rs.getString(columns.type()));
         }
-        if (hasColumn(safePrefix + "color", availableColumns)) {
-            parentBuilder.color(rs.getString(safePrefix + "color"));
+        if (columns.color() != ABSENT) {
+            parentBuilder.color(rs.getString(columns.color()));
         }
-        if (hasColumn(safePrefix + "icon", availableColumns)) {
-            parentBuilder.icon(rs.getString(safePrefix + "icon"));
+        if (columns.icon() != ABSENT) {
+            parentBuilder.icon(rs.getString(columns.icon()));
         }
         return parentBuilder.build();
     }
 
     /**
-     * Maps a ResultSet row to a Category object with prefix support.
+     * Maps a ResultSet row to a Category object using resolved column indexes.
      *
-     * @param rs     the ResultSet containing the row data
-     * @param prefix the prefix to use for column names
-     * @return the mapped Category object
+     * @param rs      the ResultSet containing the row data
+     * @param columns the resolved category columns
+     * @return the mapped Category object, or null if the row has no category
      * @throws SQLException if an error occurs while accessing the ResultSet
      */
-    public static Category mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
+    public static Category mapRow(ResultSet rs, Columns columns) throws SQLException {
+        if (columns.id() == ABSENT) {
+            return null;
         }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
-        Category.CategoryBuilder builder = Category.builder();
-        if (hasColumn(safePrefix + "id", availableColumns)) {
-            Long id = getLongOrNull(rs, safePrefix + "id");
-            if (id == null) {
-                return null;
-            }
-            builder.id(id);
-        } else {
+        Long id = getLongOrNull(rs, columns.id());
+        if (id == null) {
             return null;
         }
 
-        if (hasColumn(safePrefix + "user_id", availableColumns)) {
-            builder.userId(getLongOrNull(rs, safePrefix + "user_id"));
+        Category.CategoryBuilder builder = Category.builder();
+        builder.id(id);
+
+        if (columns.userId() != ABSENT) {
+            builder.userId(getLongOrNull(rs, columns.userId()));
         }
-        if (hasColumn(safePrefix + "name", availableColumns)) {
-            builder.name(rs.getString(safePrefix + "name"));
+        if (columns.name() != ABSENT) {
+            builder.name(rs.getString(columns.name()));
         }
-        if (hasColumn( safePrefix + "parent_id", availableColumns)) {
-            long parentId = rs.getLong(safePrefix + "parent_id");
+        if (columns.parentId() != ABSENT) {
+            long parentId = rs.getLong(columns.parentId());
             builder.parentId(parentId);
 
             if (parentId != 0) {
-                builder.parent(mapParent(parentId, rs, safePrefix + "category_parent", availableColumns));
+                builder.parent(mapParent(parentId, rs, columns.parent()));
             }
         }
-        if (hasColumn(safePrefix + "color", availableColumns)) {
-            builder.color(rs.getString(safePrefix + "color"));
+        if (columns.color() != ABSENT) {
+            builder.color(rs.getString(columns.color()));
         }
-        if (hasColumn(safePrefix + "icon", availableColumns)) {
-            builder.icon(rs.getString(safePrefix + "icon"));
+        if (columns.icon() != ABSENT) {
+            builder.icon(rs.getString(columns.icon()));
         }
-        if (hasColumn(safePrefix + "type", availableColumns)) {
-            builder.type(rs.getString(safePrefix + "type"));
+        if (columns.type() != ABSENT) {
+            builder.type(rs.getString(columns.type()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Category column indexes resolved under one prefix, including the joined parent category.
+     */
+    public record Columns(int id, int userId, int name, int parentId, int color, int icon, int type,
+                          AuditColumns audit, ParentColumns parent) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.indexOf(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "user_id"),
+                    columns.indexOf(safePrefix + "name"),
+                    columns.indexOf(safePrefix + "parent_id"),
+                    columns.indexOf(safePrefix + "color"),
+                    columns.indexOf(safePrefix + "icon"),
+                    columns.indexOf(safePrefix + "type"),
+                    AuditColumns.resolve(columns, safePrefix),
+                    ParentColumns.resolve(columns, safePrefix + "category_parent"));
+        }
+    }
+
+    /**
+     * Parent category column indexes; the parent's id comes from the child's {@code parent_id}.
+     */
+    public record ParentColumns(int name, int type, int color, int icon) {
+
+        static ParentColumns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new ParentColumns(
+                    columns.indexOf(safePrefix + "name"),
+                    columns.indexOf(safePrefix + "type"),
+                    columns.indexOf(safePrefix + "color"),
+                    columns.indexOf(safePrefix + "icon"));
+        }
+    }
 }
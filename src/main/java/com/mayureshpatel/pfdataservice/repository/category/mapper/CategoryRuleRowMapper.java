@@ -1,58 +1,76 @@
 package com.mayureshpatel.pfdataservice.repository.category.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import com.mayureshpatel.pfdataservice.repository.user.mapper.UserRowMapper;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class CategoryRuleRowMapper extends JdbcMapperUtils implements RowMapper<CategoryRule> {
+public class CategoryRuleRowMapper extends IndexedRowMapper<CategoryRule, CategoryRuleRowMapper.Columns> {
 
     @Override
-    public CategoryRule mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected Columns resolve(ResultSetColumns columns) {
+        return Columns.resolve(columns, "");
     }
 
-    public static CategoryRule mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
-        }
-        Set<String> availableColumns = getAvailableColumns(rs);
+    @Override
+    protected CategoryRule map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
+    }
 
-        CategoryRule.CategoryRuleBuilder builder = CategoryRule.builder();
-        if (hasColumn(safePrefix + "id", availableColumns)) {
-            Long id = getLongOrNull(rs, safePrefix + "id");
-            if (id == null) {
-                return null;
-            }
-            builder.id(id);
-        } else {
+    public static CategoryRule mapRow(ResultSet rs, Columns columns) throws SQLException {
+        if (columns.id() == ABSENT) {
+            return null;
+        }
+        Long id = getLongOrNull(rs, columns.id());
+        if (id == null) {
             return null;
         }
 
-        if (availableColumns.contains(safePrefix + "keyword")) {
-            builder.keyword(rs.getString(safePrefix + "keyword"));
+        CategoryRule.CategoryRuleBuilder builder = CategoryRule.builder();
+        builder.id(id);
+
+        if (columns.keyword() != ABSENT) {
+            builder.keyword(rs.getString(columns.keyword()));
         }
-        if (availableColumns.contains(safePrefix + "priority")) {
-            builder.priority(rs.getInt(safePrefix + "priority"));
+        if (columns.priority() != ABSENT) {
+            builder.priority(rs.getInt(columns.priority()));
         }
-        if (availableColumns.contains(safePrefix + "category_id")) {
-            builder.category(CategoryRowMapper.mapRow(rs, safePrefix + "category"));
+        if (columns.categoryId() != ABSENT) {
+            builder.category(CategoryRowMapper.mapRow(rs, columns.category()));
         }
-        if (availableColumns.contains(safePrefix + "user_id")) {
-            builder.user(UserRowMapper.mapRow(rs, safePrefix + "user"));
+        if (columns.userId() != ABSENT) {
+            builder.user(UserRowMapper.mapRow(rs, columns.user()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Category rule column indexes resolved under one prefix, including the joined category and user.
+     */
+    public record Columns(int id, int keyword, int priority, int categoryId, int userId, AuditColumns audit,
+                          CategoryRowMapper.Columns category, UserRowMapper.Columns user) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.indexOf(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "keyword"),
+                    columns.indexOf(safePrefix + "priority"),
+                    columns.indexOf(safePrefix + "category_id"),
+                    columns.indexOf(safePrefix + "user_id"),
+                    AuditColumns.resolve(columns, safePrefix),
+                    CategoryRowMapper.Columns.resolve(columns, safePrefix + "category"),
+                    UserRowMapper.Columns.resolve(columns, safePrefix + "user"));
+        }
+    }
 }
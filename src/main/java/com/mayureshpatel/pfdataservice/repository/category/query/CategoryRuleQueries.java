@@ -41,4 +41,71 @@ public final class CategoryRuleQueries {
     public static final String DELETE = """
             delete from category_rules where id = :id and user_id = :userId
             """;
+
+    /**
+     * Picks the highest priority matching rule for each uncategorized transaction after {@code :afterId}.
+     * Only rules whose category the user still has take part, so a rule left without a category never hides
+     * a lower priority rule that would apply. The rule is looked up per transaction, which lets a caller that
+     * orders by {@code t.id} and limits stop scanning at the first page instead of ranking every match.
+     * Shared by the preview and apply statements so both always agree on the outcome.
+     */
+    // language=SQL
+    private static final String MATCH_UNCATEGORIZED = """
+                select t.id as transaction_id,
+                       t.description,
+                       r.rule_id,
+                       r.category_id,
+                       r.category_name
+                from transactions t
+                    join accounts a on a.id = t.account_id
+                    cross join lateral (
+                        select cr.id as rule_id,
+                               c.id as category_id,
+                               c.name as category_name
+                        from category_rules cr
+                            join categories c on c.id = cr.category_id and c.user_id = :userId
+                        where cr.user_id = :userId
+                          and strpos(lower(t.description), lower(cr.keyword)) > 0
+                        order by cr.priority desc, length(cr.keyword) desc, cr.id
+                        limit 1
+                    ) r
+                where a.user_id = :userId
+                  and t.category_id is null
+                  and t.deleted_at is null
+                  and t.id > :afterId
+            """;
+
+    // language=SQL
+    public static final String FIND_UNCATEGORIZED_MATCHES = MATCH_UNCATEGORIZED + """
+                order by t.id
+                limit :limit
+            """;
+
+    // language=SQL
+    public static final String COUNT_UNCATEGORIZED_MATCHES_BY_CATEGORY = "with matched as (" + MATCH_UNCATEGORIZED + ")" + """
+                select category_id,
+                       category_name,
+                       count(*) as transaction_count
+                from matched
+                group by category_id, category_name
+                order by transaction_count desc, category_name
+            """;
+
+    // language=SQL
+    public static final String APPLY_TO_UNCATEGORIZED = "with matched as (" + MATCH_UNCATEGORIZED + ")," + """
+                applied as (
+                    update transactions t
+                    set category_id = m.category_id,
+                        updated_at = current_timestamp
+                    from matched m
+                    where t.id = m.transaction_id
+                      and t.category_id is null
+                    returning m.rule_id, t.date
+                )
+                select rule_id,
+                       count(*) as transaction_count,
+                       array_agg(distinct (date at time zone 'UTC')::date) as days
+                from applied
+                group by rule_id
+            """;
 }
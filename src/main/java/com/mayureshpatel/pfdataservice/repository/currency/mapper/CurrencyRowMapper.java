@@ -1,62 +1,76 @@
 package com.mayureshpatel.pfdataservice.repository.currency.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.currency.Currency;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class CurrencyRowMapper extends JdbcMapperUtils implements RowMapper<Currency> {
+public class CurrencyRowMapper extends IndexedRowMapper<Currency, CurrencyRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public Currency mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected Currency map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
-     * Maps currency row from ResultSet with specified prefix on column names.
+     * Maps currency row from ResultSet using resolved column indexes.
      *
-     * @param rs     the ResultSet to map from
-     * @param prefix the prefix to apply to column names
-     * @return the mapped Currency object
+     * @param rs      the ResultSet to map from
+     * @param columns the resolved currency columns
+     * @return the mapped Currency object, or null if the row has no currency
      * @throws SQLException if an error occurs while accessing ResultSet
      */
-    public static Currency mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
+    public static Currency mapRow(ResultSet rs, Columns columns) throws SQLException {
+        if (columns.code() == ABSENT) {
+            return null;
         }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
-        Currency.CurrencyBuilder builder = Currency.builder();
-        if (hasColumn(safePrefix + "code", availableColumns)) {
-            String code = rs.getString(safePrefix + "code");
-            if (code == null) {
-                return null;
-            }
-            builder.code(code);
-        } else {
+        String code = rs.getString(columns.code());
+        if (code == null) {
             return null;
         }
 
-        if (hasColumn(safePrefix + "name", availableColumns)) {
-            builder.name(rs.getString(safePrefix + "name"));
+        Currency.CurrencyBuilder builder = Currency.builder();
+        builder.code(code);
+
+        if (columns.name() != ABSENT) {
+            builder.name(rs.getString(columns.name()));
         }
-        if (hasColumn(safePrefix + "symbol", availableColumns)) {
-            builder.symbol(rs.getString(safePrefix + "symbol"));
+        if (columns.symbol() != ABSENT) {
+            builder.symbol(rs.getString(columns.symbol()));
         }
-        if (hasColumn(safePrefix + "is_active", availableColumns)) {
-            builder.active(rs.getBoolean(safePrefix + "is_active"));
+        if (columns.active() != ABSENT) {
+            builder.active(rs.getBoolean(columns.active()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Currency column indexes resolved under one prefix.
+     */
+    public record Columns(int code, int name, int symbol, int active, AuditColumns audit) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.indexOf(safePrefix + "code"),
+                    columns.indexOf(safePrefix + "name"),
+                    columns.indexOf(safePrefix + "symbol"),
+                    columns.indexOf(safePrefix + "is_active"),
+                    AuditColumns.resolve(columns, safePrefix));
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.mayureshpatel.pfdataservice.repository.file_import_history;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportJob;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.mapper.ImportJobRowMapper;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.query.ImportJobQueries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ImportJobRepository {
+
+    /**
+     * Length of the {@code error_message} column.
+     */
+    static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcClient jdbcClient;
+    private final ImportJobRowMapper rowMapper;
+
+    public Optional<ImportJob> findByIdAndUserId(Long id, Long userId) {
+        return jdbcClient.sql(ImportJobQueries.FIND_BY_ID_AND_USER_ID)
+                .param("id", id)
+                .param("userId", userId)
+                .query(rowMapper)
+                .optional();
+    }
+
+    /**
+     * Records a new job in the {@code QUEUED} state.
+     *
+     * @return the id of the new job
+     */
+    public Long insert(ImportJob job) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcClient.sql(ImportJobQueries.INSERT)
+                .param("userId", job.getUserId())
+                .param("accountId", job.getAccountId())
+                .param("type", job.getType().name())
+                .param("fileName", job.getFileName())
+                .param("totalRows", job.getTotalRows())
+                .update(keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    public int markRunning(Long id) {
+        return jdbcClient.sql(ImportJobQueries.MARK_RUNNING)
+                .param("id", id)
+                .update();
+    }
+
+    /**
+     * @param savedCount   transactions saved, or null for a preview
+     * @param stagingToken staged import holding a preview's rows, or null for a save
+     */
+    public int markSucceeded(Long id, int processedRows, Integer savedCount, UUID stagingToken) {
+        return jdbcClient.sql(ImportJobQueries.MARK_SUCCEEDED)
+                .param("id", id)
+                .param("processedRows", processedRows)
+                .param("savedCount", savedCount)
+                .param("stagingToken", stagingToken)
+                .update();
+    }
+
+    public int markFailed(Long id, int processedRows, String errorMessage) {
+        String message = errorMessage != null && errorMessage.length() > MAX_ERROR_LENGTH
+                ? errorMessage.substring(0, MAX_ERROR_LENGTH)
+                : errorMessage;
+        return jdbcClient.sql(ImportJobQueries.MARK_FAILED)
+                .param("id", id)
+                .param("processedRows", processedRows)
+                .param("errorMessage", message)
+                .update();
+    }
+
+    /**
+     * Fails every job still queued or running that was submitted before the given time.
+     *
+     * @return the number of jobs failed
+     */
+    public int failUnfinished(OffsetDateTime submittedBefore, String errorMessage) {
+        return jdbcClient.sql(ImportJobQueries.FAIL_UNFINISHED)
+                .param("submittedBefore", submittedBefore)
+                .param("errorMessage", errorMessage)
+                .update();
+    }
+}
@@ -0,0 +1,201 @@
+package com.mayureshpatel.pfdataservice.repository.file_import_history;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportStaging;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCreateRequest;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.mapper.ImportStagingRowMapper;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.query.ImportStagingQueries;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ImportStagingRepository {
+
+    private final JdbcClient jdbcClient;
+    private final ImportStagingRowMapper rowMapper;
+
+    /**
+     * @return the id of the new staging
+     */
+    public Long insert(ImportStaging staging) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcClient.sql(ImportStagingQueries.INSERT)
+                .param("token", staging.getToken())
+                .param("userId", staging.getUserId())
+                .param("accountId", staging.getAccountId())
+                .param("fileName", staging.getFileName())
+                .param("fileHash", staging.getFileHash())
+                .param("expiresAt", staging.getExpiresAt())
+                .update(keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    public Optional<ImportStaging> findActiveByToken(UUID token, Long userId) {
+        return jdbcClient.sql(ImportStagingQueries.FIND_ACTIVE_BY_TOKEN)
+                .param("token", token)
+                .param("userId", userId)
+                .query(rowMapper)
+                .optional();
+    }
+
+    /**
+     * Finds an unexpired staging of the user and locks it until the end of the transaction.
+     */
+    public Optional<ImportStaging> findActiveByTokenForUpdate(UUID token, Long userId) {
+        return jdbcClient.sql(ImportStagingQueries.FIND_ACTIVE_BY_TOKEN_FOR_UPDATE)
+                .param("token", token)
+                .param("userId", userId)
+                .query(rowMapper)
+                .optional();
+    }
+
+    /**
+     * Stages rows with one statement, numbering them from {@code firstRowIndex}. Callers pass at most one
+     * import chunk at a time.
+     */
+    public void insertRows(Long stagingId, int firstRowIndex, List<TransactionCreateRequest> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder(ImportStagingQueries.INSERT_ROWS_PREFIX);
+        Map<String, Object> params = new HashMap<>();
+        params.put("stagingId", stagingId);
+
+        for (int i = 0; i < rows.size(); i++) {
+            TransactionCreateRequest row = rows.get(i);
+
+            sql.append(String.format("( :stagingId, :rowIndex_%d, :amount_%d, :date_%d, :postDate_%d, :description_%d, :type_%d, :categoryId_%d, :importSignature_%d )",
+                    i, i, i, i, i, i, i, i));
+
+            if (i < rows.size() - 1) {
+                sql.append(",\n");
+            }
+
+            params.put("rowIndex_" + i, firstRowIndex + i);
+            params.put("amount_" + i, row.getAmount());
+            params.put("date_" + i, row.getTransactionDate());
+            params.put("postDate_" + i, row.getPostDate());
+            params.put("description_" + i, row.getDescription());
+            params.put("type_" + i, row.getType());
+            params.put("categoryId_" + i, row.getCategoryId());
+            params.put("importSignature_" + i, TransactionRepository.signatureOf(row));
+        }
+
+        jdbcClient.sql(sql.toString())
+                .params(params)
+                .update();
+    }
+
+    public List<StagedRow> findRows(Long stagingId, Collection<Integer> rowIndexes) {
+        if (rowIndexes.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcClient.sql(ImportStagingQueries.FIND_ROWS)
+                .param("stagingId", stagingId)
+                .param("rowIndexes", rowIndexes)
+                .query(this::mapStagedRow)
+                .list();
+    }
+
+    /**
+     * Reads up to {@code limit} rows in preview order, starting at row index {@code offset}.
+     */
+    public List<StagedRow> findRowPage(Long stagingId, int offset, int limit) {
+        return jdbcClient.sql(ImportStagingQueries.FIND_ROW_PAGE)
+                .param("stagingId", stagingId)
+                .param("offset", offset)
+                .param("limit", limit)
+                .query(this::mapStagedRow)
+                .list();
+    }
+
+    /**
+     * Rewrites a staged row after the client overrode it, re-signing it so duplicate detection uses the new values.
+     */
+    public int updateRow(Long stagingId, StagedRow row) {
+        TransactionCreateRequest transaction = row.transaction();
+        return jdbcClient.sql(ImportStagingQueries.UPDATE_ROW)
+                .param("stagingId", stagingId)
+                .param("rowIndex", row.rowIndex())
+                .param("description", transaction.getDescription())
+                .param("type", transaction.getType())
+                .param("categoryId", transaction.getCategoryId())
+                .param("importSignature", TransactionRepository.signatureOf(transaction))
+                .update();
+    }
+
+    public List<String> findDescriptions(Long stagingId, Collection<Integer> excludedRows) {
+        return jdbcClient.sql(ImportStagingQueries.FIND_DESCRIPTIONS)
+                .param("stagingId", stagingId)
+                .param("excludedRows", excludedRows.toArray(Integer[]::new))
+                .query(String.class)
+                .list();
+    }
+
+    /**
+     * Moves the staging's rows, except the excluded ones, into its account's transactions.
+     *
+     * @param merchantIds merchant id by description
+     * @return the amount, date and type of each inserted transaction
+     */
+    public List<TransactionCreateRequest> moveToTransactions(Long stagingId, Collection<Integer> excludedRows,
+                                                             Map<String, Long> merchantIds) {
+        return jdbcClient.sql(ImportStagingQueries.MOVE_TO_TRANSACTIONS)
+                .param("stagingId", stagingId)
+                .param("excludedRows", excludedRows.toArray(Integer[]::new))
+                .param("descriptions", merchantIds.keySet().toArray(String[]::new))
+                .param("merchantIds", merchantIds.values().toArray(Long[]::new))
+                .query((rs, rowNum) -> TransactionCreateRequest.builder()
+                        .amount(rs.getBigDecimal("amount"))
+                        .transactionDate(rs.getObject("date", OffsetDateTime.class))
+                        .type(rs.getString("type"))
+                        .build())
+                .list();
+    }
+
+    public int delete(Long id) {
+        return jdbcClient.sql(ImportStagingQueries.DELETE)
+                .param("id", id)
+                .update();
+    }
+
+    public int deleteExpired() {
+        return jdbcClient.sql(ImportStagingQueries.DELETE_EXPIRED)
+                .update();
+    }
+
+    private StagedRow mapStagedRow(ResultSet rs, int rowNum) throws SQLException {
+        return new StagedRow(
+                rs.getInt("row_index"),
+                TransactionCreateRequest.builder()
+                        .amount(rs.getBigDecimal("amount"))
+                        .transactionDate(rs.getObject("date", OffsetDateTime.class))
+                        .postDate(rs.getObject("post_date", OffsetDateTime.class))
+                        .description(rs.getString("description"))
+                        .type(rs.getString("type"))
+                        .categoryId(rs.getObject("category_id", Long.class))
+                        .build());
+    }
+
+    /**
+     * A staged row and its position in the preview.
+     */
+    public record StagedRow(int rowIndex, TransactionCreateRequest transaction) {
+    }
+}
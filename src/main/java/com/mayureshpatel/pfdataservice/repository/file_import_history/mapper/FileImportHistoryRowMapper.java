@@ -1,58 +1,75 @@
 package com.mayureshpatel.pfdataservice.repository.file_import_history.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.transaction.FileImportHistory;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import com.mayureshpatel.pfdataservice.repository.account.mapper.AccountRowMapper;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class FileImportHistoryRowMapper extends JdbcMapperUtils implements RowMapper<FileImportHistory> {
+public class FileImportHistoryRowMapper extends IndexedRowMapper<FileImportHistory, FileImportHistoryRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) throws SQLException {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public FileImportHistory mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected FileImportHistory map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
      * Maps a ResultSet row to a FileImportHistory object.
      *
-     * @param rs     ResultSet containing the row data
-     * @param prefix Column prefix to use for mapping
+     * @param rs      ResultSet containing the row data
+     * @param columns the resolved file import history columns
      * @return FileImportHistory object
      * @throws SQLException if there is an error accessing the ResultSet
      */
-    public static FileImportHistory mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
-        }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
+    public static FileImportHistory mapRow(ResultSet rs, Columns columns) throws SQLException {
         FileImportHistory.FileImportHistoryBuilder builder = FileImportHistory.builder();
-        builder.id(rs.getLong(safePrefix + "id"));
+        builder.id(rs.getLong(columns.id()));
 
-        if (availableColumns.contains(safePrefix + "account_id")) {
-            builder.account(AccountRowMapper.mapRow(rs, safePrefix + "account_"));
+        if (columns.accountId() != ABSENT) {
+            builder.account(AccountRowMapper.mapRow(rs, columns.account()));
         }
-        if (availableColumns.contains(safePrefix + "file_name")) {
-            builder.fileName(rs.getString(safePrefix + "file_name"));
+        if (columns.fileName() != ABSENT) {
+            builder.fileName(rs.getString(columns.fileName()));
         }
-        if (availableColumns.contains(safePrefix + "file_hash")) {
-            builder.fileHash(rs.getString(safePrefix + "file_hash"));
+        if (columns.fileHash() != ABSENT) {
+            builder.fileHash(rs.getString(columns.fileHash()));
         }
-        if (availableColumns.contains(safePrefix + "transaction_count")) {
-            builder.transactionCount(rs.getInt(safePrefix + "transaction_count"));
+        if (columns.transactionCount() != ABSENT) {
+            builder.transactionCount(rs.getInt(columns.transactionCount()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * File import history column indexes resolved under one prefix, including the joined account.
+     */
+    public record Columns(int id, int accountId, int fileName, int fileHash, int transactionCount,
+                          AuditColumns audit, AccountRowMapper.Columns account) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) throws SQLException {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.require(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "account_id"),
+                    columns.indexOf(safePrefix + "file_name"),
+                    columns.indexOf(safePrefix + "file_hash"),
+                    columns.indexOf(safePrefix + "transaction_count"),
+                    AuditColumns.resolve(columns, safePrefix),
+                    AccountRowMapper.Columns.resolve(columns, safePrefix + "account_"));
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.mayureshpatel.pfdataservice.repository.file_import_history.mapper;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportJob;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+@Component
+public class ImportJobRowMapper extends IndexedRowMapper<ImportJob, ImportJobRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) throws SQLException {
+        return Columns.resolve(columns);
+    }
+
+    @Override
+    protected ImportJob map(ResultSet rs, Columns columns) throws SQLException {
+        return ImportJob.builder()
+                .id(rs.getLong(columns.id()))
+                .userId(getLongOrNull(rs, columns.userId()))
+                .accountId(getLongOrNull(rs, columns.accountId()))
+                .type(ImportJob.Type.valueOf(rs.getString(columns.type())))
+                .status(ImportJob.Status.valueOf(rs.getString(columns.status())))
+                .fileName(rs.getString(columns.fileName()))
+                .totalRows(rs.getObject(columns.totalRows(), Integer.class))
+                .processedRows(rs.getInt(columns.processedRows()))
+                .savedCount(rs.getObject(columns.savedCount(), Integer.class))
+                .errorMessage(rs.getString(columns.errorMessage()))
+                .stagingToken(rs.getObject(columns.stagingToken(), UUID.class))
+                .createdAt(getOffsetDateTime(rs, columns.createdAt()))
+                .startedAt(getOffsetDateTime(rs, columns.startedAt()))
+                .completedAt(getOffsetDateTime(rs, columns.completedAt()))
+                .build();
+    }
+
+    /**
+     * Import job column indexes; every column is required since jobs are only read from their own table.
+     */
+    record Columns(int id, int userId, int accountId, int type, int status, int fileName, int totalRows,
+                   int processedRows, int savedCount, int errorMessage, int stagingToken, int createdAt,
+                   int startedAt, int completedAt) {
+
+        static Columns resolve(ResultSetColumns columns) throws SQLException {
+            return new Columns(
+                    columns.require("id"),
+                    columns.require("user_id"),
+                    columns.require("account_id"),
+                    columns.require("type"),
+                    columns.require("status"),
+                    columns.require("file_name"),
+                    columns.require("total_rows"),
+                    columns.require("processed_rows"),
+                    columns.require("saved_count"),
+                    columns.require("error_message"),
+                    columns.require("staging_token"),
+                    columns.require("created_at"),
+                    columns.require("started_at"),
+                    columns.require("completed_at"));
+        }
+    }
+}
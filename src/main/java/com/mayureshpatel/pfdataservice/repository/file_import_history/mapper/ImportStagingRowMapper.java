@@ -0,0 +1,52 @@
+package com.mayureshpatel.pfdataservice.repository.file_import_history.mapper;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportStaging;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+@Component
+public class ImportStagingRowMapper extends IndexedRowMapper<ImportStaging, ImportStagingRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) throws SQLException {
+        return Columns.resolve(columns);
+    }
+
+    @Override
+    protected ImportStaging map(ResultSet rs, Columns columns) throws SQLException {
+        return ImportStaging.builder()
+                .id(rs.getLong(columns.id()))
+                .token(rs.getObject(columns.token(), UUID.class))
+                .userId(getLongOrNull(rs, columns.userId()))
+                .accountId(getLongOrNull(rs, columns.accountId()))
+                .fileName(rs.getString(columns.fileName()))
+                .fileHash(rs.getString(columns.fileHash()))
+                .createdAt(getOffsetDateTime(rs, columns.createdAt()))
+                .expiresAt(getOffsetDateTime(rs, columns.expiresAt()))
+                .build();
+    }
+
+    /**
+     * Import staging column indexes; every column is required since stagings are only read from their own table.
+     */
+    record Columns(int id, int token, int userId, int accountId, int fileName, int fileHash, int createdAt,
+                   int expiresAt) {
+
+        static Columns resolve(ResultSetColumns columns) throws SQLException {
+            return new Columns(
+                    columns.require("id"),
+                    columns.require("token"),
+                    columns.require("user_id"),
+                    columns.require("account_id"),
+                    columns.require("file_name"),
+                    columns.require("file_hash"),
+                    columns.require("created_at"),
+                    columns.require("expires_at"));
+        }
+    }
+}
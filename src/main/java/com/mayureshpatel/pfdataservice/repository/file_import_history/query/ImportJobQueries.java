@@ -0,0 +1,64 @@
+package com.mayureshpatel.pfdataservice.repository.file_import_history.query;
+
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class ImportJobQueries {
+
+    // language=SQL
+    public static final String FIND_BY_ID_AND_USER_ID = """
+            select *
+            from import_jobs
+            where id = :id
+              and user_id = :userId
+            """;
+
+    // language=SQL
+    public static final String INSERT = """
+            insert into import_jobs (user_id, account_id, type, status, file_name, total_rows)
+            values (:userId, :accountId, :type, 'QUEUED', :fileName, :totalRows)
+            returning id
+            """;
+
+    // language=SQL
+    public static final String MARK_RUNNING = """
+            update import_jobs
+            set status = 'RUNNING',
+                started_at = current_timestamp
+            where id = :id
+            """;
+
+    // language=SQL
+    public static final String MARK_SUCCEEDED = """
+            update import_jobs
+            set status = 'SUCCEEDED',
+                processed_rows = :processedRows,
+                saved_count = :savedCount,
+                staging_token = :stagingToken,
+                completed_at = current_timestamp
+            where id = :id
+            """;
+
+    /**
+     * Fails the jobs still queued or running that were submitted before {@code :submittedBefore}.
+     */
+    // language=SQL
+    public static final String FAIL_UNFINISHED = """
+            update import_jobs
+            set status = 'FAILED',
+                error_message = :errorMessage,
+                completed_at = current_timestamp
+            where status in ('QUEUED', 'RUNNING')
+              and created_at < :submittedBefore
+            """;
+
+    // language=SQL
+    public static final String MARK_FAILED = """
+            update import_jobs
+            set status = 'FAILED',
+                processed_rows = :processedRows,
+                error_message = :errorMessage,
+                completed_at = current_timestamp
+            where id = :id
+            """;
+}
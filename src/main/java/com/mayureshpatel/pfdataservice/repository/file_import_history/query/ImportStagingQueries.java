@@ -0,0 +1,131 @@
+package com.mayureshpatel.pfdataservice.repository.file_import_history.query;
+
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class ImportStagingQueries {
+
+    // language=SQL
+    public static final String INSERT = """
+            insert into import_stagings (token, user_id, account_id, file_name, file_hash, expires_at)
+            values (:token, :userId, :accountId, :fileName, :fileHash, :expiresAt)
+            returning id
+            """;
+
+    // language=SQL
+    public static final String FIND_ACTIVE_BY_TOKEN = """
+            select *
+            from import_stagings
+            where token = :token
+              and user_id = :userId
+              and expires_at > current_timestamp
+            """;
+
+    /**
+     * Locks the staging so that a token is committed at most once.
+     */
+    // language=SQL
+    public static final String FIND_ACTIVE_BY_TOKEN_FOR_UPDATE = """
+            select *
+            from import_stagings
+            where token = :token
+              and user_id = :userId
+              and expires_at > current_timestamp
+            for update
+            """;
+
+    // language=SQL
+    public static final String INSERT_ROWS_PREFIX = """
+            insert into import_staging_rows
+                (staging_id, row_index, amount, date, post_date, description, type, category_id, import_signature)
+            values
+            """;
+
+    // language=SQL
+    public static final String FIND_ROWS = """
+            select row_index, amount, date, post_date, description, type, category_id
+            from import_staging_rows
+            where staging_id = :stagingId
+              and row_index in (:rowIndexes)
+            """;
+
+    // language=SQL
+    public static final String FIND_ROW_PAGE = """
+            select row_index, amount, date, post_date, description, type, category_id
+            from import_staging_rows
+            where staging_id = :stagingId
+              and row_index >= :offset
+            order by row_index
+            limit :limit
+            """;
+
+    // language=SQL
+    public static final String UPDATE_ROW = """
+            update import_staging_rows
+            set description = :description,
+                type = :type,
+                category_id = :categoryId,
+                import_signature = :importSignature
+            where staging_id = :stagingId
+              and row_index = :rowIndex
+            """;
+
+    /**
+     * Descriptions of the rows that a commit would insert: not excluded and not already imported.
+     */
+    // language=SQL
+    public static final String FIND_DESCRIPTIONS = """
+            select distinct r.description
+            from import_staging_rows r
+                     join import_stagings s on s.id = r.staging_id
+            where r.staging_id = :stagingId
+              and not (r.row_index = any(cast(:excludedRows as int[])))
+              and not exists (select 1
+                              from transactions t
+                              where t.account_id = s.account_id
+                                and t.import_signature = r.import_signature)
+            """;
+
+    /**
+     * Moves the staged rows into transactions. Rows already imported, and all but the first of rows staged twice,
+     * are skipped by signature; a suggested category the user no longer has is dropped. Callers hold the
+     * account's import lock.
+     */
+    // language=SQL
+    public static final String MOVE_TO_TRANSACTIONS = """
+            insert into transactions
+                (amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature,
+                 created_at, updated_at)
+            select v.amount, v.date, v.post_date, v.description, m.merchant_id, v.type, v.account_id, v.category_id,
+                   v.import_signature, current_timestamp, current_timestamp
+            from (select distinct on (r.import_signature)
+                         r.row_index, r.amount, r.date, r.post_date, r.description, r.type, s.account_id,
+                         c.id as category_id, r.import_signature
+                  from import_staging_rows r
+                           join import_stagings s on s.id = r.staging_id
+                           left join categories c on c.id = r.category_id and c.user_id = s.user_id
+                  where r.staging_id = :stagingId
+                    and not (r.row_index = any(cast(:excludedRows as int[])))
+                    and not exists (select 1
+                                    from transactions t
+                                    where t.account_id = s.account_id
+                                      and t.import_signature = r.import_signature)
+                  order by r.import_signature, r.row_index) v
+                     left join unnest(cast(:descriptions as varchar[]), cast(:merchantIds as bigint[]))
+                         as m(description, merchant_id) on m.description = v.description
+            order by v.row_index
+            returning amount, date, type
+            """;
+
+    // language=SQL
+    public static final String DELETE = """
+            delete from import_stagings
+            where id = :id
+            """;
+
+    // language=SQL
+    public static final String DELETE_EXPIRED = """
+            delete from import_stagings
+            where expires_at <= current_timestamp
+            """;
+}
@@ -15,8 +15,12 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Repository
 @RequiredArgsConstructor
@@ -93,20 +97,33 @@ public class MerchantRepository implements JdbcRepository<Merchant, Long> {
         return keyHolder.getKey().longValue();
     }
 
+    /**
+     * Inserts the user merchants in a single statement and returns every one of them, including the ones
+     * that already existed or were created concurrently. Existing merchants keep their clean name. Requests
+     * repeating a user and original name are sent once.
+     *
+     * @param requests the merchants to create; each must carry a user id
+     * @return the stored merchants, in no particular order
+     */
     public List<Merchant> insertAllAndReturn(List<MerchantCreateRequest> requests) {
         if (requests == null || requests.isEmpty()) {
             return List.of();
         }
 
-        return requests.stream().map(req -> {
-            Long id = insert(req);
-            return Merchant.builder()
-                .id(id)
-                .userId(req.getUserId())
-                .originalName(req.getOriginalName())
-                .cleanName(req.getCleanName())
-                .build();
-        }).toList();
+        // a row may only be touched once per "on conflict do update" statement; a fixed key order keeps
+        // concurrent imports for the same user from locking the same rows in opposite orders
+        Map<MerchantKey, MerchantCreateRequest> distinct = new TreeMap<>(MerchantKey.ORDER);
+        for (MerchantCreateRequest request : requests) {
+            distinct.putIfAbsent(new MerchantKey(request.getUserId(), request.getOriginalName()), request);
+        }
+        Collection<MerchantCreateRequest> unique = distinct.values();
+
+        return jdbcClient.sql(MerchantQueries.UPSERT_ALL)
+                .param("userIds", unique.stream().map(MerchantCreateRequest::getUserId).toArray(Long[]::new))
+                .param("originalNames", unique.stream().map(MerchantCreateRequest::getOriginalName).toArray(String[]::new))
+                .param("names", unique.stream().map(MerchantCreateRequest::getCleanName).toArray(String[]::new))
+                .query(rowMapper)
+                .list();
     }
 
     public int update(MerchantUpdateRequest request, Long userId) {
@@ -121,4 +138,11 @@ public class MerchantRepository implements JdbcRepository<Merchant, Long> {
                 .param("id", id)
                 .update();
     }
+
+    private record MerchantKey(Long userId, String originalName) {
+
+        static final Comparator<MerchantKey> ORDER = Comparator
+                .comparing(MerchantKey::userId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(MerchantKey::originalName, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
 }
@@ -1,63 +1,77 @@
 package com.mayureshpatel.pfdataservice.repository.merchant.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.merchant.Merchant;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class MerchantRowMapper extends JdbcMapperUtils implements RowMapper<Merchant> {
+public class MerchantRowMapper extends IndexedRowMapper<Merchant, MerchantRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public Merchant mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected Merchant map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
-     * Maps a ResultSet row to a Merchant object with optional prefix for column names.
+     * Maps a ResultSet row to a Merchant object using resolved column indexes.
      * Handles null values gracefully and uses builder pattern for construction.
      *
-     * @param rs     ResultSet containing row data
-     * @param prefix Optional prefix for column names
-     * @return Merchant object constructed from ResultSet row
+     * @param rs      ResultSet containing row data
+     * @param columns the resolved merchant columns
+     * @return Merchant object constructed from ResultSet row, or null if the row has no merchant
      * @throws SQLException if there is an error accessing ResultSet
      */
-    public static Merchant mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
+    public static Merchant mapRow(ResultSet rs, Columns columns) throws SQLException {
+        if (columns.id() == ABSENT) {
+            return null;
         }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
-        Merchant.MerchantBuilder builder = Merchant.builder();
-        if (hasColumn(safePrefix + "id", availableColumns)) {
-            Long id = getLongOrNull(rs, safePrefix + "id");
-            if (id == null) {
-                return null;
-            }
-            builder.id(id);
-        } else {
+        Long id = getLongOrNull(rs, columns.id());
+        if (id == null) {
             return null;
         }
 
-        if (hasColumn(safePrefix + "user_id", availableColumns)) {
-            builder.userId(getLongOrNull(rs, safePrefix + "user_id"));
+        Merchant.MerchantBuilder builder = Merchant.builder();
+        builder.id(id);
+
+        if (columns.userId() != ABSENT) {
+            builder.userId(getLongOrNull(rs, columns.userId()));
         }
-        if (hasColumn(safePrefix + "original_name", availableColumns)) {
-            builder.originalName(rs.getString(safePrefix + "original_name"));
+        if (columns.originalName() != ABSENT) {
+            builder.originalName(rs.getString(columns.originalName()));
         }
-        if (hasColumn(safePrefix + "clean_name", availableColumns)) {
-            builder.cleanName(rs.getString(safePrefix + "clean_name"));
+        if (columns.cleanName() != ABSENT) {
+            builder.cleanName(rs.getString(columns.cleanName()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Merchant column indexes resolved under one prefix.
+     */
+    public record Columns(int id, int userId, int originalName, int cleanName, AuditColumns audit) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.indexOf(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "user_id"),
+                    columns.indexOf(safePrefix + "original_name"),
+                    columns.indexOf(safePrefix + "clean_name"),
+                    AuditColumns.resolve(columns, safePrefix));
+        }
+    }
 }
@@ -3,21 +3,28 @@ package com.mayureshpatel.pfdataservice.repository.merchant.mapper;
 import com.mayureshpatel.pfdataservice.dto.merchant.MerchantBreakdownDto;
 import com.mayureshpatel.pfdataservice.dto.merchant.MerchantDto;
 import com.mayureshpatel.pfdataservice.mapper.MerchantDtoMapper;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
-import org.springframework.jdbc.core.RowMapper;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 @Component
-public class MerchantTotalRowMapper extends JdbcMapperUtils implements RowMapper<MerchantBreakdownDto> {
+public class MerchantTotalRowMapper extends IndexedRowMapper<MerchantBreakdownDto, MerchantTotalRowMapper.Columns> {
 
     @Override
-    public MerchantBreakdownDto mapRow(ResultSet rs, int rowNum) throws SQLException {
-        MerchantDto merchantDto = MerchantDtoMapper.toDto(MerchantRowMapper.mapRow(rs, "merchant"));
+    protected Columns resolve(ResultSetColumns columns) throws SQLException {
+        return new Columns(MerchantRowMapper.Columns.resolve(columns, "merchant"), columns.require("total"));
+    }
+
+    @Override
+    protected MerchantBreakdownDto map(ResultSet rs, Columns columns) throws SQLException {
+        MerchantDto merchantDto = MerchantDtoMapper.toDto(MerchantRowMapper.mapRow(rs, columns.merchant()));
 
-        return new MerchantBreakdownDto(merchantDto, rs.getBigDecimal("total"));
+        return new MerchantBreakdownDto(merchantDto, rs.getBigDecimal(columns.total()));
     }
 
+    record Columns(MerchantRowMapper.Columns merchant, int total) {
+    }
 }
@@ -1,5 +1,6 @@
 package com.mayureshpatel.pfdataservice.repository.merchant.query;
 
+import com.mayureshpatel.pfdataservice.repository.transaction.query.TransactionRollupQueries;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
@@ -49,20 +50,24 @@ public final class MerchantQueries {
               and user_id = :userId
             """;
 
+    /**
+     * Expenses per merchant from {@code :startDate} inclusive to {@code :endDate} exclusive.
+     */
     // language=SQL
     public static final String FIND_MERCHANT_TOTALS = """
+            with range_bounds as (
+                select 0                               as range_key,
+                       cast(:startDate as timestamptz) as range_start,
+                       cast(:endDate as timestamptz)   as range_end
+            ),
+            """ + TransactionRollupQueries.RANGED_ROWS + """
             select m.id as merchant_id,
                    m.original_name as merchant_original_name,
                    m.clean_name as merchant_clean_name,
-                   sum(t.amount) as total
-            from transactions t
-            join accounts a on t.account_id = a.id
-            join merchants m on t.merchant_id = m.id
-            where a.user_id = :userId
-              and t.date >= :startDate
-              and t.date < :endDate
-              and t.type = 'EXPENSE'
-              and t.deleted_at is null
+                   sum(ranged_rows.total) as total
+            from ranged_rows
+            join merchants m on ranged_rows.merchant_id = m.id
+            where ranged_rows.type = 'EXPENSE'
             group by m.id
             """;
 
@@ -73,6 +78,16 @@ public final class MerchantQueries {
             returning id
             """;
 
+    // language=SQL
+    public static final String UPSERT_ALL = """
+            insert into merchants (user_id, original_name, clean_name)
+            select *
+            from unnest(cast(:userIds as bigint[]), cast(:originalNames as varchar[]), cast(:names as varchar[]))
+            on conflict (user_id, original_name) where user_id is not null
+                do update set original_name = excluded.original_name
+            returning *
+            """;
+
     // language=SQL
     public static final String UPDATE = """
             update merchants
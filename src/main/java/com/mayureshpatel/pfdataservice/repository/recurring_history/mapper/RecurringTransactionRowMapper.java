@@ -1,71 +1,94 @@
 package com.mayureshpatel.pfdataservice.repository.recurring_history.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.transaction.RecurringTransaction;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import com.mayureshpatel.pfdataservice.repository.account.mapper.AccountRowMapper;
 import com.mayureshpatel.pfdataservice.repository.merchant.mapper.MerchantRowMapper;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class RecurringTransactionRowMapper extends JdbcMapperUtils implements RowMapper<RecurringTransaction> {
+public class RecurringTransactionRowMapper extends IndexedRowMapper<RecurringTransaction, RecurringTransactionRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) throws SQLException {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public RecurringTransaction mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected RecurringTransaction map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
      * Maps a ResultSet row to a RecurringTransaction object.
      *
-     * @param rs     the ResultSet to map
-     * @param prefix the prefix to use for column names
+     * @param rs      the ResultSet to map
+     * @param columns the resolved recurring transaction columns
      * @return the mapped RecurringTransaction object
      * @throws SQLException if an error occurs while accessing the ResultSet
      */
-    public RecurringTransaction mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
-        }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
+    public static RecurringTransaction mapRow(ResultSet rs, Columns columns) throws SQLException {
         RecurringTransaction.RecurringTransactionBuilder builder = RecurringTransaction.builder();
-        builder.id(rs.getLong(safePrefix + "id"));
+        builder.id(rs.getLong(columns.id()));
 
-        if (hasColumn(safePrefix + "user_id", availableColumns)) {
-            builder.userId(rs.getLong(safePrefix + "user_id"));
+        if (columns.userId() != ABSENT) {
+            builder.userId(rs.getLong(columns.userId()));
         }
-        if (hasColumn(safePrefix + "account_id", availableColumns)) {
-            builder.account(AccountRowMapper.mapRow(rs, safePrefix + "account"));
+        if (columns.accountId() != ABSENT) {
+            builder.account(AccountRowMapper.mapRow(rs, columns.account()));
         }
-        if (hasColumn(safePrefix + "merchant_id", availableColumns)) {
-            builder.merchant(MerchantRowMapper.mapRow(rs, safePrefix + "merchant"));
+        if (columns.merchantId() != ABSENT) {
+            builder.merchant(MerchantRowMapper.mapRow(rs, columns.merchant()));
         }
-        if (hasColumn(safePrefix + "frequency", availableColumns)) {
-            builder.frequency(rs.getString(safePrefix + "frequency"));
+        if (columns.frequency() != ABSENT) {
+            builder.frequency(rs.getString(columns.frequency()));
         }
-        if (hasColumn(safePrefix + "last_date", availableColumns)) {
-            builder.lastDate(getLocalDate(rs, safePrefix + "last_date"));
+        if (columns.lastDate() != ABSENT) {
+            builder.lastDate(getLocalDate(rs, columns.lastDate()));
         }
-        if (hasColumn(safePrefix + "next_date", availableColumns)) {
-            builder.nextDate(getLocalDate(rs, safePrefix + "next_date"));
+        if (columns.nextDate() != ABSENT) {
+            builder.nextDate(getLocalDate(rs, columns.nextDate()));
         }
-        if (hasColumn(safePrefix + "amount", availableColumns)) {
-            builder.amount(rs.getBigDecimal(safePrefix + "amount"));
+        if (columns.amount() != ABSENT) {
+            builder.amount(rs.getBigDecimal(columns.amount()));
         }
-        if (hasColumn(safePrefix + "active", availableColumns)) {
-            builder.active(rs.getBoolean(safePrefix + "active"));
+        if (columns.active() != ABSENT) {
+            builder.active(rs.getBoolean(columns.active()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Recurring transaction column indexes resolved under one prefix, including the joined account and merchant.
+     */
+    public record Columns(int id, int userId, int accountId, int merchantId, int frequency, int lastDate,
+                          int nextDate, int amount, int active, AuditColumns audit,
+                          AccountRowMapper.Columns account, MerchantRowMapper.Columns merchant) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) throws SQLException {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.require(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "user_id"),
+                    columns.indexOf(safePrefix + "account_id"),
+                    columns.indexOf(safePrefix + "merchant_id"),
+                    columns.indexOf(safePrefix + "frequency"),
+                    columns.indexOf(safePrefix + "last_date"),
+                    columns.indexOf(safePrefix + "next_date"),
+                    columns.indexOf(safePrefix + "amount"),
+                    columns.indexOf(safePrefix + "active"),
+                    AuditColumns.resolve(columns, safePrefix),
+                    AccountRowMapper.Columns.resolve(columns, safePrefix + "account"),
+                    MerchantRowMapper.Columns.resolve(columns, safePrefix + "merchant"));
+        }
+    }
 }
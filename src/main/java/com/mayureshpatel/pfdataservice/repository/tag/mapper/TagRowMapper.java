@@ -1,63 +1,77 @@
 package com.mayureshpatel.pfdataservice.repository.tag.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.transaction.Tag;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class TagRowMapper extends JdbcMapperUtils implements RowMapper<Tag> {
+public class TagRowMapper extends IndexedRowMapper<Tag, TagRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public Tag mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected Tag map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
-     * Maps a ResultSet row to a Tag object with optional prefix for column names.
+     * Maps a ResultSet row to a Tag object using resolved column indexes.
      * Handles null values gracefully and ensures that only available columns are accessed.
      *
-     * @param rs     ResultSet containing row data
-     * @param prefix Optional prefix for column names
-     * @return Tag object constructed from the ResultSet row
+     * @param rs      ResultSet containing row data
+     * @param columns the resolved tag columns
+     * @return Tag object constructed from the ResultSet row, or null if the row has no tag
      * @throws SQLException if there is an error accessing the ResultSet
      */
-    public static Tag mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
+    public static Tag mapRow(ResultSet rs, Columns columns) throws SQLException {
+        if (columns.id() == ABSENT) {
+            return null;
         }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
-        Tag.TagBuilder builder = Tag.builder();
-        if (hasColumn(safePrefix + "id", availableColumns)) {
-            Long id = getLongOrNull(rs, safePrefix + "id");
-            if (id == null) {
-                return null;
-            }
-            builder.id(id);
-        } else {
+        Long id = getLongOrNull(rs, columns.id());
+        if (id == null) {
             return null;
         }
 
-        if (hasColumn(safePrefix + "user_id", availableColumns)) {
-            builder.userId(getLongOrNull(rs, safePrefix + "user_id"));
+        Tag.TagBuilder builder = Tag.builder();
+        builder.id(id);
+
+        if (columns.userId() != ABSENT) {
+            builder.userId(getLongOrNull(rs, columns.userId()));
         }
-        if (hasColumn(safePrefix + "name", availableColumns)) {
-            builder.name(rs.getString(safePrefix + "name"));
+        if (columns.name() != ABSENT) {
+            builder.name(rs.getString(columns.name()));
         }
-        if (hasColumn(safePrefix + "color", availableColumns)) {
-            builder.color(rs.getString(safePrefix + "color"));
+        if (columns.color() != ABSENT) {
+            builder.color(rs.getString(columns.color()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Tag column indexes resolved under one prefix.
+     */
+    public record Columns(int id, int userId, int name, int color, AuditColumns audit) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.indexOf(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "user_id"),
+                    columns.indexOf(safePrefix + "name"),
+                    columns.indexOf(safePrefix + "color"),
+                    AuditColumns.resolve(columns, safePrefix));
+        }
+    }
 }
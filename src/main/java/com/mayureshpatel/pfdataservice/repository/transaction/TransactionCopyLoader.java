@@ -0,0 +1,144 @@
+package com.mayureshpatel.pfdataservice.repository.transaction;
+
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCreateRequest;
+import com.mayureshpatel.pfdataservice.repository.transaction.query.TransactionQueries;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Bulk-loads transactions through PostgreSQL {@code COPY FROM STDIN} into a temporary staging table,
+ * then merges the staged rows into {@code transactions} with a single {@code INSERT ... SELECT}.
+ * <p>
+ * The staging table is created {@code on commit drop}, so the loader only runs inside an active
+ * transaction on a PostgreSQL connection; {@link #isAvailable()} reports whether that holds.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionCopyLoader {
+
+    /**
+     * Rows serialized before the buffer is handed to the driver, keeping memory flat for large loads.
+     */
+    private static final int FLUSH_ROWS = 1000;
+
+    private static final CSVFormat COPY_FORMAT = CSVFormat.POSTGRESQL_CSV;
+
+    private final DataSource dataSource;
+    private final JdbcClient jdbcClient;
+
+    public boolean isAvailable() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            return false;
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Copies the given requests into the staging table and merges them into {@code transactions}.
+     *
+     * @param requests     the rows to insert
+     * @param signatures   each row's import signature, in the same order
+     * @param skipExisting whether to skip rows whose import signature already exists for the account
+     * @return the import signature of every inserted row
+     */
+    public List<String> load(List<TransactionCreateRequest> requests, List<String> signatures, boolean skipExisting) {
+        jdbcClient.sql(TransactionQueries.CREATE_IMPORT_STAGING).update();
+        jdbcClient.sql(TransactionQueries.TRUNCATE_IMPORT_STAGING).update();
+
+        long copied = copy(requests, signatures);
+        String merge = skipExisting ? TransactionQueries.MERGE_NEW_IMPORT_STAGING : TransactionQueries.MERGE_IMPORT_STAGING;
+        List<String> merged = jdbcClient.sql(merge)
+                .query((rs, rowNum) -> rs.getString("import_signature"))
+                .list();
+
+        log.debug("COPY staged {} transactions, merged {}", copied, merged.size());
+        return merged;
+    }
+
+    private long copy(List<TransactionCreateRequest> requests, List<String> signatures) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyIn copyIn = connection.unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn(TransactionQueries.COPY_INTO_IMPORT_STAGING);
+            try {
+                StringBuilder buffer = new StringBuilder();
+                CSVPrinter printer = new CSVPrinter(buffer, COPY_FORMAT);
+                int pending = 0;
+
+                for (int i = 0; i < requests.size(); i++) {
+                    TransactionCreateRequest request = requests.get(i);
+                    printer.printRecord(
+                            request.getAmount(),
+                            format(request.getTransactionDate()),
+                            format(request.getPostDate()),
+                            request.getDescription(),
+                            request.getMerchantId(),
+                            request.getType(),
+                            request.getAccountId(),
+                            request.getCategoryId(),
+                            signatures.get(i));
+
+                    if (++pending == FLUSH_ROWS) {
+                        write(copyIn, buffer);
+                        pending = 0;
+                    }
+                }
+                write(copyIn, buffer);
+
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("COPY into transaction staging", TransactionQueries.COPY_INTO_IMPORT_STAGING, e);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to serialize transactions for COPY", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private String format(OffsetDateTime dateTime) {
+        return dateTime == null ? null : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime);
+    }
+}
@@ -3,6 +3,7 @@ package com.mayureshpatel.pfdataservice.repository.transaction;
 import com.mayureshpatel.pfdataservice.domain.category.Category;
 import com.mayureshpatel.pfdataservice.domain.merchant.Merchant;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
+import com.mayureshpatel.pfdataservice.domain.transaction.TransactionSignature;
 import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryBreakdownDto;
 import com.mayureshpatel.pfdataservice.dto.transaction.CategoryTransactionsDto;
@@ -15,6 +16,8 @@ import com.mayureshpatel.pfdataservice.repository.transaction.mapper.CategoryBre
 import com.mayureshpatel.pfdataservice.repository.transaction.mapper.CategoryTransactionsRowMapper;
 import com.mayureshpatel.pfdataservice.repository.transaction.mapper.TransactionDetailRowMapper;
 import com.mayureshpatel.pfdataservice.repository.transaction.query.TransactionQueries;
+import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionCursor;
+import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionSortColumn;
 import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionSpecification;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -29,21 +32,39 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
 
 @Repository("jdbcTransactionRepository")
 @RequiredArgsConstructor
 public class TransactionRepository implements JdbcRepository<Transaction, Long>, SoftDeleteSupport {
 
+    /**
+     * Batches at or above this size are streamed through COPY instead of chunked multi-row inserts.
+     */
+    static final int COPY_THRESHOLD = 2000;
+
+    /**
+     * Rows per multi-row {@code update ... from (values ...)} statement.
+     */
+    static final int UPDATE_CHUNK_SIZE = 500;
+
     private final JdbcClient jdbcClient;
     private final TransactionDetailRowMapper rowMapper;
     private final CategoryBreakdownRowMapper categoryBreakdownRowMapper;
     private final CategoryTransactionsRowMapper categoryTransactionsDtoMapper;
     private final CategoryRowMapper categoryRowMapper;
     private final MerchantRowMapper merchantRowMapper;
+    private final TransactionCopyLoader copyLoader;
 
     @Override
     public Optional<Transaction> findById(Long id) {
@@ -82,6 +103,30 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
                 .list();
     }
 
+    /**
+     * Loads the income and expense totals of a period together with its expense breakdown by category.
+     */
+    public DashboardTotals findDashboardTotals(Long userId, OffsetDateTime start, OffsetDateTime end) {
+        List<CategoryBreakdownDto> breakdown = new ArrayList<>();
+        List<DashboardTotals> summary = new ArrayList<>(1);
+
+        jdbcClient.sql(TransactionQueries.FIND_DASHBOARD_TOTALS)
+                .param("userId", userId)
+                .param("startDate", start)
+                .param("endDate", end)
+                .query(rs -> {
+                    if (rs.getBoolean("summary")) {
+                        summary.add(new DashboardTotals(rs.getBigDecimal("income"), rs.getBigDecimal("total"), breakdown));
+                    } else {
+                        breakdown.add(categoryBreakdownRowMapper.mapRow(rs, rs.getRow()));
+                    }
+                });
+
+        return summary.isEmpty()
+                ? new DashboardTotals(BigDecimal.ZERO, BigDecimal.ZERO, breakdown)
+                : summary.get(0);
+    }
+
     public boolean existsByAccountIdAndDateAndAmountAndDescriptionAndType(
             Long accountId,
             OffsetDateTime transactionDate,
@@ -99,13 +144,19 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
                 .optional().isPresent();
     }
 
-    public List<Transaction> findExistingForDuplicateCheck(Long accountId, OffsetDateTime startDate, OffsetDateTime endDate) {
-        return jdbcClient.sql(TransactionQueries.FIND_EXISTING_FOR_DUPLICATE_CHECK)
+    /**
+     * @return the given signatures that the account already has
+     */
+    public Set<String> findImportSignatures(Long accountId, Collection<String> signatures) {
+        if (signatures.isEmpty()) {
+            return Set.of();
+        }
+
+        return new HashSet<>(jdbcClient.sql(TransactionQueries.FIND_IMPORT_SIGNATURES)
                 .param("accountId", accountId)
-                .param("startDate", startDate)
-                .param("endDate", endDate)
-                .query(rowMapper)
-                .list();
+                .param("signatures", signatures.toArray(String[]::new))
+                .query(String.class)
+                .list());
     }
 
     public int insert(TransactionCreateRequest request) {
@@ -120,6 +171,7 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
                 .param("description", request.getDescription())
                 .param("type", request.getType())
                 .param("merchantId", request.getMerchantId())
+                .param("importSignature", signatureOf(request))
                 .update(keyHolder);
     }
 
@@ -135,6 +187,7 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
                 .param("type", transaction.getType().name())
                 .param("merchantId", transaction.getMerchant() != null ? transaction.getMerchant().getId() : null)
                 .param("accountId", transaction.getAccount() != null ? transaction.getAccount().getId() : null)
+                .param("importSignature", signatureOf(transaction))
                 .update();
     }
 
@@ -143,36 +196,58 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
             return 0;
         }
 
-        int totalInserted = 0;
+        List<String> signatures = requestList.stream().map(TransactionRepository::signatureOf).toList();
+        return insert(requestList, signatures, false).size();
+    }
+
+    /**
+     * Inserts imported transactions, skipping any whose {@link TransactionSignature} the account already has.
+     * The caller holds the account's import lock (see {@code AccountRepository#lockImports}).
+     *
+     * @param requestsBySignature the transactions to import, keyed by their {@link #signatureOf} signature
+     * @return the signatures of the rows that were actually inserted
+     */
+    public Set<String> importAll(Map<String, TransactionCreateRequest> requestsBySignature) {
+        if (requestsBySignature == null || requestsBySignature.isEmpty()) {
+            return Set.of();
+        }
+
+        return new HashSet<>(insert(new ArrayList<>(requestsBySignature.values()),
+                new ArrayList<>(requestsBySignature.keySet()), true));
+    }
+
+    public static String signatureOf(TransactionCreateRequest request) {
+        return TransactionSignature.of(request.getTransactionDate(), request.getAmount(), request.getDescription(), request.getType());
+    }
+
+    public static String signatureOf(Transaction transaction) {
+        return TransactionSignature.of(transaction.getTransactionDate(), transaction.getAmount(),
+                transaction.getDescription(), transaction.getType().name());
+    }
+
+    private List<String> insert(List<TransactionCreateRequest> requestList, List<String> signatures, boolean skipExisting) {
+        if (requestList.size() >= COPY_THRESHOLD && copyLoader.isAvailable()) {
+            return copyLoader.load(requestList, signatures, skipExisting);
+        }
+
+        List<String> inserted = new ArrayList<>(requestList.size());
         int batchSize = 500;
 
         for (int i = 0; i < requestList.size(); i += batchSize) {
             int toIndex = Math.min(i + batchSize, requestList.size());
-            List<TransactionCreateRequest> chunk = requestList.subList(i, toIndex);
-            totalInserted += insertChunk(chunk);
+            inserted.addAll(insertChunk(requestList.subList(i, toIndex), signatures.subList(i, toIndex), skipExisting));
         }
 
-        return totalInserted;
+        return inserted;
     }
 
-    private int insertChunk(List<TransactionCreateRequest> chunk) {
-        StringBuilder sql = new StringBuilder("""
-            insert into transactions
-                (amount, date, post_date, description, merchant_id, type, account_id, category_id, created_at, updated_at)
-            values
-            """);
-
+    private List<String> insertChunk(List<TransactionCreateRequest> chunk, List<String> signatures, boolean skipExisting) {
+        StringJoiner rows = new StringJoiner(",\n");
         Map<String, Object> params = new HashMap<>();
 
         for (int i = 0; i < chunk.size(); i++) {
             TransactionCreateRequest req = chunk.get(i);
-            
-            sql.append(String.format("( :amount_%d, :date_%d, :postDate_%d, :description_%d, :merchantId_%d, :type_%d, :accountId_%d, :categoryId_%d, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP )", 
-                i, i, i, i, i, i, i, i));
-            
-            if (i < chunk.size() - 1) {
-                sql.append(",\n");
-            }
+            rows.add(TransactionQueries.INSERT_ALL_ROW.formatted(i));
 
             params.put("amount_" + i, req.getAmount());
             params.put("date_" + i, req.getTransactionDate());
@@ -182,17 +257,68 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
             params.put("type_" + i, req.getType());
             params.put("accountId_" + i, req.getAccountId());
             params.put("categoryId_" + i, req.getCategoryId());
+            params.put("importSignature_" + i, signatures.get(i));
         }
 
-        return jdbcClient.sql(sql.toString())
+        String sql = skipExisting
+                ? TransactionQueries.IMPORT_NEW.formatted(rows)
+                : TransactionQueries.INSERT_ALL.formatted(rows);
+        return jdbcClient.sql(sql)
                 .params(params)
-                .update();
+                .query((rs, rowNum) -> rs.getString("import_signature"))
+                .list();
     }
 
+    /**
+     * Updates the given transactions with one statement per {@value #UPDATE_CHUNK_SIZE} rows. When a
+     * transaction appears more than once, its last version wins.
+     *
+     * @param userId      the owner of the transactions
+     * @param requestList the transactions to write
+     * @return the number of rows updated
+     */
     public Integer updateAll(Long userId, List<Transaction> requestList) {
-        return requestList.stream()
-                .map(t -> this.update(userId, t))
-                .mapToInt(Integer::intValue).sum();
+        if (requestList == null || requestList.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Transaction> byId = new LinkedHashMap<>();
+        for (Transaction transaction : requestList) {
+            byId.put(transaction.getId(), transaction);
+        }
+        List<Transaction> distinct = new ArrayList<>(byId.values());
+
+        int updated = 0;
+        for (int i = 0; i < distinct.size(); i += UPDATE_CHUNK_SIZE) {
+            updated += updateChunk(userId, distinct.subList(i, Math.min(i + UPDATE_CHUNK_SIZE, distinct.size())));
+        }
+        return updated;
+    }
+
+    private int updateChunk(Long userId, List<Transaction> chunk) {
+        StringJoiner rows = new StringJoiner(",\n");
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Transaction t = chunk.get(i);
+            rows.add(TransactionQueries.UPDATE_ALL_ROW.formatted(i));
+
+            params.put("id_" + i, t.getId());
+            params.put("amount_" + i, t.getAmount());
+            params.put("date_" + i, t.getTransactionDate());
+            params.put("postDate_" + i, t.getPostDate());
+            params.put("description_" + i, t.getDescription());
+            params.put("merchantId_" + i, t.getMerchant() != null ? t.getMerchant().getId() : null);
+            params.put("type_" + i, t.getType().name());
+            params.put("accountId_" + i, t.getAccount() != null ? t.getAccount().getId() : null);
+            params.put("categoryId_" + i, t.getCategory() != null ? t.getCategory().getId() : null);
+            params.put("importSignature_" + i, signatureOf(t));
+        }
+
+        return jdbcClient.sql(TransactionQueries.UPDATE_ALL.formatted(rows))
+                .params(params)
+                .update();
     }
 
     @Override
@@ -279,6 +405,15 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
                 .list();
     }
 
+    public List<Transaction> findNonTransferTransactionsBetween(Long userId, OffsetDateTime startDate, OffsetDateTime endDate) {
+        return jdbcClient.sql(TransactionQueries.FIND_NON_TRANSFER_BETWEEN)
+                .param("userId", userId)
+                .param("startDate", startDate)
+                .param("endDate", endDate)
+                .query(rowMapper)
+                .list();
+    }
+
     public List<Transaction> findAllById(Long userId, List<Long> ids) {
         if (ids == null || ids.isEmpty()) return List.of();
         return jdbcClient.sql(TransactionQueries.FIND_ALL_BY_IDS_WITH_DETAILS)
@@ -292,10 +427,20 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
         return findAllById(userId, ids);
     }
 
-    public void deleteAll(Long userId, List<Transaction> transactions) {
-        transactions.forEach(t -> {
-            if (t.getId() != null) deleteById(t.getId(), userId);
-        });
+    public int deleteAll(Long userId, List<Transaction> transactions) {
+        Long[] ids = transactions.stream()
+                .map(Transaction::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(Long[]::new);
+        if (ids.length == 0) {
+            return 0;
+        }
+
+        return jdbcClient.sql(TransactionQueries.DELETE_ALL_BY_IDS)
+                .param("ids", ids)
+                .param("userId", userId)
+                .update();
     }
 
     public BigDecimal getNetFlowAfterDate(Long accountId, LocalDate date) {
@@ -328,16 +473,7 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
         String sortClause = " order by transactions.date desc";
         if (pageable.getSort().isSorted()) {
             Sort.Order order = pageable.getSort().iterator().next();
-            String col = switch (order.getProperty()) {
-                case "date" -> "transactions.date";
-                case "description" -> "transactions.description";
-                case "merchant.cleanName" -> "merchants.clean_name";
-                case "category.name" -> "categories.name";
-                case "amount" -> "transactions.amount";
-                case "type" -> "transactions.type";
-                case "account.name" -> "accounts.name";
-                default -> "transactions.date";
-            };
+            String col = TransactionSortColumn.fromProperty(order.getProperty()).expression();
             String direction = order.getDirection().isAscending() ? "asc" : "desc";
             sortClause = " order by " + col + " " + direction;
         }
@@ -357,6 +493,99 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
         return new PageImpl<>(content, pageable, total);
     }
 
+    /**
+     * Loads one keyset page: the rows after the cursor in the given sort, without an offset scan.
+     *
+     * @param filter       the filter to apply
+     * @param column       the sort column
+     * @param ascending    the sort direction
+     * @param after        the cursor of the previous page, or null for the first page
+     * @param size         the maximum number of rows to return
+     * @param includeTotal whether to also count every row matching the filter
+     * @return the page, with a cursor for the next page when more rows follow
+     */
+    public KeysetPage findPage(TransactionSpecification.FilterResult filter,
+                               TransactionSortColumn column, boolean ascending,
+                               TransactionCursor after, int size, boolean includeTotal) {
+        String baseFrom = "from transactions " +
+                TransactionQueries.ENRICHED_JOINS + " " +
+                "where " + filter.whereClause();
+
+        Long total = includeTotal
+                ? jdbcClient.sql("select count(*) " + baseFrom)
+                        .params(filter.parameters())
+                        .query(Long.class)
+                        .single()
+                : null;
+
+        String direction = ascending ? " asc" : " desc";
+        String keyExpression = column.nullable() ? "coalesce(" + column.expression() + ", '')" : column.expression();
+        String nullFlag = "(" + column.expression() + " is null)";
+
+        StringBuilder sql = new StringBuilder("select ").append(TransactionQueries.ENRICHED_COLUMNS).append(" ").append(baseFrom);
+        Map<String, Object> params = new HashMap<>(filter.parameters());
+
+        if (after != null) {
+            if (after.column() != column || after.ascending() != ascending) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            String comparison = ascending ? " > " : " < ";
+            if (column.nullable()) {
+                sql.append(" and (").append(nullFlag).append(", ").append(keyExpression).append(", transactions.id)")
+                        .append(comparison).append("(:cursorNull, :cursorKey, :cursorId)");
+                params.put("cursorNull", after.key() == null);
+                params.put("cursorKey", after.key() == null ? "" : after.key());
+            } else {
+                sql.append(" and (").append(keyExpression).append(", transactions.id)")
+                        .append(comparison).append("(:cursorKey, :cursorId)");
+                params.put("cursorKey", column.parseKey(after.key()));
+            }
+            params.put("cursorId", after.id());
+        }
+
+        sql.append(" order by ");
+        if (column.nullable()) {
+            sql.append(nullFlag).append(direction).append(", ");
+        }
+        sql.append(keyExpression).append(direction).append(", transactions.id").append(direction);
+        sql.append(" limit :limit");
+        params.put("limit", size + 1);
+
+        List<Transaction> rows = jdbcClient.sql(sql.toString())
+                .params(params)
+                .query(rowMapper)
+                .list();
+
+        if (rows.size() <= size) {
+            return new KeysetPage(rows, null, total);
+        }
+
+        List<Transaction> content = rows.subList(0, size);
+        Transaction last = content.get(size - 1);
+        String next = new TransactionCursor(column, ascending, column.keyOf(last), last.getId()).encode();
+        return new KeysetPage(content, next, total);
+    }
+
+    /**
+     * Sums income and expenses of a current and a previous period with one scan.
+     */
+    public PeriodTotals getPeriodTotals(Long userId,
+                                        OffsetDateTime currentStart, OffsetDateTime currentEnd,
+                                        OffsetDateTime previousStart, OffsetDateTime previousEnd) {
+        return jdbcClient.sql(TransactionQueries.GET_PERIOD_TOTALS)
+                .param("userId", userId)
+                .param("currentStart", currentStart)
+                .param("currentEnd", currentEnd)
+                .param("previousStart", previousStart)
+                .param("previousEnd", previousEnd)
+                .query((rs, rowNum) -> new PeriodTotals(
+                        rs.getBigDecimal("current_income"),
+                        rs.getBigDecimal("current_expense"),
+                        rs.getBigDecimal("previous_income"),
+                        rs.getBigDecimal("previous_expense")))
+                .single();
+    }
+
     public BigDecimal getSumByDateRange(Long userId, OffsetDateTime start, OffsetDateTime end, TransactionType type) {
         return jdbcClient.sql(TransactionQueries.GET_SUM_BY_DATE_RANGE)
                 .param("userId", userId)
@@ -368,4 +597,14 @@ public class TransactionRepository implements JdbcRepository<Transaction, Long>,
                 .orElse(BigDecimal.ZERO);
 
     }
+
+    public record KeysetPage(List<Transaction> content, String nextCursor, Long total) {
+    }
+
+    public record DashboardTotals(BigDecimal income, BigDecimal expense, List<CategoryBreakdownDto> categoryBreakdown) {
+    }
+
+    public record PeriodTotals(BigDecimal currentIncome, BigDecimal currentExpense,
+                               BigDecimal previousIncome, BigDecimal previousExpense) {
+    }
 }
@@ -0,0 +1,89 @@
+package com.mayureshpatel.pfdataservice.repository.transaction;
+
+import com.mayureshpatel.pfdataservice.repository.transaction.query.TransactionRollupQueries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code transaction_daily_rollups}, the per-day totals behind the dashboard and budget reads.
+ * Every write to {@code transactions} must refresh the UTC days it touched, before and after the change.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionRollupRepository {
+
+    private final JdbcClient jdbcClient;
+
+    /**
+     * Recomputes the user's rollups for the UTC days of the given transaction dates.
+     *
+     * @param userId the owner of the transactions
+     * @param dates  the transaction dates that were written; nulls are ignored
+     */
+    public void refreshDates(Long userId, Collection<OffsetDateTime> dates) {
+        refreshDays(userId, dates.stream()
+                .filter(Objects::nonNull)
+                .map(date -> date.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate())
+                .collect(Collectors.toCollection(TreeSet::new)));
+    }
+
+    /**
+     * Recomputes the user's rollups for the given UTC days.
+     *
+     * @param userId the owner of the transactions
+     * @param days   the days to recompute
+     */
+    public void refreshDays(Long userId, Set<LocalDate> days) {
+        if (days.isEmpty()) {
+            return;
+        }
+
+        TreeSet<LocalDate> sorted = new TreeSet<>(days);
+        jdbcClient.sql(TransactionRollupQueries.DELETE_DAYS)
+                .param("userId", userId)
+                .param("days", sorted)
+                .update();
+        jdbcClient.sql(TransactionRollupQueries.INSERT_DAYS)
+                .param("userId", userId)
+                .param("startDate", sorted.first().atStartOfDay().atOffset(ZoneOffset.UTC))
+                .param("endDate", sorted.last().plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC))
+                .param("days", sorted)
+                .update();
+    }
+
+    /**
+     * Moves the user's rollups of deleted categories, including subcategories removed with their parent, to
+     * the uncategorized rollups. Call after deleting a category.
+     *
+     * @param userId the owner of the categories
+     */
+    public void rekeyDeletedCategories(Long userId) {
+        jdbcClient.sql(TransactionRollupQueries.REKEY_DELETED_CATEGORIES)
+                .param("userId", userId)
+                .update();
+    }
+
+    /**
+     * Moves the user's rollups of a deleted merchant to the rollups without a merchant. Call after deleting
+     * the merchant.
+     *
+     * @param userId     the owner of the merchant
+     * @param merchantId the deleted merchant
+     */
+    public void rekeyMerchant(Long userId, Long merchantId) {
+        jdbcClient.sql(TransactionRollupQueries.REKEY_MERCHANT)
+                .param("userId", userId)
+                .param("merchantId", merchantId)
+                .update();
+    }
+}
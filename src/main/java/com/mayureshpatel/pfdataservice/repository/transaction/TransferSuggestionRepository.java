@@ -0,0 +1,123 @@
+package com.mayureshpatel.pfdataservice.repository.transaction;
+
+import com.mayureshpatel.pfdataservice.repository.transaction.query.TransferSuggestionQueries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class TransferSuggestionRepository {
+
+    private final JdbcClient jdbcClient;
+
+    public long countByUserId(Long userId) {
+        return jdbcClient.sql(TransferSuggestionQueries.COUNT_BY_USER_ID)
+                .param("userId", userId)
+                .query(Long.class)
+                .single();
+    }
+
+    public List<StoredSuggestion> findByUserId(Long userId) {
+        return jdbcClient.sql(TransferSuggestionQueries.FIND_BY_USER_ID)
+                .param("userId", userId)
+                .query((rs, rowNum) -> new StoredSuggestion(
+                        rs.getLong("source_transaction_id"),
+                        rs.getLong("target_transaction_id"),
+                        rs.getBigDecimal("confidence_score").doubleValue()))
+                .list();
+    }
+
+    public Set<Long> findPairedTransactionIds(Long userId) {
+        return new HashSet<>(jdbcClient.sql(TransferSuggestionQueries.FIND_PAIRED_TRANSACTION_IDS)
+                .param("userId", userId)
+                .query(Long.class)
+                .list());
+    }
+
+    /**
+     * Stores the suggestions with one statement. Suggestions for a transaction that is already paired are skipped.
+     */
+    public void insertAll(Long userId, List<StoredSuggestion> suggestions) {
+        if (suggestions.isEmpty()) {
+            return;
+        }
+
+        Long[] sourceTransactionIds = new Long[suggestions.size()];
+        Long[] targetTransactionIds = new Long[suggestions.size()];
+        BigDecimal[] confidenceScores = new BigDecimal[suggestions.size()];
+        for (int i = 0; i < suggestions.size(); i++) {
+            StoredSuggestion suggestion = suggestions.get(i);
+            sourceTransactionIds[i] = suggestion.sourceTransactionId();
+            targetTransactionIds[i] = suggestion.targetTransactionId();
+            confidenceScores[i] = BigDecimal.valueOf(suggestion.confidenceScore()).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        jdbcClient.sql(TransferSuggestionQueries.INSERT_ALL)
+                .param("userId", userId)
+                .param("sourceTransactionIds", sourceTransactionIds)
+                .param("targetTransactionIds", targetTransactionIds)
+                .param("confidenceScores", confidenceScores)
+                .update();
+    }
+
+    public int deleteByUserId(Long userId) {
+        return jdbcClient.sql(TransferSuggestionQueries.DELETE_BY_USER_ID)
+                .param("userId", userId)
+                .update();
+    }
+
+    /**
+     * Deletes every suggestion of the user with at least one side dated inside the window.
+     *
+     * @return the number of suggestions deleted
+     */
+    public int deleteTouchingWindow(Long userId, OffsetDateTime startDate, OffsetDateTime endDate) {
+        return jdbcClient.sql(TransferSuggestionQueries.DELETE_TOUCHING_WINDOW)
+                .param("userId", userId)
+                .param("startDate", startDate)
+                .param("endDate", endDate)
+                .update();
+    }
+
+    /**
+     * Deletes every user's suggestions that have a side dated before the cutoff.
+     *
+     * @return the number of suggestions deleted
+     */
+    public int deleteOlderThan(OffsetDateTime cutoff) {
+        return jdbcClient.sql(TransferSuggestionQueries.DELETE_OLDER_THAN)
+                .param("cutoff", cutoff)
+                .update();
+    }
+
+    public List<Long> findUnbuiltUserIds(int limit) {
+        return jdbcClient.sql(TransferSuggestionQueries.FIND_UNBUILT_USER_IDS)
+                .param("limit", limit)
+                .query(Long.class)
+                .list();
+    }
+
+    public boolean isRefreshed(Long userId) {
+        return Boolean.TRUE.equals(jdbcClient.sql(TransferSuggestionQueries.EXISTS_REFRESH)
+                .param("userId", userId)
+                .query(Boolean.class)
+                .single());
+    }
+
+    public void markRefreshed(Long userId) {
+        jdbcClient.sql(TransferSuggestionQueries.UPSERT_REFRESH)
+                .param("userId", userId)
+                .update();
+    }
+
+    public record StoredSuggestion(Long sourceTransactionId, Long targetTransactionId, double confidenceScore) {
+    }
+}
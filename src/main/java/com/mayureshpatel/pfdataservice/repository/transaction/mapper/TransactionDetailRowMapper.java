@@ -1,85 +1,132 @@
 package com.mayureshpatel.pfdataservice.repository.transaction.mapper;
 
+import com.mayureshpatel.pfdataservice.domain.account.Account;
+import com.mayureshpatel.pfdataservice.domain.category.Category;
+import com.mayureshpatel.pfdataservice.domain.merchant.Merchant;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IdentityMap;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import com.mayureshpatel.pfdataservice.repository.account.mapper.AccountRowMapper;
 import com.mayureshpatel.pfdataservice.repository.category.mapper.CategoryRowMapper;
 import com.mayureshpatel.pfdataservice.repository.merchant.mapper.MerchantRowMapper;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 /**
  * Maps a fully-joined transaction result set (with account, account_type,
  * category, parent category, and merchant) into a {@link Transaction} domain object.
  * Use this mapper with queries that include {@link com.mayureshpatel.pfdataservice.repository.transaction.query.TransactionQueries#ENRICHED_COLUMNS}
  * and {@link com.mayureshpatel.pfdataservice.repository.transaction.query.TransactionQueries#ENRICHED_JOINS}.
+ * <p>
+ * Within one result set the joined account, category and merchant are built once per id and shared by
+ * every transaction that references them.
  */
 @Component
-public class TransactionDetailRowMapper extends JdbcMapperUtils implements RowMapper<Transaction> {
+public class TransactionDetailRowMapper extends IndexedRowMapper<Transaction, TransactionDetailRowMapper.Hydration> {
 
     @Override
-    public Transaction mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected Hydration resolve(ResultSetColumns columns) {
+        return new Hydration(Columns.resolve(columns, ""));
     }
 
     /**
      * Maps a fully-joined transaction result set (with account, account_type,
      * category, parent category, and merchant) into a {@link Transaction} domain object.
      *
-     * @param rs     the result set to map
-     * @param prefix the prefix to use for column names
+     * @param rs        the result set to map
+     * @param hydration the columns and shared entities of this result set
      * @return the mapped {@link Transaction} object
      * @throws SQLException if an error occurs while accessing the result set
      */
-    public static Transaction mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
-        }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
+    @Override
+    protected Transaction map(ResultSet rs, Hydration hydration) throws SQLException {
+        Columns columns = hydration.columns();
         Transaction.TransactionBuilder builder = Transaction.builder();
 
-        if (availableColumns.contains(safePrefix + "id")) {
-            builder.id(rs.getLong(safePrefix + "id"));
+        if (columns.id() != ABSENT) {
+            builder.id(rs.getLong(columns.id()));
         }
-        if (availableColumns.contains(safePrefix + "account_id")) {
-            builder.account(AccountRowMapper.mapRow(rs, "account"));
+        if (columns.accountId() != ABSENT) {
+            builder.account(hydration.accounts().get(rs));
         }
-        if (availableColumns.contains(safePrefix + "category_id")) {
-            builder.category(CategoryRowMapper.mapRow(rs, "category"));
+        if (columns.categoryId() != ABSENT) {
+            builder.category(hydration.categories().get(rs));
         }
-        if (availableColumns.contains(safePrefix + "amount")) {
-            builder.amount(rs.getBigDecimal(safePrefix + "amount"));
+        if (columns.amount() != ABSENT) {
+            builder.amount(rs.getBigDecimal(columns.amount()));
         }
-        if (availableColumns.contains(safePrefix + "transaction_date")) {
-            builder.transactionDate(getOffsetDateTime(rs, safePrefix + "transaction_date"));
-        } else if (availableColumns.contains(safePrefix + "date")) {
-            builder.transactionDate(getOffsetDateTime(rs, safePrefix + "date"));
+        if (columns.transactionDate() != ABSENT) {
+            builder.transactionDate(getOffsetDateTime(rs, columns.transactionDate()));
         }
-
-        if (availableColumns.contains(safePrefix + "post_date")) {
-            builder.postDate(getOffsetDateTime(rs, safePrefix + "post_date"));
+        if (columns.postDate() != ABSENT) {
+            builder.postDate(getOffsetDateTime(rs, columns.postDate()));
         }
-        if (availableColumns.contains(safePrefix + "description")) {
-            builder.description(rs.getString(safePrefix + "description"));
+        if (columns.description() != ABSENT) {
+            builder.description(rs.getString(columns.description()));
         }
-        if (availableColumns.contains(safePrefix + "type")) {
-            builder.type(TransactionType.valueOf(rs.getString(safePrefix + "type")));
+        if (columns.type() != ABSENT) {
+            builder.type(TransactionType.valueOf(rs.getString(columns.type())));
         }
-        if (availableColumns.contains(safePrefix + "merchant_id")) {
-            builder.merchant(MerchantRowMapper.mapRow(rs, "merchant"));
+        if (columns.merchantId() != ABSENT) {
+            builder.merchant(hydration.merchants().get(rs));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * Transaction column indexes resolved under one prefix. The joined account, category and merchant are
+     * always read from the {@code account_}, {@code category_} and {@code merchant_} columns.
+     */
+    public record Columns(int id, int accountId, int categoryId, int amount, int transactionDate, int postDate,
+                          int description, int type, int merchantId, AuditColumns audit,
+                          AccountRowMapper.Columns account, CategoryRowMapper.Columns category,
+                          MerchantRowMapper.Columns merchant) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+
+            int transactionDate = columns.indexOf(safePrefix + "transaction_date");
+            if (transactionDate == ABSENT) {
+                transactionDate = columns.indexOf(safePrefix + "date");
+            }
+
+            return new Columns(
+                    columns.indexOf(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "account_id"),
+                    columns.indexOf(safePrefix + "category_id"),
+                    columns.indexOf(safePrefix + "amount"),
+                    transactionDate,
+                    columns.indexOf(safePrefix + "post_date"),
+                    columns.indexOf(safePrefix + "description"),
+                    columns.indexOf(safePrefix + "type"),
+                    columns.indexOf(safePrefix + "merchant_id"),
+                    AuditColumns.resolve(columns, safePrefix),
+                    AccountRowMapper.Columns.resolve(columns, "account"),
+                    CategoryRowMapper.Columns.resolve(columns, "category"),
+                    MerchantRowMapper.Columns.resolve(columns, "merchant"));
+        }
+    }
+
+    /**
+     * Per-result-set state: the resolved columns and the shared account, category and merchant instances.
+     */
+    record Hydration(Columns columns, IdentityMap<Account> accounts, IdentityMap<Category> categories,
+                     IdentityMap<Merchant> merchants) {
+
+        Hydration(Columns columns) {
+            this(columns,
+                    new IdentityMap<>(columns.account().id(), (rs, rowNum) -> AccountRowMapper.mapRow(rs, columns.account())),
+                    new IdentityMap<>(columns.category().id(), (rs, rowNum) -> CategoryRowMapper.mapRow(rs, columns.category())),
+                    new IdentityMap<>(columns.merchant().id(), (rs, rowNum) -> MerchantRowMapper.mapRow(rs, columns.merchant())));
+        }
+    }
 }
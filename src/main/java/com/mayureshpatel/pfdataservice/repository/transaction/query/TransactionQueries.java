@@ -7,7 +7,8 @@ public final class TransactionQueries {
 
     /**
      * Comma-separated list of aliased columns for fully hydrated transaction queries.
-     * Covers transaction, account (with type), category (with parent), and merchant.
+     * Covers transaction, account (with type), category (with parent), and merchant. The account balance
+     * includes the deltas not yet compacted into {@code current_balance}.
      */
     public static final String ENRICHED_COLUMNS =
             """
@@ -24,7 +25,7 @@ public final class TransactionQueries {
                     transactions.updated_at,
                     transactions.deleted_at,
                     accounts.name as account_name,
-                    accounts.current_balance as account_balance,
+                    accounts.current_balance + coalesce(pending_deltas.delta, 0) as account_balance,
                     accounts.currency_code as account_currency_code,
                     accounts.bank_name as account_bank_name,
                     accounts.user_id as account_user_id,
@@ -52,10 +53,13 @@ public final class TransactionQueries {
                     """;
 
     /**
-     * JOIN clauses that hydrate account (with type), category (with parent), and merchant.
+     * JOIN clauses that hydrate account (with type), category (with parent), and merchant. The pending balance
+     * deltas are summed once per query and joined by account, rather than per returned row.
      */
     public static final String ENRICHED_JOINS =
             "join accounts ON transactions.account_id = accounts.id " +
+                    "left join (select account_id, sum(delta) as delta from account_balance_deltas group by account_id) " +
+                    "pending_deltas ON pending_deltas.account_id = accounts.id " +
                     "left join account_types ON accounts.type = account_types.code " +
                     "left join categories ON transactions.category_id = categories.id " +
                     "left join categories parent_categories ON categories.parent_id = parent_categories.id " +
@@ -107,18 +111,18 @@ public final class TransactionQueries {
             """;
 
     // language=SQL
-    public static final String FIND_EXISTING_FOR_DUPLICATE_CHECK = """
-            select *
+    public static final String FIND_IMPORT_SIGNATURES = """
+            select distinct import_signature
             from transactions
             where account_id = :accountId
-              and date >= :startDate
-              and date <= :endDate
+              and import_signature = any(cast(:signatures as varchar[]))
             """;
 
     // language=SQL
     public static final String INSERT = """
             insert into transactions
-                (amount, date, post_date, description, merchant_id, type, account_id, category_id, created_at, updated_at)
+                (amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature,
+                 created_at, updated_at)
             values (
                     :amount,
                     :date,
@@ -128,10 +132,113 @@ public final class TransactionQueries {
                     :type,
                     :accountId,
                     :categoryId,
+                    :importSignature,
                     CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
             returning id
             """;
 
+    /**
+     * Inserts many transactions in one statement. The {@code %s} placeholder takes a comma-separated list of
+     * {@link #INSERT_ALL_ROW} tuples, one per transaction.
+     */
+    // language=SQL
+    public static final String INSERT_ALL = """
+            insert into transactions
+                (amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature,
+                 created_at, updated_at)
+            select v.amount, v.date, v.post_date, v.description, v.merchant_id, v.type, v.account_id, v.category_id,
+                   v.import_signature, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            from (values
+            %s
+            ) as v(amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature)
+            returning import_signature
+            """;
+
+    /**
+     * Inserts imported transactions whose signature the account does not have yet. The {@code %s} placeholder
+     * takes a comma-separated list of {@link #INSERT_ALL_ROW} tuples with distinct signatures. Callers hold the
+     * account's import lock, so concurrent imports cannot both pass the check.
+     */
+    // language=SQL
+    public static final String IMPORT_NEW = """
+            insert into transactions
+                (amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature,
+                 created_at, updated_at)
+            select v.amount, v.date, v.post_date, v.description, v.merchant_id, v.type, v.account_id, v.category_id,
+                   v.import_signature, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            from (values
+            %s
+            ) as v(amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature)
+            where not exists (select 1
+                              from transactions t
+                              where t.account_id = v.account_id
+                                and t.import_signature = v.import_signature)
+            returning import_signature
+            """;
+
+    public static final String INSERT_ALL_ROW = """
+            (cast(:amount_%1$d as numeric), cast(:date_%1$d as timestamptz), cast(:postDate_%1$d as timestamptz), \
+            cast(:description_%1$d as varchar), cast(:merchantId_%1$d as bigint), cast(:type_%1$d as varchar), \
+            cast(:accountId_%1$d as bigint), cast(:categoryId_%1$d as bigint), cast(:importSignature_%1$d as varchar))""";
+
+    /**
+     * Session-local staging table used by the COPY bulk-load path. Dropped automatically at commit.
+     */
+    // language=SQL
+    public static final String CREATE_IMPORT_STAGING = """
+            create temp table if not exists transaction_import_staging
+            (
+                amount      numeric(19, 2),
+                date        timestamptz,
+                post_date   timestamptz,
+                description varchar(255),
+                merchant_id bigint,
+                type        varchar(20),
+                account_id  bigint,
+                category_id bigint,
+                import_signature varchar(64)
+            ) on commit drop
+            """;
+
+    // language=SQL
+    public static final String TRUNCATE_IMPORT_STAGING = "truncate transaction_import_staging";
+
+    // language=SQL
+    public static final String COPY_INTO_IMPORT_STAGING = """
+            copy transaction_import_staging
+                (amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature)
+            from stdin with (format csv)
+            """;
+
+    // language=SQL
+    public static final String MERGE_IMPORT_STAGING = """
+            insert into transactions
+                (amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature,
+                 created_at, updated_at)
+            select amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature,
+                   CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            from transaction_import_staging
+            returning import_signature
+            """;
+
+    /**
+     * Like {@link #MERGE_IMPORT_STAGING}, but skips staged rows whose signature the account already has.
+     */
+    // language=SQL
+    public static final String MERGE_NEW_IMPORT_STAGING = """
+            insert into transactions
+                (amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature,
+                 created_at, updated_at)
+            select s.amount, s.date, s.post_date, s.description, s.merchant_id, s.type, s.account_id, s.category_id,
+                   s.import_signature, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            from transaction_import_staging s
+            where not exists (select 1
+                              from transactions t
+                              where t.account_id = s.account_id
+                                and t.import_signature = s.import_signature)
+            returning import_signature
+            """;
+
     // language=SQL
     public static final String UPDATE = """
             update transactions
@@ -143,12 +250,44 @@ public final class TransactionQueries {
                 type = :type,
                 account_id = :accountId,
                 category_id = :categoryId,
+                import_signature = :importSignature,
                 updated_at = CURRENT_TIMESTAMP
             where id = :id
               and account_id in (select id from accounts where user_id = :userId)
               and deleted_at is null
             """;
 
+    /**
+     * Updates many transactions in one statement. The {@code %s} placeholder takes a comma-separated list of
+     * {@link #UPDATE_ALL_ROW} tuples, one per transaction.
+     */
+    // language=SQL
+    public static final String UPDATE_ALL = """
+            update transactions
+            set amount = v.amount,
+                date = v.date,
+                post_date = v.post_date,
+                description = v.description,
+                merchant_id = v.merchant_id,
+                type = v.type,
+                account_id = v.account_id,
+                category_id = v.category_id,
+                import_signature = v.import_signature,
+                updated_at = CURRENT_TIMESTAMP
+            from (values
+            %s
+            ) as v(id, amount, date, post_date, description, merchant_id, type, account_id, category_id, import_signature)
+            where transactions.id = v.id
+              and transactions.account_id in (select id from accounts where user_id = :userId)
+              and transactions.deleted_at is null
+            """;
+
+    public static final String UPDATE_ALL_ROW = """
+            (cast(:id_%1$d as bigint), cast(:amount_%1$d as numeric), cast(:date_%1$d as timestamptz), \
+            cast(:postDate_%1$d as timestamptz), cast(:description_%1$d as varchar), cast(:merchantId_%1$d as bigint), \
+            cast(:type_%1$d as varchar), cast(:accountId_%1$d as bigint), cast(:categoryId_%1$d as bigint), \
+            cast(:importSignature_%1$d as varchar))""";
+
     // language=SQL
     public static final String DELETE_BY_ID = """
             update transactions
@@ -158,6 +297,15 @@ public final class TransactionQueries {
               and deleted_at is null
             """;
 
+    // language=SQL
+    public static final String DELETE_ALL_BY_IDS = """
+            update transactions
+            set deleted_at = CURRENT_TIMESTAMP
+            where id = any(:ids)
+              and account_id in (select id from accounts where user_id = :userId)
+              and deleted_at is null
+            """;
+
     // language=SQL
     public static final String COUNT = """
             select count(*)
@@ -213,40 +361,115 @@ public final class TransactionQueries {
             where transaction_id = :transactionId
             """;
 
+    /**
+     * Opens a query over {@code ranged_rows} for the single range {@code :startDate} to {@code :endDate}, both
+     * inclusive.
+     */
+    // language=SQL
+    private static final String RANGED_ROWS_BETWEEN_DATES = """
+            with range_bounds as (
+                select 0                                                        as range_key,
+                       cast(:startDate as timestamptz)                          as range_start,
+                       cast(:endDate as timestamptz) + interval '1 microsecond' as range_end
+            ),
+            """ + TransactionRollupQueries.RANGED_ROWS;
+
     // language=SQL
-    public static final String FIND_CATEGORY_TOTALS = """
+    public static final String FIND_CATEGORY_TOTALS = RANGED_ROWS_BETWEEN_DATES + """
             select categories.id as category_id,
                    categories.name as category_name,
                    categories.color as category_color,
                    categories.icon as category_icon,
                    categories.type as category_type,
                    categories.parent_id as category_parent_id,
-                   sum(transactions.amount) as total
-            from transactions
-            left join categories on transactions.category_id = categories.id
-            join accounts on transactions.account_id = accounts.id
-            where accounts.user_id = :userId
-              and transactions.date between :startDate and :endDate
-              and transactions.type = 'EXPENSE'
-              and transactions.deleted_at is null
+                   sum(ranged_rows.total) as total
+            from ranged_rows
+            left join categories on ranged_rows.category_id = categories.id
+            where ranged_rows.type = 'EXPENSE'
             group by categories.id
             order by total desc
             """;
 
+    /**
+     * Income total, expense total and expenses per category for one period, read from the daily rollups of its
+     * whole days. The row of the empty grouping set carries the period totals and is flagged {@code summary}.
+     */
+    // language=SQL
+    public static final String FIND_DASHBOARD_TOTALS = RANGED_ROWS_BETWEEN_DATES + """
+            select categories.id as category_id,
+                   categories.name as category_name,
+                   categories.color as category_color,
+                   categories.icon as category_icon,
+                   categories.type as category_type,
+                   categories.parent_id as category_parent_id,
+                   coalesce(sum(ranged_rows.total) filter (where ranged_rows.type = 'EXPENSE'), 0) as total,
+                   coalesce(sum(ranged_rows.total) filter (where ranged_rows.type = 'INCOME'), 0) as income,
+                   grouping(categories.id) = 1 as summary
+            from ranged_rows
+            left join categories on ranged_rows.category_id = categories.id
+            where ranged_rows.type in ('INCOME', 'EXPENSE')
+            group by grouping sets ((categories.id, categories.name, categories.color, categories.icon,
+                                     categories.type, categories.parent_id), ())
+            having grouping(categories.id) = 1
+                or count(*) filter (where ranged_rows.type = 'EXPENSE') > 0
+            order by summary desc, total desc
+            """;
+
+    /**
+     * Income and expense totals of two periods, both bounds inclusive, in one query over the daily rollups of
+     * their whole days.
+     */
+    // language=SQL
+    public static final String GET_PERIOD_TOTALS = """
+            with range_bounds as (
+                select 'current'                                                    as range_key,
+                       cast(:currentStart as timestamptz)                           as range_start,
+                       cast(:currentEnd as timestamptz) + interval '1 microsecond'  as range_end
+                union all
+                select 'previous',
+                       cast(:previousStart as timestamptz),
+                       cast(:previousEnd as timestamptz) + interval '1 microsecond'
+            ),
+            """ + TransactionRollupQueries.RANGED_ROWS + """
+            select coalesce(sum(ranged_rows.total) filter (where ranged_rows.range_key = 'current'
+                       and ranged_rows.type = 'INCOME'), 0) as current_income,
+                   coalesce(sum(ranged_rows.total) filter (where ranged_rows.range_key = 'current'
+                       and ranged_rows.type = 'EXPENSE'), 0) as current_expense,
+                   coalesce(sum(ranged_rows.total) filter (where ranged_rows.range_key = 'previous'
+                       and ranged_rows.type = 'INCOME'), 0) as previous_income,
+                   coalesce(sum(ranged_rows.total) filter (where ranged_rows.range_key = 'previous'
+                       and ranged_rows.type = 'EXPENSE'), 0) as previous_expense
+            from ranged_rows
+            where ranged_rows.type in ('INCOME', 'EXPENSE')
+            """;
+
+    /**
+     * Income and expense totals per calendar month from {@code :startDate} on. Months follow the session time
+     * zone like the other monthly reports, so each month is its own range and days that straddle a month
+     * boundary are split on the base table.
+     */
     // language=SQL
     public static final String FIND_MONTHLY_SUMS = """
-            select extract(year from transactions.date)  as year,
-                   extract(month from transactions.date) as month,
-                   transactions.type,
-                   sum(transactions.amount)              as total
-            from transactions
-            join accounts on transactions.account_id = accounts.id
-            where accounts.user_id = :userId
-                and transactions.date >= :startDate
-              and transactions.type in ('INCOME', 'EXPENSE')
-              and transactions.deleted_at is null
-            group by extract(year from transactions.date), extract(month from transactions.date), transactions.type
-            order by year, month
+            with range_bounds as (
+                select months.month_start                                          as range_key,
+                       greatest(months.month_start, cast(:startDate as timestamptz)) as range_start,
+                       months.month_start + interval '1 month'                     as range_end
+                from generate_series(
+                         date_trunc('month', cast(:startDate as timestamptz)),
+                         greatest(now(), (select cast(max(rollups.day) + 1 as timestamp) at time zone 'UTC'
+                                          from transaction_daily_rollups rollups
+                                          where rollups.user_id = :userId)),
+                         interval '1 month') as months(month_start)
+            ),
+            """ + TransactionRollupQueries.RANGED_ROWS + """
+            select extract(year from ranged_rows.range_key)  as year,
+                   extract(month from ranged_rows.range_key) as month,
+                   ranged_rows.type,
+                   sum(ranged_rows.total)                    as total
+            from ranged_rows
+            where ranged_rows.type in ('INCOME', 'EXPENSE')
+            group by ranged_rows.range_key, ranged_rows.type
+            order by ranged_rows.range_key
             """;
 
     // language=SQL
@@ -265,14 +488,10 @@ public final class TransactionQueries {
             """;
 
     // language=SQL
-    public static final String GET_SUM_BY_DATE_RANGE = """
-            select coalesce(sum(transactions.amount), 0)
-            from transactions
-            join accounts on transactions.account_id = accounts.id
-            where accounts.user_id = :userId
-              and transactions.date between :startDate and :endDate
-              and transactions.type = :type
-              and transactions.deleted_at is null
+    public static final String GET_SUM_BY_DATE_RANGE = RANGED_ROWS_BETWEEN_DATES + """
+            select coalesce(sum(ranged_rows.total), 0)
+            from ranged_rows
+            where ranged_rows.type = :type
             """;
 
     // language=SQL
@@ -284,6 +503,15 @@ public final class TransactionQueries {
             "   and transactions.deleted_at is null" +
             " order by transactions.date desc";
 
+    // language=SQL
+    public static final String FIND_NON_TRANSFER_BETWEEN = "select " + ENRICHED_COLUMNS +
+            " from transactions " + ENRICHED_JOINS +
+            " where accounts.user_id = :userId" +
+            "   and transactions.date >= :startDate" +
+            "   and transactions.date <= :endDate" +
+            "   and transactions.type not in ('TRANSFER_IN', 'TRANSFER_OUT', 'TRANSFER')" +
+            "   and transactions.deleted_at is null";
+
     // language=SQL
     public static final String FIND_ALL_BY_IDS = """
             select transactions.*
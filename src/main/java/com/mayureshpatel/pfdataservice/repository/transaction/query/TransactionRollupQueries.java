@@ -0,0 +1,147 @@
+package com.mayureshpatel.pfdataservice.repository.transaction.query;
+
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class TransactionRollupQueries {
+
+    // language=SQL
+    public static final String DELETE_DAYS = """
+            delete from transaction_daily_rollups
+            where user_id = :userId
+              and day in (:days)
+            """;
+
+    /**
+     * Re-aggregates the user's transactions on the given UTC days. The date range only narrows the scan to
+     * the date index; the day list decides which rows are rolled up.
+     */
+    // language=SQL
+    public static final String INSERT_DAYS = """
+            insert into transaction_daily_rollups (user_id, account_id, category_id, merchant_id, type, day,
+                                                   total, transaction_count)
+            select accounts.user_id,
+                   transactions.account_id,
+                   transactions.category_id,
+                   transactions.merchant_id,
+                   transactions.type,
+                   (transactions.date at time zone 'UTC')::date as day,
+                   sum(transactions.amount),
+                   count(*)
+            from transactions
+            join accounts on transactions.account_id = accounts.id
+            where accounts.user_id = :userId
+              and transactions.date >= :startDate
+              and transactions.date < :endDate
+              and (transactions.date at time zone 'UTC')::date in (:days)
+              and transactions.deleted_at is null
+            group by accounts.user_id, transactions.account_id, transactions.category_id, transactions.merchant_id,
+                     transactions.type, day
+            on conflict (user_id, day, account_id, type, coalesce(category_id, 0), coalesce(merchant_id, 0))
+                do update set total             = excluded.total,
+                              transaction_count = excluded.transaction_count
+            """;
+
+    /**
+     * Common table expressions that total the user's transactions over arbitrary timestamp ranges. The query
+     * must first define {@code range_bounds(range_key, range_start, range_end)} with exclusive ends; this
+     * fragment then yields {@code ranged_rows}, one row per rollup or transaction, tagged with its range key.
+     * <p>
+     * Whole UTC days inside a range are read from the rollups. The partial days at either edge are read from
+     * {@code transactions} with the exact bounds, so a range that is not aligned to UTC midnight still sums
+     * exactly what a scan of the base table would.
+     */
+    // language=SQL
+    public static final String RANGED_ROWS = """
+            ranges as (
+                select range_bounds.range_key,
+                       range_bounds.range_start,
+                       range_bounds.range_end,
+                       ranged_days.first_day,
+                       ranged_days.end_day,
+                       cast(ranged_days.first_day as timestamp) at time zone 'UTC' as first_day_start,
+                       cast(ranged_days.end_day as timestamp) at time zone 'UTC'   as end_day_start
+                from range_bounds
+                cross join lateral (
+                    select ((range_bounds.range_start - interval '1 microsecond') at time zone 'UTC')::date + 1
+                               as first_day,
+                           (range_bounds.range_end at time zone 'UTC')::date as end_day
+                ) ranged_days
+            ),
+            ranged_rows as (
+                select ranges.range_key,
+                       rollups.account_id,
+                       rollups.category_id,
+                       rollups.merchant_id,
+                       rollups.type,
+                       rollups.total
+                from ranges
+                join transaction_daily_rollups rollups
+                    on rollups.user_id = :userId
+                   and rollups.day >= ranges.first_day
+                   and rollups.day < ranges.end_day
+                union all
+                select ranges.range_key,
+                       transactions.account_id,
+                       transactions.category_id,
+                       transactions.merchant_id,
+                       transactions.type,
+                       transactions.amount
+                from ranges
+                join transactions
+                    on (transactions.date >= ranges.range_start
+                        and transactions.date < least(ranges.first_day_start, ranges.range_end))
+                    or (transactions.date >= greatest(ranges.end_day_start, ranges.first_day_start)
+                        and transactions.date < ranges.range_end)
+                join accounts on transactions.account_id = accounts.id
+                where accounts.user_id = :userId
+                  and transactions.deleted_at is null
+            )
+            """;
+
+    /**
+     * Folds the user's rollups of categories that no longer exist into the uncategorized rollups of the same
+     * day, as the {@code on delete set null} of {@code transactions.category_id} did for the transactions.
+     */
+    // language=SQL
+    public static final String REKEY_DELETED_CATEGORIES = """
+            with stale as (
+                delete from transaction_daily_rollups rollups
+                where rollups.user_id = :userId
+                  and rollups.category_id is not null
+                  and not exists (select 1 from categories where categories.id = rollups.category_id)
+                returning rollups.*
+            )
+            insert into transaction_daily_rollups (user_id, account_id, category_id, merchant_id, type, day,
+                                                   total, transaction_count)
+            select user_id, account_id, cast(null as bigint), merchant_id, type, day, sum(total), sum(transaction_count)
+            from stale
+            group by user_id, account_id, merchant_id, type, day
+            on conflict (user_id, day, account_id, type, coalesce(category_id, 0), coalesce(merchant_id, 0))
+                do update set total             = transaction_daily_rollups.total + excluded.total,
+                              transaction_count = transaction_daily_rollups.transaction_count
+                                                  + excluded.transaction_count
+            """;
+
+    /**
+     * Folds the user's rollups of a deleted merchant into the rollups without a merchant of the same day.
+     */
+    // language=SQL
+    public static final String REKEY_MERCHANT = """
+            with stale as (
+                delete from transaction_daily_rollups rollups
+                where rollups.user_id = :userId
+                  and rollups.merchant_id = :merchantId
+                returning rollups.*
+            )
+            insert into transaction_daily_rollups (user_id, account_id, category_id, merchant_id, type, day,
+                                                   total, transaction_count)
+            select user_id, account_id, category_id, cast(null as bigint), type, day, sum(total), sum(transaction_count)
+            from stale
+            group by user_id, account_id, category_id, type, day
+            on conflict (user_id, day, account_id, type, coalesce(category_id, 0), coalesce(merchant_id, 0))
+                do update set total             = transaction_daily_rollups.total + excluded.total,
+                              transaction_count = transaction_daily_rollups.transaction_count
+                                                  + excluded.transaction_count
+            """;
+}
@@ -0,0 +1,102 @@
+package com.mayureshpatel.pfdataservice.repository.transaction.query;
+
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+public final class TransferSuggestionQueries {
+
+    // language=SQL
+    public static final String COUNT_BY_USER_ID = """
+            select count(*)
+            from transfer_suggestions ts
+                join transactions source on source.id = ts.source_transaction_id and source.deleted_at is null
+                join transactions target on target.id = ts.target_transaction_id and target.deleted_at is null
+            where ts.user_id = :userId
+            """;
+
+    // language=SQL
+    public static final String FIND_BY_USER_ID = """
+            select ts.source_transaction_id,
+                   ts.target_transaction_id,
+                   ts.confidence_score
+            from transfer_suggestions ts
+                join transactions source on source.id = ts.source_transaction_id and source.deleted_at is null
+                join transactions target on target.id = ts.target_transaction_id and target.deleted_at is null
+            where ts.user_id = :userId
+            order by source.date desc, source.id
+            """;
+
+    // language=SQL
+    public static final String FIND_PAIRED_TRANSACTION_IDS = """
+            select source_transaction_id as transaction_id
+            from transfer_suggestions
+            where user_id = :userId
+            union all
+            select target_transaction_id
+            from transfer_suggestions
+            where user_id = :userId
+            """;
+
+    // language=SQL
+    public static final String INSERT_ALL = """
+            insert into transfer_suggestions (user_id, source_transaction_id, target_transaction_id, confidence_score)
+            select :userId, s.source_transaction_id, s.target_transaction_id, s.confidence_score
+            from unnest(cast(:sourceTransactionIds as bigint[]), cast(:targetTransactionIds as bigint[]),
+                        cast(:confidenceScores as numeric[]))
+                     as s(source_transaction_id, target_transaction_id, confidence_score)
+            on conflict do nothing
+            """;
+
+    // language=SQL
+    public static final String DELETE_BY_USER_ID = """
+            delete from transfer_suggestions
+            where user_id = :userId
+            """;
+
+    // language=SQL
+    public static final String DELETE_TOUCHING_WINDOW = """
+            delete from transfer_suggestions ts
+            where ts.user_id = :userId
+              and exists (select 1
+                          from transactions t
+                          where t.id in (ts.source_transaction_id, ts.target_transaction_id)
+                            and t.date >= :startDate
+                            and t.date <= :endDate)
+            """;
+
+    /**
+     * Deletes suggestions with a side dated before {@code :cutoff}, which a rebuild would no longer find.
+     */
+    // language=SQL
+    public static final String DELETE_OLDER_THAN = """
+            delete from transfer_suggestions ts
+            where exists (select 1
+                          from transactions t
+                          where t.id in (ts.source_transaction_id, ts.target_transaction_id)
+                            and t.date < :cutoff)
+            """;
+
+    /**
+     * Users whose suggestions have never been built, oldest account first.
+     */
+    // language=SQL
+    public static final String FIND_UNBUILT_USER_IDS = """
+            select u.id
+            from users u
+            where not exists (select 1 from transfer_suggestion_refreshes r where r.user_id = u.id)
+            order by u.id
+            limit :limit
+            """;
+
+    // language=SQL
+    public static final String EXISTS_REFRESH = """
+            select exists(select 1 from transfer_suggestion_refreshes where user_id = :userId)
+            """;
+
+    // language=SQL
+    public static final String UPSERT_REFRESH = """
+            insert into transfer_suggestion_refreshes (user_id, refreshed_at)
+            values (:userId, current_timestamp)
+            on conflict (user_id) do update set refreshed_at = excluded.refreshed_at
+            """;
+}
@@ -0,0 +1,53 @@
+package com.mayureshpatel.pfdataservice.repository.transaction.specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset page: the sort it was taken under, the row's sort key and its id.
+ * Clients receive it as an opaque URL-safe token and send it back unchanged.
+ *
+ * @param column    the sort column of the page
+ * @param ascending the sort direction of the page
+ * @param key       the sort key of the last row, or null when the column was null for it
+ * @param id        the id of the last row, which breaks ties between equal keys
+ */
+public record TransactionCursor(TransactionSortColumn column, boolean ascending, String key, long id) {
+
+    private static final String SEPARATOR = "\u001f";
+    private static final String NULL_KEY = "\u0000";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR,
+                column.name(),
+                ascending ? "A" : "D",
+                key == null ? NULL_KEY : key,
+                Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+
+            TransactionSortColumn column = TransactionSortColumn.valueOf(parts[0]);
+            String key = NULL_KEY.equals(parts[2]) ? null : parts[2];
+            if (key != null) {
+                column.parseKey(key);
+            }
+            return new TransactionCursor(column, "A".equals(parts[1]), key, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mayureshpatel.pfdataservice.repository.transaction.specification;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * The columns transactions can be sorted by, keyed by the sort property clients send.
+ * <p>
+ * Nullable columns are ordered by an {@code is null} flag first so that keyset comparisons never meet a
+ * {@code null}; the flag keeps PostgreSQL's default placement of nulls (last ascending, first descending).
+ */
+public enum TransactionSortColumn {
+
+    DATE("date", "transactions.date", false,
+            t -> t.getTransactionDate() == null ? null : t.getTransactionDate().toString(), OffsetDateTime::parse),
+    DESCRIPTION("description", "transactions.description", true,
+            Transaction::getDescription, key -> key),
+    MERCHANT("merchant.cleanName", "merchants.clean_name", true,
+            t -> t.getMerchant() == null ? null : t.getMerchant().getCleanName(), key -> key),
+    CATEGORY("category.name", "categories.name", true,
+            t -> t.getCategory() == null ? null : t.getCategory().getName(), key -> key),
+    AMOUNT("amount", "transactions.amount", false,
+            t -> t.getAmount() == null ? null : t.getAmount().toPlainString(), BigDecimal::new),
+    TYPE("type", "transactions.type", false,
+            t -> t.getType() == null ? null : t.getType().name(), key -> key),
+    ACCOUNT("account.name", "accounts.name", false,
+            t -> t.getAccount() == null ? null : t.getAccount().getName(), key -> key);
+
+    private final String property;
+    private final String expression;
+    private final boolean nullable;
+    private final Function<Transaction, String> keyExtractor;
+    private final Function<String, Object> keyParser;
+
+    TransactionSortColumn(String property, String expression, boolean nullable,
+                          Function<Transaction, String> keyExtractor, Function<String, Object> keyParser) {
+        this.property = property;
+        this.expression = expression;
+        this.nullable = nullable;
+        this.keyExtractor = keyExtractor;
+        this.keyParser = keyParser;
+    }
+
+    /**
+     * Resolves a sort property, falling back to {@link #DATE} for unknown properties.
+     */
+    public static TransactionSortColumn fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(column -> column.property.equals(property))
+                .findFirst()
+                .orElse(DATE);
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public String expression() {
+        return expression;
+    }
+
+    public boolean nullable() {
+        return nullable;
+    }
+
+    /**
+     * The sort key of a transaction as cursor text, or null when the column is null for it.
+     */
+    public String keyOf(Transaction transaction) {
+        return keyExtractor.apply(transaction);
+    }
+
+    /**
+     * Converts cursor text back into a value comparable with {@link #expression()}.
+     */
+    public Object parseKey(String key) {
+        return keyParser.apply(key);
+    }
+}
@@ -1,62 +1,76 @@
 package com.mayureshpatel.pfdataservice.repository.user.mapper;
 
 import com.mayureshpatel.pfdataservice.domain.user.User;
-import com.mayureshpatel.pfdataservice.repository.JdbcMapperUtils;
-import org.jspecify.annotations.NonNull;
-import org.springframework.jdbc.core.RowMapper;
+import com.mayureshpatel.pfdataservice.repository.AuditColumns;
+import com.mayureshpatel.pfdataservice.repository.IndexedRowMapper;
+import com.mayureshpatel.pfdataservice.repository.ResultSetColumns;
 import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static com.mayureshpatel.pfdataservice.repository.ResultSetColumns.ABSENT;
 
 @Component
-public class UserRowMapper extends JdbcMapperUtils implements RowMapper<User> {
+public class UserRowMapper extends IndexedRowMapper<User, UserRowMapper.Columns> {
+
+    @Override
+    protected Columns resolve(ResultSetColumns columns) {
+        return Columns.resolve(columns, "");
+    }
 
     @Override
-    public User mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-        return mapRow(rs, "");
+    protected User map(ResultSet rs, Columns columns) throws SQLException {
+        return mapRow(rs, columns);
     }
 
     /**
-     * Maps a ResultSet row to a User object with a custom prefix.
+     * Maps a ResultSet row to a User object using resolved column indexes.
      *
-     * @param rs     ResultSet containing the row data
-     * @param prefix Prefix to use for column names
-     * @return User object populated with data from the ResultSet
+     * @param rs      ResultSet containing the row data
+     * @param columns the resolved user columns
+     * @return User object populated with data from the ResultSet, or null if the row has no user
      * @throws SQLException if there is an error accessing the ResultSet
      */
-    public static User mapRow(ResultSet rs, String prefix) throws SQLException {
-        String safePrefix;
-        if (prefix == null || prefix.isEmpty()) {
-            safePrefix = "";
-        } else {
-            safePrefix = prefix.endsWith("_") ? prefix : prefix + "_";
+    public static User mapRow(ResultSet rs, Columns columns) throws SQLException {
+        if (columns.id() == ABSENT) {
+            return null;
         }
-        Set<String> availableColumns = getAvailableColumns(rs);
-
-        User.UserBuilder builder = User.builder();
-        if (hasColumn(safePrefix + "id", availableColumns)) {
-            Long id = getLongOrNull(rs, safePrefix + "id");
-            if (id == null) {
-                return null;
-            }
-            builder.id(id);
-        } else {
+        Long id = getLongOrNull(rs, columns.id());
+        if (id == null) {
             return null;
         }
 
-        if (hasColumn(safePrefix + "username", availableColumns)) {
-            builder.username(rs.getString(safePrefix + "username"));
+        User.UserBuilder builder = User.builder();
+        builder.id(id);
+
+        if (columns.username() != ABSENT) {
+            builder.username(rs.getString(columns.username()));
         }
-        if (hasColumn(safePrefix + "password_hash", availableColumns)) {
-            builder.passwordHash(rs.getString(safePrefix + "password_hash"));
+        if (columns.passwordHash() != ABSENT) {
+            builder.passwordHash(rs.getString(columns.passwordHash()));
         }
-        if (hasColumn(safePrefix + "email", availableColumns)) {
-            builder.email(rs.getString(safePrefix + "email"));
+        if (columns.email() != ABSENT) {
+            builder.email(rs.getString(columns.email()));
         }
-        builder.audit(getAuditColumns(rs, safePrefix, availableColumns));
+        builder.audit(columns.audit().read(rs));
 
         return builder.build();
     }
+
+    /**
+     * User column indexes resolved under one prefix.
+     */
+    public record Columns(int id, int username, int passwordHash, int email, AuditColumns audit) {
+
+        public static Columns resolve(ResultSetColumns columns, String prefix) {
+            String safePrefix = normalizePrefix(prefix);
+            return new Columns(
+                    columns.indexOf(safePrefix + "id"),
+                    columns.indexOf(safePrefix + "username"),
+                    columns.indexOf(safePrefix + "password_hash"),
+                    columns.indexOf(safePrefix + "email"),
+                    AuditColumns.resolve(columns, safePrefix));
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package com.mayureshpatel.pfdataservice.service;
+
+import com.mayureshpatel.pfdataservice.repository.account.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically folds the balance ledger into {@code accounts.current_balance}, so reading a balance only
+ * has to sum the deltas written since the last run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountBalanceCompactor {
+
+    /**
+     * Deltas folded per statement, keeping each run's lock on the account rows short.
+     */
+    static final int BATCH_SIZE = 10_000;
+
+    /**
+     * Upper bound on statements per run, so a steady stream of writes cannot keep one run going forever.
+     */
+    static final int MAX_BATCHES = 100;
+
+    private final AccountRepository accountRepository;
+
+    @Scheduled(fixedDelayString = "${accounts.balance-compaction.delay:PT1M}")
+    public void compact() {
+        int accounts = 0;
+        for (int batch = 0; batch < MAX_BATCHES; batch++) {
+            int compacted = accountRepository.compactBalanceDeltas(BATCH_SIZE);
+            if (compacted == 0) {
+                break;
+            }
+            accounts += compacted;
+        }
+
+        if (accounts > 0) {
+            log.debug("Compacted balance deltas into {} account balances", accounts);
+        }
+    }
+}
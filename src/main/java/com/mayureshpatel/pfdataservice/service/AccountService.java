@@ -11,6 +11,7 @@ import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.mapper.AccountDtoMapper;
 import com.mayureshpatel.pfdataservice.repository.account.AccountRepository;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
 import com.mayureshpatel.pfdataservice.repository.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
@@ -28,6 +29,7 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final TransactionRollupRepository transactionRollupRepository;
 
     /**
      * Retrieves all accounts for a user.
@@ -102,9 +104,9 @@ public class AccountService {
         // create an adjustment transaction
         TransactionCreateRequest adjustmentTransaction = createAdjustmentTransaction(account, diff);
         this.transactionRepository.insert(adjustmentTransaction);
+        this.transactionRollupRepository.refreshDates(userId, List.of(adjustmentTransaction.getTransactionDate()));
 
         // update account balance
-        account.applyTransaction(adjustmentTransaction);
         return accountRepository.reconcile(userId, request.getAccountId(), request.getNewBalance(), request.getVersion());
     }
 
@@ -3,8 +3,8 @@ package com.mayureshpatel.pfdataservice.service;
 import com.mayureshpatel.pfdataservice.domain.TableAudit;
 import com.mayureshpatel.pfdataservice.domain.category.Category;
 import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
-import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.domain.user.User;
+import com.mayureshpatel.pfdataservice.dto.RuleApplyPreviewDto;
 import com.mayureshpatel.pfdataservice.dto.RuleChangePreviewDto;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleCreateRequest;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleDto;
@@ -13,29 +13,31 @@ import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.mapper.CategoryRuleDtoMapper;
 import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
 import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository;
-import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository.AppliedRules;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
 import com.mayureshpatel.pfdataservice.repository.user.UserRepository;
-import com.mayureshpatel.pfdataservice.service.categorization.TransactionCategorizer;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationContextCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class CategoryRuleService {
 
+    public static final int DEFAULT_PREVIEW_PAGE_SIZE = 100;
+    public static final int MAX_PREVIEW_PAGE_SIZE = 500;
+
     private final CategoryRuleRepository categoryRuleRepository;
     private final UserRepository userRepository;
-    private final TransactionRepository transactionRepository;
-    private final TransactionCategorizer categorizer;
     private final CategoryRepository categoryRepository;
+    private final CategorizationContextCache categorizationContextCache;
+    private final TransactionRollupRepository transactionRollupRepository;
 
     /**
      * Get all category rules for a user
@@ -76,7 +78,9 @@ public class CategoryRuleService {
                 .audit(TableAudit.insertAudit(user))
                 .build();
 
-        return categoryRuleRepository.insert(rule);
+        int inserted = categoryRuleRepository.insert(rule);
+        categorizationContextCache.evict(userId);
+        return inserted;
     }
 
     /**
@@ -109,7 +113,9 @@ public class CategoryRuleService {
                 .audit(TableAudit.updateAudit(rule.getUser()))
                 .build();
 
-        return categoryRuleRepository.update(updatedRule);
+        int updated = categoryRuleRepository.update(updatedRule);
+        categorizationContextCache.evict(userId);
+        return updated;
     }
 
     /**
@@ -128,82 +134,49 @@ public class CategoryRuleService {
         }
 
         categoryRuleRepository.deleteById(ruleId, userId);
+        categorizationContextCache.evict(userId);
     }
 
-    public List<RuleChangePreviewDto> previewApply(Long userId) {
-        List<CategoryRule> rules = categoryRuleRepository.findByUserId(userId);
-        List<Category> categories = categoryRepository.findByUserId(userId);
-        List<Transaction> transactions = transactionRepository.findByUserId(userId);
-
-        Map<Long, Category> categoryMap = categories.stream()
-                .collect(Collectors.toMap(
-                        Category::getId,
-                        category -> category, (categoryA, categoryB) -> categoryA)
-                );
-
-        List<RuleChangePreviewDto> previews = new ArrayList<>();
-        for (Transaction transaction : transactions) {
-            if (transaction.getCategory() != null) {
-                continue;
-            }
-
-            Long guessedCategory = this.categorizer.guessCategory(transaction, rules, categories);
-            if (guessedCategory == null) {
-                continue;
-            }
-
-            Category matchedCategory = categoryMap.get(guessedCategory);
-            if (matchedCategory == null) {
-                continue;
-            }
-
-            previews.add(new RuleChangePreviewDto(
-                    transaction.getDescription(),
-                    "Uncategorized",
-                    matchedCategory.getName()
-            ));
-        }
+    /**
+     * Previews what {@link #applyRules(Long)} would change, one page of uncategorized transactions at a time.
+     *
+     * @param userId the user id
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+     * @param size   the requested page size, clamped to {@value #MAX_PREVIEW_PAGE_SIZE}
+     * @return the page of previews; category totals are included on the first page only
+     */
+    public RuleApplyPreviewDto previewApply(Long userId, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PREVIEW_PAGE_SIZE));
+        long afterId = cursor == null ? 0L : cursor;
 
-        return previews;
-    }
+        List<CategoryRuleRepository.RuleMatch> matches =
+                this.categoryRuleRepository.findUncategorizedMatches(userId, afterId, pageSize + 1);
 
-    @Transactional
-    public int applyRules(Long userId) {
-        List<CategoryRule> rules = this.categoryRuleRepository.findByUserId(userId);
-        List<Category> categories = this.categoryRepository.findByUserId(userId);
-        List<Transaction> transactions = this.transactionRepository.findByUserId(userId);
-
-        Map<Long, Category> categoryMap = categories.stream()
-                .collect(Collectors.toMap(
-                        Category::getId,
-                        category -> category, (categoryA, categoryB) -> categoryA));
-
-        List<Transaction> toUpdate = new ArrayList<>();
-
-        for (Transaction transaction : transactions) {
-            if (transaction.getCategory() != null) {
-                continue;
-            }
-
-            Long guessedCategory = this.categorizer.guessCategory(transaction, rules, categories);
-            if (null == guessedCategory) {
-                continue;
-            }
-
-            Category matchedCategory = categoryMap.get(guessedCategory);
-            if (matchedCategory == null) {
-                continue;
-            }
-
-            toUpdate.add(transaction.toBuilder()
-                    .category(matchedCategory)
-                    .build());
-        }
+        boolean hasMore = matches.size() > pageSize;
+        List<CategoryRuleRepository.RuleMatch> page = hasMore ? matches.subList(0, pageSize) : matches;
 
-        if (!toUpdate.isEmpty()) {
-            this.transactionRepository.updateAll(userId, toUpdate);
-        }
+        List<RuleChangePreviewDto> changes = page.stream()
+                .map(match -> new RuleChangePreviewDto(match.description(), "Uncategorized", match.categoryName()))
+                .toList();
+
+        List<RuleApplyPreviewDto.CategoryCount> counts = cursor == null
+                ? this.categoryRuleRepository.countUncategorizedMatchesByCategory(userId)
+                : null;
 
-        return toUpdate.size();
+        Long nextCursor = hasMore ? page.get(page.size() - 1).transactionId() : null;
+        return new RuleApplyPreviewDto(changes, counts, nextCursor);
+    }
+
+    /**
+     * Categorizes the user's uncategorized transactions with their rules, entirely in the database.
+     *
+     * @param userId the user id
+     * @return the number of transactions each rule categorized, keyed by rule id
+     */
+    @Transactional
+    public Map<Long, Integer> applyRules(Long userId) {
+        AppliedRules applied = this.categoryRuleRepository.applyToUncategorized(userId);
+        this.transactionRollupRepository.refreshDays(userId, applied.days());
+        return applied.countsByRule();
     }
 }
@@ -8,7 +8,9 @@ import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.mapper.CategoryDtoMapper;
 import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
 import com.mayureshpatel.pfdataservice.repository.user.UserRepository;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationContextCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,8 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final TransactionRollupRepository transactionRollupRepository;
+    private final CategorizationContextCache categorizationContextCache;
 
     @Transactional(readOnly = true)
     public List<CategoryDto> getCategoriesByUserId(Long userId) {
@@ -48,7 +52,9 @@ public class CategoryService {
         CategoryCreateRequest securedRequest = request.toBuilder()
                 .userId(userId)
                 .build();
-        return categoryRepository.insert(securedRequest);
+        int inserted = categoryRepository.insert(securedRequest);
+        categorizationContextCache.evict(userId);
+        return inserted;
     }
 
     @Transactional
@@ -80,7 +86,9 @@ public class CategoryService {
         CategoryUpdateRequest securedRequest = request.toBuilder()
                 .userId(userId)
                 .build();
-        return this.categoryRepository.update(securedRequest);
+        int updated = this.categoryRepository.update(securedRequest);
+        categorizationContextCache.evict(userId);
+        return updated;
     }
 
     @Transactional
@@ -97,7 +105,10 @@ public class CategoryService {
             throw new IllegalStateException("Cannot delete category with associated transactions. Please reassign or delete transactions first.");
         }
 
-        return categoryRepository.delete(category);
+        int deleted = categoryRepository.delete(category);
+        transactionRollupRepository.rekeyDeletedCategories(userId);
+        categorizationContextCache.evict(userId);
+        return deleted;
     }
 
     /**
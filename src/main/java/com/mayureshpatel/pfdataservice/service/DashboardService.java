@@ -6,6 +6,9 @@ import com.mayureshpatel.pfdataservice.dto.dashboard.*;
 import com.mayureshpatel.pfdataservice.dto.merchant.MerchantBreakdownDto;
 import com.mayureshpatel.pfdataservice.repository.merchant.MerchantRepository;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository.DashboardTotals;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository.PeriodTotals;
+import com.mayureshpatel.pfdataservice.service.transfer.TransferSuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,7 +34,7 @@ public class DashboardService {
 
     private final TransactionRepository transactionRepository;
     private final MerchantRepository merchantRepository;
-    private final TransactionService transactionService;
+    private final TransferSuggestionService transferSuggestionService;
 
     /**
      * Retrieves dashboard data for a given user, month, and year.
@@ -45,16 +48,13 @@ public class DashboardService {
         OffsetDateTime startOfMonth = ZonedDateTime.of(year, month, 1, 0, 0, 0, 0, UTC_ZONE).toOffsetDateTime();
         OffsetDateTime endOfMonth = startOfMonth.plusMonths(1).minusDays(1);
 
-        BigDecimal totalIncome = this.transactionRepository.getSumByDateRange(userId, startOfMonth, endOfMonth, TransactionType.INCOME);
-        BigDecimal totalExpenses = this.transactionRepository.getSumByDateRange(userId, startOfMonth, endOfMonth, TransactionType.EXPENSE);
-
-        List<CategoryBreakdownDto> breakdown = this.transactionRepository.findCategoryTotals(userId, startOfMonth, endOfMonth);
+        DashboardTotals totals = this.transactionRepository.findDashboardTotals(userId, startOfMonth, endOfMonth);
 
         return DashboardData.builder()
-                .totalIncome(totalIncome)
-                .totalExpense(totalExpenses)
-                .netSavings(totalIncome.subtract(totalExpenses))
-                .categoryBreakdown(breakdown)
+                .totalIncome(totals.income())
+                .totalExpense(totals.expense())
+                .netSavings(totals.income().subtract(totals.expense()))
+                .categoryBreakdown(totals.categoryBreakdown())
                 .build();
     }
 
@@ -105,19 +105,16 @@ public class DashboardService {
             OffsetDateTime startCurrent, OffsetDateTime endCurrent,
             OffsetDateTime startPrevious, OffsetDateTime endPrevious) {
 
-        BigDecimal currentIncome = getSum(userId, startCurrent, endCurrent, TransactionType.INCOME);
-        BigDecimal previousIncome = getSum(userId, startPrevious, endPrevious, TransactionType.INCOME);
-
-        BigDecimal currentExpense = getSum(userId, startCurrent, endCurrent, TransactionType.EXPENSE);
-        BigDecimal previousExpense = getSum(userId, startPrevious, endPrevious, TransactionType.EXPENSE);
+        PeriodTotals totals = transactionRepository.getPeriodTotals(
+                userId, startCurrent, endCurrent, startPrevious, endPrevious);
 
         return new DashboardPulseDto(
-                currentIncome,
-                previousIncome,
-                currentExpense,
-                previousExpense,
-                calculateSavingsRate(currentIncome, currentExpense),
-                calculateSavingsRate(previousIncome, previousExpense)
+                totals.currentIncome(),
+                totals.previousIncome(),
+                totals.currentExpense(),
+                totals.previousExpense(),
+                calculateSavingsRate(totals.currentIncome(), totals.currentExpense()),
+                calculateSavingsRate(totals.previousIncome(), totals.previousExpense())
         );
     }
 
@@ -185,7 +182,7 @@ public class DashboardService {
         List<ActionItemDto> actions = new ArrayList<>();
 
         // potential transfers
-        int transferCount = transactionService.findPotentialTransfers(userId).size();
+        int transferCount = (int) transferSuggestionService.countSuggestions(userId);
         if (transferCount > 0) {
             actions.add(new ActionItemDto(
                     ActionItemDto.ActionType.TRANSFER_REVIEW,
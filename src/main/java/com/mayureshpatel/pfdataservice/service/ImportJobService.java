@@ -0,0 +1,294 @@
+package com.mayureshpatel.pfdataservice.service;
+
+import com.mayureshpatel.pfdataservice.config.ImportExecutorConfig;
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportJob;
+import com.mayureshpatel.pfdataservice.dto.transaction.SaveTransactionRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionPreviewDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.AccountSaveResultDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.ImportJobDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.StagedImportDto;
+import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
+import com.mayureshpatel.pfdataservice.exception.DuplicateImportException;
+import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
+import com.mayureshpatel.pfdataservice.mapper.ImportJobDtoMapper;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.ImportJobRepository;
+import com.mayureshpatel.pfdataservice.service.TransactionImportService.AccountImport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs file previews and saves on the bounded import executor and tracks them in {@code import_jobs}.
+ * <p>
+ * Job state changes are committed on their own, outside the import's transaction, so a poll sees a job as
+ * soon as it is queued. The row count of a running job is kept in memory by the node running it and is
+ * written to the job when it finishes. A preview job stages its rows like {@code /upload/stage}, so they are
+ * paged and committed by the staging token recorded on the job. Jobs run on the executor of the process that
+ * queued them; the ones a restart interrupted are failed once the application is ready.
+ * <p>
+ * {@link #saveByAccount} saves the files of several accounts side by side on a separate bulk save executor,
+ * so a synchronous save never waits behind queued jobs.
+ */
+@Slf4j
+@Service
+public class ImportJobService {
+
+    static final String INTERRUPTED_MESSAGE = "The import was interrupted by a restart; please upload the file again";
+
+    private final ImportJobRepository importJobRepository;
+    private final TransactionImportService transactionImportService;
+    private final TaskExecutor importExecutor;
+    private final TaskExecutor bulkSaveExecutor;
+
+    private final Map<Long, AtomicInteger> runningProgress = new ConcurrentHashMap<>();
+
+    /**
+     * Jobs submitted before this time were queued by an earlier run of the application.
+     */
+    private final OffsetDateTime startedAt = OffsetDateTime.now();
+
+    public ImportJobService(ImportJobRepository importJobRepository,
+                            TransactionImportService transactionImportService,
+                            @Qualifier(ImportExecutorConfig.IMPORT_EXECUTOR) TaskExecutor importExecutor,
+                            @Qualifier(ImportExecutorConfig.BULK_SAVE_EXECUTOR) TaskExecutor bulkSaveExecutor) {
+        this.importJobRepository = importJobRepository;
+        this.transactionImportService = transactionImportService;
+        this.importExecutor = importExecutor;
+        this.bulkSaveExecutor = bulkSaveExecutor;
+    }
+
+    /**
+     * Queues a preview of an uploaded file that the caller spooled to disk, since the upload is gone once the
+     * request ends. The job owns the file from here on and deletes it when it finishes, or right away if it
+     * cannot be queued.
+     *
+     * @param fileHash the hash the caller took of the spooled file, before queuing it
+     */
+    public ImportJobDto submitPreview(Long userId, Long accountId, String bankName, Path content, String fileName,
+                                      String fileHash) {
+        ImportJob job = ImportJob.builder()
+                .userId(userId)
+                .accountId(accountId)
+                .type(ImportJob.Type.PREVIEW)
+                .fileName(fileName)
+                .build();
+
+        try {
+            return submit(job, (jobId, progress) -> {
+                try (InputStream inputStream = Files.newInputStream(content)) {
+                    StagedImportDto staged = transactionImportService.stageTransactions(
+                            userId, accountId, bankName, inputStream, fileName, fileHash, progress);
+                    return new JobResult(null, staged.token());
+                } finally {
+                    deleteSpooled(content);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            deleteSpooled(content);
+            throw e;
+        }
+    }
+
+    public ImportJobDto submitSave(Long userId, Long accountId, SaveTransactionRequest request) {
+        ImportJob job = ImportJob.builder()
+                .userId(userId)
+                .accountId(accountId)
+                .type(ImportJob.Type.SAVE)
+                .fileName(request.fileName())
+                .totalRows(request.transactions().size())
+                .build();
+
+        return submit(job, (jobId, progress) -> {
+            int saved = transactionImportService.saveTransactions(
+                    userId, accountId, request.transactions(), request.fileName(), request.fileHash());
+            progress.accept(request.transactions().size());
+            return new JobResult(saved, null);
+        });
+    }
+
+    public ImportJobDto getJob(Long userId, Long accountId, Long jobId) {
+        ImportJob job = findJob(userId, accountId, jobId);
+
+        AtomicInteger progress = runningProgress.get(jobId);
+        if (progress != null && !job.isFinished()) {
+            job = job.toBuilder().processedRows(progress.get()).build();
+        }
+        return ImportJobDtoMapper.toDto(job);
+    }
+
+    /**
+     * Returns a page of the rows of a finished preview job.
+     *
+     * @throws ResourceNotFoundException if the job is not a finished preview, or its staged rows were committed
+     *                                   or have expired
+     */
+    public List<TransactionPreviewDto> getPreview(Long userId, Long accountId, Long jobId, int offset, int limit) {
+        ImportJob job = findJob(userId, accountId, jobId);
+        if (job.getType() != ImportJob.Type.PREVIEW || job.getStatus() != ImportJob.Status.SUCCEEDED
+                || job.getStagingToken() == null) {
+            throw new ResourceNotFoundException("No preview available for import job " + jobId);
+        }
+        return transactionImportService.getStagedRows(userId, accountId, job.getStagingToken(), offset, limit);
+    }
+
+    /**
+     * Fails the jobs an earlier run of the application left queued or running. Their work was lost with the
+     * process that ran them, so without this they would be polled forever.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int failed = importJobRepository.failUnfinished(startedAt, INTERRUPTED_MESSAGE);
+        if (failed > 0) {
+            log.warn("Failed {} import jobs interrupted by a restart", failed);
+        }
+    }
+
+    /**
+     * Saves each account's files in its own transaction, running accounts in parallel on the bulk save
+     * executor. An account that fails is rolled back on its own; the others still commit. When every worker
+     * is busy the executor runs the account on the calling thread.
+     *
+     * @return one result per account, in the order the accounts first appear in the requests
+     */
+    public List<AccountSaveResultDto> saveByAccount(Long userId, List<SaveTransactionRequest> requests) {
+        Map<Long, List<SaveTransactionRequest>> byAccount = new LinkedHashMap<>();
+        for (SaveTransactionRequest request : requests) {
+            byAccount.computeIfAbsent(request.accountId(), id -> new ArrayList<>()).add(request);
+        }
+
+        Map<Long, FutureTask<AccountImport>> tasks = new LinkedHashMap<>();
+        byAccount.forEach((accountId, accountRequests) -> {
+            FutureTask<AccountImport> task = new FutureTask<>(
+                    () -> transactionImportService.saveAccountTransactions(userId, accountId, accountRequests));
+            tasks.put(accountId, task);
+            bulkSaveExecutor.execute(task);
+        });
+
+        List<AccountSaveResultDto> results = new ArrayList<>(tasks.size());
+        List<OffsetDateTime> savedDates = new ArrayList<>();
+        tasks.forEach((accountId, task) -> {
+            try {
+                AccountImport saved = task.get();
+                savedDates.addAll(saved.transactionDates());
+                results.add(AccountSaveResultDto.builder()
+                        .accountId(accountId)
+                        .succeeded(true)
+                        .savedCount(saved.savedCount())
+                        .duplicateCount(saved.duplicateCount())
+                        .build());
+            } catch (ExecutionException e) {
+                Exception cause = e.getCause() instanceof Exception ex ? ex : e;
+                log.warn("Bulk save failed for Account ID: {}", accountId, cause);
+                results.add(failed(accountId, describe(cause)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(failed(accountId, "The import was interrupted"));
+            }
+        });
+
+        // refreshed once for all accounts so transfers between them are matched
+        transactionImportService.refreshDerived(userId, savedDates);
+        return results;
+    }
+
+    private static AccountSaveResultDto failed(Long accountId, String errorMessage) {
+        return AccountSaveResultDto.builder()
+                .accountId(accountId)
+                .succeeded(false)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    private ImportJob findJob(Long userId, Long accountId, Long jobId) {
+        return importJobRepository.findByIdAndUserId(jobId, userId)
+                .filter(job -> job.getAccountId().equals(accountId))
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found"));
+    }
+
+    private ImportJobDto submit(ImportJob job, ImportWork work) {
+        Long jobId = importJobRepository.insert(job);
+        AtomicInteger progress = new AtomicInteger();
+        runningProgress.put(jobId, progress);
+
+        try {
+            importExecutor.execute(() -> run(jobId, progress, work));
+        } catch (TaskRejectedException e) {
+            runningProgress.remove(jobId);
+            importJobRepository.markFailed(jobId, 0, "Too many imports are running");
+            throw e;
+        }
+
+        log.info("Queued {} import job {} for Account ID: {}", job.getType(), jobId, job.getAccountId());
+        return getJob(job.getUserId(), job.getAccountId(), jobId);
+    }
+
+    private void run(Long jobId, AtomicInteger progress, ImportWork work) {
+        try {
+            importJobRepository.markRunning(jobId);
+            JobResult result = work.run(jobId, progress::addAndGet);
+            importJobRepository.markSucceeded(jobId, progress.get(), result.savedCount(), result.stagingToken());
+            log.info("Import job {} finished after {} rows", jobId, progress.get());
+        } catch (Exception e) {
+            log.warn("Import job {} failed", jobId, e);
+            importJobRepository.markFailed(jobId, progress.get(), describe(e));
+        } finally {
+            runningProgress.remove(jobId);
+        }
+    }
+
+    private static void deleteSpooled(Path content) {
+        try {
+            Files.deleteIfExists(content);
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled upload {}", content, e);
+        }
+    }
+
+    /**
+     * Error text shown to the client; only exceptions that already carry a user-facing message pass through.
+     */
+    private static String describe(Exception e) {
+        if (e instanceof CsvParsingException
+                || e instanceof DuplicateImportException
+                || e instanceof ResourceNotFoundException
+                || e instanceof AccessDeniedException
+                || e instanceof IllegalArgumentException) {
+            return e.getMessage();
+        }
+        return "The import failed unexpectedly";
+    }
+
+    @FunctionalInterface
+    private interface ImportWork {
+
+        JobResult run(Long jobId, IntConsumer onRowsProcessed) throws IOException;
+    }
+
+    /**
+     * @param savedCount   the number of saved transactions, or null for jobs that do not save
+     * @param stagingToken the staged rows of a preview, or null for jobs that do not preview
+     */
+    private record JobResult(Integer savedCount, UUID stagingToken) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.mayureshpatel.pfdataservice.service;
+
+import com.mayureshpatel.pfdataservice.repository.file_import_history.ImportStagingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically removes staged imports that expired without being committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImportStagingPurger {
+
+    private final ImportStagingRepository importStagingRepository;
+
+    @Scheduled(fixedDelayString = "${imports.staging.purge-delay:PT10M}")
+    public void purge() {
+        int purged = importStagingRepository.deleteExpired();
+        if (purged > 0) {
+            log.debug("Purged {} expired staged imports", purged);
+        }
+    }
+}
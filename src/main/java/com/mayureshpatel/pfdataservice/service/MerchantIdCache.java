@@ -0,0 +1,97 @@
+package com.mayureshpatel.pfdataservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a user's raw bank description to the id of its merchant, so repeated writes with the same
+ * description skip the merchant lookup.
+ * <p>
+ * Entries written inside a transaction only become visible after it commits, so an id from a rolled back
+ * insert is never cached. {@link #evictMerchant(Long)} must be called when a merchant is changed or removed.
+ */
+@Component
+public class MerchantIdCache {
+
+    private final Cache<Key, Long> ids = Caffeine.newBuilder()
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .maximumSize(100_000)
+            .build();
+
+    public Long get(Long userId, String originalName) {
+        return ids.getIfPresent(new Key(userId, originalName));
+    }
+
+    /**
+     * Looks up several descriptions at once.
+     *
+     * @return the cached ids by description; descriptions that are not cached are left out
+     */
+    public Map<String, Long> getAll(Long userId, Collection<String> originalNames) {
+        Map<String, Long> found = new HashMap<>();
+        for (String originalName : originalNames) {
+            Long id = get(userId, originalName);
+            if (id != null) {
+                found.put(originalName, id);
+            }
+        }
+        return found;
+    }
+
+    public void put(Long userId, String originalName, Long merchantId) {
+        putAll(userId, Map.of(originalName, merchantId));
+    }
+
+    public void putAll(Long userId, Map<String, Long> merchantIds) {
+        if (merchantIds.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store(userId, merchantIds);
+            return;
+        }
+
+        Map<String, Long> pending = Map.copyOf(merchantIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                store(userId, pending);
+            }
+        });
+    }
+
+    /**
+     * Drops every entry pointing at the merchant. When called inside a transaction the entries are dropped
+     * again after commit, so a concurrent reader cannot re-cache the pre-commit mapping.
+     *
+     * @param merchantId the merchant that was changed or removed
+     */
+    public void evictMerchant(Long merchantId) {
+        ids.asMap().values().removeIf(merchantId::equals);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.asMap().values().removeIf(merchantId::equals);
+                }
+            });
+        }
+    }
+
+    private void store(Long userId, Map<String, Long> merchantIds) {
+        merchantIds.forEach((originalName, merchantId) -> ids.put(new Key(userId, originalName), merchantId));
+    }
+
+    private record Key(Long userId, String originalName) {
+    }
+}
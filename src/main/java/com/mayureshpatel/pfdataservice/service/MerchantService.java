@@ -3,9 +3,13 @@ package com.mayureshpatel.pfdataservice.service;
 import com.mayureshpatel.pfdataservice.domain.merchant.Merchant;
 import com.mayureshpatel.pfdataservice.dto.merchant.MerchantCreateRequest;
 import com.mayureshpatel.pfdataservice.dto.merchant.MerchantDto;
+import com.mayureshpatel.pfdataservice.dto.merchant.MerchantUpdateRequest;
+import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.mapper.MerchantDtoMapper;
 import com.mayureshpatel.pfdataservice.repository.merchant.MerchantRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +22,8 @@ import java.util.stream.Collectors;
 public class MerchantService {
 
     private final MerchantRepository merchantRepository;
+    private final MerchantIdCache merchantIdCache;
+    private final TransactionRollupRepository transactionRollupRepository;
 
     public List<MerchantDto> getAllMerchants(Long userId) {
         return merchantRepository.findAllByUserId(userId)
@@ -28,9 +34,16 @@ public class MerchantService {
 
     @Transactional
     public Long findOrCreateMerchant(Long userId, String description) {
-        return merchantRepository.findByOriginalNameAndUserId(description, userId)
+        Long cached = merchantIdCache.get(userId, description);
+        if (cached != null) {
+            return cached;
+        }
+
+        Long merchantId = merchantRepository.findByOriginalNameAndUserId(description, userId)
                 .map(Merchant::getId)
                 .orElseGet(() -> createMerchant(userId, description));
+        merchantIdCache.put(userId, description, merchantId);
+        return merchantId;
     }
 
     @Transactional
@@ -41,13 +54,19 @@ public class MerchantService {
 
         List<String> distinctDescriptions = descriptions.stream().distinct().toList();
 
-        List<Merchant> existingMerchants = merchantRepository.findAllByOriginalNamesAndUserId(distinctDescriptions, userId);
+        Map<String, Long> merchantMap = merchantIdCache.getAll(userId, distinctDescriptions);
+        List<String> uncached = distinctDescriptions.stream()
+                .filter(desc -> !merchantMap.containsKey(desc))
+                .toList();
+        if (uncached.isEmpty()) {
+            return merchantMap;
+        }
 
-        Map<String, Long> merchantMap = existingMerchants.stream()
+        Map<String, Long> resolved = merchantRepository.findAllByOriginalNamesAndUserId(uncached, userId).stream()
                 .collect(Collectors.toMap(Merchant::getOriginalName, Merchant::getId));
 
-        List<MerchantCreateRequest> missingMerchants = distinctDescriptions.stream()
-                .filter(desc -> !merchantMap.containsKey(desc))
+        List<MerchantCreateRequest> missingMerchants = uncached.stream()
+                .filter(desc -> !resolved.containsKey(desc))
                 .map(desc -> MerchantCreateRequest.builder()
                         .userId(userId)
                         .originalName(desc)
@@ -55,10 +74,38 @@ public class MerchantService {
                         .build())
                 .toList();
 
-        merchantRepository.insertAllAndReturn(missingMerchants).forEach(m -> merchantMap.put(m.getOriginalName(), m.getId()));
+        merchantRepository.insertAllAndReturn(missingMerchants).forEach(m -> resolved.put(m.getOriginalName(), m.getId()));
+        merchantIdCache.putAll(userId, resolved);
+        merchantMap.putAll(resolved);
         return merchantMap;
     }
 
+    @Transactional
+    public int updateMerchant(Long userId, MerchantUpdateRequest request) {
+        requireOwnedMerchant(userId, request.getId());
+        int updated = merchantRepository.update(request, userId);
+        merchantIdCache.evictMerchant(request.getId());
+        return updated;
+    }
+
+    @Transactional
+    public int deleteMerchant(Long userId, Long merchantId) {
+        requireOwnedMerchant(userId, merchantId);
+        int deleted = merchantRepository.delete(merchantId);
+        transactionRollupRepository.rekeyMerchant(userId, merchantId);
+        merchantIdCache.evictMerchant(merchantId);
+        return deleted;
+    }
+
+    private void requireOwnedMerchant(Long userId, Long merchantId) {
+        Merchant merchant = merchantRepository.findById(merchantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Merchant not found"));
+
+        if (!userId.equals(merchant.getUserId())) {
+            throw new AccessDeniedException("You do not own this merchant");
+        }
+    }
+
     private Long createMerchant(Long userId, String description) {
         MerchantCreateRequest request = MerchantCreateRequest.builder()
                 .userId(userId)
@@ -2,212 +2,481 @@ package com.mayureshpatel.pfdataservice.service;
 
 import com.mayureshpatel.pfdataservice.domain.account.Account;
 import com.mayureshpatel.pfdataservice.domain.category.Category;
-import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
+import com.mayureshpatel.pfdataservice.domain.transaction.FileFingerprint;
 import com.mayureshpatel.pfdataservice.domain.transaction.FileImportHistory;
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportStaging;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
+import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
 import com.mayureshpatel.pfdataservice.dto.transaction.SaveTransactionRequest;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCreateRequest;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionDto;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionPreviewDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.CommitStagedImportRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.StagedImportDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.StagedRowOverride;
 import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
 import com.mayureshpatel.pfdataservice.exception.DuplicateImportException;
 import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.mapper.CategoryDtoMapper;
 import com.mayureshpatel.pfdataservice.repository.account.AccountRepository;
-import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
-import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository;
 import com.mayureshpatel.pfdataservice.repository.file_import_history.FileImportHistoryRepository;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.ImportStagingRepository;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.ImportStagingRepository.StagedRow;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationContextCache;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationStrategy.CategorizationContext;
 import com.mayureshpatel.pfdataservice.service.categorization.TransactionCategorizer;
+import com.mayureshpatel.pfdataservice.service.parser.ParsedRow;
 import com.mayureshpatel.pfdataservice.service.parser.TransactionParser;
 import com.mayureshpatel.pfdataservice.service.parser.TransactionParserFactory;
+import com.mayureshpatel.pfdataservice.service.transfer.TransferSuggestionService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class TransactionImportService {
+    /**
+     * Number of parsed rows categorized at a time, matching the repository's insert batch size.
+     */
+    private static final int IMPORT_CHUNK_SIZE = 500;
+
+    /**
+     * How long a staged preview can be committed.
+     */
+    static final Duration STAGING_TTL = Duration.ofHours(1);
+
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
-    private final CategoryRepository categoryRepository;
     private final FileImportHistoryRepository fileImportHistoryRepository;
     private final TransactionParserFactory parserFactory;
     private final TransactionCategorizer categorizer;
-    private final CategoryRuleRepository categoryRuleRepository;
+    private final CategorizationContextCache categorizationContextCache;
     private final MerchantService merchantService;
-    private final TransactionImportService self;
-
-    @Autowired
-    public TransactionImportService(TransactionRepository transactionRepository,
-                                    AccountRepository accountRepository,
-                                    CategoryRepository categoryRepository,
-                                    FileImportHistoryRepository fileImportHistoryRepository,
-                                    TransactionParserFactory parserFactory,
-                                    TransactionCategorizer categorizer,
-                                    CategoryRuleRepository categoryRuleRepository,
-                                    MerchantService merchantService,
-                                    @Lazy TransactionImportService self) {
-        this.transactionRepository = transactionRepository;
-        this.accountRepository = accountRepository;
-        this.categoryRepository = categoryRepository;
-        this.fileImportHistoryRepository = fileImportHistoryRepository;
-        this.parserFactory = parserFactory;
-        this.categorizer = categorizer;
-        this.categoryRuleRepository = categoryRuleRepository;
-        this.merchantService = merchantService;
-        this.self = self;
+    private final TransferSuggestionService transferSuggestionService;
+    private final TransactionRollupRepository transactionRollupRepository;
+    private final ImportStagingRepository importStagingRepository;
+    /**
+     * Parses and categorizes a file without saving it. Previews are handed over one chunk at a time, as soon as
+     * the chunk is categorized, so the caller can write them out instead of holding the whole file.
+     *
+     * <p>
+     * Deliberately not transactional: the caller streams each chunk to the client, and a transaction would keep
+     * a pooled connection open for as long as a slow client takes to read the response. The account check and
+     * the categorization context are loaded up front, each with its own short query; categorizing the rows
+     * does not touch the database.
+     *
+     * @param onChunk receives the previews of each chunk, in file order
+     * @return the number of rows previewed
+     */
+    public int previewTransactions(Long userId, Long accountId, String bankName, InputStream fileContent,
+                                   String fileName, Consumer<List<TransactionPreviewDto>> onChunk) {
+        log.info("Starting transaction preview for User: {}, Account ID: {}, Bank: {}, File: {}", userId, accountId, bankName, fileName);
+        requireOwnedAccount(userId, accountId);
+        return parseFile(userId, accountId, bankName, fileContent, onChunk);
     }
 
-    @Transactional(readOnly = true)
-    public List<TransactionPreviewDto> previewTransactions(Long userId, Long accountId, String bankName, InputStream fileContent, String fileName) {
-        log.info("Starting transaction preview for User: {}, Account ID: {}, Bank: {}, File: {}", userId, accountId, bankName, fileName);
+    /**
+     * Hashes an uploaded file and rejects it if the account already imported it, so a duplicate is turned
+     * away before it is parsed. The content is read to its end; the caller opens a new stream to parse it.
+     *
+     * @return the hash of the file
+     * @throws DuplicateImportException if the account already has an import with the same hash
+     */
+    public String fingerprintUpload(Long accountId, InputStream fileContent) throws IOException {
+        String fileHash = FileFingerprint.of(fileContent);
+        rejectImportedFile(accountId, fileHash);
+        return fileHash;
+    }
 
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found with ID: " + accountId));
+    /**
+     * Previews a file and keeps its rows server side, so the client commits them by token instead of sending
+     * them back. Only the first {@value #IMPORT_CHUNK_SIZE} rows are returned; the rest are read with
+     * {@link #getStagedRows}.
+     * <p>
+     * The hash comes from {@link #fingerprintUpload}. It is checked again before the file is parsed, since a job
+     * may stage the file well after it was uploaded, and once more on commit.
+     *
+     * @throws DuplicateImportException if the account already has an import with the same hash
+     */
+    @Transactional
+    public StagedImportDto stageTransactions(Long userId, Long accountId, String bankName, InputStream fileContent,
+                                             String fileName, String fileHash) throws IOException {
+        return stageTransactions(userId, accountId, bankName, fileContent, fileName, fileHash, rows -> {
+        });
+    }
 
-        if (!account.getUserId().equals(userId)) {
-            throw new AccessDeniedException("Access denied to account");
+    /**
+     * Same as {@link #stageTransactions(Long, Long, String, InputStream, String, String)}, reporting the number
+     * of rows staged after each chunk.
+     *
+     * @param onRowsProcessed receives the size of each staged chunk
+     */
+    @Transactional
+    public StagedImportDto stageTransactions(Long userId, Long accountId, String bankName, InputStream fileContent,
+                                             String fileName, String fileHash, IntConsumer onRowsProcessed)
+            throws IOException {
+        log.info("Staging transactions for User: {}, Account ID: {}, Bank: {}, File: {}", userId, accountId, bankName, fileName);
+        requireOwnedAccount(userId, accountId);
+        rejectImportedFile(accountId, fileHash);
+
+        ImportStaging staging = ImportStaging.builder()
+                .token(UUID.randomUUID())
+                .userId(userId)
+                .accountId(accountId)
+                .fileName(fileName)
+                .fileHash(fileHash)
+                .expiresAt(OffsetDateTime.now().plus(STAGING_TTL))
+                .build();
+        Long stagingId = importStagingRepository.insert(staging);
+
+        int[] staged = {0};
+        List<TransactionPreviewDto> firstPage = new ArrayList<>();
+        int rowCount = parseFile(userId, accountId, bankName, fileContent, chunk -> {
+            importStagingRepository.insertRows(stagingId, staged[0], chunk.stream().map(this::mapToEntity).toList());
+            if (staged[0] == 0) {
+                firstPage.addAll(chunk);
+            }
+            staged[0] += chunk.size();
+            onRowsProcessed.accept(chunk.size());
+        });
+
+
+        return StagedImportDto.builder()
+                .token(staging.getToken())
+                .expiresAt(staging.getExpiresAt())
+                .rowCount(rowCount)
+                .transactions(firstPage)
+                .build();
+    }
+
+    /**
+     * Returns a page of a staged import's rows, in preview order.
+     *
+     * @param offset index of the first row
+     * @param limit  maximum number of rows, capped at {@value #IMPORT_CHUNK_SIZE}
+     * @throws ResourceNotFoundException if the token is unknown, expired, or staged for another account
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionPreviewDto> getStagedRows(Long userId, Long accountId, UUID token, int offset, int limit) {
+        if (offset < 0 || limit < 1) {
+            throw new IllegalArgumentException("Offset must not be negative and limit must be positive");
+        }
+        ImportStaging staging = importStagingRepository.findActiveByToken(token, userId)
+                .filter(s -> s.getAccountId().equals(accountId))
+                .orElseThrow(() -> new ResourceNotFoundException("Staged import not found or expired"));
+
+        List<StagedRow> rows = importStagingRepository.findRowPage(staging.getId(), offset, Math.min(limit, IMPORT_CHUNK_SIZE));
+        if (rows.isEmpty()) {
+            return List.of();
         }
 
+        CategorizationContext context = categorizationContextCache.get(userId);
+        return rows.stream()
+                .map(StagedRow::transaction)
+                .map(t -> TransactionPreviewDto.builder()
+                        .date(t.getTransactionDate())
+                        .postDate(t.getPostDate())
+                        .description(t.getDescription())
+                        .amount(t.getAmount())
+                        .type(TransactionType.valueOf(t.getType()))
+                        .suggestedCategory(CategoryDtoMapper.toDto(context.findCategory(t.getCategoryId()).orElse(null)))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Parses and categorizes a file chunk by chunk, handing each chunk's previews to {@code onChunk}.
+     *
+     * @return the number of rows previewed
+     */
+    private int parseFile(Long userId, Long accountId, String bankName, InputStream fileContent,
+                          Consumer<List<TransactionPreviewDto>> onChunk) {
         TransactionParser parser = parserFactory.getTransactionParser(bankName);
-        List<CategoryRule> userRules = this.categoryRuleRepository.findByUserId(userId);
-        List<Category> userCategories = categoryRepository.findByUserId(userId);
-
-        try (Stream<Transaction> rawTransactionStream = parser.parse(accountId, fileContent)) {
-            List<TransactionPreviewDto> previews = rawTransactionStream
-                    .map(t -> {
-                        Long categoryId = categorizer.guessCategory(t, userRules, userCategories);
-                        Category suggestedCategory = (categoryId != null && categoryId > 0)
-                                ? userCategories.stream()
-                                .filter(c -> c.getId().equals(categoryId))
-                                .findFirst()
-                                .orElse(null)
-                                : null;
-                        return TransactionPreviewDto.builder()
-                                .date(t.getTransactionDate())
-                                .postDate(t.getPostDate())
-                                .description(t.getDescription())
-                                .amount(t.getAmount())
-                                .type(t.getType())
-                                .suggestedCategory(CategoryDtoMapper.toDto(suggestedCategory))
-                                .build();
-                    })
-                    .toList();
-
-            log.info("Generated {} transaction previews successfully", previews.size());
-            return previews;
+        CategorizationContext context = categorizationContextCache.get(userId);
+
+        try (Stream<ParsedRow> rows = parser.parseRows(accountId, fileContent)) {
+            int rowCount = 0;
+            Iterator<ParsedRow> iterator = rows.iterator();
+            List<ParsedRow> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == IMPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    onChunk.accept(previewChunk(chunk, context));
+                    rowCount += chunk.size();
+                    chunk.clear();
+                }
+            }
+
+            log.info("Generated {} transaction previews successfully", rowCount);
+            return rowCount;
+        } catch (CsvParsingException e) {
+            log.warn("Rejected transaction file for Account ID: {}: {}", accountId, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Failed to process transaction preview for Account ID: {}", accountId, e);
             throw new CsvParsingException("Error processing transaction file", e);
         }
     }
 
+    /**
+     * Categorizes one chunk of parsed rows. Fails on the first chunk that contains row errors so that only
+     * that chunk's errors are reported, rather than buffering the errors of the whole file.
+     */
+    private List<TransactionPreviewDto> previewChunk(List<ParsedRow> chunk, CategorizationContext context) {
+        List<String> errors = chunk.stream()
+                .filter(ParsedRow::isError)
+                .map(ParsedRow::describeError)
+                .toList();
+        if (!errors.isEmpty()) {
+            throw new CsvParsingException("Failed to parse rows " + chunk.get(0).rowNumber() + "-"
+                    + chunk.get(chunk.size() - 1).rowNumber() + ": " + String.join("; ", errors));
+        }
+
+        List<TransactionPreviewDto> previews = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            Transaction t = row.transaction();
+            Long categoryId = categorizer.guessCategory(t, context);
+            Category suggestedCategory = (categoryId != null && categoryId > 0)
+                    ? context.findCategory(categoryId).orElse(null)
+                    : null;
+            previews.add(TransactionPreviewDto.builder()
+                    .date(t.getTransactionDate())
+                    .postDate(t.getPostDate())
+                    .description(t.getDescription())
+                    .amount(t.getAmount())
+                    .type(t.getType())
+                    .suggestedCategory(CategoryDtoMapper.toDto(suggestedCategory))
+                    .build());
+        }
+        return previews;
+    }
+
+    @Transactional
+    public int saveTransactions(Long userId, Long accountId, List<TransactionDto> approvedDtos, String fileName, String fileHash) {
+        AccountImport result = importFile(userId, accountId, approvedDtos, fileName, fileHash);
+        refreshDerived(userId, result.transactionDates());
+        return result.savedCount();
+    }
+
+    /**
+     * Saves several files for one account in a single transaction. Rollups and transfer suggestions are
+     * not refreshed, so that accounts imported side by side do not contend on them; the caller refreshes
+     * them with {@link #refreshDerived} once every account is saved.
+     *
+     * @return the saved and duplicate counts, and the dates of the saved transactions
+     */
     @Transactional
-    public int saveBulkTransactions(Long userId, List<SaveTransactionRequest> requests) {
-        int totalSaved = 0;
+    public AccountImport saveAccountTransactions(Long userId, Long accountId, List<SaveTransactionRequest> requests) {
+        int saved = 0;
+        int duplicates = 0;
+        List<OffsetDateTime> dates = new ArrayList<>();
         for (SaveTransactionRequest req : requests) {
-            totalSaved += self.saveTransactions(userId, req.accountId(), req.transactions(), req.fileName(), req.fileHash());
+            AccountImport result = importFile(userId, accountId, req.transactions(), req.fileName(), req.fileHash());
+            saved += result.savedCount();
+            duplicates += result.duplicateCount();
+            dates.addAll(result.transactionDates());
         }
-        return totalSaved;
+        return new AccountImport(accountId, saved, duplicates, dates);
     }
 
+    /**
+     * Brings the user's rollups and transfer suggestions up to date with transactions saved on the given dates.
+     */
     @Transactional
-    public int saveTransactions(Long userId, Long accountId, List<TransactionDto> approvedDtos, String fileName, String fileHash) {
+    public void refreshDerived(Long userId, List<OffsetDateTime> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        transactionRollupRepository.refreshDates(userId, dates);
+        transferSuggestionService.refreshDates(userId, dates);
+    }
+
+    private AccountImport importFile(Long userId, Long accountId, List<TransactionDto> approvedDtos, String fileName, String fileHash) {
         log.info("Saving {} transactions for User: {}, Account ID: {}", approvedDtos.size(), userId, accountId);
 
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found with ID: " + accountId));
+        Account account = requireOwnedAccount(userId, accountId);
+        accountRepository.lockImports(accountId);
+        rejectImportedFile(accountId, fileHash);
 
-        if (!account.getUserId().equals(userId)) {
-            throw new AccessDeniedException("Access denied to account");
+        if (approvedDtos == null || approvedDtos.isEmpty()) {
+            return new AccountImport(accountId, 0, 0, List.of());
         }
 
-        if (fileHash != null && fileImportHistoryRepository.findByAccountIdAndFileHash(accountId, fileHash).isPresent()) {
-            log.warn("Duplicate file hash detected during save. Account ID: {}, Hash: {}", accountId, fileHash);
-            throw new DuplicateImportException("This file has already been imported.");
+        // Collapse duplicates within the batch, then drop the ones the account already has
+        Map<String, TransactionCreateRequest> candidates = new LinkedHashMap<>();
+        for (TransactionDto dto : approvedDtos) {
+            TransactionCreateRequest request = mapToEntity(dto).toBuilder()
+                    .accountId(account.getId())
+                    .build();
+            candidates.putIfAbsent(TransactionRepository.signatureOf(request), request);
         }
+        candidates.keySet().removeAll(transactionRepository.findImportSignatures(accountId, candidates.keySet()));
 
-        if (approvedDtos == null || approvedDtos.isEmpty()) {
-            return 0;
+        List<String> incomingDescriptions = candidates.values().stream().map(TransactionCreateRequest::getDescription).toList();
+        Map<String, Long> merchantMap = merchantService.findOrCreateMerchants(userId, incomingDescriptions);
+
+        Map<String, TransactionCreateRequest> newTransactions = new LinkedHashMap<>();
+        for (Map.Entry<String, TransactionCreateRequest> candidate : candidates.entrySet()) {
+            TransactionCreateRequest request = candidate.getValue();
+            Long merchantId = merchantMap.get(request.getDescription());
+            if (merchantId == null) {
+                // Fallback for edge cases
+                merchantId = merchantService.findOrCreateMerchant(userId, request.getDescription());
+                merchantMap.put(request.getDescription(), merchantId);
+            }
+            newTransactions.put(candidate.getKey(), request.toBuilder().merchantId(merchantId).build());
         }
 
-        OffsetDateTime earliest = approvedDtos.stream().map(TransactionDto::date).min(OffsetDateTime::compareTo).orElse(OffsetDateTime.now());
-        OffsetDateTime latest = approvedDtos.stream().map(TransactionDto::date).max(OffsetDateTime::compareTo).orElse(OffsetDateTime.now());
+        Set<String> insertedSignatures = transactionRepository.importAll(newTransactions);
+        List<TransactionCreateRequest> uniqueTransactions = newTransactions.entrySet().stream()
+                .filter(entry -> insertedSignatures.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        int duplicateCount = approvedDtos.size() - uniqueTransactions.size();
 
-        List<String> incomingDescriptions = approvedDtos.stream().map(TransactionDto::description).toList();
-        Map<String, Long> merchantMap = merchantService.findOrCreateMerchants(userId, incomingDescriptions);
+        List<OffsetDateTime> dates = uniqueTransactions.stream()
+                .map(TransactionCreateRequest::getTransactionDate)
+                .toList();
+        if (!uniqueTransactions.isEmpty()) {
+            updateAccountBalance(account, uniqueTransactions);
+            recordImportedFile(account, fileName, fileHash, uniqueTransactions.size());
+            log.info("Successfully saved {} new transactions. Skipped {} duplicates.", uniqueTransactions.size(), duplicateCount);
+        } else {
+            log.info("No new transactions to save. All {} inputs were duplicates.", duplicateCount);
+        }
 
-        List<Transaction> existingTransactions = transactionRepository.findExistingForDuplicateCheck(accountId, earliest, latest);
+        return new AccountImport(accountId, uniqueTransactions.size(), duplicateCount, dates);
+    }
 
-        Set<String> existingSignatures = existingTransactions.stream()
-                .map(t -> String.format("%s_%s_%s_%s", t.getTransactionDate(), t.getAmount().stripTrailingZeros(), t.getDescription(), t.getType().name()))
-                .collect(Collectors.toSet());
+    /**
+     * Saves a staged import. Overrides are applied to the staged rows first, then every row that is not
+     * excluded is moved into the account's transactions with one statement. The staging is removed.
+     *
+     * @return the number of transactions saved; rows that were already imported are skipped
+     * @throws ResourceNotFoundException if the token is unknown, expired, or staged for another account
+     */
+    @Transactional
+    public int commitStagedTransactions(Long userId, Long accountId, UUID token, CommitStagedImportRequest request) {
+        ImportStaging staging = importStagingRepository.findActiveByTokenForUpdate(token, userId)
+                .filter(s -> s.getAccountId().equals(accountId))
+                .orElseThrow(() -> new ResourceNotFoundException("Staged import not found or expired"));
+
+        Account account = requireOwnedAccount(userId, accountId);
+        accountRepository.lockImports(accountId);
+        rejectImportedFile(accountId, staging.getFileHash());
+        applyOverrides(userId, staging.getId(), request.overrides());
+
+        Set<Integer> excludedRows = request.excludedRows();
+        List<String> descriptions = importStagingRepository.findDescriptions(staging.getId(), excludedRows);
+        Map<String, Long> merchantIds = merchantService.findOrCreateMerchants(userId, descriptions);
+        List<TransactionCreateRequest> inserted = importStagingRepository.moveToTransactions(staging.getId(), excludedRows, merchantIds);
+        importStagingRepository.delete(staging.getId());
+
+        if (!inserted.isEmpty()) {
+            updateAccountBalance(account, inserted);
+            recordImportedFile(account, staging.getFileName(), staging.getFileHash(), inserted.size());
+        }
+        refreshDerived(userId, inserted.stream().map(TransactionCreateRequest::getTransactionDate).toList());
 
-        List<TransactionCreateRequest> uniqueTransactions = new ArrayList<>();
-        Set<String> batchSignatures = new java.util.HashSet<>();
-        int duplicateCount = 0;
+        log.info("Committed staged import for Account ID: {}, saved {} transactions", accountId, inserted.size());
+        return inserted.size();
+    }
 
-        for (TransactionDto dto : approvedDtos) {
-            String signature = String.format("%s_%s_%s_%s", dto.date(), dto.amount().stripTrailingZeros(), dto.description(), dto.type().name());
+    private void applyOverrides(Long userId, Long stagingId, List<StagedRowOverride> overrides) {
+        if (overrides.isEmpty()) {
+            return;
+        }
 
-            boolean existsInDb = existingSignatures.contains(signature);
-            boolean existsInBatch = batchSignatures.contains(signature);
+        CategorizationContext context = categorizationContextCache.get(userId);
+        Map<Integer, StagedRow> rows = importStagingRepository
+                .findRows(stagingId, overrides.stream().map(StagedRowOverride::rowIndex).toList())
+                .stream()
+                .collect(Collectors.toMap(StagedRow::rowIndex, Function.identity()));
 
-            if (!existsInDb && !existsInBatch) {
-                Long merchantId = merchantMap.get(dto.description());
-                if (merchantId == null) {
-                    // Fallback for edge cases
-                    merchantId = merchantService.findOrCreateMerchant(userId, dto.description());
-                    merchantMap.put(dto.description(), merchantId);
-                }
-                TransactionCreateRequest t = mapToEntity(dto)
-                        .toBuilder()
-                        .accountId(account.getId())
-                        .merchantId(merchantId)
-                        .build();
-                uniqueTransactions.add(t);
-                batchSignatures.add(signature);
-            } else {
-                duplicateCount++;
-                if (log.isTraceEnabled()) {
-                    log.trace("Skipping duplicate transaction: {} - {} - {}", dto.date(), dto.description(), dto.amount());
-                }
+        for (StagedRowOverride override : overrides) {
+            StagedRow row = rows.get(override.rowIndex());
+            if (row == null) {
+                throw new IllegalArgumentException("Staged import has no row " + override.rowIndex());
+            }
+            if (override.categoryId() != null && context.findCategory(override.categoryId()).isEmpty()) {
+                throw new ResourceNotFoundException("Category not found with ID: " + override.categoryId());
             }
+
+            TransactionCreateRequest staged = row.transaction();
+            TransactionCreateRequest updated = staged.toBuilder()
+                    .description(override.description() != null ? override.description() : staged.getDescription())
+                    .type(override.type() != null ? override.type().name() : staged.getType())
+                    .categoryId(override.categoryId() != null ? override.categoryId() : staged.getCategoryId())
+                    .build();
+            StagedRow rewritten = new StagedRow(row.rowIndex(), updated);
+            importStagingRepository.updateRow(stagingId, rewritten);
+            rows.put(row.rowIndex(), rewritten);
         }
+    }
 
-        if (!uniqueTransactions.isEmpty()) {
-            transactionRepository.insertAll(uniqueTransactions);
-            updateAccountBalance(account, uniqueTransactions);
+    private Account requireOwnedAccount(Long userId, Long accountId) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found with ID: " + accountId));
 
-            if (fileName != null && fileHash != null) {
-                FileImportHistory history = FileImportHistory.builder()
-                        .account(account)
-                        .fileName(fileName)
-                        .fileHash(fileHash)
-                        .transactionCount(uniqueTransactions.size())
-                        .build();
-                fileImportHistoryRepository.save(history);
-            }
-            log.info("Successfully saved {} new transactions. Skipped {} duplicates.", uniqueTransactions.size(), duplicateCount);
-        } else {
-            log.info("No new transactions to save. All {} inputs were duplicates.", duplicateCount);
+        if (!account.getUserId().equals(userId)) {
+            throw new AccessDeniedException("Access denied to account");
+        }
+        return account;
+    }
+
+    private void rejectImportedFile(Long accountId, String fileHash) {
+        if (fileHash != null && fileImportHistoryRepository.findByAccountIdAndFileHash(accountId, fileHash).isPresent()) {
+            log.warn("Duplicate file hash detected during save. Account ID: {}, Hash: {}", accountId, fileHash);
+            throw new DuplicateImportException("This file has already been imported.");
+        }
+    }
+
+    private void recordImportedFile(Account account, String fileName, String fileHash, int transactionCount) {
+        if (fileName != null && fileHash != null) {
+            FileImportHistory history = FileImportHistory.builder()
+                    .account(account)
+                    .fileName(fileName)
+                    .fileHash(fileHash)
+                    .transactionCount(transactionCount)
+                    .build();
+            fileImportHistoryRepository.save(history);
         }
+    }
 
-        return uniqueTransactions.size();
+    private TransactionCreateRequest mapToEntity(TransactionPreviewDto preview) {
+        return TransactionCreateRequest.builder()
+                .transactionDate(preview.date())
+                .postDate(preview.postDate())
+                .description(preview.description())
+                .amount(preview.amount())
+                .type(preview.type().name())
+                .categoryId(preview.suggestedCategory() != null ? preview.suggestedCategory().id() : null)
+                .build();
     }
 
     private TransactionCreateRequest mapToEntity(TransactionDto dto) {
@@ -221,18 +490,19 @@ public class TransactionImportService {
     }
 
     private void updateAccountBalance(Account account, List<TransactionCreateRequest> newTransactions) {
-        BigDecimal oldBalance = account.getCurrentBalance();
-
-        Account updatedAccount = account;
-        for (TransactionCreateRequest t : newTransactions) {
-            updatedAccount = updatedAccount.applyTransaction(t);
-        }
+        BigDecimal delta = newTransactions.stream()
+                .map(TransactionCreateRequest::getNetChange)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        int updatedRows = accountRepository.updateBalance(updatedAccount.getUserId(), updatedAccount.getId(), updatedAccount.getCurrentBalance(), account.getVersion());
-        if (updatedRows == 0) {
-            throw new org.springframework.dao.OptimisticLockingFailureException("Account balance update failed due to concurrent modification");
-        }
+        accountRepository.addBalanceDelta(account.getUserId(), account.getId(), delta);
+        log.info("Recorded balance change of {} for Account ID: {}", delta, account.getId());
+    }
 
-        log.info("Updated Account ID: {} balance. Old: {}, New: {}", updatedAccount.getId(), oldBalance, updatedAccount.getCurrentBalance());
+    /**
+     * Outcome of saving transactions for one account.
+     *
+     * @param transactionDates dates of the saved transactions, for refreshing derived data
+     */
+    public record AccountImport(Long accountId, int savedCount, int duplicateCount, List<OffsetDateTime> transactionDates) {
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,6 @@ package com.mayureshpatel.pfdataservice.service;
 
 import com.mayureshpatel.pfdataservice.domain.account.Account;
 import com.mayureshpatel.pfdataservice.domain.category.Category;
-import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
 import com.mayureshpatel.pfdataservice.domain.merchant.Merchant;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
@@ -15,40 +14,52 @@ import com.mayureshpatel.pfdataservice.mapper.MerchantDtoMapper;
 import com.mayureshpatel.pfdataservice.mapper.TransactionDtoMapper;
 import com.mayureshpatel.pfdataservice.repository.account.AccountRepository;
 import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
-import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionCursor;
+import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionSortColumn;
 import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionSpecification;
 import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionSpecification.TransactionFilter;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationContextCache;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationStrategy.CategorizationContext;
 import com.mayureshpatel.pfdataservice.service.categorization.TransactionCategorizer;
-import com.mayureshpatel.pfdataservice.service.transfer.TransferMatcher;
+import com.mayureshpatel.pfdataservice.service.transfer.TransferSuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TransactionService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final TransactionRepository transactionRepository;
+    private final TransactionRollupRepository transactionRollupRepository;
     private final AccountRepository accountRepository;
     private final CategoryRepository categoryRepository;
     private final TransactionCategorizer categorizer;
-    private final CategoryRuleRepository categoryRuleRepository;
-    private final TransferMatcher transferMatcher;
+    private final CategorizationContextCache categorizationContextCache;
+    private final TransferSuggestionService transferSuggestionService;
     private final MerchantService merchantService;
 
     public List<TransferSuggestionDto> findPotentialTransfers(Long userId) {
-        LocalDate startDate = LocalDate.now().minusYears(5);
-        List<Transaction> transactions = transactionRepository.findRecentNonTransferTransactions(userId, startDate);
-
-        return transferMatcher.findMatches(transactions);
+        return transferSuggestionService.findSuggestions(userId);
     }
 
     @Transactional
@@ -65,11 +76,8 @@ public class TransactionService {
         }
 
         List<Transaction> updatedTransactions = new ArrayList<>();
+        Map<Long, BigDecimal> balanceDeltas = new LinkedHashMap<>();
         for (Transaction t : transactions) {
-            Account account = accountRepository.findById(t.getAccount().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-            Account accountAfterUndo = account.undoTransaction(t);
-
             TransactionType newType;
             if (t.getType() == TransactionType.INCOME) {
                 newType = TransactionType.TRANSFER_IN;
@@ -78,13 +86,14 @@ public class TransactionService {
             }
 
             Transaction updatedT = t.toBuilder().type(newType).build();
-            Account finalAccount = accountAfterUndo.applyTransaction(updatedT);
-
+            balanceDeltas.merge(t.getAccount().getId(),
+                    updatedT.getNetChange().subtract(t.getNetChange()), BigDecimal::add);
             updatedTransactions.add(updatedT);
-            accountRepository.updateBalance(userId, finalAccount.getId(), finalAccount.getCurrentBalance(), account.getVersion());
         }
 
+        accountRepository.addBalanceDeltas(userId, balanceDeltas);
         transactionRepository.updateAll(userId, updatedTransactions);
+        refreshDerived(userId, updatedTransactions);
     }
 
     public Page<TransactionDto> getTransactions(Long userId, TransactionType type, Pageable pageable) {
@@ -97,6 +106,34 @@ public class TransactionService {
                 .map(TransactionDtoMapper::toDto);
     }
 
+    /**
+     * Loads a page of transactions after the given cursor, seeking on (sort key, id) instead of an offset.
+     *
+     * @param userId       the user id
+     * @param filter       the filter to apply
+     * @param sort         the requested sort; only its first order is used, defaulting to date descending
+     * @param cursor       the cursor returned with the previous page, or null for the first page
+     * @param size         the page size, clamped to {@value #MAX_PAGE_SIZE}
+     * @param includeTotal whether to count every matching transaction
+     * @return the page and the cursor for the next one
+     */
+    public TransactionCursorPageDto getTransactionPage(Long userId, TransactionFilter filter, Sort sort,
+                                                       String cursor, int size, boolean includeTotal) {
+        Sort.Order order = sort.isSorted() ? sort.iterator().next() : Sort.Order.desc("date");
+        TransactionSortColumn column = TransactionSortColumn.fromProperty(order.getProperty());
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        TransactionRepository.KeysetPage page = transactionRepository.findPage(
+                TransactionSpecification.withFilter(userId, filter),
+                column, order.isAscending(), after, pageSize, includeTotal);
+
+        return new TransactionCursorPageDto(
+                page.content().stream().map(TransactionDtoMapper::toDto).toList(),
+                page.nextCursor(),
+                page.total());
+    }
+
     @Transactional
     public void deleteTransactions(Long userId, List<Long> transactionIds) {
         if (transactionIds == null || transactionIds.isEmpty()) return;
@@ -113,14 +150,14 @@ public class TransactionService {
             }
         }
 
+        Map<Long, BigDecimal> balanceDeltas = new LinkedHashMap<>();
         for (Transaction t : transactions) {
-            Account account = accountRepository.findById(t.getAccount().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-            Account accountAfterUndo = account.undoTransaction(t);
-            accountRepository.updateBalance(userId, accountAfterUndo.getId(), accountAfterUndo.getCurrentBalance(), account.getVersion());
+            balanceDeltas.merge(t.getAccount().getId(), t.getNetChange().negate(), BigDecimal::add);
         }
 
+        accountRepository.addBalanceDeltas(userId, balanceDeltas);
         transactionRepository.deleteAll(userId, transactions);
+        refreshDerived(userId, transactions);
     }
 
     @Transactional
@@ -146,19 +183,81 @@ public class TransactionService {
 
         transaction = resolveCategory(userId, transaction, request.getCategoryId());
 
-        Account finalAccount = account.applyTransaction(transaction);
-        accountRepository.updateBalance(userId, finalAccount.getId(), finalAccount.getCurrentBalance(), account.getVersion());
+        accountRepository.addBalanceDelta(userId, account.getId(), transaction.getNetChange());
 
-        return transactionRepository.insert(transaction);
+        int inserted = transactionRepository.insert(transaction);
+        refreshDerived(userId, List.of(transaction));
+        return inserted;
     }
 
+    /**
+     * Applies many updates with a fixed number of round-trips: the transactions, merchants and categorization
+     * context are each loaded once, each account gets one balance delta and the rows are written with
+     * {@link TransactionRepository#updateAll}. A transaction listed more than once ends up with its last
+     * request, as if the requests were applied in order.
+     *
+     * @param userId   the owner of the transactions
+     * @param requests the updates to apply
+     * @return the number of rows updated
+     */
     @Transactional
     public Integer updateTransactionsBulk(Long userId, List<TransactionUpdateRequest> requests) {
         if (requests == null || requests.isEmpty()) return 0;
 
-        return requests.stream()
-                .map(request -> updateTransaction(userId, request))
-                .toList().stream().mapToInt(Integer::intValue).sum();
+        Map<Long, TransactionUpdateRequest> requestsById = new LinkedHashMap<>();
+        for (TransactionUpdateRequest request : requests) {
+            requestsById.put(request.getId(), request);
+        }
+
+        Map<Long, Transaction> originals = transactionRepository.findAllById(userId, List.copyOf(requestsById.keySet()))
+                .stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+
+        for (Long id : requestsById.keySet()) {
+            Transaction original = originals.get(id);
+            if (original == null) {
+                throw new ResourceNotFoundException("Transaction not found");
+            }
+            if (!original.getAccount().getUserId().equals(userId)) {
+                throw new AccessDeniedException("You do not own this transaction");
+            }
+        }
+
+        Map<String, Long> merchantIds = merchantService.findOrCreateMerchants(userId,
+                requestsById.values().stream().map(TransactionUpdateRequest::getDescription).toList());
+        CategorizationContext context = categorizationContextCache.get(userId);
+
+        List<Transaction> updatedTransactions = new ArrayList<>(requestsById.size());
+        Map<Long, BigDecimal> balanceDeltas = new LinkedHashMap<>();
+        for (TransactionUpdateRequest request : requestsById.values()) {
+            Transaction original = originals.get(request.getId());
+            Long merchantId = merchantIds.get(request.getDescription());
+            if (merchantId == null) {
+                merchantId = merchantService.findOrCreateMerchant(userId, request.getDescription());
+            }
+
+            Transaction updatedT = original.toBuilder()
+                    .amount(request.getAmount())
+                    .transactionDate(request.getTransactionDate())
+                    .postDate(request.getPostDate())
+                    .description(request.getDescription())
+                    .type(TransactionType.valueOf(request.getType()))
+                    .merchant(Merchant.builder().id(merchantId).build())
+                    .build();
+            updatedT = resolveCategory(userId, updatedT, request.getCategoryId(), context);
+
+            balanceDeltas.merge(original.getAccount().getId(),
+                    updatedT.getNetChange().subtract(original.getNetChange()), BigDecimal::add);
+            updatedTransactions.add(updatedT);
+        }
+
+        accountRepository.addBalanceDeltas(userId, balanceDeltas);
+        int updated = transactionRepository.updateAll(userId, updatedTransactions);
+
+        List<Transaction> written = new ArrayList<>(originals.values());
+        written.addAll(updatedTransactions);
+        refreshDerived(userId, written);
+        return updated;
     }
 
     @Transactional
@@ -170,9 +269,6 @@ public class TransactionService {
             throw new AccessDeniedException("You do not own this transaction");
         }
 
-        Account account = transaction.getAccount();
-        Account accountAfterUndo = account.undoTransaction(transaction);
-
         Long merchantId = merchantService.findOrCreateMerchant(userId, request.getDescription());
 
         Transaction updatedT = transaction.toBuilder()
@@ -186,39 +282,57 @@ public class TransactionService {
 
         updatedT = resolveCategory(userId, updatedT, request.getCategoryId());
 
-        Account finalAccount = accountAfterUndo.applyTransaction(updatedT);
-        accountRepository.updateBalance(userId, finalAccount.getId(), finalAccount.getCurrentBalance(), account.getVersion());
+        accountRepository.addBalanceDelta(userId, transaction.getAccount().getId(),
+                updatedT.getNetChange().subtract(transaction.getNetChange()));
 
-        return transactionRepository.update(userId, updatedT);
+        int updated = transactionRepository.update(userId, updatedT);
+        refreshDerived(userId, List.of(transaction, updatedT));
+        return updated;
     }
 
     private Transaction resolveCategory(Long userId, Transaction transaction, Long requestedCategoryId) {
         if (requestedCategoryId != null) {
             Category category = categoryRepository.findById(requestedCategoryId)
                     .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+            return assignCategory(userId, transaction, category);
+        }
+        return guessCategory(transaction, categorizationContextCache.get(userId));
+    }
 
-            if (!category.getUserId().equals(userId)) {
-                throw new AccessDeniedException("You do not have access to this category");
-            }
+    /**
+     * Same as {@link #resolveCategory(Long, Transaction, Long)}, but looks requested categories up in an
+     * already loaded context and only falls back to the repository for ids the context does not know.
+     */
+    private Transaction resolveCategory(Long userId, Transaction transaction, Long requestedCategoryId,
+                                        CategorizationContext context) {
+        if (requestedCategoryId != null) {
+            Category category = context.findCategory(requestedCategoryId)
+                    .or(() -> categoryRepository.findById(requestedCategoryId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+            return assignCategory(userId, transaction, category);
+        }
+        return guessCategory(transaction, context);
+    }
 
-            if (!category.isSubCategory()) {
-                throw new IllegalArgumentException(
-                        "Only subcategories can be assigned to transactions. " +
-                                "Please select a specific subcategory under '" + category.getName() + "'.");
-            }
-            return transaction.toBuilder().category(category).build();
-        } else {
-            List<CategoryRule> rules = categoryRuleRepository.findByUserId(userId);
-            List<Category> userCategories = categoryRepository.findByUserId(userId);
-            Long categoryId = categorizer.guessCategory(transaction, rules, userCategories);
-
-            if (categoryId != null && categoryId > 0) {
-                Category guessed = userCategories.stream()
-                        .filter(c -> c.getId().equals(categoryId))
-                        .findFirst()
-                        .orElse(null);
-                return transaction.toBuilder().category(guessed).build();
-            }
+    private Transaction assignCategory(Long userId, Transaction transaction, Category category) {
+        if (!category.getUserId().equals(userId)) {
+            throw new AccessDeniedException("You do not have access to this category");
+        }
+
+        if (!category.isSubCategory()) {
+            throw new IllegalArgumentException(
+                    "Only subcategories can be assigned to transactions. " +
+                            "Please select a specific subcategory under '" + category.getName() + "'.");
+        }
+        return transaction.toBuilder().category(category).build();
+    }
+
+    private Transaction guessCategory(Transaction transaction, CategorizationContext context) {
+        Long categoryId = categorizer.guessCategory(transaction, context);
+
+        if (categoryId != null && categoryId > 0) {
+            Category guessed = context.findCategory(categoryId).orElse(null);
+            return transaction.toBuilder().category(guessed).build();
         }
         return transaction.toBuilder().category(null).build();
     }
@@ -232,10 +346,20 @@ public class TransactionService {
             throw new AccessDeniedException("You do not own this transaction");
         }
 
-        Account accountAfterUndo = transaction.getAccount().undoTransaction(transaction);
-        accountRepository.updateBalance(userId, accountAfterUndo.getId(), accountAfterUndo.getCurrentBalance(), transaction.getAccount().getVersion());
+        accountRepository.addBalanceDelta(userId, transaction.getAccount().getId(), transaction.getNetChange().negate());
 
         transactionRepository.deleteById(transactionId, userId);
+        refreshDerived(userId, List.of(transaction));
+    }
+
+    /**
+     * Brings the daily rollups and transfer suggestions up to date with the written transactions. Updates
+     * must pass both the old and the new version so that a moved transaction refreshes both days.
+     */
+    private void refreshDerived(Long userId, List<Transaction> written) {
+        List<OffsetDateTime> dates = written.stream().map(Transaction::getTransactionDate).toList();
+        transactionRollupRepository.refreshDates(userId, dates);
+        transferSuggestionService.refreshDates(userId, dates);
     }
 
     public List<CategoryTransactionsDto> getCountByCategory(Long userId) {
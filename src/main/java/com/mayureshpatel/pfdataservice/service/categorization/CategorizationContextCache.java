@@ -0,0 +1,75 @@
+package com.mayureshpatel.pfdataservice.service.categorization;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mayureshpatel.pfdataservice.domain.category.Category;
+import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
+import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationStrategy.CategorizationContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user cache of the rules and categories needed to categorize a transaction.
+ * <p>
+ * Entries are loaded on first use and stay until {@link #evict(Long)} is called by a rule or category
+ * write. The cached rule list is reused as-is, so the compiled {@link KeywordMatcher} for it is reused too.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategorizationContextCache {
+
+    private final CategoryRuleRepository categoryRuleRepository;
+    private final CategoryRepository categoryRepository;
+    private final KeywordMatcherCache keywordMatcherCache;
+
+    private final Cache<Long, CategorizationContext> contexts = Caffeine.newBuilder()
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .maximumSize(10000)
+            .build();
+
+    public CategorizationContext get(Long userId) {
+        return contexts.get(userId, this::load);
+    }
+
+    /**
+     * Drops the user's cached context and compiled matcher. When called inside a transaction the entry
+     * is dropped again after commit, so a concurrent reader cannot re-cache pre-commit data.
+     *
+     * @param userId the user whose rules or categories changed
+     */
+    public void evict(Long userId) {
+        contexts.invalidate(userId);
+        keywordMatcherCache.evict(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    contexts.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private CategorizationContext load(Long userId) {
+        List<Category> categories = List.copyOf(categoryRepository.findByUserId(userId));
+        Map<Long, Category> categoriesById = categories.stream()
+                .collect(Collectors.toUnmodifiableMap(Category::getId, Function.identity(), (a, b) -> a));
+
+        return CategorizationContext.builder()
+                .userId(userId)
+                .rules(List.copyOf(categoryRuleRepository.findByUserId(userId)))
+                .categories(categories)
+                .categoriesById(categoriesById)
+                .build();
+    }
+}
@@ -8,6 +8,7 @@ import lombok.Builder;
 import lombok.Getter;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface CategorizationStrategy {
@@ -18,6 +19,28 @@ public interface CategorizationStrategy {
         private final Long userId;
         private final List<CategoryRule> rules;
         private final List<Category> categories;
+        private final Map<Long, Category> categoriesById;
+
+        /**
+         * Looks up one of the context's categories by id, using the id index when the context has one.
+         *
+         * @param categoryId the category id
+         * @return the category, or empty if it is not one of the user's categories
+         */
+        public Optional<Category> findCategory(Long categoryId) {
+            if (categoryId == null) {
+                return Optional.empty();
+            }
+            if (categoriesById != null) {
+                return Optional.ofNullable(categoriesById.get(categoryId));
+            }
+            if (categories == null) {
+                return Optional.empty();
+            }
+            return categories.stream()
+                    .filter(c -> categoryId.equals(c.getId()))
+                    .findFirst();
+        }
     }
 
     /**
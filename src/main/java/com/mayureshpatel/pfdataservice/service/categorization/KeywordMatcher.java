@@ -0,0 +1,111 @@
+package com.mayureshpatel.pfdataservice.service.categorization;
+
+import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+
+/**
+ * Case-insensitive Aho-Corasick automaton over the keywords of a user's {@link CategoryRule}s.
+ * <p>
+ * A description is scanned once regardless of how many rules exist. When several keywords occur,
+ * the rule that comes first in the list the matcher was built from wins, which preserves the
+ * priority ordering returned by the rule repository.
+ */
+public final class KeywordMatcher {
+
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final List<CategoryRule> rules;
+    private final Node root = new Node();
+
+    private KeywordMatcher(List<CategoryRule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * Builds a matcher from rules in priority order.
+     *
+     * @param rules the rules, highest priority first; rules without a keyword are ignored
+     * @return the compiled matcher
+     */
+    public static KeywordMatcher compile(List<CategoryRule> rules) {
+        KeywordMatcher matcher = new KeywordMatcher(rules);
+        matcher.buildTrie();
+        matcher.buildFailureLinks();
+        return matcher;
+    }
+
+    /**
+     * Finds the highest priority rule whose keyword occurs in the text.
+     *
+     * @param text the text to scan
+     * @return the matching rule, or empty if no keyword occurs
+     */
+    public Optional<CategoryRule> firstMatch(String text) {
+        int best = root.bestRule;
+        Node state = root;
+
+        for (int i = 0; i < text.length() && best > 0; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            while (state != root && !state.children.containsKey(c)) {
+                state = state.failure;
+            }
+            state = state.children.getOrDefault(c, root);
+            best = Math.min(best, state.bestRule);
+        }
+
+        return best == NO_MATCH ? Optional.empty() : Optional.of(rules.get(best));
+    }
+
+    private void buildTrie() {
+        for (int index = 0; index < rules.size(); index++) {
+            String keyword = rules.get(index).getKeyword();
+            if (keyword == null) {
+                continue;
+            }
+
+            Node node = root;
+            for (int i = 0; i < keyword.length(); i++) {
+                node = node.children.computeIfAbsent(Character.toLowerCase(keyword.charAt(i)), c -> new Node());
+            }
+            node.bestRule = Math.min(node.bestRule, index);
+        }
+    }
+
+    private void buildFailureLinks() {
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            child.failure = root;
+            child.bestRule = Math.min(child.bestRule, root.bestRule);
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+
+                Node failure = node.failure;
+                while (failure != root && !failure.children.containsKey(c)) {
+                    failure = failure.failure;
+                }
+                child.failure = failure.children.getOrDefault(c, root);
+                // a node also matches every keyword that is a suffix of its path
+                child.bestRule = Math.min(child.bestRule, child.failure.bestRule);
+                queue.add(child);
+            }
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private Node failure;
+        private int bestRule = NO_MATCH;
+    }
+}
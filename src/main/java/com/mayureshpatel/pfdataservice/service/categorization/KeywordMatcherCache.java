@@ -0,0 +1,82 @@
+package com.mayureshpatel.pfdataservice.service.categorization;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds compiled {@link KeywordMatcher}s so rules are compiled once rather than per transaction.
+ * <p>
+ * Matchers for a known user are kept with the rules they were compiled from and recompiled when the
+ * rules passed in differ by id, keyword, priority or category, so a rule edited behind the cache's back
+ * is never matched stale. A rule write also calls {@link #evict(Long)} to release the old matcher early.
+ * Contexts without a user fall back to a cache keyed by the identity of the rule list, which
+ * covers a single bulk run that reuses one list for every transaction.
+ */
+@Component
+public class KeywordMatcherCache {
+
+    private final Cache<Long, CompiledRules> byUser = Caffeine.newBuilder()
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .maximumSize(10000)
+            .build();
+
+    private final Cache<List<CategoryRule>, KeywordMatcher> byRuleList = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(1000)
+            .build();
+
+    public KeywordMatcher get(Long userId, List<CategoryRule> rules) {
+        if (userId == null) {
+            return byRuleList.get(rules, KeywordMatcher::compile);
+        }
+
+        CompiledRules compiled = byUser.getIfPresent(userId);
+        // the same list instance is handed out for a whole run, so the content check is rarely needed
+        if (compiled != null && (compiled.source() == rules || compiled.keys().equals(keysOf(rules)))) {
+            return compiled.matcher();
+        }
+
+        KeywordMatcher matcher = KeywordMatcher.compile(rules);
+        byUser.put(userId, new CompiledRules(rules, keysOf(rules), matcher));
+        return matcher;
+    }
+
+    /**
+     * Drops the user's compiled matcher. When called inside a transaction the entry is dropped again
+     * after commit, so a concurrent reader cannot re-cache the pre-commit rules.
+     *
+     * @param userId the user whose rules changed
+     */
+    public void evict(Long userId) {
+        byUser.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    byUser.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private static List<RuleKey> keysOf(List<CategoryRule> rules) {
+        return rules.stream()
+                .map(rule -> new RuleKey(rule.getId(), rule.getKeyword(), rule.getPriority(),
+                        rule.getCategory() != null ? rule.getCategory().getId() : null))
+                .toList();
+    }
+
+    private record RuleKey(Long id, String keyword, Integer priority, Long categoryId) {
+    }
+
+    private record CompiledRules(List<CategoryRule> source, List<RuleKey> keys, KeywordMatcher matcher) {
+    }
+}
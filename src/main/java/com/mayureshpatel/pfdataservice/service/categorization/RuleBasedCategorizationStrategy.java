@@ -1,17 +1,20 @@
 package com.mayureshpatel.pfdataservice.service.categorization;
 
-import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionUpdateRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class RuleBasedCategorizationStrategy implements CategorizationStrategy {
 
+    private final KeywordMatcherCache matcherCache;
+
     @Override
     public Optional<Long> categorize(Transaction transaction, CategorizationContext context) {
         // return empty if description or rules are not present
@@ -19,14 +22,7 @@ public class RuleBasedCategorizationStrategy implements CategorizationStrategy {
             return Optional.empty();
         }
 
-        // search for a matching rule on the transaction
-        for (CategoryRule rule : context.getRules()) {
-            if (transaction.getDescription().toLowerCase().contains(rule.getKeyword().toLowerCase())) {
-                return Optional.of(rule.getCategory().getId());
-            }
-        }
-
-        return Optional.empty();
+        return match(transaction.getDescription(), context);
     }
 
     @Override
@@ -36,14 +32,17 @@ public class RuleBasedCategorizationStrategy implements CategorizationStrategy {
             return Optional.empty();
         }
 
-        // search for a matching rule on the transaction
-        for (CategoryRule rule : context.getRules()) {
-            if (transaction.getDescription().toLowerCase().contains(rule.getKeyword().toLowerCase())) {
-                return Optional.of(rule.getCategory().getId());
-            }
+        return match(transaction.getDescription(), context);
+    }
+
+    private Optional<Long> match(String description, CategorizationContext context) {
+        if (context.getRules().isEmpty()) {
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        return matcherCache.get(context.getUserId(), context.getRules())
+                .firstMatch(description)
+                .map(rule -> rule.getCategory().getId());
     }
 
     @Override
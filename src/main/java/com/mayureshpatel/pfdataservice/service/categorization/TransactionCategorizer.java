@@ -43,6 +43,17 @@ public class TransactionCategorizer {
                 .categories(categories)
                 .build();
 
+        return guessCategory(transaction, context);
+    }
+
+    /**
+     * Categorizes the transaction against a prepared context, such as one from {@link CategorizationContextCache}.
+     *
+     * @param transaction The transaction to categorize
+     * @param context     The user's rules and categories
+     * @return The suggested category id, or -1 if no strategy matched
+     */
+    public Long guessCategory(Transaction transaction, CategorizationStrategy.CategorizationContext context) {
         return this.strategies.stream()
                 .sorted(Comparator.comparingInt(CategorizationStrategy::getOrder))
                 .map(s -> s.categorize(transaction, context))
@@ -59,6 +70,10 @@ public class TransactionCategorizer {
                 .categories(categories)
                 .build();
 
+        return guessCategory(transaction, context);
+    }
+
+    public Long guessCategory(TransactionUpdateRequest transaction, CategorizationStrategy.CategorizationContext context) {
         return this.strategies.stream()
                 .sorted(Comparator.comparingInt(CategorizationStrategy::getOrder))
                 .map(s -> s.categorize(transaction, context))
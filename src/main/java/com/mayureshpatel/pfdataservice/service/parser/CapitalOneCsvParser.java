@@ -2,13 +2,8 @@ package com.mayureshpatel.pfdataservice.service.parser;
 
 import com.mayureshpatel.pfdataservice.domain.bank.BankName;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
-import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
@@ -16,8 +11,6 @@ import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoField;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.stream.Stream;
 
 @Component
@@ -35,14 +28,6 @@ public class CapitalOneCsvParser implements TransactionParser {
             .parseDefaulting(ChronoField.OFFSET_SECONDS, 0)
             .toFormatter();
 
-    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
-            .setHeader()
-            .setSkipHeaderRecord(true)
-            .setIgnoreHeaderCase(true)
-            .setTrim(true)
-            .setIgnoreSurroundingSpaces(true)
-            .get();
-
     @Override
     public BankName getBankName() {
         return BankName.CAPITAL_ONE;
@@ -55,37 +40,16 @@ public class CapitalOneCsvParser implements TransactionParser {
 
     @Override
     public Stream<Transaction> parse(Long accountId, InputStream inputStream) {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        return collectRows(parseRows(accountId, inputStream));
+    }
 
+    @Override
+    public Stream<ParsedRow> parseRows(Long accountId, InputStream inputStream) {
+        CsvReader reader = new CsvReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
         try {
-            CSVParser csvParser = CSV_FORMAT.parse(reader);
-            List<Transaction> transactions = new ArrayList<>();
-            List<String> errors = new ArrayList<>();
-
-            for (CSVRecord record : csvParser) {
-                if (isValidRecord(record, HEADER_DATE)) {
-                    try {
-                        transactions.add(parseTransaction(record));
-                    } catch (Exception e) {
-                        errors.add("Row " + record.getRecordNumber() + ": " + e.getMessage());
-                    }
-                }
-            }
-
-            try {
-                csvParser.close();
-                reader.close();
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to close CSV parser resources", e);
-            }
-
-            if (!errors.isEmpty()) {
-                throw new CsvParsingException("Failed to parse CSV with errors: " + String.join(", ", errors));
-            }
-
-            return transactions.stream();
-        } catch (CsvParsingException e) {
-            throw e;
+            Columns columns = Columns.resolve(reader.readHeader());
+            return streamRows(reader, csvRecord -> isValidRecord(csvRecord, columns.date()),
+                    csvRecord -> parseTransaction(csvRecord, columns));
         } catch (Exception e) {
             try {
                 reader.close();
@@ -99,15 +63,16 @@ public class CapitalOneCsvParser implements TransactionParser {
      * Parses a CSV record into a {@link Transaction}.
      *
      * @param csvRecord the CSV record to parse
+     * @param columns   the column positions of the file
      * @return the parsed Transaction
      */
-    private Transaction parseTransaction(CSVRecord csvRecord) {
+    private Transaction parseTransaction(CsvReader csvRecord, Columns columns) {
         Transaction transaction = Transaction.builder()
-                .transactionDate(parseDate(csvRecord.get(HEADER_DATE), DATE_FORMATTER))
-                .description(csvRecord.get(HEADER_DESCRIPTION))
+                .transactionDate(parseDate(csvRecord.get(columns.date()), DATE_FORMATTER))
+                .description(csvRecord.get(columns.description()))
                 .build();
 
-        BigDecimal netAmount = calculateNetAmount(csvRecord);
+        BigDecimal netAmount = calculateNetAmount(csvRecord, columns);
         transaction = configureCreditCardTransactionTypeAndAmount(transaction, netAmount);
 
         return transaction;
@@ -117,11 +82,23 @@ public class CapitalOneCsvParser implements TransactionParser {
      * Calculates the net amount for a transaction based on credit and debit amounts.
      *
      * @param csvRecord the CSV record containing the credit and debit amounts
+     * @param columns   the column positions of the file
      * @return the net amount
      */
-    private BigDecimal calculateNetAmount(CSVRecord csvRecord) {
-        BigDecimal credit = parseAmount(csvRecord, HEADER_CREDIT);
-        BigDecimal debit = parseAmount(csvRecord, HEADER_DEBIT);
+    private BigDecimal calculateNetAmount(CsvReader csvRecord, Columns columns) {
+        BigDecimal credit = parseAmount(csvRecord, columns.credit());
+        BigDecimal debit = parseAmount(csvRecord, columns.debit());
         return debit.subtract(credit);
     }
+
+    private record Columns(int date, int description, int debit, int credit) {
+
+        static Columns resolve(CsvHeader header) {
+            return new Columns(
+                    header.indexOf(HEADER_DATE),
+                    header.indexOf(HEADER_DESCRIPTION),
+                    header.indexOf(HEADER_DEBIT),
+                    header.indexOf(HEADER_CREDIT));
+        }
+    }
 }
@@ -0,0 +1,43 @@
+package com.mayureshpatel.pfdataservice.service.parser;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column names of a CSV file, looked up ignoring case. Parsers resolve the columns they need once per file
+ * and read each record by index.
+ */
+public final class CsvHeader {
+
+    private final List<String> names;
+    private final Map<String, Integer> indexes;
+
+    private CsvHeader(List<String> names) {
+        this.names = names;
+        this.indexes = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            // the first of two equally named columns wins
+            indexes.putIfAbsent(names.get(i).toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    public static CsvHeader of(String... names) {
+        return new CsvHeader(List.of(names));
+    }
+
+    /**
+     * @return the column names in file order
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * @return the index of the column, or -1 if the file has no such column
+     */
+    public int indexOf(String name) {
+        return indexes.getOrDefault(name.toLowerCase(Locale.ROOT), -1);
+    }
+}
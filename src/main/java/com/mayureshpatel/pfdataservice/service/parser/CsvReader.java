@@ -0,0 +1,353 @@
+package com.mayureshpatel.pfdataservice.service.parser;
+
+import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Forward-only reader over delimited statement files. Each record is unquoted into one reusable char buffer
+ * and its fields are kept as offsets into it, so a value only becomes a {@link String} when a parser asks for
+ * it and amounts are parsed from the buffer directly.
+ * <p>
+ * Quoting follows RFC 4180. Values are trimmed, blank lines are skipped and a leading byte order mark is
+ * dropped. Columns past the end of a short record read as empty. The reader is positioned on one record at a
+ * time; {@link #next()} reuses the buffers, so values must be copied out before advancing. {@link #peek} reads
+ * ahead without consuming, for parsers that sample a file before choosing how to read it.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char delimiter;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean started;
+    private boolean exhausted;
+
+    private char[] record = new char[256];
+    private int recordLength;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+    private long recordNumber;
+
+    private final Deque<Snapshot> peeked = new ArrayDeque<>();
+
+    public CsvReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Reads the first record as the header. Data records are numbered from 1 after it.
+     *
+     * @return the header, empty when the input has no records
+     */
+    public CsvHeader readHeader() {
+        if (!next()) {
+            return CsvHeader.of(new String[0]);
+        }
+        String[] names = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            names[i] = get(i);
+        }
+        recordNumber = 0;
+        return CsvHeader.of(names);
+    }
+
+    /**
+     * Reads ahead up to {@code count} records. They are returned again by {@link #next()} before the reader
+     * moves on.
+     *
+     * @return the values of the records read ahead
+     * @throws IllegalStateException if records read ahead earlier have not all been consumed
+     */
+    public List<String[]> peek(int count) {
+        if (!peeked.isEmpty()) {
+            throw new IllegalStateException("Records read ahead have not been consumed");
+        }
+
+        List<String[]> records = new ArrayList<>(count);
+        while (records.size() < count && readNext()) {
+            peeked.add(new Snapshot(Arrays.copyOf(record, recordLength), Arrays.copyOf(fieldStarts, fieldCount),
+                    Arrays.copyOf(fieldEnds, fieldCount), recordNumber));
+
+            String[] values = new String[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                values[i] = get(i);
+            }
+            records.add(values);
+        }
+        return records;
+    }
+
+    /**
+     * Advances to the next non-blank record.
+     *
+     * @return false once the input is exhausted
+     * @throws CsvParsingException if a quoted value is not closed before the end of the input
+     */
+    public boolean next() {
+        Snapshot snapshot = peeked.poll();
+        if (snapshot == null) {
+            return readNext();
+        }
+
+        if (snapshot.record().length > record.length) {
+            record = new char[snapshot.record().length];
+        }
+        System.arraycopy(snapshot.record(), 0, record, 0, snapshot.record().length);
+        recordLength = snapshot.record().length;
+        fieldCount = snapshot.fieldStarts().length;
+        if (fieldCount > fieldStarts.length) {
+            fieldStarts = new int[fieldCount];
+            fieldEnds = new int[fieldCount];
+        }
+        System.arraycopy(snapshot.fieldStarts(), 0, fieldStarts, 0, fieldCount);
+        System.arraycopy(snapshot.fieldEnds(), 0, fieldEnds, 0, fieldCount);
+        recordNumber = snapshot.recordNumber();
+        return true;
+    }
+
+    private boolean readNext() {
+        if (!started) {
+            started = true;
+            if (read() != '\uFEFF') {
+                unread();
+            }
+        }
+
+        while (readRecord()) {
+            if (fieldCount > 1 || fieldEnds[0] > fieldStarts[0]) {
+                recordNumber++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of the current record, counted from 1 and excluding the header and blank lines
+     */
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    public int size() {
+        return fieldCount;
+    }
+
+    /**
+     * @param column the column index, as resolved by {@link CsvHeader}
+     * @return the value, or an empty string for a column past the end of the record
+     * @throws IllegalArgumentException if the column is not mapped
+     */
+    public String get(int column) {
+        if (column < 0) {
+            throw new IllegalArgumentException("Column is not mapped");
+        }
+        if (column >= fieldCount) {
+            return "";
+        }
+        return new String(record, fieldStarts[column], fieldEnds[column] - fieldStarts[column]);
+    }
+
+    /**
+     * @return true if the column is mapped and holds a non-blank value
+     */
+    public boolean hasText(int column) {
+        return column >= 0 && column < fieldCount && fieldEnds[column] > fieldStarts[column];
+    }
+
+    /**
+     * @return true if any value of the current record contains the text
+     */
+    public boolean contains(String text) {
+        int length = text.length();
+        for (int field = 0; field < fieldCount; field++) {
+            int last = fieldEnds[field] - length;
+            for (int i = fieldStarts[field]; i <= last; i++) {
+                if (regionMatches(i, text)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an amount keeping only digits, {@code '.'} and {@code '-'} of the value.
+     *
+     * @return the amount, or zero when the column is unmapped or blank
+     * @throws NumberFormatException if the value is not a number
+     */
+    public BigDecimal numericAmount(int column) {
+        if (!hasText(column)) {
+            return BigDecimal.ZERO;
+        }
+        return FixedPointAmounts.parseNumeric(record, fieldStarts[column], fieldEnds[column]);
+    }
+
+    /**
+     * Parses a currency amount such as {@code "$1,234.56"} or {@code "(100.00)"}.
+     *
+     * @return the amount, or zero when the column is unmapped or blank
+     * @throws NumberFormatException if the value is not a currency amount
+     */
+    public BigDecimal currencyAmount(int column) {
+        if (!hasText(column)) {
+            return BigDecimal.ZERO;
+        }
+        return FixedPointAmounts.parseCurrency(record, fieldStarts[column], fieldEnds[column]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean regionMatches(int offset, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (record[offset + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean readRecord() {
+        recordLength = 0;
+        fieldCount = 0;
+
+        int c = read();
+        if (c == EOF) {
+            return false;
+        }
+
+        while (true) {
+            int start = recordLength;
+
+            // leading whitespace is trimmed anyway; skipping it lets a quote follow
+            while (c != EOF && c != delimiter && c != '\n' && c != '\r' && c <= ' ') {
+                c = read();
+            }
+            if (c == '"') {
+                c = readQuoted();
+            }
+            while (c != EOF && c != delimiter && c != '\n' && c != '\r') {
+                append((char) c);
+                c = read();
+            }
+            addField(start, recordLength);
+
+            if (c == delimiter) {
+                c = read();
+                continue;
+            }
+            if (c == '\r' && read() != '\n') {
+                unread();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Appends a quoted value, unescaping doubled quotes.
+     *
+     * @return the character after the closing quote
+     */
+    private int readQuoted() {
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw new CsvParsingException("Unterminated quoted value in record " + (recordNumber + 1));
+            }
+            if (c == '"') {
+                int following = read();
+                if (following != '"') {
+                    return following;
+                }
+            }
+            append((char) c);
+        }
+    }
+
+    private void addField(int start, int end) {
+        while (start < end && record[start] <= ' ') {
+            start++;
+        }
+        while (end > start && record[end - 1] <= ' ') {
+            end--;
+        }
+
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void append(char c) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, recordLength * 2);
+        }
+        record[recordLength++] = c;
+    }
+
+    private int read() {
+        if (position == limit && (exhausted || !fill())) {
+            return EOF;
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Steps back over the character just read; a no-op after the end of the input.
+     */
+    private void unread() {
+        if (!exhausted) {
+            position--;
+        }
+    }
+
+    private boolean fill() {
+        try {
+            int read;
+            do {
+                read = reader.read(buffer, 0, buffer.length);
+            } while (read == 0);
+
+            if (read == EOF) {
+                exhausted = true;
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV input", e);
+        }
+    }
+
+    private record Snapshot(char[] record, int[] fieldStarts, int[] fieldEnds, long recordNumber) {
+    }
+}
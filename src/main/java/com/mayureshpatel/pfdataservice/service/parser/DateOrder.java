@@ -0,0 +1,106 @@
+package com.mayureshpatel.pfdataservice.service.parser;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Field order of a numeric statement date such as {@code 03/01/2026} or {@code 2026-03-01}. Fields are
+ * separated by one of {@code '/'}, {@code '-'} or {@code '.'} and the year always has four digits.
+ * <p>
+ * {@link #parse} never throws, so an order locked in from a sample can be applied to every row of a large
+ * file without exception handling on the hot path.
+ */
+enum DateOrder {
+    MONTH_FIRST,
+    DAY_FIRST,
+    YEAR_FIRST;
+
+    /**
+     * @param value a trimmed date value
+     * @return the date, or null if the value is not a valid date in this order
+     */
+    LocalDate parse(String value) {
+        int[] fields = new int[3];
+        int[] digits = new int[3];
+        int field = 0;
+        char separator = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits[field] > 4) {
+                    return null;
+                }
+                fields[field] = fields[field] * 10 + (c - '0');
+            } else if (field < 2 && digits[field] > 0 && (c == '/' || c == '-' || c == '.')
+                    && (separator == 0 || c == separator)) {
+                separator = c;
+                field++;
+            } else {
+                return null;
+            }
+        }
+        if (field != 2 || digits[2] == 0) {
+            return null;
+        }
+
+        return switch (this) {
+            case MONTH_FIRST -> digits[2] == 4 && digits[0] <= 2 && digits[1] <= 2
+                    ? toDate(fields[2], fields[0], fields[1]) : null;
+            case DAY_FIRST -> digits[2] == 4 && digits[0] <= 2 && digits[1] <= 2
+                    ? toDate(fields[2], fields[1], fields[0]) : null;
+            case YEAR_FIRST -> digits[0] == 4 && digits[1] <= 2 && digits[2] <= 2
+                    ? toDate(fields[0], fields[1], fields[2]) : null;
+        };
+    }
+
+    /**
+     * Picks the order that parses the most sampled values. Ties go to the preferred order when it is among
+     * them and to the earlier order otherwise, so a sample where every date reads both ways is taken as month
+     * first unless an earlier file settled it.
+     *
+     * @param samples   non-blank date values from the start of a file
+     * @param preferred the order to keep when the sample cannot tell
+     * @return the best order, and whether the sample ruled out every other order
+     */
+    static Inference infer(List<String> samples, DateOrder preferred) {
+        int[] parsed = new int[values().length];
+        for (String sample : samples) {
+            for (DateOrder order : values()) {
+                if (order.parse(sample) != null) {
+                    parsed[order.ordinal()]++;
+                }
+            }
+        }
+
+        DateOrder best = preferred;
+        for (DateOrder order : values()) {
+            if (parsed[order.ordinal()] > parsed[best.ordinal()]) {
+                best = order;
+            }
+        }
+
+        boolean decided = parsed[best.ordinal()] > 0;
+        for (DateOrder order : values()) {
+            if (order != best && parsed[order.ordinal()] == parsed[best.ordinal()]) {
+                decided = false;
+            }
+        }
+        return new Inference(best, decided);
+    }
+
+    private static LocalDate toDate(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * @param order   the order to parse the file with
+     * @param decided false if another order fits the sample equally well
+     */
+    record Inference(DateOrder order, boolean decided) {
+    }
+}
@@ -3,14 +3,9 @@ package com.mayureshpatel.pfdataservice.service.parser;
 import com.mayureshpatel.pfdataservice.domain.bank.BankName;
 import com.mayureshpatel.pfdataservice.domain.merchant.Merchant;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
-import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
@@ -19,8 +14,6 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoField;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.stream.Stream;
 
 @Component
@@ -36,14 +29,6 @@ public class DiscoverCsvParser implements TransactionParser {
             .toFormatter()
             .withZone(ZoneId.of("America/New_York"));
 
-    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
-            .setHeader()
-            .setSkipHeaderRecord(true)
-            .setIgnoreHeaderCase(true)
-            .setTrim(true)
-            .setIgnoreSurroundingSpaces(true)
-            .get();
-
     @Override
     public BankName getBankName() {
         return BankName.DISCOVER;
@@ -56,36 +41,16 @@ public class DiscoverCsvParser implements TransactionParser {
 
     @Override
     public Stream<Transaction> parse(Long accountId, InputStream inputStream) {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-        try {
-            CSVParser csvParser = CSV_FORMAT.parse(reader);
-            List<Transaction> transactions = new ArrayList<>();
-            List<String> errors = new ArrayList<>();
-
-            for (CSVRecord record : csvParser) {
-                if (isValidRecord(record, HEADER_DATE)) {
-                    try {
-                        transactions.add(parseTransaction(record));
-                    } catch (Exception e) {
-                        errors.add("Row " + record.getRecordNumber() + ": " + e.getMessage());
-                    }
-                }
-            }
-
-            try {
-                csvParser.close();
-                reader.close();
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to close CSV parser resources", e);
-            }
-
-            if (!errors.isEmpty()) {
-                throw new CsvParsingException("Failed to parse CSV with errors: " + String.join(", ", errors));
-            }
+        return collectRows(parseRows(accountId, inputStream));
+    }
 
-            return transactions.stream();
-        } catch (CsvParsingException e) {
-            throw e;
+    @Override
+    public Stream<ParsedRow> parseRows(Long accountId, InputStream inputStream) {
+        CsvReader reader = new CsvReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        try {
+            Columns columns = Columns.resolve(reader.readHeader());
+            return streamRows(reader, csvRecord -> isValidRecord(csvRecord, columns.date()),
+                    csvRecord -> parseTransaction(csvRecord, columns));
         } catch (Exception e) {
             try {
                 reader.close();
@@ -99,20 +64,32 @@ public class DiscoverCsvParser implements TransactionParser {
      * Parses a CSV record into a Transaction object.
      *
      * @param csvRecord the CSV record to parse
+     * @param columns   the column positions of the file
      * @return the parsed Transaction
      */
-    private Transaction parseTransaction(CSVRecord csvRecord) {
+    private Transaction parseTransaction(CsvReader csvRecord, Columns columns) {
+        String description = csvRecord.get(columns.description());
         Transaction transaction = Transaction.builder()
-                .transactionDate(parseDate(csvRecord.get(HEADER_DATE), DATE_FORMATTER))
-                .description(csvRecord.get(HEADER_DESC))
+                .transactionDate(parseDate(csvRecord.get(columns.date()), DATE_FORMATTER))
+                .description(description)
                 .merchant(Merchant.builder()
-                        .originalName(csvRecord.get(HEADER_DESC))
+                        .originalName(description)
                         .build())
                 .build();
 
-        BigDecimal rawAmount = parseAmount(csvRecord, HEADER_AMOUNT);
+        BigDecimal rawAmount = parseAmount(csvRecord, columns.amount());
         transaction = configureCreditCardTransactionTypeAndAmount(transaction, rawAmount);
 
         return transaction;
     }
+
+    private record Columns(int date, int description, int amount) {
+
+        static Columns resolve(CsvHeader header) {
+            return new Columns(
+                    header.indexOf(HEADER_DATE),
+                    header.indexOf(HEADER_DESC),
+                    header.indexOf(HEADER_AMOUNT));
+        }
+    }
 }
\ No newline at end of file
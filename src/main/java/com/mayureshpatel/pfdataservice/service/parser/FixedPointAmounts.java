@@ -0,0 +1,114 @@
+package com.mayureshpatel.pfdataservice.service.parser;
+
+import java.math.BigDecimal;
+
+/**
+ * Parses statement amounts straight from a character slice into an unscaled long and a scale, so a field never
+ * has to be cleaned into a new {@link String} before it becomes a {@link BigDecimal}. Values with more digits
+ * than a long holds fall back to {@link BigDecimal#BigDecimal(String)}.
+ */
+final class FixedPointAmounts {
+
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private FixedPointAmounts() {
+    }
+
+    /**
+     * Parses an amount keeping only digits, {@code '.'} and {@code '-'}; every other character is ignored.
+     * Equivalent to stripping {@code [^0-9.-]} and parsing the rest.
+     *
+     * @throws NumberFormatException if what is left is not a number
+     */
+    static BigDecimal parseNumeric(char[] chars, int start, int end) {
+        return parse(chars, start, end, false, true);
+    }
+
+    /**
+     * Parses a currency amount such as {@code "$1,234.56"}, {@code "-5.00"} or {@code "(100.00)"}. Currency
+     * signs, thousands separators and whitespace are ignored and surrounding parentheses mean a negative amount.
+     *
+     * @throws NumberFormatException if the value contains anything else
+     */
+    static BigDecimal parseCurrency(char[] chars, int start, int end) {
+        int from = start;
+        int to = end;
+        while (from < to && chars[from] <= ' ') {
+            from++;
+        }
+        while (to > from && chars[to - 1] <= ' ') {
+            to--;
+        }
+
+        if (to - from >= 2 && chars[from] == '(' && chars[to - 1] == ')') {
+            return parse(chars, from + 1, to - 1, true, false).negate();
+        }
+        return parse(chars, from, to, true, true);
+    }
+
+    private static BigDecimal parse(char[] chars, int start, int end, boolean currency, boolean signAllowed) {
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        boolean seenSign = false;
+        boolean negative = false;
+
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                if (digits == MAX_LONG_DIGITS) {
+                    return parseWide(chars, start, end, currency);
+                }
+                unscaled = unscaled * 10 + (c - '0');
+                if (unscaled != 0) {
+                    digits++;
+                }
+                if (seenPoint) {
+                    scale++;
+                }
+                seenDigit = true;
+            } else if (c == '.') {
+                if (seenPoint) {
+                    throw invalid(chars, start, end);
+                }
+                seenPoint = true;
+            } else if (c == '-' || (currency && c == '+')) {
+                if (!signAllowed || seenSign || seenDigit || seenPoint) {
+                    throw invalid(chars, start, end);
+                }
+                seenSign = true;
+                negative = c == '-';
+            } else if (!isIgnored(c, currency)) {
+                throw invalid(chars, start, end);
+            }
+        }
+
+        if (!seenDigit) {
+            throw invalid(chars, start, end);
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    private static BigDecimal parseWide(char[] chars, int start, int end, boolean currency) {
+        StringBuilder clean = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            if (!isIgnored(chars[i], currency)) {
+                clean.append(chars[i]);
+            }
+        }
+        return new BigDecimal(clean.toString());
+    }
+
+    private static boolean isIgnored(char c, boolean currency) {
+        if (currency) {
+            return c == '$' || c == ',' || c <= ' ';
+        }
+        return !(c >= '0' && c <= '9') && c != '.' && c != '-';
+    }
+
+    private static NumberFormatException invalid(char[] chars, int start, int end) {
+        return new NumberFormatException("Not a number: " + new String(chars, start, end - start));
+    }
+}
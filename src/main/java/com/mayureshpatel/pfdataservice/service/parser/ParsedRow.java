@@ -0,0 +1,34 @@
+package com.mayureshpatel.pfdataservice.service.parser;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
+
+/**
+ * Outcome of parsing a single statement row: either a transaction or the reason the row was rejected.
+ *
+ * @param rowNumber   the record number reported by the CSV parser
+ * @param transaction the parsed transaction, or null when the row failed
+ * @param error       the failure message, or null when the row parsed successfully
+ */
+public record ParsedRow(long rowNumber, Transaction transaction, String error) {
+
+    public static ParsedRow of(long rowNumber, Transaction transaction) {
+        return new ParsedRow(rowNumber, transaction, null);
+    }
+
+    public static ParsedRow failed(long rowNumber, String error) {
+        return new ParsedRow(rowNumber, null, error);
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+
+    /**
+     * Formats the failure the same way the parsers always have, e.g. {@code "Row 12: Invalid amount format: abc"}.
+     *
+     * @return the formatted error message
+     */
+    public String describeError() {
+        return "Row " + rowNumber + ": " + error;
+    }
+}
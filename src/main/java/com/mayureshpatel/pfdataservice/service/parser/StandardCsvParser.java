@@ -3,12 +3,8 @@ package com.mayureshpatel.pfdataservice.service.parser;
 import com.mayureshpatel.pfdataservice.domain.bank.BankName;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
@@ -25,26 +21,15 @@ public class StandardCsvParser implements TransactionParser {
 
     @Override
     public Stream<Transaction> parse(Long accountId, InputStream inputStream) {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        return collectRows(parseRows(accountId, inputStream));
+    }
+
+    @Override
+    public Stream<ParsedRow> parseRows(Long accountId, InputStream inputStream) {
+        CsvReader reader = new CsvReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
         try {
-            CSVParser csvParser = CSVFormat.DEFAULT.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setIgnoreHeaderCase(true)
-                    .setTrim(true)
-                    .get()
-                    .parse(reader);
-            
-            return csvParser.stream()
-                    .map(this::mapToTransaction)
-                    .onClose(() -> {
-                        try {
-                            csvParser.close();
-                            reader.close();
-                        } catch (Exception e) {
-                            throw new RuntimeException("Failed to close CSV parser resources", e);
-                        }
-                    });
+            Columns columns = Columns.resolve(reader.readHeader());
+            return streamRows(reader, csvRecord -> true, csvRecord -> mapToTransaction(csvRecord, columns));
         } catch (Exception e) {
             try {
                 reader.close();
@@ -54,20 +39,32 @@ public class StandardCsvParser implements TransactionParser {
         }
     }
 
-    private Transaction mapToTransaction(CSVRecord csvRecord) {
+    private Transaction mapToTransaction(CsvReader csvRecord, Columns columns) {
         Transaction t = Transaction.builder()
-                .description(csvRecord.get("description"))
+                .description(csvRecord.get(columns.description()))
                 .build();
 
-        String amountStr = csvRecord.get("amount").replace("$", "").replace(",", "");
-        BigDecimal amount = new BigDecimal(amountStr);
+        if (!csvRecord.hasText(columns.amount())) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        BigDecimal amount = csvRecord.currencyAmount(columns.amount());
 
         TransactionType type = amount.compareTo(BigDecimal.ZERO) < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
 
         return t.toBuilder()
                 .amount(amount.abs())
-                .transactionDate(OffsetDateTime.parse(csvRecord.get("date")))
+                .transactionDate(OffsetDateTime.parse(csvRecord.get(columns.date())))
                 .type(type)
                 .build();
     }
+
+    private record Columns(int date, int description, int amount) {
+
+        static Columns resolve(CsvHeader header) {
+            return new Columns(
+                    header.indexOf("date"),
+                    header.indexOf("description"),
+                    header.indexOf("amount"));
+        }
+    }
 }
@@ -4,14 +4,12 @@ import com.mayureshpatel.pfdataservice.domain.bank.BankName;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
@@ -35,14 +33,6 @@ public class SynovusCsvParser implements TransactionParser {
             .parseDefaulting(ChronoField.OFFSET_SECONDS, 0)
             .toFormatter();
 
-    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
-            .setHeader()
-            .setSkipHeaderRecord(true)
-            .setIgnoreHeaderCase(true)
-            .setTrim(true)
-            .setIgnoreSurroundingSpaces(true)
-            .get();
-
     @Override
     public BankName getBankName() {
         return BankName.SYNOVUS;
@@ -50,96 +40,83 @@ public class SynovusCsvParser implements TransactionParser {
 
     @Override
     public Stream<Transaction> parse(Long accountId, InputStream inputStream) {
+        return collectRows(parseRows(accountId, inputStream));
+    }
+
+    @Override
+    public Stream<ParsedRow> parseRows(Long accountId, InputStream inputStream) {
         if (inputStream == null) {
             throw new NullPointerException("InputStream cannot be null");
         }
+        BufferedReader lineReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
         try {
-            // Read until we find the header row starting with "Date"
-            BufferedReader lineReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            // Skip the account summary preamble until we find the header row starting with "Date"
+            String headerLine = null;
             String line;
-            StringBuilder csvContent = new StringBuilder();
-            boolean headerFound = false;
-            boolean isTabSeparated = false;
-
             while ((line = lineReader.readLine()) != null) {
                 if (line.startsWith("\uFEFF")) {
                     line = line.substring(1);
                 }
-                String trimmedLine = line.trim();
-                if (!headerFound) {
-                    // Check if line starts with Date (handling potential quotes or BOM)
-                    // We remove leading quotes to check for "Date"
-                    String headerCheck = trimmedLine.replace("\"", "");
-                    if (headerCheck.toLowerCase().startsWith("date")) {
-                        headerFound = true;
-                        isTabSeparated = line.contains("\t");
-                        csvContent.append(line).append("\n");
-                    }
-                    continue;
-                }
-                // Skip the totals footer
-                if (trimmedLine.contains("Totals:")) {
-                    continue;
+                // We remove leading quotes to check for "Date"
+                String headerCheck = line.trim().replace("\"", "");
+                if (headerCheck.toLowerCase().startsWith("date")) {
+                    headerLine = line;
+                    break;
                 }
-                csvContent.append(line).append("\n");
             }
 
-            if (!headerFound) {
+            if (headerLine == null) {
                 throw new CsvParsingException("Could not find header row starting with 'Date'");
             }
 
-            CSVFormat format = isTabSeparated ? CSVFormat.TDF.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setIgnoreHeaderCase(true)
-                    .setTrim(true)
-                    .setIgnoreSurroundingSpaces(true)
-                    .get() : CSV_FORMAT;
-
-            CSVParser csvParser = format.parse(new java.io.StringReader(csvContent.toString()));
-            java.util.List<Transaction> transactions = new java.util.ArrayList<>();
-            java.util.List<String> errors = new java.util.ArrayList<>();
-
-            for (CSVRecord record : csvParser) {
-                if (isValidRecord(record, HEADER_DATE)) {
-                    try {
-                        transactions.add(parseTransaction(record));
-                    } catch (Exception e) {
-                        errors.add("Row " + record.getRecordNumber() + ": " + e.getMessage());
-                    }
-                }
-            }
+            char delimiter = headerLine.contains("\t") ? '\t' : ',';
+            Columns columns = Columns.resolve(new CsvReader(new StringReader(headerLine), delimiter).readHeader());
 
-            csvParser.close();
+            // Continue on the same reader so the remaining rows are never buffered
+            CsvReader csvReader = new CsvReader(lineReader, delimiter);
 
-            if (!errors.isEmpty()) {
-                throw new com.mayureshpatel.pfdataservice.exception.CsvParsingException("Failed to parse CSV with errors: " + String.join(", ", errors));
-            }
-
-            return transactions.stream();
-        } catch (com.mayureshpatel.pfdataservice.exception.CsvParsingException e) {
+            return streamRows(csvReader,
+                    csvRecord -> isValidRecord(csvRecord, columns.date()) && !isTotalsFooter(csvRecord),
+                    csvRecord -> parseTransaction(csvRecord, columns));
+        } catch (CsvParsingException e) {
+            closeQuietly(lineReader);
             throw e;
         } catch (Exception e) {
+            closeQuietly(lineReader);
             throw new RuntimeException("Failed to parse Synovus CSV", e);
         }
     }
 
+    private boolean isTotalsFooter(CsvReader csvRecord) {
+        return csvRecord.contains("Totals:");
+    }
+
+    private void closeQuietly(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (Exception e) {
+            log.warn("Failed to close reader during exception handling", e);
+        }
+    }
+
     /**
      * Parses a transaction from a CSV record.
      *
      * @param csvRecord the CSV record containing transaction data
+     * @param columns   the column positions of the file
      * @return the parsed transaction
      */
-    private Transaction parseTransaction(CSVRecord csvRecord) {
+    private Transaction parseTransaction(CsvReader csvRecord, Columns columns) {
+        String description = csvRecord.get(columns.description());
         Transaction transaction = Transaction.builder()
-                .transactionDate(parseDate(csvRecord.get(HEADER_DATE), DATE_TIME_FORMATTER))
-                .description(csvRecord.get(HEADER_DESCRIPTION))
+                .transactionDate(parseDate(csvRecord.get(columns.date()), DATE_TIME_FORMATTER))
+                .description(description)
                 .merchant(com.mayureshpatel.pfdataservice.domain.merchant.Merchant.builder()
-                        .originalName(csvRecord.get(HEADER_DESCRIPTION))
+                        .originalName(description)
                         .build())
                 .build();
 
-        BigDecimal netAmount = calculateNetAmount(csvRecord);
+        BigDecimal netAmount = calculateNetAmount(csvRecord, columns);
         transaction = configureTransactionTypeAndAmount(transaction, netAmount);
 
         return transaction;
@@ -149,11 +126,23 @@ public class SynovusCsvParser implements TransactionParser {
      * Calculates the net amount for a transaction based on credit and debit amounts.
      *
      * @param csvRecord the CSV record containing the credit and debit amounts
+     * @param columns   the column positions of the file
      * @return the net amount
      */
-    private BigDecimal calculateNetAmount(CSVRecord csvRecord) {
-        BigDecimal credit = parseAmount(csvRecord, HEADER_CREDIT);
-        BigDecimal debit = parseAmount(csvRecord, HEADER_DEBIT);
+    private BigDecimal calculateNetAmount(CsvReader csvRecord, Columns columns) {
+        BigDecimal credit = parseAmount(csvRecord, columns.credit());
+        BigDecimal debit = parseAmount(csvRecord, columns.debit());
         return credit.add(debit);
     }
+
+    private record Columns(int date, int description, int credit, int debit) {
+
+        static Columns resolve(CsvHeader header) {
+            return new Columns(
+                    header.indexOf(HEADER_DATE),
+                    header.indexOf(HEADER_DESCRIPTION),
+                    header.indexOf(HEADER_CREDIT),
+                    header.indexOf(HEADER_DEBIT));
+        }
+    }
 }
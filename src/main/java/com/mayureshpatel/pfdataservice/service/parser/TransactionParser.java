@@ -3,15 +3,26 @@ package com.mayureshpatel.pfdataservice.service.parser;
 import com.mayureshpatel.pfdataservice.domain.bank.BankName;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
-import org.apache.commons.csv.CSVRecord;
-import org.springframework.util.StringUtils;
+import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface TransactionParser {
     Stream<Transaction> parse(Long accountId, InputStream inputStream);
@@ -19,14 +30,99 @@ public interface TransactionParser {
     BankName getBankName();
 
     /**
-     * Validates if a CSV record contains a non-empty value for a specified header.
+     * Lazily parses the input into one {@link ParsedRow} per data row. Row-level failures are emitted as
+     * error rows instead of aborting the stream, so callers can consume large files in bounded chunks.
+     * The returned stream owns the input and must be closed by the caller.
+     *
+     * @param accountId   the account the rows belong to
+     * @param inputStream the statement content
+     * @return a lazy stream of parsed rows
+     */
+    default Stream<ParsedRow> parseRows(Long accountId, InputStream inputStream) {
+        AtomicLong rowNumber = new AtomicLong();
+        return parse(accountId, inputStream).map(t -> ParsedRow.of(rowNumber.incrementAndGet(), t));
+    }
+
+    /**
+     * Streams the records of a CSV reader as {@link ParsedRow}s. Records rejected by the filter and records
+     * the mapper turns into null are skipped; exceptions thrown by the mapper become error rows. The filter
+     * and mapper see the reader positioned on the record and must not keep it.
+     *
+     * @param csvReader the reader to consume; closed together with the returned stream
+     * @param filter    selects the records that carry transactions
+     * @param mapper    maps a record to a transaction
+     * @return a lazy stream of parsed rows
+     */
+    default Stream<ParsedRow> streamRows(CsvReader csvReader, Predicate<CsvReader> filter, Function<CsvReader, Transaction> mapper) {
+        Spliterator<CsvReader> records = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super CsvReader> action) {
+                if (!csvReader.next()) {
+                    return false;
+                }
+                action.accept(csvReader);
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(records, false)
+                .filter(filter)
+                .map(csvRecord -> {
+                    try {
+                        Transaction transaction = mapper.apply(csvRecord);
+                        return transaction == null ? null : ParsedRow.of(csvRecord.recordNumber(), transaction);
+                    } catch (Exception e) {
+                        return ParsedRow.failed(csvRecord.recordNumber(), e.getMessage());
+                    }
+                })
+                .filter(Objects::nonNull)
+                .onClose(() -> {
+                    try {
+                        csvReader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to close CSV parser resources", e);
+                    }
+                });
+    }
+
+    /**
+     * Drains a row stream into memory, failing with every row error at once. Used by {@link #parse} for
+     * callers that need the whole file validated up front.
+     *
+     * @param rows the rows to collect; closed before returning
+     * @return the parsed transactions
+     * @throws CsvParsingException if any row failed to parse
+     */
+    default Stream<Transaction> collectRows(Stream<ParsedRow> rows) {
+        List<Transaction> transactions = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+
+        try (rows) {
+            rows.forEach(row -> {
+                if (row.isError()) {
+                    errors.add(row.describeError());
+                } else {
+                    transactions.add(row.transaction());
+                }
+            });
+        }
+
+        if (!errors.isEmpty()) {
+            throw new CsvParsingException("Failed to parse CSV with errors: " + String.join("; ", errors));
+        }
+
+        return transactions.stream();
+    }
+
+    /**
+     * Validates if a CSV record contains a non-empty value for a specified column.
      *
      * @param csvRecord the CSV record to validate
-     * @param header    the header key to check
+     * @param column    the column index, or -1 when the header has no such column
      * @return true if the record is valid, false otherwise
      */
-    default boolean isValidRecord(CSVRecord csvRecord, String header) {
-        return csvRecord.isMapped(header) && StringUtils.hasText(csvRecord.get(header));
+    default boolean isValidRecord(CsvReader csvRecord, int column) {
+        return csvRecord.hasText(column);
     }
 
     /**
@@ -95,27 +191,19 @@ public interface TransactionParser {
     }
 
     /**
-     * Parses an amount string from a CSV record into a {@link BigDecimal}.
+     * Parses an amount from a CSV record into a {@link BigDecimal}, ignoring everything but digits, the decimal
+     * point and the minus sign.
      *
      * @param csvRecord the CSV record containing the amount
-     * @param header    the header key for the amount
-     * @return the parsed {@link BigDecimal} amount or zero if not found or invalid
+     * @param column    the column index, or -1 when the header has no such column
+     * @return the parsed {@link BigDecimal} amount or zero if not found or blank
+     * @throws IllegalArgumentException if the value is not a number
      */
-    default BigDecimal parseAmount(CSVRecord csvRecord, String header) {
-        if (!csvRecord.isMapped(header)) {
-            return BigDecimal.ZERO;
-        }
-
-        String stringVal = csvRecord.get(header);
-        if (!StringUtils.hasText(stringVal)) {
-            return BigDecimal.ZERO;
-        }
-
-        String amount = stringVal.replaceAll("[^0-9.-]", "");
+    default BigDecimal parseAmount(CsvReader csvRecord, int column) {
         try {
-            return new BigDecimal(amount);
+            return csvRecord.numericAmount(column);
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid amount format: " + stringVal, e);
+            throw new IllegalArgumentException("Invalid amount format: " + csvRecord.get(column), e);
         }
     }
 }
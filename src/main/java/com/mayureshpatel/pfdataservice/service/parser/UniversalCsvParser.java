@@ -3,26 +3,33 @@ package com.mayureshpatel.pfdataservice.service.parser;
 import com.mayureshpatel.pfdataservice.domain.bank.BankName;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+/**
+ * Parses CSV exports of banks without a dedicated parser.
+ * <p>
+ * Columns are matched by header name. The first {@value #SAMPLE_ROWS} rows are then sampled to lock in the
+ * date order ({@code M/d}, {@code d/M} or ISO) and whether debits are written as negative numbers, so the rest
+ * of the file is parsed with a single format. A schema whose date order a sample settled is cached per account
+ * and header; later uploads reuse its column mapping and fall back to its conventions where their own sample
+ * cannot tell, e.g. when every date reads both as {@code M/d} and {@code d/M}.
+ */
 @Component
 @Slf4j
 public class UniversalCsvParser implements TransactionParser {
@@ -34,14 +41,12 @@ public class UniversalCsvParser implements TransactionParser {
     private static final Pattern DEBIT_PATTERN = Pattern.compile("^(debit|debit\\s*\\(?\\$\\)?)$", Pattern.CASE_INSENSITIVE);
     private static final Pattern CREDIT_PATTERN = Pattern.compile("^(credit|credit\\s*\\(?\\$\\)?)$", Pattern.CASE_INSENSITIVE);
 
-    // Common date formats to try
-    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
-            DateTimeFormatter.ofPattern("M/d/yyyy"),
-            DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-            DateTimeFormatter.ofPattern("d/M/yyyy"),
-            DateTimeFormatter.ofPattern("dd/MM/yyyy")
-    );
+    static final int SAMPLE_ROWS = 50;
+
+    private final Cache<SchemaKey, Schema> schemas = Caffeine.newBuilder()
+            .expireAfterAccess(30, TimeUnit.DAYS)
+            .maximumSize(10_000)
+            .build();
 
     @Override
     public BankName getBankName() {
@@ -50,66 +55,107 @@ public class UniversalCsvParser implements TransactionParser {
 
     @Override
     public Stream<Transaction> parse(Long accountId, InputStream inputStream) {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        return collectRows(parseRows(accountId, inputStream));
+    }
+
+    @Override
+    public Stream<ParsedRow> parseRows(Long accountId, InputStream inputStream) {
+        CsvReader reader = new CsvReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
         try {
-            // First, just parse the header to find columns
-            CSVParser parser = CSVFormat.DEFAULT.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setIgnoreHeaderCase(true)
-                    .setTrim(true)
-                    .get()
-                    .parse(reader);
-
-            Map<String, Integer> headerMap = parser.getHeaderMap();
-            ColumnMapping mapping = identifyColumns(headerMap);
-
-            java.util.List<Transaction> transactions = new java.util.ArrayList<>();
-            java.util.List<String> errors = new java.util.ArrayList<>();
-
-            for (CSVRecord record : parser) {
-                try {
-                    Transaction t = parseRecord(record, mapping);
-                    if (t != null) {
-                        transactions.add(t);
-                    }
-                } catch (Exception e) {
-                    errors.add("Row " + record.getRecordNumber() + ": " + e.getMessage());
-                }
-            }
+            CsvHeader header = reader.readHeader();
+            SchemaKey key = new SchemaKey(accountId, String.join("\u001F", header.names()).toLowerCase(Locale.ROOT));
+
+            Schema schema = inferSchema(key, header, reader.peek(SAMPLE_ROWS));
 
+            return streamRows(reader, csvRecord -> true, csvRecord -> parseRecord(csvRecord, schema));
+        } catch (Exception e) {
             try {
-                parser.close();
                 reader.close();
-            } catch (Exception e) {
-                log.error("Error closing CSV resources", e);
+            } catch (Exception closeException) {
+                log.warn("Failed to close reader during exception handling", closeException);
             }
+            throw new RuntimeException("Failed to parse Universal CSV", e);
+        }
+    }
 
-            if (!errors.isEmpty()) {
-                throw new com.mayureshpatel.pfdataservice.exception.CsvParsingException("Failed to parse CSV with errors: " + String.join("; ", errors));
+    /**
+     * Maps the columns by header name and infers the date order and debit sign from sampled rows, deferring to
+     * the cached schema of the account and header where the sample is inconclusive. The schema is cached only
+     * when the sample settled the date order.
+     *
+     * @param key    the cache key of the file
+     * @param header the header of the file
+     * @param sample the first rows of the file
+     * @return the schema to parse the whole file with
+     */
+    private Schema inferSchema(SchemaKey key, CsvHeader header, List<String[]> sample) {
+        Schema cached = schemas.getIfPresent(key);
+        ColumnMapping mapping = cached != null ? cached.mapping() : identifyColumns(header);
+
+        List<String> dates = new ArrayList<>(sample.size());
+        for (String[] row : sample) {
+            if (mapping.dateCol < row.length && !row[mapping.dateCol].isEmpty()) {
+                dates.add(row[mapping.dateCol]);
             }
+        }
+        DateOrder.Inference dateOrder = DateOrder.infer(dates, cached != null ? cached.dateOrder() : DateOrder.MONTH_FIRST);
 
-            return transactions.stream();
+        Boolean negativeDebits = hasNegativeDebits(mapping, sample);
+        if (negativeDebits == null) {
+            negativeDebits = cached != null && cached.negativeDebits();
+        }
 
-        } catch (com.mayureshpatel.pfdataservice.exception.CsvParsingException e) {
-            throw e;
-        } catch (Exception e) {
+        Schema schema = new Schema(mapping, dateOrder.order(), negativeDebits);
+        if (dateOrder.decided()) {
+            schemas.put(key, schema);
+        }
+
+        log.info("Universal Parser Inferred Schema - Date Order: {} (decided: {}), Negative Debits: {}",
+                schema.dateOrder(), dateOrder.decided(), schema.negativeDebits());
+        return schema;
+    }
+
+    /**
+     * Detects statements that write debits as negative numbers, e.g. {@code -50.00} or {@code (50.00)}.
+     *
+     * @return true if the sampled debits are all negative, or null if the sample has no debits
+     */
+    private static Boolean hasNegativeDebits(ColumnMapping mapping, List<String[]> sample) {
+        if (mapping.debitCol == ColumnMapping.UNMAPPED) {
+            return false;
+        }
+
+        int negative = 0;
+        int positive = 0;
+        for (String[] row : sample) {
+            if (mapping.debitCol >= row.length || row[mapping.debitCol].isEmpty()) {
+                continue;
+            }
+            char[] value = row[mapping.debitCol].toCharArray();
             try {
-                reader.close();
-            } catch (Exception closeException) {
-                log.warn("Failed to close reader during exception handling", closeException);
+                int signum = FixedPointAmounts.parseCurrency(value, 0, value.length).signum();
+                if (signum < 0) {
+                    negative++;
+                } else if (signum > 0) {
+                    positive++;
+                }
+            } catch (NumberFormatException ignored) {
+                // reported when the row is parsed
             }
-            throw new RuntimeException("Failed to parse Universal CSV", e);
         }
+        if (negative == 0 && positive == 0) {
+            return null;
+        }
+        return positive == 0;
     }
 
     /**
      * Identifies column mappings based on header names.
      *
-     * @param headerMap Map of header names to column indices
-     * @return ColumnMapping object with identified column names
+     * @param header the header of the file
+     * @return ColumnMapping object with identified column positions
      */
-    private ColumnMapping identifyColumns(Map<String, Integer> headerMap) {
+    private ColumnMapping identifyColumns(CsvHeader header) {
         String dateCol = null;
         String postDateCol = null;
         String descCol = null;
@@ -117,7 +163,7 @@ public class UniversalCsvParser implements TransactionParser {
         String debitCol = null;
         String creditCol = null;
 
-        for (String col : headerMap.keySet()) {
+        for (String col : header.names()) {
             String cleanCol = col.trim();
             if (dateCol == null && DATE_PATTERN.matcher(cleanCol).matches()) {
                 dateCol = col;
@@ -155,25 +201,32 @@ public class UniversalCsvParser implements TransactionParser {
         log.info("Universal Parser Mapped Columns - Date: {}, PostDate: {}, Desc: {}, Amount: {}, Debit: {}, Credit: {}",
                 dateCol, postDateCol, descCol, amountCol, debitCol, creditCol);
 
-        return new ColumnMapping(dateCol, postDateCol, descCol, amountCol, debitCol, creditCol);
+        return new ColumnMapping(indexOf(header, dateCol), indexOf(header, postDateCol), indexOf(header, descCol),
+                indexOf(header, amountCol), indexOf(header, debitCol), indexOf(header, creditCol));
+    }
+
+    private static int indexOf(CsvHeader header, String col) {
+        return col == null ? ColumnMapping.UNMAPPED : header.indexOf(col);
     }
 
     /**
      * Parses a single CSV record into a Transaction object.
      *
-     * @param record  CSV record to parse
-     * @param mapping Column mapping configuration
+     * @param record CSV record to parse
+     * @param schema the schema inferred for the file
      * @return Parsed Transaction object
      */
-    private Transaction parseRecord(CSVRecord record, ColumnMapping mapping) {
+    private Transaction parseRecord(CsvReader record, Schema schema) {
+        ColumnMapping mapping = schema.mapping();
+
         // parse date
-        LocalDate localDate = parseDate(record.get(mapping.dateCol));
+        LocalDate localDate = parseDate(record.get(mapping.dateCol), schema.dateOrder());
         if (localDate == null) return null;
         OffsetDateTime date = localDate.atStartOfDay().atOffset(java.time.ZoneOffset.UTC);
 
         OffsetDateTime postDate = null;
-        if (mapping.postDateCol != null && !mapping.postDateCol.equals(mapping.dateCol)) {
-            LocalDate localPostDate = parseDate(record.get(mapping.postDateCol));
+        if (mapping.postDateCol != ColumnMapping.UNMAPPED && mapping.postDateCol != mapping.dateCol) {
+            LocalDate localPostDate = parseDate(record.get(mapping.postDateCol), schema.dateOrder());
             if (localPostDate != null) {
                 postDate = localPostDate.atStartOfDay().atOffset(java.time.ZoneOffset.UTC);
             }
@@ -186,13 +239,10 @@ public class UniversalCsvParser implements TransactionParser {
         BigDecimal amount = BigDecimal.ZERO;
         TransactionType type = TransactionType.EXPENSE; // Default
 
-        if (mapping.debitCol != null && mapping.creditCol != null) {
+        if (mapping.debitCol != ColumnMapping.UNMAPPED && mapping.creditCol != ColumnMapping.UNMAPPED) {
             // two column strategy
-            String debitStr = record.get(mapping.debitCol);
-            String creditStr = record.get(mapping.creditCol);
-
-            BigDecimal debit = parseAmount(debitStr);
-            BigDecimal credit = parseAmount(creditStr);
+            BigDecimal debit = parseDebit(record, schema);
+            BigDecimal credit = parseCurrencyAmount(record, mapping.creditCol);
 
             if (debit.compareTo(BigDecimal.ZERO) > 0) {
                 amount = debit;
@@ -200,9 +250,9 @@ public class UniversalCsvParser implements TransactionParser {
                 amount = credit;
                 type = TransactionType.INCOME;
             }
-        } else if (mapping.amountCol != null) {
+        } else if (mapping.amountCol != ColumnMapping.UNMAPPED) {
             // single amount strategy
-            BigDecimal rawAmount = parseAmount(record.get(mapping.amountCol));
+            BigDecimal rawAmount = parseCurrencyAmount(record, mapping.amountCol);
 
             if (rawAmount.compareTo(BigDecimal.ZERO) < 0) {
                 amount = rawAmount.abs();
@@ -210,10 +260,10 @@ public class UniversalCsvParser implements TransactionParser {
                 type = TransactionType.INCOME;
                 amount = rawAmount;
             }
-        } else if (mapping.debitCol != null) {
-            amount = parseAmount(record.get(mapping.debitCol));
-        } else if (mapping.creditCol != null) {
-            amount = parseAmount(record.get(mapping.creditCol));
+        } else if (mapping.debitCol != ColumnMapping.UNMAPPED) {
+            amount = parseDebit(record, schema);
+        } else if (mapping.creditCol != ColumnMapping.UNMAPPED) {
+            amount = parseCurrencyAmount(record, mapping.creditCol);
             type = TransactionType.INCOME;
         }
 
@@ -238,58 +288,57 @@ public class UniversalCsvParser implements TransactionParser {
                 .build();
     }
 
+    private BigDecimal parseDebit(CsvReader record, Schema schema) {
+        BigDecimal debit = parseCurrencyAmount(record, schema.mapping().debitCol);
+        return schema.negativeDebits() ? debit.negate() : debit;
+    }
+
     /**
-     * Parses a transaction amount string into a {@link BigDecimal} object.
+     * Parses a transaction amount such as {@code "$1,234.56"} or {@code "(100.00)"} into a {@link BigDecimal}.
      *
-     * @param amountStr the amount string to parse
-     * @return the parsed BigDecimal amount or BigDecimal.ZERO if parsing fails
+     * @param record the record holding the amount
+     * @param column the column of the amount
+     * @return the parsed BigDecimal amount or BigDecimal.ZERO if the value is blank
      */
-    private BigDecimal parseAmount(String amountStr) {
-        if (amountStr == null || amountStr.isBlank()) {
-            return BigDecimal.ZERO;
-        }
-
-        // remove currency symbols, commas
-        String clean = amountStr.replace("$", "").replace(",", "").trim();
-
-        // handle parenthesis for negative: (100.00) -> -100.00
-        if (clean.startsWith("(") && clean.endsWith(")")) {
-            clean = "-" + clean.substring(1, clean.length() - 1);
-        }
-
+    private BigDecimal parseCurrencyAmount(CsvReader record, int column) {
         try {
-            return new BigDecimal(clean);
+            return record.currencyAmount(column);
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid amount format detected: " + amountStr, e);
+            throw new IllegalArgumentException("Invalid amount format detected: " + record.get(column), e);
         }
     }
 
     /**
-     * Parses a date string into a {@link LocalDate} object using multiple date formats.
+     * Parses a date string in the date order inferred for the file.
      *
      * @param dateStr the date string to parse
-     * @return the parsed LocalDate or null if parsing fails
-     * @throws IllegalArgumentException if no valid date format is found
+     * @param order   the date order of the file
+     * @return the parsed LocalDate or null if the value is blank
+     * @throws IllegalArgumentException if the value is not a date in that order
      */
-    private LocalDate parseDate(String dateStr) {
+    private LocalDate parseDate(String dateStr, DateOrder order) {
         if (dateStr == null || dateStr.isBlank()) return null;
-        for (DateTimeFormatter formatter : DATE_FORMATS) {
-            try {
-                return LocalDate.parse(dateStr, formatter);
-            } catch (DateTimeParseException ignored) {
-                // try next formatter
-            }
+        LocalDate date = order.parse(dateStr);
+        if (date == null) {
+            throw new IllegalArgumentException("Unknown date format: " + dateStr);
         }
-        throw new IllegalArgumentException("Unknown date format: " + dateStr);
+        return date;
     }
 
     private record ColumnMapping(
-            String dateCol,
-            String postDateCol,
-            String descCol,
-            String amountCol,
-            String debitCol,
-            String creditCol
+            int dateCol,
+            int postDateCol,
+            int descCol,
+            int amountCol,
+            int debitCol,
+            int creditCol
     ) {
+        static final int UNMAPPED = -1;
+    }
+
+    private record Schema(ColumnMapping mapping, DateOrder dateOrder, boolean negativeDebits) {
+    }
+
+    private record SchemaKey(Long accountId, String headerFingerprint) {
     }
 }
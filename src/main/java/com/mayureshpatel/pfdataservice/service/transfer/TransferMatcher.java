@@ -5,50 +5,252 @@ import com.mayureshpatel.pfdataservice.dto.transaction.TransferSuggestionDto;
 import com.mayureshpatel.pfdataservice.mapper.TransactionDtoMapper;
 import org.springframework.stereotype.Component;
 
-import java.time.temporal.ChronoUnit;
+import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
+import java.util.Objects;
 
+/**
+ * Suggests pairs of transactions that look like the two sides of a transfer: the same amount leaving
+ * one account and arriving in another within {@value #WINDOW_DAYS} days.
+ * <p>
+ * Candidates are sorted by amount and date, so each run of equal amounts is a bucket that is swept with a
+ * sliding date window. Runs of a bucket that are chained together by the window form a cluster, and the
+ * outflows and inflows of each cluster are paired by a maximum-confidence assignment. The result does not
+ * depend on the order of the input.
+ */
 @Component
 public class TransferMatcher {
 
+    static final int WINDOW_DAYS = 3;
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long WINDOW_SECONDS = (WINDOW_DAYS + 1) * SECONDS_PER_DAY;
+
+    /**
+     * Largest outflow x inflow matrix solved exactly; larger clusters are paired best-score first.
+     */
+    private static final int MAX_ASSIGNMENT_CELLS = 10_000;
+
+    private static final Comparator<Candidate> SWEEP_ORDER = Comparator
+            .comparingLong(Candidate::cents)
+            .thenComparingLong(Candidate::epochSecond)
+            .thenComparing(Candidate::id, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static final Comparator<Pair> RESULT_ORDER = Comparator
+            .comparingLong((Pair pair) -> pair.source().epochSecond()).reversed()
+            .thenComparing(pair -> pair.source().id(), Comparator.nullsFirst(Comparator.naturalOrder()));
+
     public List<TransferSuggestionDto> findMatches(List<Transaction> transactions) {
-        List<TransferSuggestionDto> suggestions = new ArrayList<>();
-        Set<Long> matchedIds = new HashSet<>();
+        List<Candidate> candidates = transactions.stream()
+                .filter(TransferMatcher::isCandidate)
+                .map(Candidate::of)
+                .sorted(SWEEP_ORDER)
+                .toList();
 
-        for (int i = 0; i < transactions.size(); i++) {
-            Transaction t1 = transactions.get(i);
-            if (matchedIds.contains(t1.getId())) continue;
+        List<Pair> pairs = new ArrayList<>();
+        int clusterStart = 0;
+        for (int i = 1; i <= candidates.size(); i++) {
+            if (i == candidates.size() || !chained(candidates.get(i - 1), candidates.get(i))) {
+                matchCluster(candidates.subList(clusterStart, i), pairs);
+                clusterStart = i;
+            }
+        }
 
-            for (int j = i + 1; j < transactions.size(); j++) {
-                Transaction t2 = transactions.get(j);
-                if (matchedIds.contains(t2.getId())) continue;
+        return pairs.stream()
+                .sorted(RESULT_ORDER)
+                .map(Pair::toDto)
+                .toList();
+    }
 
-                long daysDiff = Math.abs(ChronoUnit.DAYS.between(t1.getTransactionDate(), t2.getTransactionDate()));
+    private static boolean isCandidate(Transaction transaction) {
+        return transaction.getAmount() != null
+                && transaction.getTransactionDate() != null
+                && transaction.getType() != null
+                && (transaction.getType().isExpense() || transaction.getType().isIncome());
+    }
 
-                if (daysDiff > 3) {
-                    break;
-                }
+    private static boolean chained(Candidate previous, Candidate next) {
+        return previous.cents() == next.cents() && next.epochSecond() - previous.epochSecond() < WINDOW_SECONDS;
+    }
+
+    private void matchCluster(List<Candidate> cluster, List<Pair> pairs) {
+        List<Candidate> outflows = new ArrayList<>();
+        List<Candidate> inflows = new ArrayList<>();
+        for (Candidate candidate : cluster) {
+            (candidate.outflow() ? outflows : inflows).add(candidate);
+        }
+
+        if (outflows.isEmpty() || inflows.isEmpty()) {
+            return;
+        }
+
+        if ((long) outflows.size() * inflows.size() <= MAX_ASSIGNMENT_CELLS) {
+            assignOptimally(outflows, inflows, pairs);
+        } else {
+            assignGreedily(outflows, inflows, pairs);
+        }
+    }
+
+    /**
+     * Hungarian algorithm over the smaller side, maximizing the summed weight of the chosen pairs.
+     */
+    private void assignOptimally(List<Candidate> outflows, List<Candidate> inflows, List<Pair> pairs) {
+        boolean outflowRows = outflows.size() <= inflows.size();
+        List<Candidate> rows = outflowRows ? outflows : inflows;
+        List<Candidate> cols = outflowRows ? inflows : outflows;
+        int n = rows.size();
+        int m = cols.size();
+
+        int[][] cost = new int[n + 1][m + 1];
+        for (int i = 1; i <= n; i++) {
+            for (int j = 1; j <= m; j++) {
+                Candidate row = rows.get(i - 1);
+                Candidate col = cols.get(j - 1);
+                cost[i][j] = -(outflowRows ? weight(row, col) : weight(col, row));
+            }
+        }
 
-                if (t1.getAmount().compareTo(t2.getAmount()) == 0) {
-                    if (t1.getType() != t2.getType()) {
-                        if (!t1.getAccount().getId().equals(t2.getAccount().getId())) {
-                            suggestions.add(new TransferSuggestionDto(
-                                    TransactionDtoMapper.toDto(t1),
-                                    TransactionDtoMapper.toDto(t2),
-                                    0.9 - (daysDiff * 0.1)
-                            ));
-
-                            matchedIds.add(t1.getId());
-                            matchedIds.add(t2.getId());
-                            break;
+        int[] u = new int[n + 1];
+        int[] v = new int[m + 1];
+        int[] assignedRow = new int[m + 1];
+        int[] way = new int[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            assignedRow[0] = i;
+            int j0 = 0;
+            int[] minV = new int[m + 1];
+            Arrays.fill(minV, Integer.MAX_VALUE);
+            boolean[] used = new boolean[m + 1];
+
+            do {
+                used[j0] = true;
+                int i0 = assignedRow[j0];
+                int delta = Integer.MAX_VALUE;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        int current = cost[i0][j] - u[i0] - v[j];
+                        if (current < minV[j]) {
+                            minV[j] = current;
+                            way[j] = j0;
+                        }
+                        if (minV[j] < delta) {
+                            delta = minV[j];
+                            j1 = j;
                         }
                     }
                 }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[assignedRow[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minV[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (assignedRow[j0] != 0);
+
+            do {
+                int j1 = way[j0];
+                assignedRow[j0] = assignedRow[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        for (int j = 1; j <= m; j++) {
+            if (assignedRow[j] != 0 && cost[assignedRow[j]][j] < 0) {
+                Candidate row = rows.get(assignedRow[j] - 1);
+                Candidate col = cols.get(j - 1);
+                pairs.add(outflowRows ? Pair.of(row, col) : Pair.of(col, row));
+            }
+        }
+    }
+
+    private void assignGreedily(List<Candidate> outflows, List<Candidate> inflows, List<Pair> pairs) {
+        List<Edge> edges = new ArrayList<>();
+        int windowStart = 0;
+        for (int i = 0; i < outflows.size(); i++) {
+            Candidate outflow = outflows.get(i);
+            while (windowStart < inflows.size()
+                    && outflow.epochSecond() - inflows.get(windowStart).epochSecond() >= WINDOW_SECONDS) {
+                windowStart++;
+            }
+            for (int j = windowStart; j < inflows.size(); j++) {
+                Candidate inflow = inflows.get(j);
+                if (inflow.epochSecond() - outflow.epochSecond() >= WINDOW_SECONDS) {
+                    break;
+                }
+                int weight = weight(outflow, inflow);
+                if (weight > 0) {
+                    edges.add(new Edge(i, j, weight));
+                }
             }
         }
-        return suggestions;
+
+        // both sides are in sweep order, so index order breaks ties deterministically
+        edges.sort(Comparator.comparingInt(Edge::weight).reversed()
+                .thenComparingInt(Edge::source)
+                .thenComparingInt(Edge::target));
+
+        boolean[] usedOutflows = new boolean[outflows.size()];
+        boolean[] usedInflows = new boolean[inflows.size()];
+        for (Edge edge : edges) {
+            if (!usedOutflows[edge.source()] && !usedInflows[edge.target()]) {
+                usedOutflows[edge.source()] = true;
+                usedInflows[edge.target()] = true;
+                pairs.add(Pair.of(outflows.get(edge.source()), inflows.get(edge.target())));
+            }
+        }
+    }
+
+    /**
+     * Confidence of pairing an outflow with an inflow in tenths: 9 on the same day, down to 6 at the edge
+     * of the window, and 0 when the pair is not allowed.
+     */
+    private static int weight(Candidate outflow, Candidate inflow) {
+        if (Objects.equals(outflow.accountId(), inflow.accountId())) {
+            return 0;
+        }
+        long days = daysBetween(outflow, inflow);
+        return days > WINDOW_DAYS ? 0 : (int) (9 - days);
+    }
+
+    private static long daysBetween(Candidate a, Candidate b) {
+        return Math.abs(a.epochSecond() - b.epochSecond()) / SECONDS_PER_DAY;
+    }
+
+    private record Candidate(Transaction transaction, Long id, Long accountId, long cents, long epochSecond,
+                             boolean outflow) {
+
+        static Candidate of(Transaction transaction) {
+            return new Candidate(
+                    transaction,
+                    transaction.getId(),
+                    transaction.getAccount() == null ? null : transaction.getAccount().getId(),
+                    transaction.getAmount().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue(),
+                    transaction.getTransactionDate().toEpochSecond(),
+                    transaction.getType().isExpense());
+        }
+    }
+
+    private record Edge(int source, int target, int weight) {
+    }
+
+    private record Pair(Candidate source, Candidate target, long days) {
+
+        static Pair of(Candidate source, Candidate target) {
+            return new Pair(source, target, daysBetween(source, target));
+        }
+
+        TransferSuggestionDto toDto() {
+            return new TransferSuggestionDto(
+                    TransactionDtoMapper.toDto(source.transaction()),
+                    TransactionDtoMapper.toDto(target.transaction()),
+                    0.9 - (days * 0.1));
+        }
     }
 }
@@ -0,0 +1,47 @@
+package com.mayureshpatel.pfdataservice.service.transfer;
+
+import com.mayureshpatel.pfdataservice.repository.transaction.TransferSuggestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically builds the transfer suggestions of users who were never matched, so reads only query
+ * what is stored, and drops suggestions that fell out of the matched history.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransferSuggestionMaintainer {
+
+    /**
+     * Users built per run; each is built in its own transaction.
+     */
+    static final int BUILD_BATCH_SIZE = 100;
+
+    private final TransferSuggestionRepository suggestionRepository;
+    private final TransferSuggestionService transferSuggestionService;
+
+    @Scheduled(fixedDelayString = "${transfers.suggestions.build-delay:PT1M}")
+    public void buildPending() {
+        List<Long> userIds = suggestionRepository.findUnbuiltUserIds(BUILD_BATCH_SIZE);
+        for (Long userId : userIds) {
+            transferSuggestionService.rebuild(userId);
+        }
+
+        if (!userIds.isEmpty()) {
+            log.debug("Built transfer suggestions for {} users", userIds.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transfers.suggestions.prune-delay:PT6H}")
+    public void prune() {
+        int pruned = transferSuggestionService.pruneExpired();
+        if (pruned > 0) {
+            log.debug("Pruned {} expired transfer suggestions", pruned);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.mayureshpatel.pfdataservice.service.transfer;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransferSuggestionDto;
+import com.mayureshpatel.pfdataservice.mapper.TransactionDtoMapper;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransferSuggestionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransferSuggestionRepository.StoredSuggestion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps each user's transfer suggestions in {@code transfer_suggestions} so reads are a plain query.
+ * <p>
+ * Writes call {@link #refreshWindow} with the dates they touched. Suggestions with a side in the window
+ * (widened by the matching window) are dropped, and the unpaired transactions around it are matched again.
+ * A user who was never matched is built in full from the last {@value #HISTORY_YEARS} years, either by
+ * their first write or by {@link TransferSuggestionMaintainer}; reads never write.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class TransferSuggestionService {
+
+    static final int HISTORY_YEARS = 5;
+
+    private final TransferSuggestionRepository suggestionRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransferMatcher transferMatcher;
+
+    @Transactional(readOnly = true)
+    public long countSuggestions(Long userId) {
+        return suggestionRepository.countByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransferSuggestionDto> findSuggestions(Long userId) {
+        List<StoredSuggestion> stored = suggestionRepository.findByUserId(userId);
+        if (stored.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = stored.stream()
+                .flatMap(s -> Stream.of(s.sourceTransactionId(), s.targetTransactionId()))
+                .toList();
+        Map<Long, Transaction> byId = transactionRepository.findAllById(userId, ids).stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+
+        List<TransferSuggestionDto> suggestions = new ArrayList<>(stored.size());
+        for (StoredSuggestion suggestion : stored) {
+            Transaction source = byId.get(suggestion.sourceTransactionId());
+            Transaction target = byId.get(suggestion.targetTransactionId());
+            if (source != null && target != null) {
+                suggestions.add(new TransferSuggestionDto(
+                        TransactionDtoMapper.toDto(source),
+                        TransactionDtoMapper.toDto(target),
+                        suggestion.confidenceScore()));
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Re-matches the transactions around the dates of the given transactions.
+     *
+     * @param userId       the owner of the transactions
+     * @param transactions the transactions that were created, changed or removed
+     */
+    public void refreshTransactions(Long userId, Collection<Transaction> transactions) {
+        refreshDates(userId, transactions.stream().map(Transaction::getTransactionDate).toList());
+    }
+
+    /**
+     * Re-matches the transactions around the given dates.
+     *
+     * @param userId the owner of the transactions
+     * @param dates  the transaction dates that were written; nulls are ignored
+     */
+    public void refreshDates(Long userId, Collection<OffsetDateTime> dates) {
+        List<OffsetDateTime> known = dates.stream().filter(Objects::nonNull).toList();
+        if (known.isEmpty()) {
+            return;
+        }
+
+        refreshWindow(userId,
+                known.stream().min(OffsetDateTime::compareTo).orElseThrow(),
+                known.stream().max(OffsetDateTime::compareTo).orElseThrow());
+    }
+
+    public void refreshWindow(Long userId, OffsetDateTime start, OffsetDateTime end) {
+        if (!suggestionRepository.isRefreshed(userId)) {
+            log.info("Building transfer suggestions for user {}", userId);
+            rebuild(userId);
+            return;
+        }
+
+        int window = TransferMatcher.WINDOW_DAYS;
+        suggestionRepository.deleteTouchingWindow(userId, start.minusDays(window), end.plusDays(window));
+
+        // partners of the suggestions just dropped can lie up to one more window further out
+        Set<Long> stillPaired = suggestionRepository.findPairedTransactionIds(userId);
+        List<Transaction> candidates = transactionRepository
+                .findNonTransferTransactionsBetween(userId, start.minusDays(2L * window), end.plusDays(2L * window))
+                .stream()
+                .filter(t -> !stillPaired.contains(t.getId()))
+                .toList();
+
+        store(userId, candidates);
+        suggestionRepository.markRefreshed(userId);
+    }
+
+    public void rebuild(Long userId) {
+        suggestionRepository.deleteByUserId(userId);
+
+        LocalDate startDate = LocalDate.now().minusYears(HISTORY_YEARS);
+        store(userId, transactionRepository.findRecentNonTransferTransactions(userId, startDate));
+        suggestionRepository.markRefreshed(userId);
+    }
+
+    /**
+     * Deletes suggestions that reach back past the {@value #HISTORY_YEARS} year history a rebuild matches.
+     *
+     * @return the number of suggestions deleted
+     */
+    public int pruneExpired() {
+        return suggestionRepository.deleteOlderThan(OffsetDateTime.now().minusYears(HISTORY_YEARS));
+    }
+
+    private void store(Long userId, List<Transaction> candidates) {
+        List<StoredSuggestion> matches = transferMatcher.findMatches(candidates).stream()
+                .map(m -> new StoredSuggestion(m.sourceTransaction().id(), m.targetTransaction().id(), m.confidenceScore()))
+                .toList();
+        suggestionRepository.insertAll(userId, matches);
+    }
+}
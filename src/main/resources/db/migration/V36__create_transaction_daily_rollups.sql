@@ -0,0 +1,33 @@
+-- V36: Daily transaction rollups
+-- Dashboard and budget reads aggregated raw transactions on every request. They now read per-day totals
+-- that the write paths recompute for each UTC day they touch.
+
+CREATE TABLE transaction_daily_rollups
+(
+    user_id           BIGINT         NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    account_id        BIGINT         NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    -- no foreign keys: a deleted category or merchant simply stops joining, as it did for transactions
+    category_id       BIGINT,
+    merchant_id       BIGINT,
+    type              VARCHAR(20)    NOT NULL,
+    day               DATE           NOT NULL,
+    total             NUMERIC(19, 2) NOT NULL,
+    transaction_count INTEGER        NOT NULL
+);
+
+CREATE UNIQUE INDEX ux_transaction_daily_rollups_key
+    ON transaction_daily_rollups (user_id, day, account_id, type, COALESCE(category_id, 0), COALESCE(merchant_id, 0));
+
+INSERT INTO transaction_daily_rollups (user_id, account_id, category_id, merchant_id, type, day, total, transaction_count)
+SELECT a.user_id,
+       t.account_id,
+       t.category_id,
+       t.merchant_id,
+       t.type,
+       (t.date AT TIME ZONE 'UTC')::date,
+       SUM(t.amount),
+       COUNT(*)
+FROM transactions t
+         JOIN accounts a ON a.id = t.account_id
+WHERE t.deleted_at IS NULL
+GROUP BY a.user_id, t.account_id, t.category_id, t.merchant_id, t.type, (t.date AT TIME ZONE 'UTC')::date;
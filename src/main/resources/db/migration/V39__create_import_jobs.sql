@@ -0,0 +1,22 @@
+-- V39: Asynchronous import jobs
+-- File previews and saves can run in the background; each submission is tracked here so clients poll
+-- the job instead of holding a request open for the whole import.
+
+CREATE TABLE import_jobs
+(
+    id             BIGSERIAL PRIMARY KEY,
+    user_id        BIGINT        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    account_id     BIGINT        NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    type           VARCHAR(20)   NOT NULL, -- PREVIEW, SAVE
+    status         VARCHAR(20)   NOT NULL, -- QUEUED, RUNNING, SUCCEEDED, FAILED
+    file_name      VARCHAR(255),
+    total_rows     INT,
+    processed_rows INT           NOT NULL DEFAULT 0,
+    saved_count    INT,
+    error_message  VARCHAR(1000),
+    created_at     TIMESTAMPTZ   NOT NULL DEFAULT NOW(),
+    started_at     TIMESTAMPTZ,
+    completed_at   TIMESTAMPTZ
+);
+
+CREATE INDEX idx_import_jobs_user_id ON import_jobs (user_id);
@@ -0,0 +1,6 @@
+-- V41: Preview jobs keep their rows in a staged import
+-- A finished preview job points at the staging holding its rows, instead of the rows being kept in the
+-- memory of the node that ran it. The token is committed and paged like any other staged import.
+
+ALTER TABLE import_jobs
+    ADD COLUMN staging_token UUID;
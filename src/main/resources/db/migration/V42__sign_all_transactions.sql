@@ -0,0 +1,21 @@
+-- V42: Sign every transaction
+-- V34 signed only the first row of each duplicate group so that a unique index could be built, and rows
+-- created or edited afterwards kept a stale or NULL signature. Every write path now stores the signature,
+-- so identical rows must be allowed to coexist: imports skip existing signatures with NOT EXISTS while
+-- holding the account's import lock instead of relying on the unique index.
+
+DROP INDEX ux_transactions_account_import_signature;
+
+-- ====================================================================================
+-- BACKFILL
+--    Must match TransactionSignature: sha256 of epochSecond|amount|description|type.
+-- ====================================================================================
+UPDATE transactions
+SET import_signature = encode(sha256(convert_to(
+        floor(extract(epoch FROM date))::BIGINT || '|' ||
+        amount::TEXT || '|' ||
+        coalesce(description, '') || '|' ||
+        type, 'UTF8')), 'hex');
+
+CREATE INDEX idx_transactions_account_import_signature
+    ON transactions (account_id, import_signature);
@@ -59,6 +59,8 @@ public abstract class BaseControllerTest {
     @MockitoBean
     protected TransactionImportService transactionImportService;
     @MockitoBean
+    protected ImportJobService importJobService;
+    @MockitoBean
     protected UserService userService;
     @MockitoBean
     protected JwtService jwtService;
@@ -3,10 +3,11 @@ package com.mayureshpatel.pfdataservice.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mayureshpatel.pfdataservice.dto.transaction.SaveTransactionRequest;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.AccountSaveResultDto;
 import com.mayureshpatel.pfdataservice.security.SecurityService;
 import com.mayureshpatel.pfdataservice.security.JwtService;
 import com.mayureshpatel.pfdataservice.security.WithCustomMockUser;
-import com.mayureshpatel.pfdataservice.service.TransactionImportService;
+import com.mayureshpatel.pfdataservice.service.ImportJobService;
 import com.mayureshpatel.pfdataservice.service.UserService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,6 +27,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BulkTransactionController.class)
@@ -38,7 +40,7 @@ class BulkTransactionControllerTest {
     private ObjectMapper objectMapper;
 
     @MockBean
-    private TransactionImportService transactionImportService;
+    private ImportJobService importJobService;
 
     @MockBean
     private SecurityService securityService;
@@ -53,8 +55,36 @@ class BulkTransactionControllerTest {
     @DisplayName("should handle bulk save properly")
     @WithCustomMockUser(id = 1L)
     void shouldHandleBulkSave() throws Exception {
-        when(transactionImportService.saveBulkTransactions(eq(1L), any())).thenReturn(5);
+        when(importJobService.saveByAccount(eq(1L), any())).thenReturn(List.of(
+                AccountSaveResultDto.builder().accountId(10L).succeeded(true).savedCount(5).build(),
+                AccountSaveResultDto.builder().accountId(20L).succeeded(true).savedCount(2).build()));
         mockMvc.perform(post("/api/v1/transactions/bulk").with(csrf()).contentType(MediaType.APPLICATION_JSON).content("[]"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().string("Successfully saved 7 transactions."));
+    }
+
+    @Test
+    @DisplayName("should name the accounts a bulk save failed for")
+    @WithCustomMockUser(id = 1L)
+    void shouldReportFailedAccountsInBulkSave() throws Exception {
+        when(importJobService.saveByAccount(eq(1L), any())).thenReturn(List.of(
+                AccountSaveResultDto.builder().accountId(10L).succeeded(true).savedCount(5).build(),
+                AccountSaveResultDto.builder().accountId(20L).succeeded(false).errorMessage("Access denied to account").build()));
+        mockMvc.perform(post("/api/v1/transactions/bulk").with(csrf()).contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Successfully saved 5 transactions. Failed to save accounts: [20]."));
+    }
+
+    @Test
+    @DisplayName("should return per-account results for a bulk save by account")
+    @WithCustomMockUser(id = 1L)
+    void shouldHandleBulkSaveByAccount() throws Exception {
+        when(importJobService.saveByAccount(eq(1L), any())).thenReturn(List.of(
+                AccountSaveResultDto.builder().accountId(10L).succeeded(true).savedCount(5).build(),
+                AccountSaveResultDto.builder().accountId(20L).succeeded(false).errorMessage("Access denied to account").build()));
+        mockMvc.perform(post("/api/v1/transactions/bulk/accounts").with(csrf()).contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].savedCount").value(5))
+                .andExpect(jsonPath("$[1].succeeded").value(false));
     }
 }
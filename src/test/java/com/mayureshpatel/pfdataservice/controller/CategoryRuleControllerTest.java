@@ -1,11 +1,13 @@
 package com.mayureshpatel.pfdataservice.controller;
 
+import com.mayureshpatel.pfdataservice.dto.RuleApplyPreviewDto;
 import com.mayureshpatel.pfdataservice.dto.RuleChangePreviewDto;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleCreateRequest;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleDto;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleUpdateRequest;
 import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.security.WithCustomMockUser;
+import com.mayureshpatel.pfdataservice.service.CategoryRuleService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -170,20 +172,23 @@ class CategoryRuleControllerTest extends BaseControllerTest {
     class PreviewApplyTests {
 
         @Test
-        @DisplayName("GET /preview should return rule change previews")
+        @DisplayName("GET /preview should return a page of rule change previews")
         void previewApply_shouldReturnPreviews() throws Exception {
             // Arrange
             RuleChangePreviewDto preview = new RuleChangePreviewDto("AMZN MKTP", "Uncategorized", "Shopping");
-            when(categoryRuleService.previewApply(USER_ID)).thenReturn(List.of(preview));
+            RuleApplyPreviewDto page = new RuleApplyPreviewDto(List.of(preview),
+                    List.of(new RuleApplyPreviewDto.CategoryCount(5L, "Shopping", 1L)), null);
+            when(categoryRuleService.previewApply(USER_ID, null, CategoryRuleService.DEFAULT_PREVIEW_PAGE_SIZE)).thenReturn(page);
 
             // Act & Assert
             mockMvc.perform(get("/api/v1/category-rules/preview"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].oldValue").value("Uncategorized"))
-                    .andExpect(jsonPath("$[0].newValue").value("Shopping"));
+                    .andExpect(jsonPath("$.changes", hasSize(1)))
+                    .andExpect(jsonPath("$.changes[0].oldValue").value("Uncategorized"))
+                    .andExpect(jsonPath("$.changes[0].newValue").value("Shopping"))
+                    .andExpect(jsonPath("$.countsByCategory[0].count").value(1));
 
-            verify(categoryRuleService).previewApply(USER_ID);
+            verify(categoryRuleService).previewApply(USER_ID, null, CategoryRuleService.DEFAULT_PREVIEW_PAGE_SIZE);
         }
     }
 
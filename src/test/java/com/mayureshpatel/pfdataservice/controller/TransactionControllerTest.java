@@ -1,25 +1,40 @@
 package com.mayureshpatel.pfdataservice.controller;
 
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportJob;
 import com.mayureshpatel.pfdataservice.dto.transaction.SaveTransactionRequest;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionDto;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionPreviewDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.CommitStagedImportRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.ImportJobDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.StagedImportDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.StagedRowOverride;
+import com.mayureshpatel.pfdataservice.exception.DuplicateImportException;
 import com.mayureshpatel.pfdataservice.security.WithCustomMockUser;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -50,20 +65,43 @@ class TransactionControllerTest extends BaseControllerTest {
                     .amount(new BigDecimal("5.00"))
                     .build();
 
-            when(transactionImportService.previewTransactions(eq(USER_ID), eq(ACCOUNT_ID), eq(bankName), any(InputStream.class), eq("test.csv")))
-                    .thenReturn(List.of(previewDto));
+            when(transactionImportService.previewTransactions(eq(USER_ID), eq(ACCOUNT_ID), eq(bankName), any(InputStream.class), eq("test.csv"), any()))
+                    .thenAnswer(invocation -> {
+                        invocation.<Consumer<List<TransactionPreviewDto>>>getArgument(5).accept(List.of(previewDto));
+                        return 1;
+                    });
 
             // Act & Assert
-            mockMvc.perform(multipart("/api/v1/accounts/{accountId}/upload", ACCOUNT_ID)
+            MvcResult result = mockMvc.perform(multipart("/api/v1/accounts/{accountId}/upload", ACCOUNT_ID)
                             .file(file)
                             .param("bankName", bankName)
                             .with(csrf()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(jsonPath("$", hasSize(1)))
                     .andExpect(jsonPath("$[0].description").value("Coffee"));
+        }
+
+        @Test
+        @DisplayName("POST /upload should return 409 Conflict before parsing an already imported file")
+        void uploadTransactions_shouldReturn409WhenAlreadyImported() throws Exception {
+            // Arrange
+            MockMultipartFile file = new MockMultipartFile("file", "test.csv", MediaType.TEXT_PLAIN_VALUE, "test".getBytes());
+            when(transactionImportService.fingerprintUpload(eq(ACCOUNT_ID), any(InputStream.class)))
+                    .thenThrow(new DuplicateImportException("This file has already been imported."));
+
+            // Act & Assert
+            mockMvc.perform(multipart("/api/v1/accounts/{accountId}/upload", ACCOUNT_ID)
+                            .file(file)
+                            .param("bankName", "CAPITAL_ONE")
+                            .with(csrf()))
+                    .andExpect(status().isConflict());
 
-            verify(transactionImportService).previewTransactions(eq(USER_ID), eq(ACCOUNT_ID), eq(bankName), any(InputStream.class), eq("test.csv"));
+            verify(transactionImportService, never()).previewTransactions(anyLong(), anyLong(), anyString(), any(InputStream.class), anyString(), any());
         }
 
         @Test
@@ -160,6 +198,158 @@ class TransactionControllerTest extends BaseControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("stagedImports")
+    class StagedImportsTests {
+
+        private final UUID token = UUID.fromString("6f1c9d2e-4b7a-4c3e-9f10-2a5b8c7d6e01");
+
+        @Test
+        @DisplayName("POST /upload/stage should return the staged rows and their token")
+        void stageTransactions_shouldReturnToken() throws Exception {
+            // Arrange
+            MockMultipartFile file = new MockMultipartFile("file", "test.csv", MediaType.TEXT_PLAIN_VALUE, "test".getBytes());
+            StagedImportDto staged = StagedImportDto.builder()
+                    .token(token)
+                    .rowCount(1)
+                    .transactions(List.of(TransactionPreviewDto.builder().description("Coffee").build()))
+                    .build();
+            when(transactionImportService.fingerprintUpload(eq(ACCOUNT_ID), any(InputStream.class))).thenReturn("hash");
+            when(transactionImportService.stageTransactions(eq(USER_ID), eq(ACCOUNT_ID), eq("CAPITAL_ONE"), any(InputStream.class), eq("test.csv"), eq("hash")))
+                    .thenReturn(staged);
+
+            // Act & Assert
+            mockMvc.perform(multipart("/api/v1/accounts/{accountId}/upload/stage", ACCOUNT_ID)
+                            .file(file)
+                            .param("bankName", "CAPITAL_ONE")
+                            .with(csrf()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.token").value(token.toString()))
+                    .andExpect(jsonPath("$.rowCount").value(1))
+                    .andExpect(jsonPath("$.transactions[0].description").value("Coffee"));
+        }
+
+        @Test
+        @DisplayName("GET /staged-imports/{token}/rows should return a page of staged rows")
+        void getStagedRows_shouldReturnPage() throws Exception {
+            // Arrange
+            when(transactionImportService.getStagedRows(USER_ID, ACCOUNT_ID, token, 500, 500))
+                    .thenReturn(List.of(TransactionPreviewDto.builder().description("Coffee").build()));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/accounts/{accountId}/staged-imports/{token}/rows", ACCOUNT_ID, token)
+                            .param("offset", "500"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].description").value("Coffee"));
+        }
+
+        @Test
+        @DisplayName("POST /staged-imports/{token}/commit should save the staged rows")
+        void commitStagedTransactions_shouldReturnSuccessMessage() throws Exception {
+            // Arrange
+            CommitStagedImportRequest request = new CommitStagedImportRequest(Set.of(2), null);
+            when(transactionImportService.commitStagedTransactions(USER_ID, ACCOUNT_ID, token, request)).thenReturn(3);
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/accounts/{accountId}/staged-imports/{token}/commit", ACCOUNT_ID, token)
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Successfully saved 3 transactions."));
+        }
+
+        @Test
+        @DisplayName("POST /staged-imports/{token}/commit should return 400 for an invalid override")
+        void commitStagedTransactions_shouldReturn400OnInvalidOverride() throws Exception {
+            // Arrange
+            CommitStagedImportRequest request = new CommitStagedImportRequest(null, List.of(StagedRowOverride.builder().build()));
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/accounts/{accountId}/staged-imports/{token}/commit", ACCOUNT_ID, token)
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("importJobs")
+    class ImportJobsTests {
+
+        private final ImportJobDto queued = ImportJobDto.builder()
+                .id(7L)
+                .accountId(ACCOUNT_ID)
+                .type(ImportJob.Type.PREVIEW)
+                .status(ImportJob.Status.QUEUED)
+                .build();
+
+        @Test
+        @DisplayName("POST /upload/jobs should queue a preview and return 202")
+        void submitUpload_shouldReturnAccepted() throws Exception {
+            // Arrange
+            MockMultipartFile file = new MockMultipartFile("file", "test.csv", MediaType.TEXT_PLAIN_VALUE, "test".getBytes());
+            when(transactionImportService.fingerprintUpload(eq(ACCOUNT_ID), any(InputStream.class))).thenReturn("hash");
+            when(importJobService.submitPreview(eq(USER_ID), eq(ACCOUNT_ID), eq("CAPITAL_ONE"), any(Path.class), eq("test.csv"), eq("hash")))
+                    .thenReturn(queued);
+
+            // Act & Assert
+            mockMvc.perform(multipart("/api/v1/accounts/{accountId}/upload/jobs", ACCOUNT_ID)
+                            .file(file)
+                            .param("bankName", "CAPITAL_ONE")
+                            .with(csrf()))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.id").value(7))
+                    .andExpect(jsonPath("$.status").value("QUEUED"));
+        }
+
+        @Test
+        @DisplayName("POST /transactions/jobs should queue a save and return 202")
+        void submitSave_shouldReturnAccepted() throws Exception {
+            // Arrange
+            SaveTransactionRequest request = new SaveTransactionRequest(List.of(TransactionDto.builder().build()), "test.csv", "hash", 10L);
+            when(importJobService.submitSave(eq(USER_ID), eq(ACCOUNT_ID), any(SaveTransactionRequest.class))).thenReturn(queued);
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/accounts/{accountId}/transactions/jobs", ACCOUNT_ID)
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.id").value(7));
+        }
+
+        @Test
+        @DisplayName("POST /transactions/jobs should return 503 when the import executor is full")
+        void submitSave_shouldReturn503WhenRejected() throws Exception {
+            // Arrange
+            SaveTransactionRequest request = new SaveTransactionRequest(List.of(TransactionDto.builder().build()), "test.csv", "hash", 10L);
+            when(importJobService.submitSave(eq(USER_ID), eq(ACCOUNT_ID), any(SaveTransactionRequest.class)))
+                    .thenThrow(new TaskRejectedException("full"));
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/accounts/{accountId}/transactions/jobs", ACCOUNT_ID)
+                            .with(csrf())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isServiceUnavailable());
+        }
+
+        @Test
+        @DisplayName("GET /import-jobs/{jobId} should return the job")
+        void getImportJob_shouldReturnJob() throws Exception {
+            // Arrange
+            when(importJobService.getJob(USER_ID, ACCOUNT_ID, 7L)).thenReturn(queued);
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/accounts/{accountId}/import-jobs/{jobId}", ACCOUNT_ID, 7L))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.type").value("PREVIEW"));
+        }
+    }
+
     @Nested
     @DisplayName("Error Handling")
     class ErrorHandlingTests {
@@ -169,14 +359,18 @@ class TransactionControllerTest extends BaseControllerTest {
         void uploadTransactions_shouldReturn500OnServiceError() throws Exception {
             // Arrange
             MockMultipartFile file = new MockMultipartFile("file", "test.csv", MediaType.TEXT_PLAIN_VALUE, "test".getBytes());
-            when(transactionImportService.previewTransactions(anyLong(), anyLong(), anyString(), any(InputStream.class), anyString()))
+            when(transactionImportService.previewTransactions(anyLong(), anyLong(), anyString(), any(InputStream.class), anyString(), any()))
                     .thenThrow(new RuntimeException("Import failed"));
 
             // Act & Assert
-            mockMvc.perform(multipart("/api/v1/accounts/{accountId}/upload", ACCOUNT_ID)
+            MvcResult result = mockMvc.perform(multipart("/api/v1/accounts/{accountId}/upload", ACCOUNT_ID)
                             .file(file)
                             .param("bankName", "CAPITAL_ONE")
                             .with(csrf()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isInternalServerError());
         }
     }
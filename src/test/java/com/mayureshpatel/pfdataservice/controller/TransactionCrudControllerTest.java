@@ -1,6 +1,7 @@
 package com.mayureshpatel.pfdataservice.controller;
 
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCreateRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCursorPageDto;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionDto;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionUpdateRequest;
 import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
@@ -13,6 +14,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 
 import java.math.BigDecimal;
@@ -84,6 +86,31 @@ class TransactionCrudControllerTest extends BaseControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("getTransactionPage")
+    class GetTransactionPageTests {
+        @Test
+        @DisplayName("GET /seek should pass cursor, sort and size through")
+        void getTransactionPage_shouldReturnPage() throws Exception {
+            when(transactionService.getTransactionPage(eq(USER_ID), any(TransactionFilter.class), any(Sort.class),
+                    eq("abc"), eq(25), eq(true)))
+                    .thenReturn(new TransactionCursorPageDto(List.of(), "next", 0L));
+
+            mockMvc.perform(get("/api/v1/transactions/seek")
+                            .param("cursor", "abc")
+                            .param("size", "25")
+                            .param("sort", "amount,asc")
+                            .param("includeTotal", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(0)))
+                    .andExpect(jsonPath("$.nextCursor").value("next"))
+                    .andExpect(jsonPath("$.totalElements").value(0));
+
+            verify(transactionService).getTransactionPage(eq(USER_ID), any(TransactionFilter.class),
+                    eq(Sort.by(Sort.Direction.ASC, "amount")), eq("abc"), eq(25), eq(true));
+        }
+    }
+
     @Nested
     @DisplayName("getCountByCategory")
     class GetCountByCategoryTests {
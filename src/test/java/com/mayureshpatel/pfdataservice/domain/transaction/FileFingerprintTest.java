@@ -0,0 +1,33 @@
+package com.mayureshpatel.pfdataservice.domain.transaction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FileFingerprint Tests")
+class FileFingerprintTest {
+
+    @Test
+    @DisplayName("should produce the hex SHA-256 of the content")
+    void of_shouldProduceSha256() throws IOException {
+        String fingerprint = FileFingerprint.of(new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", fingerprint);
+    }
+
+    @Test
+    @DisplayName("should digest content larger than one read buffer")
+    void of_shouldDigestWholeStream() throws IOException {
+        byte[] content = new byte[100_000];
+        content[content.length - 1] = 1;
+
+        assertNotEquals(
+                FileFingerprint.of(new ByteArrayInputStream(new byte[100_000])),
+                FileFingerprint.of(new ByteArrayInputStream(content)));
+    }
+}
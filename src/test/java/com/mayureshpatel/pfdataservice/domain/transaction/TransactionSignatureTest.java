@@ -0,0 +1,54 @@
+package com.mayureshpatel.pfdataservice.domain.transaction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TransactionSignature Tests")
+class TransactionSignatureTest {
+
+    private static final OffsetDateTime DATE = OffsetDateTime.of(2025, 1, 15, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    @DisplayName("should produce a 64 character hex digest")
+    void of_shouldProduceHexDigest() {
+        String signature = TransactionSignature.of(DATE, new BigDecimal("10.50"), "Coffee", "EXPENSE");
+
+        assertEquals(64, signature.length());
+        assertTrue(signature.matches("[0-9a-f]+"));
+    }
+
+    @Test
+    @DisplayName("should ignore amount scale and date offset")
+    void of_shouldNormalizeAmountAndOffset() {
+        OffsetDateTime sameInstant = DATE.withOffsetSameInstant(ZoneOffset.ofHours(-5));
+
+        assertEquals(
+                TransactionSignature.of(DATE, new BigDecimal("10.5"), "Coffee", "EXPENSE"),
+                TransactionSignature.of(sameInstant, new BigDecimal("10.500"), "Coffee", "EXPENSE"));
+    }
+
+    @Test
+    @DisplayName("should treat a null description as empty")
+    void of_shouldTreatNullDescriptionAsEmpty() {
+        assertEquals(
+                TransactionSignature.of(DATE, BigDecimal.ONE, null, "INCOME"),
+                TransactionSignature.of(DATE, BigDecimal.ONE, "", "INCOME"));
+    }
+
+    @Test
+    @DisplayName("should differ when any component differs")
+    void of_shouldDifferOnEachComponent() {
+        String base = TransactionSignature.of(DATE, BigDecimal.ONE, "A", "INCOME");
+
+        assertNotEquals(base, TransactionSignature.of(DATE.plusDays(1), BigDecimal.ONE, "A", "INCOME"));
+        assertNotEquals(base, TransactionSignature.of(DATE, BigDecimal.TEN, "A", "INCOME"));
+        assertNotEquals(base, TransactionSignature.of(DATE, BigDecimal.ONE, "B", "INCOME"));
+        assertNotEquals(base, TransactionSignature.of(DATE, BigDecimal.ONE, "A", "EXPENSE"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.mayureshpatel.pfdataservice.repository;
+
+import com.mayureshpatel.pfdataservice.domain.merchant.Merchant;
+import com.mayureshpatel.pfdataservice.repository.merchant.mapper.MerchantRowMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndexedRowMapper Unit Tests")
+class IndexedRowMapperTest {
+
+    private final MerchantRowMapper mapper = new MerchantRowMapper();
+
+    @Test
+    @DisplayName("should read the metadata once per result set and map rows by index")
+    void shouldResolveColumnsOncePerResultSet() throws SQLException {
+        // Arrange
+        ResultSet rs = merchantResultSet("ID", "user_id", "original_name", "clean_name");
+        when(rs.getLong(1)).thenReturn(5L, 6L);
+        when(rs.getLong(2)).thenReturn(1L);
+        when(rs.getString(3)).thenReturn("AMZN MKTP", "SQ *CAFE");
+        when(rs.getString(4)).thenReturn("Amazon", "Cafe");
+
+        // Act
+        Merchant first = mapper.mapRow(rs, 0);
+        Merchant second = mapper.mapRow(rs, 1);
+
+        // Assert
+        assertEquals(5L, first.getId());
+        assertEquals(1L, first.getUserId());
+        assertEquals("Amazon", first.getCleanName());
+        assertEquals(6L, second.getId());
+        assertEquals("SQ *CAFE", second.getOriginalName());
+        verify(rs, times(1)).getMetaData();
+        verify(rs, never()).getString(anyString());
+        verify(rs, never()).getLong(anyString());
+    }
+
+    @Test
+    @DisplayName("should resolve the columns again for a different result set")
+    void shouldResolveNewResultSet() throws SQLException {
+        // Arrange
+        ResultSet full = merchantResultSet("id", "original_name");
+        when(full.getLong(1)).thenReturn(5L);
+        when(full.getString(2)).thenReturn("AMZN MKTP");
+
+        ResultSet reordered = merchantResultSet("original_name", "id");
+        when(reordered.getLong(2)).thenReturn(7L);
+        when(reordered.getString(1)).thenReturn("SHELL OIL");
+
+        // Act
+        Merchant first = mapper.mapRow(full, 0);
+        Merchant second = mapper.mapRow(reordered, 0);
+
+        // Assert
+        assertEquals("AMZN MKTP", first.getOriginalName());
+        assertEquals(7L, second.getId());
+        assertEquals("SHELL OIL", second.getOriginalName());
+        verify(reordered, times(1)).getMetaData();
+    }
+
+    @Test
+    @DisplayName("should return null when the result set has no id column")
+    void shouldReturnNullWithoutId() throws SQLException {
+        // Arrange
+        ResultSet rs = merchantResultSet("original_name");
+
+        // Act
+        Merchant merchant = mapper.mapRow(rs, 0);
+
+        // Assert
+        assertNull(merchant);
+        verify(rs, never()).getString(1);
+    }
+
+    private static ResultSet merchantResultSet(String... labels) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(labels[i]);
+        }
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        return rs;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -190,19 +191,49 @@ class AccountRepositoryTest extends BaseRepositoryTest {
     @DisplayName("Balance Operations")
     class BalanceTests {
         @Test
-        @DisplayName("should update balance explicitly")
-        void shouldUpdateBalance() {
+        @DisplayName("should add balance deltas without touching the account version")
+        void shouldAddBalanceDeltas() {
             // Arrange
             Account account = accountRepository.findById(ACCOUNT_1).orElseThrow();
 
             // Act
-            int rows = accountRepository.updateBalance(USER_1, ACCOUNT_1, new BigDecimal("999.99"), account.getVersion());
+            int rows = accountRepository.addBalanceDeltas(USER_1, Map.of(ACCOUNT_1, new BigDecimal("10.25")));
+            accountRepository.addBalanceDelta(USER_1, ACCOUNT_1, new BigDecimal("-0.25"));
 
             // Assert
             assertEquals(1, rows);
             Account updated = accountRepository.findById(ACCOUNT_1).orElseThrow();
-            assertEquals(0, new BigDecimal("999.99").compareTo(updated.getCurrentBalance()));
-            assertEquals(account.getVersion() + 1, updated.getVersion());
+            assertEquals(0, account.getCurrentBalance().add(BigDecimal.TEN).compareTo(updated.getCurrentBalance()));
+            assertEquals(account.getVersion(), updated.getVersion());
+        }
+
+        @Test
+        @DisplayName("should ignore balance deltas for another user's account")
+        void shouldIgnoreDeltasForOtherUser() {
+            // Act
+            int rows = accountRepository.addBalanceDelta(USER_2, ACCOUNT_1, BigDecimal.TEN);
+
+            // Assert
+            assertEquals(0, rows);
+        }
+
+        @Test
+        @DisplayName("should compact deltas into the stored balance without changing the visible balance")
+        void shouldCompactBalanceDeltas() {
+            // Arrange
+            accountRepository.addBalanceDelta(USER_1, ACCOUNT_1, new BigDecimal("5.00"));
+            accountRepository.addBalanceDelta(USER_1, ACCOUNT_1, new BigDecimal("2.50"));
+            Account before = accountRepository.findById(ACCOUNT_1).orElseThrow();
+
+            // Act
+            int accounts = accountRepository.compactBalanceDeltas(100);
+
+            // Assert
+            assertEquals(1, accounts);
+            assertEquals(0, accountRepository.compactBalanceDeltas(100));
+            Account after = accountRepository.findById(ACCOUNT_1).orElseThrow();
+            assertEquals(0, before.getCurrentBalance().compareTo(after.getCurrentBalance()));
+            assertEquals(before.getVersion(), after.getVersion());
         }
 
         @Test
@@ -212,6 +243,7 @@ class AccountRepositoryTest extends BaseRepositoryTest {
             Account account = accountRepository.findById(ACCOUNT_1).orElseThrow();
 
             // Act
+            accountRepository.addBalanceDelta(USER_1, ACCOUNT_1, new BigDecimal("50.00"));
             int rows = accountRepository.reconcile(USER_1, ACCOUNT_1, new BigDecimal("1234.56"), account.getVersion());
 
             // Assert
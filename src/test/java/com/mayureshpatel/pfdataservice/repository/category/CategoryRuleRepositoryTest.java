@@ -3,14 +3,19 @@ package com.mayureshpatel.pfdataservice.repository.category;
 import com.mayureshpatel.pfdataservice.domain.category.Category;
 import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
 import com.mayureshpatel.pfdataservice.domain.user.User;
+import com.mayureshpatel.pfdataservice.dto.RuleApplyPreviewDto;
 import com.mayureshpatel.pfdataservice.repository.BaseRepositoryTest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,6 +26,9 @@ class CategoryRuleRepositoryTest extends BaseRepositoryTest {
     @Autowired
     private CategoryRuleRepository repository;
 
+    @Autowired
+    private JdbcClient jdbcClient;
+
     private static final Long USER_1 = 1L;
 
     @Nested
@@ -91,6 +99,92 @@ class CategoryRuleRepositoryTest extends BaseRepositoryTest {
             assertEquals(2, afterDelete.size());
         }
 
+        @Test
+        @DisplayName("should categorize uncategorized transactions with the highest priority matching rule")
+        void shouldApplyToUncategorized() {
+            // Arrange
+            jdbcClient.sql("""
+                            insert into transactions (id, account_id, amount, date, description, type)
+                            values (2000, 1, 60.00, '2026-03-04 09:00:00+00', 'SHELL CAFE 42', 'EXPENSE'),
+                                   (2001, 3, 12.00, '2026-03-05 09:00:00+00', 'Corner Cafe', 'EXPENSE'),
+                                   (2002, 4, 12.00, '2026-03-05 09:00:00+00', 'Corner Cafe', 'EXPENSE')
+                            """)
+                    .update();
+
+            // Act
+            CategoryRuleRepository.AppliedRules applied = repository.applyToUncategorized(USER_1);
+
+            // Assert
+            assertEquals(Map.of(2L, 1, 3L, 1), applied.countsByRule());
+            assertEquals(Set.of(LocalDate.of(2026, 3, 4), LocalDate.of(2026, 3, 5)), applied.days());
+            assertEquals(9L, categoryIdOf(2000L));
+            assertEquals(8L, categoryIdOf(2001L));
+            assertNull(categoryIdOf(2002L));
+            assertNull(categoryIdOf(1002L));
+            assertTrue(repository.applyToUncategorized(USER_1).countsByRule().isEmpty());
+        }
+
+        @Test
+        @DisplayName("should fall back to a lower priority rule when the best one lost its category")
+        void shouldSkipRulesWithoutCategory() {
+            // Arrange
+            jdbcClient.sql("""
+                            insert into category_rules (id, keyword, category_id, priority, user_id)
+                            values (998, 'SHELL', null, 100, 1)
+                            """)
+                    .update();
+            jdbcClient.sql("""
+                            insert into transactions (id, account_id, amount, date, description, type)
+                            values (2000, 1, 60.00, '2026-03-04 09:00:00+00', 'SHELL 42', 'EXPENSE')
+                            """)
+                    .update();
+
+            // Act
+            List<CategoryRuleRepository.RuleMatch> matches = repository.findUncategorizedMatches(USER_1, 0L, 10);
+            CategoryRuleRepository.AppliedRules applied = repository.applyToUncategorized(USER_1);
+
+            // Assert
+            assertEquals(List.of(2000L), matches.stream().map(CategoryRuleRepository.RuleMatch::transactionId).toList());
+            assertEquals(Map.of(2L, 1), applied.countsByRule());
+            assertEquals(9L, categoryIdOf(2000L));
+        }
+
+        @Test
+        @DisplayName("should page uncategorized matches by transaction id and count them by category")
+        void shouldPreviewUncategorizedMatches() {
+            // Arrange
+            jdbcClient.sql("""
+                            insert into transactions (id, account_id, amount, date, description, type)
+                            values (2000, 1, 60.00, '2026-03-04 09:00:00+00', 'SHELL 42', 'EXPENSE'),
+                                   (2001, 3, 12.00, '2026-03-05 09:00:00+00', 'Corner Cafe', 'EXPENSE'),
+                                   (2002, 1, 40.00, '2026-03-06 09:00:00+00', 'SHELL 77', 'EXPENSE')
+                            """)
+                    .update();
+
+            // Act
+            List<CategoryRuleRepository.RuleMatch> first = repository.findUncategorizedMatches(USER_1, 0L, 2);
+            List<CategoryRuleRepository.RuleMatch> rest = repository.findUncategorizedMatches(USER_1, first.get(1).transactionId(), 2);
+            List<RuleApplyPreviewDto.CategoryCount> counts = repository.countUncategorizedMatchesByCategory(USER_1);
+
+            // Assert
+            assertEquals(List.of(2000L, 2001L), first.stream().map(CategoryRuleRepository.RuleMatch::transactionId).toList());
+            assertEquals("Gas", first.get(0).categoryName());
+            assertEquals(1, rest.size());
+            assertEquals(2002L, rest.get(0).transactionId());
+            assertEquals(2, counts.size());
+            assertEquals("Gas", counts.get(0).categoryName());
+            assertEquals(2L, counts.get(0).count());
+            assertNull(categoryIdOf(2000L));
+        }
+
+        private Long categoryIdOf(Long transactionId) {
+            return jdbcClient.sql("select category_id from transactions where id = :id")
+                    .param("id", transactionId)
+                    .query(Long.class)
+                    .optional()
+                    .orElse(null);
+        }
+
         @Test
         @DisplayName("should throw UnsupportedOperationException for insecure deleteById")
         void shouldThrowOnInsecureDelete() {
@@ -0,0 +1,98 @@
+package com.mayureshpatel.pfdataservice.repository.file_import_history;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportJob;
+import com.mayureshpatel.pfdataservice.repository.BaseRepositoryTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(ImportJobRepository.class)
+@DisplayName("ImportJobRepository Integration Tests (PostgreSQL)")
+class ImportJobRepositoryTest extends BaseRepositoryTest {
+
+    private static final Long USER_1 = 1L;
+    private static final Long USER_2 = 2L;
+    private static final Long ACCOUNT_1 = 1L;
+
+    @Autowired
+    private ImportJobRepository repository;
+
+    @Test
+    @DisplayName("should insert a queued job and move it through its states")
+    void shouldTrackJobLifecycle() {
+        // Arrange
+        Long id = repository.insert(ImportJob.builder()
+                .userId(USER_1)
+                .accountId(ACCOUNT_1)
+                .type(ImportJob.Type.SAVE)
+                .fileName("jan.csv")
+                .totalRows(3)
+                .build());
+
+        // Act & Assert
+        ImportJob queued = repository.findByIdAndUserId(id, USER_1).orElseThrow();
+        assertEquals(ImportJob.Status.QUEUED, queued.getStatus());
+        assertEquals(3, queued.getTotalRows());
+        assertNull(queued.getStartedAt());
+
+        repository.markRunning(id);
+        assertEquals(ImportJob.Status.RUNNING, repository.findByIdAndUserId(id, USER_1).orElseThrow().getStatus());
+
+        repository.markSucceeded(id, 3, 2, null);
+        ImportJob finished = repository.findByIdAndUserId(id, USER_1).orElseThrow();
+        assertEquals(ImportJob.Status.SUCCEEDED, finished.getStatus());
+        assertEquals(3, finished.getProcessedRows());
+        assertEquals(2, finished.getSavedCount());
+        assertNotNull(finished.getCompletedAt());
+    }
+
+    @Test
+    @DisplayName("should record failures and hide jobs from other users")
+    void shouldRecordFailure() {
+        // Arrange
+        Long id = repository.insert(ImportJob.builder()
+                .userId(USER_1)
+                .accountId(ACCOUNT_1)
+                .type(ImportJob.Type.PREVIEW)
+                .build());
+
+        // Act
+        repository.markFailed(id, 0, "x".repeat(ImportJobRepository.MAX_ERROR_LENGTH + 10));
+
+        // Assert
+        ImportJob failed = repository.findByIdAndUserId(id, USER_1).orElseThrow();
+        assertEquals(ImportJob.Status.FAILED, failed.getStatus());
+        assertEquals(ImportJobRepository.MAX_ERROR_LENGTH, failed.getErrorMessage().length());
+        assertNull(failed.getSavedCount());
+        assertTrue(repository.findByIdAndUserId(id, USER_2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should record the staging of a preview and fail jobs left unfinished")
+    void shouldFailUnfinishedJobs() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        Long preview = repository.insert(ImportJob.builder().userId(USER_1).accountId(ACCOUNT_1).type(ImportJob.Type.PREVIEW).build());
+        Long running = repository.insert(ImportJob.builder().userId(USER_1).accountId(ACCOUNT_1).type(ImportJob.Type.SAVE).build());
+        Long queued = repository.insert(ImportJob.builder().userId(USER_1).accountId(ACCOUNT_1).type(ImportJob.Type.SAVE).build());
+        repository.markSucceeded(preview, 1, null, token);
+        repository.markRunning(running);
+
+        // Act
+        int failed = repository.failUnfinished(OffsetDateTime.now().plusMinutes(1), "interrupted");
+
+        // Assert
+        assertEquals(2, failed);
+        assertEquals(token, repository.findByIdAndUserId(preview, USER_1).orElseThrow().getStagingToken());
+        assertEquals(ImportJob.Status.SUCCEEDED, repository.findByIdAndUserId(preview, USER_1).orElseThrow().getStatus());
+        assertEquals("interrupted", repository.findByIdAndUserId(running, USER_1).orElseThrow().getErrorMessage());
+        assertEquals(ImportJob.Status.FAILED, repository.findByIdAndUserId(queued, USER_1).orElseThrow().getStatus());
+        assertEquals(0, repository.failUnfinished(OffsetDateTime.now().minusDays(1), "interrupted"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.mayureshpatel.pfdataservice.repository.file_import_history;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportStaging;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCreateRequest;
+import com.mayureshpatel.pfdataservice.repository.BaseRepositoryTest;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.ImportStagingRepository.StagedRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(ImportStagingRepository.class)
+@DisplayName("ImportStagingRepository Integration Tests (PostgreSQL)")
+class ImportStagingRepositoryTest extends BaseRepositoryTest {
+
+    private static final Long USER_1 = 1L;
+    private static final Long USER_2 = 2L;
+    private static final Long ACCOUNT_1 = 1L;
+    private static final OffsetDateTime DATE = OffsetDateTime.of(2026, 3, 4, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private ImportStagingRepository repository;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    private Long stage(UUID token, OffsetDateTime expiresAt) {
+        return repository.insert(ImportStaging.builder()
+                .token(token)
+                .userId(USER_1)
+                .accountId(ACCOUNT_1)
+                .fileName("jan.csv")
+                .fileHash("hash")
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    private static TransactionCreateRequest row(String description, String amount, Long categoryId) {
+        return TransactionCreateRequest.builder()
+                .amount(new BigDecimal(amount))
+                .transactionDate(DATE)
+                .description(description)
+                .type("EXPENSE")
+                .categoryId(categoryId)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should find an unexpired staging only for its owner")
+    void shouldFindActiveStaging() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        Long id = stage(token, OffsetDateTime.now().plusHours(1));
+        stage(UUID.randomUUID(), OffsetDateTime.now().minusMinutes(1));
+
+        // Act & Assert
+        ImportStaging found = repository.findActiveByTokenForUpdate(token, USER_1).orElseThrow();
+        assertEquals(id, found.getId());
+        assertEquals("hash", found.getFileHash());
+        assertTrue(repository.findActiveByTokenForUpdate(token, USER_2).isEmpty());
+        assertEquals(1, repository.deleteExpired());
+    }
+
+    @Test
+    @DisplayName("should move staged rows except the excluded ones into transactions")
+    void shouldMoveToTransactions() {
+        // Arrange
+        Long id = stage(UUID.randomUUID(), OffsetDateTime.now().plusHours(1));
+        repository.insertRows(id, 0, List.of(
+                row("LOCAL CAFE", "4.50", 2L),
+                row("BAKERY 12", "3.00", 9999L),
+                row("SKIPPED", "1.00", null)));
+
+        // Act
+        assertEquals(Set.of("LOCAL CAFE", "BAKERY 12"), Set.copyOf(repository.findDescriptions(id, Set.of(2))));
+        List<TransactionCreateRequest> moved = repository.moveToTransactions(id, Set.of(2), Map.of("LOCAL CAFE", 4L));
+
+        // Assert
+        assertEquals(2, moved.size());
+        assertEquals(DATE.toEpochSecond(), moved.get(0).getTransactionDate().toEpochSecond());
+        Long categoryId = jdbcClient.sql("select category_id from transactions where description = 'LOCAL CAFE' and account_id = 1 and import_signature is not null")
+                .query(Long.class).single();
+        assertEquals(2L, categoryId);
+        Long unknownCategory = jdbcClient.sql("select category_id from transactions where description = 'BAKERY 12'")
+                .query(Long.class).single();
+        assertNull(unknownCategory);
+
+        // staging the same rows again finds them already imported
+        Long again = stage(UUID.randomUUID(), OffsetDateTime.now().plusHours(1));
+        repository.insertRows(again, 0, List.of(row("LOCAL CAFE", "4.50", 2L)));
+        assertTrue(repository.findDescriptions(again, Set.of()).isEmpty());
+        assertTrue(repository.moveToTransactions(again, Set.of(), Map.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should rewrite an overridden row")
+    void shouldUpdateRow() {
+        // Arrange
+        Long id = stage(UUID.randomUUID(), OffsetDateTime.now().plusHours(1));
+        repository.insertRows(id, 0, List.of(row("LOCAL CAFE", "4.50", null)));
+        StagedRow staged = repository.findRows(id, List.of(0)).get(0);
+
+        // Act
+        repository.updateRow(id, new StagedRow(0, staged.transaction().toBuilder().description("Cafe").categoryId(2L).build()));
+
+        // Assert
+        TransactionCreateRequest updated = repository.findRows(id, List.of(0)).get(0).transaction();
+        assertEquals("Cafe", updated.getDescription());
+        assertEquals(2L, updated.getCategoryId());
+        assertEquals(0, new BigDecimal("4.50").compareTo(updated.getAmount()));
+    }
+}
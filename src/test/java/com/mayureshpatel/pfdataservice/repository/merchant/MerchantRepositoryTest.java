@@ -129,6 +129,28 @@ class MerchantRepositoryTest extends BaseRepositoryTest {
             assertTrue(all.stream().anyMatch(m -> m.getCleanName().equals("New Shop")));
         }
 
+        @Test
+        @DisplayName("should upsert a batch of merchants in one statement and return all of them")
+        void shouldInsertAllAndReturn() {
+            // Arrange
+            List<MerchantCreateRequest> requests = List.of(
+                    MerchantCreateRequest.builder().userId(USER_1).originalName("LOCAL CAFE").cleanName("").build(),
+                    MerchantCreateRequest.builder().userId(USER_1).originalName("BAKERY 12").cleanName("").build(),
+                    MerchantCreateRequest.builder().userId(USER_1).originalName("BAKERY 12").cleanName("").build());
+
+            // Act
+            List<Merchant> result = repository.insertAllAndReturn(requests);
+
+            // Assert
+            assertEquals(2, result.size());
+            Merchant existing = result.stream().filter(m -> m.getOriginalName().equals("LOCAL CAFE")).findFirst().orElseThrow();
+            assertEquals(4L, existing.getId());
+            assertEquals("My Favorite Cafe", existing.getCleanName());
+            Merchant created = result.stream().filter(m -> m.getOriginalName().equals("BAKERY 12")).findFirst().orElseThrow();
+            assertEquals(Optional.of(created.getId()),
+                    repository.findByOriginalNameAndUserId("BAKERY 12", USER_1).map(Merchant::getId));
+        }
+
         @Test
         @DisplayName("should update an existing merchant's clean name")
         void shouldUpdate() {
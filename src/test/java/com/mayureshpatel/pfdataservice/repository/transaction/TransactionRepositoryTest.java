@@ -6,6 +6,8 @@ import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCreateRequest;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryBreakdownDto;
 import com.mayureshpatel.pfdataservice.dto.transaction.CategoryTransactionsDto;
 import com.mayureshpatel.pfdataservice.repository.BaseRepositoryTest;
+import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionCursor;
+import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionSortColumn;
 import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionSpecification;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -22,10 +24,12 @@ import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@Import(TransactionRepository.class)
+@Import({TransactionRepository.class, TransactionCopyLoader.class})
 @DisplayName("TransactionRepository Integration Tests (PostgreSQL)")
 class TransactionRepositoryTest extends BaseRepositoryTest {
 
@@ -76,6 +80,52 @@ class TransactionRepositoryTest extends BaseRepositoryTest {
             ));
         }
 
+        @Test
+        @DisplayName("should walk every keyset page without gaps or repeats for each sort column")
+        void shouldWalkKeysetPages() {
+            // Arrange
+            TransactionSpecification.FilterResult filter = TransactionSpecification.withFilter(USER_ID, null);
+            long total = transactionRepository.findAll(filter, PageRequest.of(0, 1)).getTotalElements();
+
+            for (TransactionSortColumn column : TransactionSortColumn.values()) {
+                for (boolean ascending : new boolean[]{true, false}) {
+                    List<Long> seen = new ArrayList<>();
+                    TransactionCursor cursor = null;
+
+                    // Act
+                    do {
+                        TransactionRepository.KeysetPage page =
+                                transactionRepository.findPage(filter, column, ascending, cursor, 3, false);
+                        page.content().forEach(t -> seen.add(t.getId()));
+                        cursor = page.nextCursor() == null ? null : TransactionCursor.decode(page.nextCursor());
+                    } while (cursor != null);
+
+                    // Assert
+                    assertEquals(total, seen.size(), column + (ascending ? " asc" : " desc"));
+                    assertEquals(total, Set.copyOf(seen).size(), column + (ascending ? " asc" : " desc"));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should count keyset results only when asked")
+        void shouldCountKeysetResultsOnRequest() {
+            // Arrange
+            TransactionSpecification.FilterResult filter = TransactionSpecification.withFilter(USER_ID, null);
+
+            // Act
+            TransactionRepository.KeysetPage withoutTotal =
+                    transactionRepository.findPage(filter, TransactionSortColumn.DATE, false, null, 5, false);
+            TransactionRepository.KeysetPage withTotal =
+                    transactionRepository.findPage(filter, TransactionSortColumn.DATE, false, null, 5, true);
+
+            // Assert
+            assertNull(withoutTotal.total());
+            assertEquals(transactionRepository.findAll(filter, PageRequest.of(0, 1)).getTotalElements(), withTotal.total());
+            assertEquals(withoutTotal.content().stream().map(Transaction::getId).toList(),
+                    withTotal.content().stream().map(Transaction::getId).toList());
+        }
+
         @Test
         @DisplayName("should safely handle invalid sort direction and property")
         void shouldHandleInvalidSort() {
@@ -115,6 +165,23 @@ class TransactionRepositoryTest extends BaseRepositoryTest {
             assertEquals(0, new BigDecimal("500.00").compareTo(sum));
         }
 
+        @Test
+        @DisplayName("should honour bounds that fall inside a day")
+        void shouldHonourPartialDayBounds() {
+            // Arrange
+            OffsetDateTime beforeDeposit = OffsetDateTime.parse("2026-03-03T11:59:59Z");
+            OffsetDateTime afterDeposit = OffsetDateTime.parse("2026-03-03T12:00:01Z");
+            OffsetDateTime end = LocalDate.of(2026, 3, 31).atTime(23, 59, 59).atOffset(ZoneOffset.UTC);
+
+            // Act
+            BigDecimal included = transactionRepository.getSumByDateRange(USER_ID, beforeDeposit, end, TransactionType.INCOME);
+            BigDecimal excluded = transactionRepository.getSumByDateRange(USER_ID, afterDeposit, end, TransactionType.INCOME);
+
+            // Assert
+            assertEquals(0, new BigDecimal("500.00").compareTo(included));
+            assertEquals(0, BigDecimal.ZERO.compareTo(excluded));
+        }
+
         @Test
         @DisplayName("should find category totals")
         void shouldFindCategoryTotals() {
@@ -132,6 +199,47 @@ class TransactionRepositoryTest extends BaseRepositoryTest {
                     .anyMatch(b -> b.category().name().equals("Dining Out")));
         }
 
+        @Test
+        @DisplayName("should load period totals and category breakdown in one query")
+        void shouldFindDashboardTotals() {
+            // Arrange
+            OffsetDateTime start = LocalDate.of(2026, 3, 1).atStartOfDay().atOffset(ZoneOffset.UTC);
+            OffsetDateTime end = LocalDate.of(2026, 3, 31).atTime(23, 59, 59).atOffset(ZoneOffset.UTC);
+
+            // Act
+            TransactionRepository.DashboardTotals result = transactionRepository.findDashboardTotals(USER_ID, start, end);
+
+            // Assert
+            assertEquals(0, transactionRepository.getSumByDateRange(USER_ID, start, end, TransactionType.INCOME)
+                    .compareTo(result.income()));
+            assertEquals(0, transactionRepository.getSumByDateRange(USER_ID, start, end, TransactionType.EXPENSE)
+                    .compareTo(result.expense()));
+            assertEquals(transactionRepository.findCategoryTotals(USER_ID, start, end), result.categoryBreakdown());
+        }
+
+        @Test
+        @DisplayName("should sum current and previous periods in one query")
+        void shouldGetPeriodTotals() {
+            // Arrange
+            OffsetDateTime start = LocalDate.of(2026, 3, 1).atStartOfDay().atOffset(ZoneOffset.UTC);
+            OffsetDateTime end = LocalDate.of(2026, 3, 31).atTime(23, 59, 59).atOffset(ZoneOffset.UTC);
+            OffsetDateTime previousStart = start.minusMonths(1);
+            OffsetDateTime previousEnd = start.minusSeconds(1);
+
+            // Act
+            TransactionRepository.PeriodTotals result = transactionRepository.getPeriodTotals(
+                    USER_ID, start, end, previousStart, previousEnd);
+
+            // Assert
+            assertEquals(0, new BigDecimal("500.00").compareTo(result.currentIncome()));
+            assertEquals(0, transactionRepository.getSumByDateRange(USER_ID, start, end, TransactionType.EXPENSE)
+                    .compareTo(result.currentExpense()));
+            assertEquals(0, transactionRepository.getSumByDateRange(USER_ID, previousStart, previousEnd, TransactionType.INCOME)
+                    .compareTo(result.previousIncome()));
+            assertEquals(0, transactionRepository.getSumByDateRange(USER_ID, previousStart, previousEnd, TransactionType.EXPENSE)
+                    .compareTo(result.previousExpense()));
+        }
+
         @Test
         @DisplayName("should find monthly sums for cash flow trend")
         void shouldFindMonthlySums() {
@@ -221,6 +329,49 @@ class TransactionRepositoryTest extends BaseRepositoryTest {
             
             int total = transactionRepository.updateAll(USER_ID, list);
             assertEquals(2, total);
+            assertEquals("BULK 1", transactionRepository.findById(1001L, USER_ID).orElseThrow().getDescription());
+            assertEquals("BULK 2", transactionRepository.findById(1002L, USER_ID).orElseThrow().getDescription());
+        }
+
+        @Test
+        @DisplayName("should keep the last version of a transaction listed twice in updateAll")
+        void shouldUpdateAllWithDuplicates() {
+            Transaction t = transactionRepository.findById(1002L, USER_ID).orElseThrow();
+
+            int total = transactionRepository.updateAll(USER_ID, List.of(
+                    t.toBuilder().type(TransactionType.TRANSFER_OUT).postDate(t.getTransactionDate()).build(),
+                    t.toBuilder().type(TransactionType.TRANSFER_IN).postDate(null).build()));
+
+            assertEquals(1, total);
+            Transaction result = transactionRepository.findById(1002L, USER_ID).orElseThrow();
+            assertEquals(TransactionType.TRANSFER_IN, result.getType());
+            assertNull(result.getPostDate());
+            assertNull(result.getCategory());
+        }
+
+        @Test
+        @DisplayName("should delete multiple transactions in one statement")
+        void shouldDeleteAll() {
+            Transaction t1 = transactionRepository.findById(1000L, USER_ID).orElseThrow();
+            Transaction t2 = transactionRepository.findById(1002L, USER_ID).orElseThrow();
+
+            int rows = transactionRepository.deleteAll(USER_ID, List.of(t1, t2, t1));
+
+            assertEquals(2, rows);
+            assertTrue(transactionRepository.findById(1000L, USER_ID).isEmpty());
+            assertTrue(transactionRepository.findById(1002L, USER_ID).isEmpty());
+            assertTrue(transactionRepository.findById(1001L, USER_ID).isPresent());
+        }
+
+        @Test
+        @DisplayName("should not delete transactions of another user")
+        void shouldNotDeleteAllForOtherUser() {
+            Transaction t = transactionRepository.findById(1000L, USER_ID).orElseThrow();
+
+            int rows = transactionRepository.deleteAll(2L, List.of(t));
+
+            assertEquals(0, rows);
+            assertTrue(transactionRepository.findById(1000L, USER_ID).isPresent());
         }
 
         @Test
@@ -265,6 +416,84 @@ class TransactionRepositoryTest extends BaseRepositoryTest {
             assertEquals(beforeCount + totalRecordsToInsert, transactionRepository.count());
         }
 
+        @Test
+        @DisplayName("should bulk load large batches through COPY")
+        void shouldInsertAllViaCopy() {
+            // arrange
+            List<TransactionCreateRequest> requests = new ArrayList<>();
+            int totalRecordsToInsert = TransactionRepository.COPY_THRESHOLD + 10;
+
+            for (int i = 0; i < totalRecordsToInsert; i++) {
+                requests.add(TransactionCreateRequest.builder()
+                        .accountId(1L)
+                        .amount(new BigDecimal("10.50"))
+                        .transactionDate(OffsetDateTime.now(ZoneOffset.UTC))
+                        .description(i == 0 ? "Quoted, \"comma\" description" : "Copy Insert " + i)
+                        .type(TransactionType.EXPENSE.name())
+                        .build());
+            }
+
+            long beforeCount = transactionRepository.count();
+
+            // act
+            int inserted = transactionRepository.insertAll(requests);
+
+            // assert & verify
+            assertEquals(totalRecordsToInsert, inserted);
+            assertEquals(beforeCount + totalRecordsToInsert, transactionRepository.count());
+        }
+
+        @Test
+        @DisplayName("should skip already imported transactions on importAll")
+        void shouldSkipDuplicatesOnImportAll() {
+            // arrange
+            OffsetDateTime date = OffsetDateTime.of(2025, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+            TransactionCreateRequest first = TransactionCreateRequest.builder()
+                    .accountId(1L)
+                    .amount(new BigDecimal("12.34"))
+                    .transactionDate(date)
+                    .description("Import Once")
+                    .type(TransactionType.EXPENSE.name())
+                    .build();
+            TransactionCreateRequest second = first.toBuilder().description("Import Twice").build();
+
+            String firstSignature = TransactionRepository.signatureOf(first);
+            String secondSignature = TransactionRepository.signatureOf(second);
+
+            transactionRepository.insert(first);
+            long beforeCount = transactionRepository.count();
+
+            // act
+            Set<String> inserted = transactionRepository.importAll(Map.of(firstSignature, first, secondSignature, second));
+
+            // assert & verify
+            assertEquals(Set.of(secondSignature), inserted);
+            assertEquals(beforeCount + 1, transactionRepository.count());
+            assertEquals(Set.of(firstSignature, secondSignature),
+                    transactionRepository.findImportSignatures(1L, List.of(firstSignature, secondSignature)));
+        }
+
+        @Test
+        @DisplayName("should keep identical manual transactions on insertAll")
+        void shouldKeepIdenticalRowsOnInsertAll() {
+            // arrange
+            TransactionCreateRequest coffee = TransactionCreateRequest.builder()
+                    .accountId(1L)
+                    .amount(new BigDecimal("4.50"))
+                    .transactionDate(OffsetDateTime.of(2025, 3, 2, 8, 0, 0, 0, ZoneOffset.UTC))
+                    .description("Coffee")
+                    .type(TransactionType.EXPENSE.name())
+                    .build();
+            long beforeCount = transactionRepository.count();
+
+            // act
+            int inserted = transactionRepository.insertAll(List.of(coffee, coffee));
+
+            // assert & verify
+            assertEquals(2, inserted);
+            assertEquals(beforeCount + 2, transactionRepository.count());
+        }
+
         @Test
         @DisplayName("should handle empty list on insertAll without failing")
         void shouldHandleEmptyInsertAll() {
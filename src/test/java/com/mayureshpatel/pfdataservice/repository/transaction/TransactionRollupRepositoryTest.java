@@ -0,0 +1,136 @@
+package com.mayureshpatel.pfdataservice.repository.transaction;
+
+import com.mayureshpatel.pfdataservice.repository.BaseRepositoryTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Import(TransactionRollupRepository.class)
+@DisplayName("TransactionRollupRepository Integration Tests (PostgreSQL)")
+class TransactionRollupRepositoryTest extends BaseRepositoryTest {
+
+    @Autowired
+    private TransactionRollupRepository repository;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDate DAY = LocalDate.of(2026, 4, 2);
+
+    private BigDecimal rolledUpExpenses(LocalDate day) {
+        return jdbcClient.sql("""
+                        select coalesce(sum(total), 0)
+                        from transaction_daily_rollups
+                        where user_id = :userId and day = :day and type = 'EXPENSE'
+                        """)
+                .param("userId", USER_ID)
+                .param("day", day)
+                .query(BigDecimal.class)
+                .single();
+    }
+
+    @Nested
+    @DisplayName("Refresh Operations")
+    class RefreshTests {
+        @Test
+        @DisplayName("should roll up new transactions of the refreshed days")
+        void shouldRollUpNewTransactions() {
+            // Arrange
+            jdbcClient.sql("""
+                            insert into transactions (id, account_id, category_id, amount, date, description, type)
+                            values (3000, 1, 7, 20.00, '2026-04-02 09:00:00+00', 'Grocer', 'EXPENSE'),
+                                   (3001, 1, 7, 5.50, '2026-04-02 22:30:00+00', 'Grocer', 'EXPENSE')
+                            """)
+                    .update();
+
+            // Act
+            repository.refreshDates(USER_ID, List.of(OffsetDateTime.parse("2026-04-02T09:00:00Z")));
+
+            // Assert
+            assertEquals(0, new BigDecimal("25.50").compareTo(rolledUpExpenses(DAY)));
+        }
+
+        @Test
+        @DisplayName("should drop rollups of transactions deleted from the refreshed days")
+        void shouldDropDeletedTransactions() {
+            // Arrange
+            jdbcClient.sql("""
+                            insert into transactions (id, account_id, amount, date, description, type)
+                            values (3000, 1, 20.00, '2026-04-02 09:00:00+00', 'Grocer', 'EXPENSE')
+                            """)
+                    .update();
+            repository.refreshDays(USER_ID, Set.of(DAY));
+            jdbcClient.sql("update transactions set deleted_at = now() where id = 3000").update();
+
+            // Act
+            repository.refreshDays(USER_ID, Set.of(DAY));
+
+            // Assert
+            assertEquals(0, BigDecimal.ZERO.compareTo(rolledUpExpenses(DAY)));
+        }
+
+        @Test
+        @DisplayName("should leave days that were not refreshed untouched")
+        void shouldLeaveOtherDays() {
+            // Arrange
+            jdbcClient.sql("""
+                            insert into transactions (id, account_id, amount, date, description, type)
+                            values (3000, 1, 20.00, '2026-04-03 09:00:00+00', 'Grocer', 'EXPENSE')
+                            """)
+                    .update();
+
+            // Act
+            repository.refreshDays(USER_ID, Set.of(DAY));
+
+            // Assert
+            assertEquals(0, BigDecimal.ZERO.compareTo(rolledUpExpenses(DAY.plusDays(1))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Re-key Operations")
+    class RekeyTests {
+        @Test
+        @DisplayName("should fold rollups of a deleted category into the uncategorized rollups")
+        void shouldFoldDeletedCategory() {
+            // Arrange
+            jdbcClient.sql("insert into categories (id, user_id, name) values (900, 1, 'Temporary')").update();
+            jdbcClient.sql("""
+                            insert into transactions (id, account_id, category_id, amount, date, description, type)
+                            values (3000, 1, 900, 20.00, '2026-04-02 09:00:00+00', 'Grocer', 'EXPENSE'),
+                                   (3001, 1, null, 5.50, '2026-04-02 10:00:00+00', 'Grocer', 'EXPENSE')
+                            """)
+                    .update();
+            repository.refreshDays(USER_ID, Set.of(DAY));
+            jdbcClient.sql("delete from categories where id = 900").update();
+
+            // Act
+            repository.rekeyDeletedCategories(USER_ID);
+
+            // Assert
+            BigDecimal uncategorized = jdbcClient.sql("""
+                            select coalesce(sum(total), 0)
+                            from transaction_daily_rollups
+                            where user_id = :userId and day = :day and category_id is null
+                            """)
+                    .param("userId", USER_ID)
+                    .param("day", DAY)
+                    .query(BigDecimal.class)
+                    .single();
+            assertEquals(0, new BigDecimal("25.50").compareTo(uncategorized));
+            assertEquals(0, new BigDecimal("25.50").compareTo(rolledUpExpenses(DAY)));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.mayureshpatel.pfdataservice.repository.transaction.mapper;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
+import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionDetailRowMapper Unit Tests")
+class TransactionDetailRowMapperTest {
+
+    private static final String[] LABELS = {
+            "id", "account_id", "account_name", "category_id", "category_name",
+            "merchant_id", "merchant_clean_name", "amount", "type"
+    };
+
+    private final TransactionDetailRowMapper mapper = new TransactionDetailRowMapper();
+
+    @Test
+    @DisplayName("should share joined entities with the same id within a result set")
+    void shouldShareJoinedEntities() throws SQLException {
+        // Arrange
+        ResultSet rs = transactionResultSet();
+        when(rs.getLong(1)).thenReturn(100L, 101L);
+        when(rs.getLong(4)).thenReturn(7L, 7L, 8L, 8L);
+        when(rs.getString(5)).thenReturn("Groceries", "Dining Out");
+
+        // Act
+        Transaction first = mapper.mapRow(rs, 0);
+        Transaction second = mapper.mapRow(rs, 1);
+
+        // Assert
+        assertEquals(100L, first.getId());
+        assertEquals(101L, second.getId());
+        assertSame(first.getAccount(), second.getAccount());
+        assertSame(first.getMerchant(), second.getMerchant());
+        assertNotSame(first.getCategory(), second.getCategory());
+        assertEquals("Checking", second.getAccount().getName());
+        assertEquals("Dining Out", second.getCategory().getName());
+        verify(rs, times(1)).getString(3);
+        verify(rs, times(1)).getString(7);
+    }
+
+    @Test
+    @DisplayName("should not share joined entities across result sets")
+    void shouldNotShareAcrossResultSets() throws SQLException {
+        // Arrange
+        ResultSet firstQuery = transactionResultSet();
+        when(firstQuery.getLong(1)).thenReturn(100L);
+        when(firstQuery.getLong(4)).thenReturn(7L);
+        when(firstQuery.getString(5)).thenReturn("Groceries");
+
+        ResultSet secondQuery = transactionResultSet();
+        when(secondQuery.getLong(1)).thenReturn(100L);
+        when(secondQuery.getLong(4)).thenReturn(7L);
+        when(secondQuery.getString(5)).thenReturn("Groceries");
+
+        // Act
+        Transaction first = mapper.mapRow(firstQuery, 0);
+        Transaction second = mapper.mapRow(secondQuery, 0);
+
+        // Assert
+        assertEquals(first.getAccount(), second.getAccount());
+        assertNotSame(first.getAccount(), second.getAccount());
+        assertNotSame(first.getCategory(), second.getCategory());
+    }
+
+    private static ResultSet transactionResultSet() throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(LABELS.length);
+        for (int i = 0; i < LABELS.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(LABELS[i]);
+        }
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(rs.getLong(2)).thenReturn(1L);
+        when(rs.getString(3)).thenReturn("Checking");
+        when(rs.getLong(6)).thenReturn(3L);
+        when(rs.getString(7)).thenReturn("Cafe");
+        when(rs.getBigDecimal(8)).thenReturn(new BigDecimal("12.50"));
+        when(rs.getString(9)).thenReturn(TransactionType.EXPENSE.name());
+        return rs;
+    }
+}
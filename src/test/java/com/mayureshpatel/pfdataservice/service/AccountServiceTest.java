@@ -10,6 +10,7 @@ import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCreateRequest;
 import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.repository.account.AccountRepository;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
 import com.mayureshpatel.pfdataservice.repository.user.UserRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -35,6 +36,7 @@ class AccountServiceTest {
     @Mock private AccountRepository accountRepository;
     @Mock private UserRepository userRepository;
     @Mock private TransactionRepository transactionRepository;
+    @Mock private TransactionRollupRepository transactionRollupRepository;
 
     @InjectMocks private AccountService accountService;
 
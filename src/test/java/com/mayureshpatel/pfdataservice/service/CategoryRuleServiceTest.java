@@ -2,19 +2,18 @@ package com.mayureshpatel.pfdataservice.service;
 
 import com.mayureshpatel.pfdataservice.domain.category.Category;
 import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
-import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
-import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
 import com.mayureshpatel.pfdataservice.domain.user.User;
-import com.mayureshpatel.pfdataservice.dto.RuleChangePreviewDto;
+import com.mayureshpatel.pfdataservice.dto.RuleApplyPreviewDto;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleCreateRequest;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleDto;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryRuleUpdateRequest;
 import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
 import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository;
-import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository.AppliedRules;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
 import com.mayureshpatel.pfdataservice.repository.user.UserRepository;
-import com.mayureshpatel.pfdataservice.service.categorization.TransactionCategorizer;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationContextCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -24,8 +23,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,11 +42,11 @@ class CategoryRuleServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private TransactionRepository transactionRepository;
+    private CategoryRepository categoryRepository;
     @Mock
-    private TransactionCategorizer categorizer;
+    private CategorizationContextCache categorizationContextCache;
     @Mock
-    private CategoryRepository categoryRepository;
+    private TransactionRollupRepository transactionRollupRepository;
 
     @InjectMocks
     private CategoryRuleService ruleService;
@@ -98,6 +100,7 @@ class CategoryRuleServiceTest {
             // Assert
             assertEquals(1, result);
             verify(categoryRuleRepository).insert(argThat(r -> r.getKeyword().equals("Amazon")));
+            verify(categorizationContextCache).evict(USER_ID);
         }
 
         @Test
@@ -171,6 +174,7 @@ class CategoryRuleServiceTest {
             // Assert
             assertEquals(1, result);
             verify(categoryRuleRepository).update(argThat(r -> r.getKeyword().equals("NewKW") && r.getPriority() == 5));
+            verify(categorizationContextCache).evict(USER_ID);
         }
 
         @Test
@@ -223,6 +227,7 @@ class CategoryRuleServiceTest {
 
             // Assert
             verify(categoryRuleRepository).deleteById(RULE_ID, USER_ID);
+            verify(categorizationContextCache).evict(USER_ID);
         }
 
         @Test
@@ -247,69 +252,60 @@ class CategoryRuleServiceTest {
     @DisplayName("previewApply")
     class PreviewApplyTests {
         @Test
-        @DisplayName("should return previews for uncategorized transactions matching rules")
-        void shouldReturnPreviews() {
+        @DisplayName("should return the first page with category totals and a cursor")
+        void shouldReturnFirstPage() {
             // Arrange
-            Transaction t1 = Transaction.builder().description("Amazon").category(null).type(TransactionType.EXPENSE).build();
-            Transaction tAlready = Transaction.builder().description("AlreadyCat").category(Category.builder().build()).build();
-            Category targetCat = Category.builder().id(CATEGORY_ID).name("Shopping").build();
-
-            when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of());
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(targetCat));
-            when(transactionRepository.findByUserId(USER_ID)).thenReturn(List.of(t1, tAlready));
-            when(categorizer.guessCategory(eq(t1), anyList(), anyList())).thenReturn(CATEGORY_ID);
+            when(categoryRuleRepository.findUncategorizedMatches(USER_ID, 0L, 3)).thenReturn(List.of(
+                    new CategoryRuleRepository.RuleMatch(11L, "Amazon", CATEGORY_ID, "Shopping"),
+                    new CategoryRuleRepository.RuleMatch(12L, "Amazon Prime", CATEGORY_ID, "Shopping"),
+                    new CategoryRuleRepository.RuleMatch(15L, "Shell", 20L, "Gas")));
+            List<RuleApplyPreviewDto.CategoryCount> counts = List.of(
+                    new RuleApplyPreviewDto.CategoryCount(CATEGORY_ID, "Shopping", 40L),
+                    new RuleApplyPreviewDto.CategoryCount(20L, "Gas", 7L));
+            when(categoryRuleRepository.countUncategorizedMatchesByCategory(USER_ID)).thenReturn(counts);
 
             // Act
-            List<RuleChangePreviewDto> result = ruleService.previewApply(USER_ID);
+            RuleApplyPreviewDto result = ruleService.previewApply(USER_ID, null, 2);
 
             // Assert
-            assertEquals(1, result.size());
-            assertEquals("Amazon", result.get(0).description());
-            assertEquals("Shopping", result.get(0).newValue());
+            assertEquals(2, result.changes().size());
+            assertEquals("Amazon", result.changes().get(0).description());
+            assertEquals("Uncategorized", result.changes().get(0).oldValue());
+            assertEquals("Shopping", result.changes().get(0).newValue());
+            assertEquals(counts, result.countsByCategory());
+            assertEquals(12L, result.nextCursor());
         }
 
         @Test
-        @DisplayName("should handle null guess or missing category in map")
-        void shouldHandleNoMatch() {
+        @DisplayName("should continue after the cursor without recounting")
+        void shouldReturnLastPage() {
             // Arrange
-            Transaction t1 = Transaction.builder().description("Unknown").category(null).type(TransactionType.EXPENSE).build();
-            when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of());
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of());
-            when(transactionRepository.findByUserId(USER_ID)).thenReturn(List.of(t1));
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(null);
+            when(categoryRuleRepository.findUncategorizedMatches(USER_ID, 12L, 3)).thenReturn(List.of(
+                    new CategoryRuleRepository.RuleMatch(15L, "Shell", 20L, "Gas")));
 
             // Act
-            List<RuleChangePreviewDto> result = ruleService.previewApply(USER_ID);
+            RuleApplyPreviewDto result = ruleService.previewApply(USER_ID, 12L, 2);
 
             // Assert
-            assertTrue(result.isEmpty());
-
-            // Case: Guessed ID not in category map
-            reset(categorizer);
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(999L);
-            result = ruleService.previewApply(USER_ID);
-            assertTrue(result.isEmpty());
+            assertEquals(1, result.changes().size());
+            assertEquals("Gas", result.changes().get(0).newValue());
+            assertNull(result.countsByCategory());
+            assertNull(result.nextCursor());
+            verify(categoryRuleRepository, never()).countUncategorizedMatchesByCategory(USER_ID);
         }
 
         @Test
-        @DisplayName("should handle duplicate categories in map merge")
-        void shouldHandleDuplicateCategories() {
+        @DisplayName("should clamp the page size")
+        void shouldClampPageSize() {
             // Arrange
-            Transaction t1 = Transaction.builder().description("Target").category(null).type(TransactionType.EXPENSE).build();
-            Category c1 = Category.builder().id(CATEGORY_ID).name("Cat1").build();
-            Category c2 = Category.builder().id(CATEGORY_ID).name("Cat2").build();
-
-            when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of());
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(c1, c2));
-            when(transactionRepository.findByUserId(USER_ID)).thenReturn(List.of(t1));
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(CATEGORY_ID);
+            when(categoryRuleRepository.findUncategorizedMatches(eq(USER_ID), eq(0L), anyInt())).thenReturn(List.of());
 
             // Act
-            List<RuleChangePreviewDto> result = ruleService.previewApply(USER_ID);
+            RuleApplyPreviewDto result = ruleService.previewApply(USER_ID, null, 100_000);
 
             // Assert
-            assertEquals(1, result.size());
-            assertEquals("Cat1", result.get(0).newValue());
+            assertTrue(result.changes().isEmpty());
+            verify(categoryRuleRepository).findUncategorizedMatches(USER_ID, 0L, CategoryRuleService.MAX_PREVIEW_PAGE_SIZE + 1);
         }
     }
 
@@ -317,79 +313,32 @@ class CategoryRuleServiceTest {
     @DisplayName("applyRules")
     class ApplyRulesTests {
         @Test
-        @DisplayName("should apply matching categories to transactions and persist")
+        @DisplayName("should apply rules in the database and return counts per rule")
         void shouldApplyRules() {
             // Arrange
-            Transaction t1 = Transaction.builder().id(1L).description("Target").category(null).type(TransactionType.EXPENSE).build();
-            Transaction tAlready = Transaction.builder().id(2L).description("Already").category(Category.builder().id(10L).build()).type(TransactionType.EXPENSE).build();
-            Category targetCat = Category.builder().id(CATEGORY_ID).build();
-
-            when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of());
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(targetCat));
-            when(transactionRepository.findByUserId(USER_ID)).thenReturn(List.of(t1, tAlready));
-            when(categorizer.guessCategory(eq(t1), anyList(), anyList())).thenReturn(CATEGORY_ID);
+            Set<LocalDate> days = Set.of(LocalDate.of(2026, 3, 4));
+            when(categoryRuleRepository.applyToUncategorized(USER_ID))
+                    .thenReturn(new AppliedRules(Map.of(1L, 3, 2L, 1), days));
 
             // Act
-            int result = ruleService.applyRules(USER_ID);
+            Map<Long, Integer> result = ruleService.applyRules(USER_ID);
 
             // Assert
-            assertEquals(1, result);
-            verify(transactionRepository).updateAll(eq(USER_ID), argThat(list -> list.size() == 1 && list.get(0).getCategory().getId().equals(CATEGORY_ID)));
+            assertEquals(Map.of(1L, 3, 2L, 1), result);
+            verify(transactionRollupRepository).refreshDays(USER_ID, days);
         }
 
         @Test
-        @DisplayName("should skip transaction if guess is null or category not in map during apply")
-        void shouldSkipOnNoMatch() {
-            // Arrange
-            Transaction t1 = Transaction.builder().id(1L).description("Target").category(null).type(TransactionType.EXPENSE).build();
-            when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of());
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of());
-            when(transactionRepository.findByUserId(USER_ID)).thenReturn(List.of(t1));
-
-            // Case 1: guess is null
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(null);
-            assertEquals(0, ruleService.applyRules(USER_ID));
-
-            // Case 2: matched category is null
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(999L);
-            assertEquals(0, ruleService.applyRules(USER_ID));
-
-            verify(transactionRepository, never()).updateAll(eq(USER_ID), anyList());
-        }
-
-        @Test
-        @DisplayName("should handle duplicate categories in applyRules map merge")
-        void shouldHandleDuplicateCategoriesInApply() {
-            // Arrange
-            Transaction t1 = Transaction.builder().id(1L).description("Target").category(null).type(TransactionType.EXPENSE).build();
-            Category c1 = Category.builder().id(CATEGORY_ID).name("Cat1").build();
-            Category c2 = Category.builder().id(CATEGORY_ID).name("Cat2").build();
-
-            when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of());
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(c1, c2));
-            when(transactionRepository.findByUserId(USER_ID)).thenReturn(List.of(t1));
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(CATEGORY_ID);
-
-            // Act
-            int result = ruleService.applyRules(USER_ID);
-
-            // Assert
-            assertEquals(1, result);
-            verify(transactionRepository).updateAll(eq(USER_ID), anyList());
-        }
-
-        @Test
-        @DisplayName("should return 0 and not call updateAll if no matches")
+        @DisplayName("should return empty counts if no rules match")
         void shouldHandleNoUpdates() {
             // Arrange
-            when(transactionRepository.findByUserId(USER_ID)).thenReturn(List.of());
+            when(categoryRuleRepository.applyToUncategorized(USER_ID)).thenReturn(new AppliedRules(Map.of(), Set.of()));
 
             // Act
-            int result = ruleService.applyRules(USER_ID);
+            Map<Long, Integer> result = ruleService.applyRules(USER_ID);
 
             // Assert
-            assertEquals(0, result);
-            verify(transactionRepository, never()).updateAll(eq(USER_ID), anyList());
+            assertTrue(result.isEmpty());
         }
     }
 }
@@ -8,7 +8,9 @@ import com.mayureshpatel.pfdataservice.dto.category.CategoryUpdateRequest;
 import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
 import com.mayureshpatel.pfdataservice.repository.user.UserRepository;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationContextCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -37,6 +39,10 @@ class CategoryServiceTest {
     private UserRepository userRepository;
     @Mock
     private TransactionRepository transactionRepository;
+    @Mock
+    private TransactionRollupRepository transactionRollupRepository;
+    @Mock
+    private CategorizationContextCache categorizationContextCache;
 
     @InjectMocks
     private CategoryService categoryService;
@@ -82,6 +88,7 @@ class CategoryServiceTest {
             // Assert
             assertEquals(1, result);
             verify(categoryRepository).insert(any(CategoryCreateRequest.class));
+            verify(categorizationContextCache).evict(USER_ID);
         }
 
         @Test
@@ -181,6 +188,7 @@ class CategoryServiceTest {
             // Assert
             assertEquals(1, result);
             verify(categoryRepository).update(any(CategoryUpdateRequest.class));
+            verify(categorizationContextCache).evict(USER_ID);
         }
 
         @Test
@@ -299,6 +307,8 @@ class CategoryServiceTest {
             // Assert
             assertEquals(1, result);
             verify(categoryRepository).delete(category);
+            verify(transactionRollupRepository).rekeyDeletedCategories(USER_ID);
+            verify(categorizationContextCache).evict(USER_ID);
         }
 
         @Test
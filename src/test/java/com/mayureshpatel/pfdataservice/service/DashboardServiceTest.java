@@ -5,9 +5,11 @@ import com.mayureshpatel.pfdataservice.dto.category.CategoryBreakdownDto;
 import com.mayureshpatel.pfdataservice.dto.category.CategoryDto;
 import com.mayureshpatel.pfdataservice.dto.dashboard.*;
 import com.mayureshpatel.pfdataservice.dto.merchant.MerchantBreakdownDto;
-import com.mayureshpatel.pfdataservice.dto.transaction.TransferSuggestionDto;
+import com.mayureshpatel.pfdataservice.service.transfer.TransferSuggestionService;
 import com.mayureshpatel.pfdataservice.repository.merchant.MerchantRepository;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository.DashboardTotals;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository.PeriodTotals;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -18,7 +20,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
-import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,7 +32,7 @@ class DashboardServiceTest {
 
     @Mock private TransactionRepository transactionRepository;
     @Mock private MerchantRepository merchantRepository;
-    @Mock private TransactionService transactionService;
+    @Mock private TransferSuggestionService transferSuggestionService;
 
     @InjectMocks private DashboardService dashboardService;
 
@@ -44,12 +45,10 @@ class DashboardServiceTest {
         @DisplayName("should aggregate income, expense and category breakdown")
         void shouldReturnDashboardData() {
             // Arrange
-            when(transactionRepository.getSumByDateRange(eq(USER_ID), any(), any(), eq(TransactionType.INCOME))).thenReturn(new BigDecimal("5000.00"));
-            when(transactionRepository.getSumByDateRange(eq(USER_ID), any(), any(), eq(TransactionType.EXPENSE))).thenReturn(new BigDecimal("3000.00"));
-            
             CategoryDto catDto = CategoryDto.builder().name("Food").build();
-            when(transactionRepository.findCategoryTotals(eq(USER_ID), any(), any()))
-                    .thenReturn(List.of(new CategoryBreakdownDto(catDto, new BigDecimal("500.00"))));
+            when(transactionRepository.findDashboardTotals(eq(USER_ID), any(), any()))
+                    .thenReturn(new DashboardTotals(new BigDecimal("5000.00"), new BigDecimal("3000.00"),
+                            List.of(new CategoryBreakdownDto(catDto, new BigDecimal("500.00")))));
 
             // Act
             DashboardData result = dashboardService.getDashboardData(USER_ID, 3, 2026);
@@ -59,6 +58,7 @@ class DashboardServiceTest {
             assertEquals(new BigDecimal("3000.00"), result.totalExpense());
             assertEquals(new BigDecimal("2000.00"), result.netSavings());
             assertEquals(1, result.categoryBreakdown().size());
+            verify(transactionRepository, never()).getSumByDateRange(anyLong(), any(), any(), any());
         }
     }
 
@@ -105,8 +105,9 @@ class DashboardServiceTest {
         @DisplayName("should calculate savings rate and handle zero income")
         void shouldCalculatePulse() {
             // Arrange
-            when(transactionRepository.getSumByDateRange(eq(USER_ID), any(), any(), eq(TransactionType.INCOME))).thenReturn(new BigDecimal("1000.00"), new BigDecimal("0.00"));
-            when(transactionRepository.getSumByDateRange(eq(USER_ID), any(), any(), eq(TransactionType.EXPENSE))).thenReturn(new BigDecimal("500.00"), new BigDecimal("200.00"));
+            when(transactionRepository.getPeriodTotals(eq(USER_ID), any(), any(), any(), any()))
+                    .thenReturn(new PeriodTotals(new BigDecimal("1000.00"), new BigDecimal("500.00"),
+                            new BigDecimal("0.00"), new BigDecimal("200.00")));
 
             // Act
             DashboardPulseDto result = dashboardService.getPulse(USER_ID, 3, 2026);
@@ -120,14 +121,18 @@ class DashboardServiceTest {
         @DisplayName("should calculate pulse for arbitrary date range")
         void shouldCalculatePulseForRange() {
             // Arrange
-            when(transactionRepository.getSumByDateRange(anyLong(), any(), any(), any())).thenReturn(BigDecimal.TEN);
+            OffsetDateTime end = OffsetDateTime.now();
+            OffsetDateTime start = end.minusDays(10);
+            when(transactionRepository.getPeriodTotals(anyLong(), any(), any(), any(), any()))
+                    .thenReturn(new PeriodTotals(BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN));
 
             // Act
-            DashboardPulseDto result = dashboardService.getPulse(USER_ID, OffsetDateTime.now().minusDays(10), OffsetDateTime.now());
+            DashboardPulseDto result = dashboardService.getPulse(USER_ID, start, end);
 
             // Assert
             assertNotNull(result);
-            verify(transactionRepository, times(4)).getSumByDateRange(anyLong(), any(), any(), any());
+            verify(transactionRepository).getPeriodTotals(USER_ID, start, end, start.minusDays(11), end.minusDays(1));
+            verify(transactionRepository, never()).getSumByDateRange(anyLong(), any(), any(), any());
         }
     }
 
@@ -225,7 +230,7 @@ class DashboardServiceTest {
         @DisplayName("should include transfer and uncategorized review actions")
         void shouldReturnActions() {
             // Arrange
-            when(transactionService.findPotentialTransfers(USER_ID)).thenReturn(List.of(new TransferSuggestionDto(null, null, 0.9)));
+            when(transferSuggestionService.countSuggestions(USER_ID)).thenReturn(1L);
             when(transactionRepository.getUncategorizedExpenseTotals(USER_ID)).thenReturn(new BigDecimal("150.00"));
 
             // Act
@@ -241,7 +246,7 @@ class DashboardServiceTest {
         @DisplayName("should return empty list if no actions needed")
         void shouldReturnEmpty() {
             // Arrange
-            when(transactionService.findPotentialTransfers(USER_ID)).thenReturn(Collections.emptyList());
+            when(transferSuggestionService.countSuggestions(USER_ID)).thenReturn(0L);
             when(transactionRepository.getUncategorizedExpenseTotals(USER_ID)).thenReturn(BigDecimal.ZERO);
 
             // Act
@@ -0,0 +1,228 @@
+package com.mayureshpatel.pfdataservice.service;
+
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportJob;
+import com.mayureshpatel.pfdataservice.dto.transaction.SaveTransactionRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionPreviewDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.AccountSaveResultDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.ImportJobDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.StagedImportDto;
+import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
+import com.mayureshpatel.pfdataservice.exception.DuplicateImportException;
+import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.ImportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportJobService Unit Tests")
+class ImportJobServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long ACCOUNT_ID = 10L;
+    private static final Long JOB_ID = 7L;
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+    @Mock
+    private TransactionImportService transactionImportService;
+
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    void setUp() {
+        importJobService = new ImportJobService(importJobRepository, transactionImportService, new SyncTaskExecutor(), new SyncTaskExecutor());
+        lenient().when(importJobRepository.insert(any(ImportJob.class))).thenReturn(JOB_ID);
+    }
+
+    private static Path spool() throws IOException {
+        Path content = Files.createTempFile("import-", ".upload");
+        Files.writeString(content, "date,description,amount");
+        return content;
+    }
+
+    private void stubStoredJob(ImportJob.Type type, ImportJob.Status status) {
+        when(importJobRepository.findByIdAndUserId(JOB_ID, USER_ID)).thenReturn(Optional.of(ImportJob.builder()
+                .id(JOB_ID).userId(USER_ID).accountId(ACCOUNT_ID).type(type).status(status).build()));
+    }
+
+    @Test
+    @DisplayName("should run a save job and record the saved count")
+    void shouldRunSaveJob() {
+        // Arrange
+        SaveTransactionRequest request = new SaveTransactionRequest(
+                List.of(TransactionDto.builder().build(), TransactionDto.builder().build()), "jan.csv", "hash", ACCOUNT_ID);
+        when(transactionImportService.saveTransactions(USER_ID, ACCOUNT_ID, request.transactions(), "jan.csv", "hash")).thenReturn(1);
+        stubStoredJob(ImportJob.Type.SAVE, ImportJob.Status.SUCCEEDED);
+
+        // Act
+        ImportJobDto job = importJobService.submitSave(USER_ID, ACCOUNT_ID, request);
+
+        // Assert
+        assertEquals(JOB_ID, job.id());
+        verify(importJobRepository).insert(argThat(j -> j.getType() == ImportJob.Type.SAVE && j.getTotalRows() == 2));
+        verify(importJobRepository).markRunning(JOB_ID);
+        verify(importJobRepository).markSucceeded(JOB_ID, 2, 1, null);
+    }
+
+    @Test
+    @DisplayName("should stage preview rows and page them by the job's staging token")
+    void shouldServePreviewRows() throws IOException {
+        // Arrange
+        Path content = spool();
+        UUID token = UUID.randomUUID();
+        TransactionPreviewDto row = TransactionPreviewDto.builder().description("Coffee").build();
+        when(transactionImportService.stageTransactions(eq(USER_ID), eq(ACCOUNT_ID), eq("CAPITAL_ONE"), any(InputStream.class),
+                eq("jan.csv"), eq("hash"), any(IntConsumer.class))).thenAnswer(invocation -> {
+            invocation.<IntConsumer>getArgument(6).accept(1);
+            return StagedImportDto.builder().token(token).rowCount(1).build();
+        });
+        when(importJobRepository.findByIdAndUserId(JOB_ID, USER_ID)).thenReturn(Optional.of(ImportJob.builder()
+                .id(JOB_ID).userId(USER_ID).accountId(ACCOUNT_ID).type(ImportJob.Type.PREVIEW)
+                .status(ImportJob.Status.SUCCEEDED).stagingToken(token).build()));
+        when(transactionImportService.getStagedRows(USER_ID, ACCOUNT_ID, token, 0, 500)).thenReturn(List.of(row));
+
+        // Act
+        importJobService.submitPreview(USER_ID, ACCOUNT_ID, "CAPITAL_ONE", content, "jan.csv", "hash");
+
+        // Assert
+        verify(importJobRepository).markSucceeded(JOB_ID, 1, null, token);
+        assertEquals(List.of(row), importJobService.getPreview(USER_ID, ACCOUNT_ID, JOB_ID, 0, 500));
+        assertFalse(Files.exists(content));
+    }
+
+    @Test
+    @DisplayName("should mark the job failed with the parser's message")
+    void shouldRecordFailure() throws IOException {
+        // Arrange
+        Path content = spool();
+        when(transactionImportService.stageTransactions(anyLong(), anyLong(), anyString(), any(InputStream.class),
+                anyString(), anyString(), any(IntConsumer.class))).thenThrow(new CsvParsingException("Failed to parse rows 1-2"));
+        stubStoredJob(ImportJob.Type.PREVIEW, ImportJob.Status.FAILED);
+
+        // Act
+        importJobService.submitPreview(USER_ID, ACCOUNT_ID, "CAPITAL_ONE", content, "jan.csv", "hash");
+
+        // Assert
+        verify(importJobRepository).markFailed(JOB_ID, 0, "Failed to parse rows 1-2");
+        assertThrows(ResourceNotFoundException.class, () -> importJobService.getPreview(USER_ID, ACCOUNT_ID, JOB_ID, 0, 500));
+        assertFalse(Files.exists(content));
+    }
+
+    @Test
+    @DisplayName("should delete the spooled upload when the preview cannot be queued")
+    void shouldDeleteUploadWhenRejected() throws IOException {
+        // Arrange
+        Path content = spool();
+        TaskExecutor full = task -> {
+            throw new TaskRejectedException("full");
+        };
+        importJobService = new ImportJobService(importJobRepository, transactionImportService, full, new SyncTaskExecutor());
+
+        // Act & Assert
+        assertThrows(TaskRejectedException.class,
+                () -> importJobService.submitPreview(USER_ID, ACCOUNT_ID, "CAPITAL_ONE", content, "jan.csv", "hash"));
+        assertFalse(Files.exists(content));
+    }
+
+    @Test
+    @DisplayName("should fail the jobs a restart interrupted")
+    void shouldFailInterruptedJobs() {
+        // Act
+        importJobService.failInterruptedJobs();
+
+        // Assert
+        verify(importJobRepository).failUnfinished(argThat(t -> !t.isAfter(OffsetDateTime.now())),
+                eq(ImportJobService.INTERRUPTED_MESSAGE));
+    }
+
+    @Test
+    @DisplayName("should fail the job and rethrow when the executor is full")
+    void shouldRejectWhenFull() {
+        // Arrange
+        TaskExecutor full = task -> {
+            throw new TaskRejectedException("full");
+        };
+        importJobService = new ImportJobService(importJobRepository, transactionImportService, full, new SyncTaskExecutor());
+        SaveTransactionRequest request = new SaveTransactionRequest(List.of(TransactionDto.builder().build()), "jan.csv", "hash", ACCOUNT_ID);
+
+        // Act & Assert
+        assertThrows(TaskRejectedException.class, () -> importJobService.submitSave(USER_ID, ACCOUNT_ID, request));
+        verify(importJobRepository).markFailed(eq(JOB_ID), eq(0), anyString());
+        verifyNoInteractions(transactionImportService);
+    }
+
+    @Test
+    @DisplayName("should not expose a job under another account")
+    void shouldHideJobFromOtherAccount() {
+        // Arrange
+        stubStoredJob(ImportJob.Type.SAVE, ImportJob.Status.RUNNING);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> importJobService.getJob(USER_ID, 99L, JOB_ID));
+    }
+
+    @Test
+    @DisplayName("should save each account on its own and report per-account results")
+    void shouldSaveByAccount() {
+        // Arrange
+        OffsetDateTime now = OffsetDateTime.now();
+        SaveTransactionRequest first = new SaveTransactionRequest(List.of(TransactionDto.builder().build()), "a.csv", "a", ACCOUNT_ID);
+        SaveTransactionRequest second = new SaveTransactionRequest(List.of(TransactionDto.builder().build()), "b.csv", "b", ACCOUNT_ID);
+        SaveTransactionRequest other = new SaveTransactionRequest(List.of(TransactionDto.builder().build()), "c.csv", "c", 20L);
+        when(transactionImportService.saveAccountTransactions(USER_ID, ACCOUNT_ID, List.of(first, second)))
+                .thenReturn(new TransactionImportService.AccountImport(ACCOUNT_ID, 3, 1, List.of(now)));
+        when(transactionImportService.saveAccountTransactions(USER_ID, 20L, List.of(other)))
+                .thenThrow(new DuplicateImportException("This file has already been imported."));
+
+        // Act
+        List<AccountSaveResultDto> results = importJobService.saveByAccount(USER_ID, List.of(first, other, second));
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals(new AccountSaveResultDto(ACCOUNT_ID, true, 3, 1, null), results.get(0));
+        assertEquals(new AccountSaveResultDto(20L, false, 0, 0, "This file has already been imported."), results.get(1));
+        verify(transactionImportService).refreshDerived(USER_ID, List.of(now));
+    }
+
+    @Test
+    @DisplayName("should save accounts on the bulk save executor, not the import executor")
+    void shouldSaveByAccountOnBulkSaveExecutor() {
+        // Arrange
+        TaskExecutor full = task -> {
+            throw new TaskRejectedException("full");
+        };
+        importJobService = new ImportJobService(importJobRepository, transactionImportService, full, new SyncTaskExecutor());
+        SaveTransactionRequest request = new SaveTransactionRequest(List.of(TransactionDto.builder().build()), "a.csv", "a", ACCOUNT_ID);
+        when(transactionImportService.saveAccountTransactions(USER_ID, ACCOUNT_ID, List.of(request)))
+                .thenReturn(new TransactionImportService.AccountImport(ACCOUNT_ID, 1, 0, List.of()));
+
+        // Act
+        List<AccountSaveResultDto> results = importJobService.saveByAccount(USER_ID, List.of(request));
+
+        // Assert
+        assertTrue(results.get(0).succeeded());
+        assertEquals(1, results.get(0).savedCount());
+    }
+}
@@ -0,0 +1,69 @@
+package com.mayureshpatel.pfdataservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MerchantIdCache Unit Tests")
+class MerchantIdCacheTest {
+
+    private static final Long USER_ID = 1L;
+
+    private final MerchantIdCache cache = new MerchantIdCache();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("should return cached ids per user")
+    void shouldCachePerUser() {
+        // Act
+        cache.putAll(USER_ID, Map.of("COFFEE", 7L, "BAKERY", 8L));
+
+        // Assert
+        assertEquals(7L, cache.get(USER_ID, "COFFEE"));
+        assertNull(cache.get(2L, "COFFEE"));
+        assertEquals(Map.of("BAKERY", 8L), cache.getAll(USER_ID, List.of("BAKERY", "UNKNOWN")));
+    }
+
+    @Test
+    @DisplayName("should only cache ids written in a transaction after it commits")
+    void shouldDeferUntilCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cache.put(USER_ID, "COFFEE", 7L);
+
+        // Assert
+        assertNull(cache.get(USER_ID, "COFFEE"));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(7L, cache.get(USER_ID, "COFFEE"));
+    }
+
+    @Test
+    @DisplayName("should drop every entry of an evicted merchant")
+    void shouldEvictMerchant() {
+        // Arrange
+        cache.putAll(USER_ID, Map.of("COFFEE", 7L, "COFFEE #2", 7L, "BAKERY", 8L));
+
+        // Act
+        cache.evictMerchant(7L);
+
+        // Assert
+        assertNull(cache.get(USER_ID, "COFFEE"));
+        assertNull(cache.get(USER_ID, "COFFEE #2"));
+        assertEquals(8L, cache.get(USER_ID, "BAKERY"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.mayureshpatel.pfdataservice.service;
+
+import com.mayureshpatel.pfdataservice.domain.merchant.Merchant;
+import com.mayureshpatel.pfdataservice.dto.merchant.MerchantUpdateRequest;
+import com.mayureshpatel.pfdataservice.repository.merchant.MerchantRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MerchantService Unit Tests")
+class MerchantServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private MerchantRepository merchantRepository;
+    @Mock
+    private TransactionRollupRepository transactionRollupRepository;
+
+    private MerchantIdCache merchantIdCache;
+    private MerchantService merchantService;
+
+    @BeforeEach
+    void setUp() {
+        merchantIdCache = new MerchantIdCache();
+        merchantService = new MerchantService(merchantRepository, merchantIdCache, transactionRollupRepository);
+    }
+
+    @Nested
+    @DisplayName("findOrCreateMerchant")
+    class FindOrCreateMerchantTests {
+        @Test
+        @DisplayName("should look a description up once and serve repeats from the cache")
+        void shouldCacheLookup() {
+            // Arrange
+            when(merchantRepository.findByOriginalNameAndUserId("COFFEE", USER_ID))
+                    .thenReturn(Optional.of(Merchant.builder().id(7L).build()));
+
+            // Act
+            Long first = merchantService.findOrCreateMerchant(USER_ID, "COFFEE");
+            Long second = merchantService.findOrCreateMerchant(USER_ID, "COFFEE");
+
+            // Assert
+            assertEquals(7L, first);
+            assertEquals(7L, second);
+            verify(merchantRepository, times(1)).findByOriginalNameAndUserId("COFFEE", USER_ID);
+        }
+    }
+
+    @Nested
+    @DisplayName("findOrCreateMerchants")
+    class FindOrCreateMerchantsTests {
+        @Test
+        @DisplayName("should only query and create the descriptions missing from the cache")
+        void shouldSkipCachedDescriptions() {
+            // Arrange
+            merchantIdCache.put(USER_ID, "COFFEE", 7L);
+            when(merchantRepository.findAllByOriginalNamesAndUserId(List.of("BAKERY", "GYM"), USER_ID))
+                    .thenReturn(List.of(Merchant.builder().id(8L).originalName("BAKERY").build()));
+            when(merchantRepository.insertAllAndReturn(argThat(list -> list.size() == 1
+                    && list.get(0).getOriginalName().equals("GYM"))))
+                    .thenReturn(List.of(Merchant.builder().id(9L).originalName("GYM").build()));
+
+            // Act
+            Map<String, Long> result = merchantService.findOrCreateMerchants(USER_ID, List.of("COFFEE", "BAKERY", "GYM", "COFFEE"));
+
+            // Assert
+            assertEquals(Map.of("COFFEE", 7L, "BAKERY", 8L, "GYM", 9L), result);
+            assertEquals(9L, merchantIdCache.get(USER_ID, "GYM"));
+        }
+
+        @Test
+        @DisplayName("should not touch the repository when every description is cached")
+        void shouldServeFromCache() {
+            // Arrange
+            merchantIdCache.put(USER_ID, "COFFEE", 7L);
+
+            // Act
+            Map<String, Long> result = merchantService.findOrCreateMerchants(USER_ID, List.of("COFFEE"));
+
+            // Assert
+            assertEquals(Map.of("COFFEE", 7L), result);
+            verifyNoInteractions(merchantRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("updateMerchant / deleteMerchant")
+    class WriteTests {
+        @Test
+        @DisplayName("should evict the merchant after deleting it")
+        void shouldEvictOnDelete() {
+            // Arrange
+            merchantIdCache.put(USER_ID, "COFFEE", 7L);
+            when(merchantRepository.findById(7L)).thenReturn(Optional.of(Merchant.builder().id(7L).userId(USER_ID).build()));
+            when(merchantRepository.delete(7L)).thenReturn(1);
+
+            // Act
+            int deleted = merchantService.deleteMerchant(USER_ID, 7L);
+
+            // Assert
+            assertEquals(1, deleted);
+            assertNull(merchantIdCache.get(USER_ID, "COFFEE"));
+            verify(transactionRollupRepository).rekeyMerchant(USER_ID, 7L);
+        }
+
+        @Test
+        @DisplayName("should reject updates to another user's merchant")
+        void shouldRejectForeignMerchant() {
+            // Arrange
+            when(merchantRepository.findById(1L)).thenReturn(Optional.of(Merchant.builder().id(1L).userId(null).build()));
+            MerchantUpdateRequest request = new MerchantUpdateRequest(1L, "Whole Foods");
+
+            // Act & Assert
+            assertThrows(AccessDeniedException.class, () -> merchantService.updateMerchant(USER_ID, request));
+            verify(merchantRepository, never()).update(any(), anyLong());
+        }
+    }
+}
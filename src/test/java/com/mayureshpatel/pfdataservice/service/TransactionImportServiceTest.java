@@ -3,21 +3,32 @@ package com.mayureshpatel.pfdataservice.service;
 import com.mayureshpatel.pfdataservice.domain.account.Account;
 import com.mayureshpatel.pfdataservice.domain.category.Category;
 import com.mayureshpatel.pfdataservice.domain.transaction.FileImportHistory;
+import com.mayureshpatel.pfdataservice.domain.transaction.ImportStaging;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
+import com.mayureshpatel.pfdataservice.dto.transaction.SaveTransactionRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCreateRequest;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionDto;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionPreviewDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.CommitStagedImportRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.StagedImportDto;
+import com.mayureshpatel.pfdataservice.dto.transaction.fileimport.StagedRowOverride;
 import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
 import com.mayureshpatel.pfdataservice.exception.DuplicateImportException;
 import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.repository.account.AccountRepository;
-import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
-import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository;
 import com.mayureshpatel.pfdataservice.repository.file_import_history.FileImportHistoryRepository;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.ImportStagingRepository;
+import com.mayureshpatel.pfdataservice.repository.file_import_history.ImportStagingRepository.StagedRow;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationContextCache;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationStrategy.CategorizationContext;
 import com.mayureshpatel.pfdataservice.service.categorization.TransactionCategorizer;
+import com.mayureshpatel.pfdataservice.service.parser.ParsedRow;
 import com.mayureshpatel.pfdataservice.service.parser.TransactionParser;
 import com.mayureshpatel.pfdataservice.service.parser.TransactionParserFactory;
+import com.mayureshpatel.pfdataservice.service.transfer.TransferSuggestionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -28,14 +39,21 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,23 +69,39 @@ class TransactionImportServiceTest {
     @Mock
     private AccountRepository accountRepository;
     @Mock
-    private CategoryRepository categoryRepository;
-    @Mock
     private FileImportHistoryRepository fileImportHistoryRepository;
     @Mock
     private TransactionParserFactory parserFactory;
     @Mock
     private TransactionCategorizer categorizer;
     @Mock
-    private CategoryRuleRepository categoryRuleRepository;
+    private CategorizationContextCache categorizationContextCache;
     @Mock
     private MerchantService merchantService;
+    @Mock
+    private TransferSuggestionService transferSuggestionService;
+    @Mock
+    private TransactionRollupRepository transactionRollupRepository;
+    @Mock
+    private ImportStagingRepository importStagingRepository;
 
     @InjectMocks
     private TransactionImportService importService;
 
     private static final Long USER_ID = 1L;
     private static final Long ACCOUNT_ID = 10L;
+    private static final String ABC_SHA256 = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    private static CategorizationContext contextOf(List<Category> categories) {
+        return CategorizationContext.builder().userId(USER_ID).rules(List.of()).categories(categories).build();
+    }
+
+    private void stubImportInsertsAll() {
+        when(transactionRepository.importAll(anyMap())).thenAnswer(invocation -> {
+            Map<String, TransactionCreateRequest> requests = invocation.getArgument(0);
+            return requests.keySet();
+        });
+    }
 
     @Nested
     @DisplayName("previewTransactions")
@@ -85,12 +119,13 @@ class TransactionImportServiceTest {
 
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
             when(parserFactory.getTransactionParser(bankName)).thenReturn(parser);
-            when(parser.parse(eq(ACCOUNT_ID), any())).thenReturn(Stream.of(t));
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(cat));
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(5L);
+            when(parser.parseRows(eq(ACCOUNT_ID), any())).thenReturn(Stream.of(ParsedRow.of(1, t)));
+            when(categorizationContextCache.get(USER_ID)).thenReturn(contextOf(List.of(cat)));
+            when(categorizer.guessCategory(any(Transaction.class), any(CategorizationContext.class))).thenReturn(5L);
 
             // Act
-            List<TransactionPreviewDto> result = importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, stream, "test.csv");
+            List<TransactionPreviewDto> result = new ArrayList<>();
+            importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, stream, "test.csv", result::addAll);
 
             // Assert
             assertEquals(1, result.size());
@@ -110,16 +145,19 @@ class TransactionImportServiceTest {
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
             when(parserFactory.getTransactionParser(bankName)).thenReturn(parser);
             // Return a fresh stream for each call to avoid IllegalStateException
-            when(parser.parse(anyLong(), any())).thenReturn(Stream.of(t1), Stream.of(t2));
+            when(parser.parseRows(anyLong(), any())).thenReturn(Stream.of(ParsedRow.of(1, t1)), Stream.of(ParsedRow.of(1, t2)));
+            when(categorizationContextCache.get(USER_ID)).thenReturn(contextOf(List.of()));
 
             // Case 1: categoryId is null
-            when(categorizer.guessCategory(eq(t1), anyList(), anyList())).thenReturn(null);
-            List<TransactionPreviewDto> result = importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, new ByteArrayInputStream(new byte[0]), "test.csv");
+            when(categorizer.guessCategory(eq(t1), any(CategorizationContext.class))).thenReturn(null);
+            List<TransactionPreviewDto> result = new ArrayList<>();
+            importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, new ByteArrayInputStream(new byte[0]), "test.csv", result::addAll);
             assertNull(result.get(0).suggestedCategory());
 
             // Case 2: categoryId is 0
-            when(categorizer.guessCategory(eq(t2), anyList(), anyList())).thenReturn(0L);
-            result = importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, new ByteArrayInputStream(new byte[0]), "test.csv");
+            when(categorizer.guessCategory(eq(t2), any(CategorizationContext.class))).thenReturn(0L);
+            result.clear();
+            importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, new ByteArrayInputStream(new byte[0]), "test.csv", result::addAll);
             assertNull(result.get(0).suggestedCategory());
         }
 
@@ -134,12 +172,13 @@ class TransactionImportServiceTest {
 
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
             when(parserFactory.getTransactionParser(bankName)).thenReturn(parser);
-            when(parser.parse(anyLong(), any())).thenReturn(Stream.of(t));
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(Collections.emptyList());
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(99L);
+            when(parser.parseRows(anyLong(), any())).thenReturn(Stream.of(ParsedRow.of(1, t)));
+            when(categorizationContextCache.get(USER_ID)).thenReturn(contextOf(Collections.emptyList()));
+            when(categorizer.guessCategory(any(Transaction.class), any(CategorizationContext.class))).thenReturn(99L);
 
             // Act
-            List<TransactionPreviewDto> result = importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, new ByteArrayInputStream(new byte[0]), "test.csv");
+            List<TransactionPreviewDto> result = new ArrayList<>();
+            importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, new ByteArrayInputStream(new byte[0]), "test.csv", result::addAll);
 
             // Assert
             assertNull(result.get(0).suggestedCategory());
@@ -156,10 +195,68 @@ class TransactionImportServiceTest {
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
             when(parserFactory.getTransactionParser(bankName)).thenReturn(parser);
             // Throw inside the try block (during parse or stream processing)
-            when(parser.parse(anyLong(), any())).thenThrow(new RuntimeException("Oops"));
+            when(parser.parseRows(anyLong(), any())).thenThrow(new RuntimeException("Oops"));
 
             // Act & Assert
-            assertThrows(CsvParsingException.class, () -> importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, null, "test.csv"));
+            assertThrows(CsvParsingException.class, () -> importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, null, "test.csv", rows -> { }));
+        }
+
+        @Test
+        @DisplayName("should categorize rows across multiple chunks")
+        void shouldPreviewAcrossChunks() {
+            // Arrange
+            String bankName = "Standard";
+            TransactionParser parser = mock(TransactionParser.class);
+            Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).build();
+            Stream<ParsedRow> rows = LongStream.rangeClosed(1, 1201)
+                    .mapToObj(i -> ParsedRow.of(i, Transaction.builder()
+                            .description("Row " + i)
+                            .amount(BigDecimal.ONE)
+                            .transactionDate(OffsetDateTime.now())
+                            .build()));
+
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
+            when(parserFactory.getTransactionParser(bankName)).thenReturn(parser);
+            when(parser.parseRows(anyLong(), any())).thenReturn(rows);
+            when(categorizationContextCache.get(USER_ID)).thenReturn(contextOf(List.of()));
+
+            // Act
+            List<List<TransactionPreviewDto>> chunks = new ArrayList<>();
+            int count = importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, new ByteArrayInputStream(new byte[0]), "test.csv", chunks::add);
+            List<TransactionPreviewDto> result = chunks.stream().flatMap(List::stream).toList();
+
+            // Assert
+            assertEquals(1201, count);
+            assertEquals(List.of(500, 500, 201), chunks.stream().map(List::size).toList());
+            assertEquals(1201, result.size());
+            assertEquals("Row 1201", result.get(1200).description());
+            verify(categorizer, times(1201)).guessCategory(any(Transaction.class), any(CategorizationContext.class));
+            verify(categorizationContextCache).get(USER_ID);
+        }
+
+        @Test
+        @DisplayName("should report only the errors of the first failing chunk")
+        void shouldReportChunkErrors() {
+            // Arrange
+            String bankName = "Standard";
+            TransactionParser parser = mock(TransactionParser.class);
+            Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).build();
+            Transaction t = Transaction.builder().description("Ok").amount(BigDecimal.ONE).transactionDate(OffsetDateTime.now()).build();
+
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
+            when(parserFactory.getTransactionParser(bankName)).thenReturn(parser);
+            when(parser.parseRows(anyLong(), any())).thenReturn(Stream.of(
+                    ParsedRow.of(1, t),
+                    ParsedRow.failed(2, "Invalid amount format: abc"),
+                    ParsedRow.of(3, t)));
+
+            // Act
+            CsvParsingException ex = assertThrows(CsvParsingException.class,
+                    () -> importService.previewTransactions(USER_ID, ACCOUNT_ID, bankName, new ByteArrayInputStream(new byte[0]), "test.csv", rows -> { }));
+
+            // Assert
+            assertEquals("Failed to parse rows 1-3: Row 2: Invalid amount format: abc", ex.getMessage());
+            verify(categorizer, never()).guessCategory(any(Transaction.class), any(CategorizationContext.class));
         }
 
         @Test
@@ -170,7 +267,7 @@ class TransactionImportServiceTest {
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
 
             // Act & Assert
-            assertThrows(AccessDeniedException.class, () -> importService.previewTransactions(USER_ID, ACCOUNT_ID, "Standard", null, "test.csv"));
+            assertThrows(AccessDeniedException.class, () -> importService.previewTransactions(USER_ID, ACCOUNT_ID, "Standard", null, "test.csv", rows -> { }));
         }
     }
 
@@ -185,9 +282,9 @@ class TransactionImportServiceTest {
             TransactionDto dto = TransactionDto.builder().description("Test").amount(BigDecimal.TEN).date(OffsetDateTime.now()).type(TransactionType.INCOME).build();
 
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
-            when(accountRepository.updateBalance(anyLong(), anyLong(), any(), any())).thenReturn(1);
+            when(accountRepository.addBalanceDelta(anyLong(), anyLong(), any())).thenReturn(1);
             when(fileImportHistoryRepository.findByAccountIdAndFileHash(anyLong(), anyString())).thenReturn(Optional.empty());
-            when(transactionRepository.findExistingForDuplicateCheck(anyLong(), any(), any())).thenReturn(List.of());
+            stubImportInsertsAll();
             when(merchantService.findOrCreateMerchants(eq(USER_ID), any())).thenReturn(Map.of("Test", 1001L));
 
             // Act
@@ -195,13 +292,13 @@ class TransactionImportServiceTest {
 
             // Assert
             assertEquals(1, result);
-            verify(transactionRepository).insertAll(anyList());
-            verify(accountRepository).updateBalance(eq(1L), eq(10L), any(BigDecimal.class), anyLong());
+            verify(transactionRepository).importAll(anyMap());
+            verify(accountRepository).addBalanceDelta(eq(1L), eq(10L), any(BigDecimal.class));
             verify(fileImportHistoryRepository).save(any(FileImportHistory.class));
         }
 
         @Test
-        @DisplayName("should skip duplicates in database and batch")
+        @DisplayName("should collapse duplicates within the batch before importing")
         void shouldDetectBatchDuplicates() {
             // Arrange
             Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).currentBalance(BigDecimal.ZERO).build();
@@ -210,8 +307,8 @@ class TransactionImportServiceTest {
             TransactionDto dto2 = TransactionDto.builder().description("D1").amount(BigDecimal.TEN).date(now).type(TransactionType.INCOME).build();
 
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
-            when(accountRepository.updateBalance(anyLong(), anyLong(), any(), any())).thenReturn(1);
-            when(transactionRepository.findExistingForDuplicateCheck(anyLong(), any(), any())).thenReturn(List.of());
+            when(accountRepository.addBalanceDelta(anyLong(), anyLong(), any())).thenReturn(1);
+            stubImportInsertsAll();
             when(merchantService.findOrCreateMerchants(eq(USER_ID), any())).thenReturn(Map.of("D1", 1001L));
 
             // Act
@@ -219,7 +316,7 @@ class TransactionImportServiceTest {
 
             // Assert
             assertEquals(1, result);
-            verify(transactionRepository).insertAll(argThat(list -> list.size() == 1));
+            verify(transactionRepository).importAll(argThat(map -> map.size() == 1));
         }
 
         @Test
@@ -243,8 +340,8 @@ class TransactionImportServiceTest {
 
             // fileName is null case
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
-            when(accountRepository.updateBalance(anyLong(), anyLong(), any(), any())).thenReturn(1);
-            when(transactionRepository.findExistingForDuplicateCheck(anyLong(), any(), any())).thenReturn(List.of());
+            when(accountRepository.addBalanceDelta(anyLong(), anyLong(), any())).thenReturn(1);
+            stubImportInsertsAll();
             when(merchantService.findOrCreateMerchants(eq(USER_ID), any())).thenReturn(Map.of("T", 1001L));
 
             importService.saveTransactions(USER_ID, ACCOUNT_ID, List.of(dto), null, "hash");
@@ -268,30 +365,60 @@ class TransactionImportServiceTest {
 
             // Assert
             assertEquals(0, result);
-            verify(transactionRepository, never()).insertAll(any());
+            verify(transactionRepository, never()).importAll(any());
         }
 
         @Test
-        @DisplayName("should skip if transaction exists in database")
+        @DisplayName("should skip rows the account already has without creating their merchants")
         void shouldSkipOnDatabaseMatch() {
             // Arrange
             Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).currentBalance(BigDecimal.ZERO).build();
             TransactionDto dto = TransactionDto.builder().description("D1").amount(BigDecimal.TEN).date(OffsetDateTime.now()).type(TransactionType.INCOME).build();
 
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
-            
-            Transaction mockExisting = Transaction.builder()
-                .transactionDate(dto.date()).amount(dto.amount()).description(dto.description()).type(TransactionType.INCOME)
-                .build();
-            when(transactionRepository.findExistingForDuplicateCheck(anyLong(), any(), any())).thenReturn(List.of(mockExisting));
-            when(merchantService.findOrCreateMerchants(eq(USER_ID), any())).thenReturn(Map.of("D1", 1001L));
+            when(transactionRepository.findImportSignatures(eq(ACCOUNT_ID), any()))
+                    .thenAnswer(invocation -> Set.copyOf(invocation.<Collection<String>>getArgument(1)));
 
             // Act
             int result = importService.saveTransactions(USER_ID, ACCOUNT_ID, List.of(dto), null, null);
 
             // Assert
             assertEquals(0, result);
-            verify(transactionRepository, never()).insertAll(any());
+            verify(accountRepository).lockImports(ACCOUNT_ID);
+            verify(merchantService).findOrCreateMerchants(USER_ID, List.of());
+            verify(merchantService, never()).findOrCreateMerchant(anyLong(), anyString());
+            verify(accountRepository, never()).addBalanceDelta(anyLong(), anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("should only apply inserted transactions to the account balance")
+        void shouldBalanceOnlyInsertedRows() {
+            // Arrange
+            Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).currentBalance(BigDecimal.ZERO).version(1L).build();
+            OffsetDateTime now = OffsetDateTime.now();
+            TransactionDto existing = TransactionDto.builder().description("Old").amount(BigDecimal.TEN).date(now).type(TransactionType.INCOME).build();
+            TransactionDto fresh = TransactionDto.builder().description("New").amount(BigDecimal.ONE).date(now).type(TransactionType.INCOME).build();
+
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
+            when(accountRepository.addBalanceDelta(anyLong(), anyLong(), any())).thenReturn(1);
+            when(merchantService.findOrCreateMerchants(eq(USER_ID), any())).thenReturn(Map.of("Old", 1L, "New", 2L));
+            when(transactionRepository.importAll(anyMap())).thenAnswer(invocation -> {
+                Map<String, TransactionCreateRequest> requests = invocation.getArgument(0);
+                return requests.entrySet().stream()
+                        .filter(entry -> entry.getValue().getDescription().equals("New"))
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toSet());
+            });
+
+            // Act
+            int result = importService.saveTransactions(USER_ID, ACCOUNT_ID, List.of(existing, fresh), null, null);
+
+            // Assert
+            assertEquals(1, result);
+            verify(accountRepository).addBalanceDelta(USER_ID, ACCOUNT_ID, new BigDecimal("1"));
+            verify(transactionRepository, never()).insertAll(anyList());
+            verify(transactionRollupRepository).refreshDates(USER_ID, List.of(now));
+            verify(transferSuggestionService).refreshDates(USER_ID, List.of(now));
         }
 
         @Test
@@ -312,4 +439,304 @@ class TransactionImportServiceTest {
             assertThrows(AccessDeniedException.class, () -> importService.saveTransactions(USER_ID, ACCOUNT_ID, List.of(), null, null));
         }
     }
+
+    @Nested
+    @DisplayName("saveAccountTransactions")
+    class SaveAccountTransactionsTests {
+        @Test
+        @DisplayName("should save every file for the account and leave derived data to the caller")
+        void shouldSaveFilesWithoutRefreshing() {
+            // Arrange
+            Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).currentBalance(BigDecimal.ZERO).build();
+            OffsetDateTime now = OffsetDateTime.now();
+            TransactionDto first = TransactionDto.builder().description("A").amount(BigDecimal.TEN).date(now).type(TransactionType.INCOME).build();
+            TransactionDto second = TransactionDto.builder().description("B").amount(BigDecimal.ONE).date(now).type(TransactionType.INCOME).build();
+
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
+            when(accountRepository.addBalanceDelta(anyLong(), anyLong(), any())).thenReturn(1);
+            when(merchantService.findOrCreateMerchants(eq(USER_ID), any())).thenReturn(Map.of("A", 1L, "B", 2L));
+            when(transactionRepository.importAll(anyMap())).thenAnswer(invocation -> {
+                Map<String, TransactionCreateRequest> requests = invocation.getArgument(0);
+                return requests.entrySet().stream()
+                        .filter(entry -> entry.getValue().getDescription().equals("A"))
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toSet());
+            });
+
+            // Act
+            TransactionImportService.AccountImport result = importService.saveAccountTransactions(USER_ID, ACCOUNT_ID, List.of(
+                    new SaveTransactionRequest(List.of(first), null, null, ACCOUNT_ID),
+                    new SaveTransactionRequest(List.of(second), null, null, ACCOUNT_ID)));
+
+            // Assert
+            assertEquals(1, result.savedCount());
+            assertEquals(1, result.duplicateCount());
+            assertEquals(List.of(now), result.transactionDates());
+            verify(transactionRepository, times(2)).importAll(anyMap());
+            verifyNoInteractions(transactionRollupRepository, transferSuggestionService);
+        }
+    }
+
+    @Nested
+    @DisplayName("fingerprintUpload")
+    class FingerprintUploadTests {
+        @Test
+        @DisplayName("should return the file hash when the account has not imported the file")
+        void shouldReturnHash() throws IOException {
+            // Arrange
+            when(fileImportHistoryRepository.findByAccountIdAndFileHash(eq(ACCOUNT_ID), anyString())).thenReturn(Optional.empty());
+
+            // Act
+            String hash = importService.fingerprintUpload(ACCOUNT_ID, new ByteArrayInputStream("abc".getBytes()));
+
+            // Assert
+            assertEquals(ABC_SHA256, hash);
+        }
+
+        @Test
+        @DisplayName("should reject a file the account already imported without parsing it")
+        void shouldRejectImportedFile() {
+            // Arrange
+            when(fileImportHistoryRepository.findByAccountIdAndFileHash(eq(ACCOUNT_ID), anyString()))
+                    .thenReturn(Optional.of(FileImportHistory.builder().build()));
+
+            // Act & Assert
+            assertThrows(DuplicateImportException.class,
+                    () -> importService.fingerprintUpload(ACCOUNT_ID, new ByteArrayInputStream("abc".getBytes())));
+            verifyNoInteractions(parserFactory);
+        }
+    }
+
+    @Nested
+    @DisplayName("stageTransactions")
+    class StageTransactionsTests {
+        @Test
+        @DisplayName("should stage the categorized rows and return them with a token")
+        void shouldStageRows() throws IOException {
+            // Arrange
+            TransactionParser parser = mock(TransactionParser.class);
+            OffsetDateTime now = OffsetDateTime.now();
+            Transaction t = Transaction.builder().description("Coffee").amount(BigDecimal.TEN).transactionDate(now).type(TransactionType.EXPENSE).build();
+            Category cat = Category.builder().id(5L).name("Food").build();
+
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(Account.builder().id(ACCOUNT_ID).userId(USER_ID).build()));
+            when(parserFactory.getTransactionParser("Standard")).thenReturn(parser);
+            when(parser.parseRows(eq(ACCOUNT_ID), any())).thenReturn(Stream.of(ParsedRow.of(1, t)));
+            when(categorizationContextCache.get(USER_ID)).thenReturn(contextOf(List.of(cat)));
+            when(categorizer.guessCategory(any(Transaction.class), any(CategorizationContext.class))).thenReturn(5L);
+            when(importStagingRepository.insert(any(ImportStaging.class))).thenReturn(42L);
+
+            // Act
+            StagedImportDto result = importService.stageTransactions(USER_ID, ACCOUNT_ID, "Standard",
+                    new ByteArrayInputStream("abc".getBytes()), "test.csv", ABC_SHA256);
+
+            // Assert
+            assertNotNull(result.token());
+            assertEquals(1, result.rowCount());
+            assertEquals(1, result.transactions().size());
+            verify(importStagingRepository).insert(argThat(s -> s.getToken().equals(result.token())
+                    && s.getFileHash().equals(ABC_SHA256)
+                    && s.getExpiresAt().isAfter(now)));
+            verify(importStagingRepository).insertRows(eq(42L), eq(0), argThat(rows -> rows.size() == 1
+                    && rows.get(0).getCategoryId() == 5L
+                    && rows.get(0).getType().equals("EXPENSE")));
+        }
+
+        @Test
+        @DisplayName("should not stage anything for an account of another user")
+        void shouldThrowOnAccessDenied() {
+            // Arrange
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(Account.builder().id(ACCOUNT_ID).userId(99L).build()));
+
+            // Act & Assert
+            assertThrows(AccessDeniedException.class, () -> importService.stageTransactions(USER_ID, ACCOUNT_ID, "Standard",
+                    new ByteArrayInputStream("test".getBytes()), "test.csv", ABC_SHA256));
+            verifyNoInteractions(importStagingRepository);
+        }
+
+        @Test
+        @DisplayName("should reject a file the account already imported before staging or parsing it")
+        void shouldRejectImportedFile() {
+            // Arrange
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(Account.builder().id(ACCOUNT_ID).userId(USER_ID).build()));
+            when(fileImportHistoryRepository.findByAccountIdAndFileHash(ACCOUNT_ID, ABC_SHA256))
+                    .thenReturn(Optional.of(FileImportHistory.builder().build()));
+
+            // Act & Assert
+            assertThrows(DuplicateImportException.class, () -> importService.stageTransactions(USER_ID, ACCOUNT_ID, "Standard",
+                    new ByteArrayInputStream("abc".getBytes()), "test.csv", ABC_SHA256));
+            verifyNoInteractions(importStagingRepository, parserFactory);
+        }
+
+        @Test
+        @DisplayName("should stage every chunk but return only the first page of a large file")
+        void shouldReturnFirstPage() throws IOException {
+            // Arrange
+            TransactionParser parser = mock(TransactionParser.class);
+            Stream<ParsedRow> rows = LongStream.rangeClosed(1, 1201)
+                    .mapToObj(i -> ParsedRow.of(i, Transaction.builder()
+                            .description("Row " + i)
+                            .amount(BigDecimal.ONE)
+                            .transactionDate(OffsetDateTime.now())
+                            .type(TransactionType.EXPENSE)
+                            .build()));
+
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(Account.builder().id(ACCOUNT_ID).userId(USER_ID).build()));
+            when(parserFactory.getTransactionParser("Standard")).thenReturn(parser);
+            when(parser.parseRows(eq(ACCOUNT_ID), any())).thenReturn(rows);
+            when(importStagingRepository.insert(any(ImportStaging.class))).thenReturn(42L);
+
+            // Act
+            StagedImportDto result = importService.stageTransactions(USER_ID, ACCOUNT_ID, "Standard",
+                    new ByteArrayInputStream("test".getBytes()), "test.csv", "hash");
+
+            // Assert
+            assertEquals(1201, result.rowCount());
+            assertEquals(500, result.transactions().size());
+            assertEquals("Row 500", result.transactions().get(499).description());
+            verify(importStagingRepository).insertRows(eq(42L), eq(0), argThat(r -> r.size() == 500));
+            verify(importStagingRepository).insertRows(eq(42L), eq(500), argThat(r -> r.size() == 500));
+            verify(importStagingRepository).insertRows(eq(42L), eq(1000), argThat(r -> r.size() == 201));
+        }
+    }
+
+    @Nested
+    @DisplayName("getStagedRows")
+    class GetStagedRowsTests {
+
+        private final UUID token = UUID.randomUUID();
+
+        @Test
+        @DisplayName("should return a page of staged rows with their suggested categories")
+        void shouldReturnPage() {
+            // Arrange
+            ImportStaging staging = ImportStaging.builder().id(42L).token(token).userId(USER_ID).accountId(ACCOUNT_ID).build();
+            TransactionCreateRequest row = TransactionCreateRequest.builder()
+                    .description("Coffee").amount(BigDecimal.TEN).transactionDate(OffsetDateTime.now())
+                    .type("EXPENSE").categoryId(5L).build();
+
+            when(importStagingRepository.findActiveByToken(token, USER_ID)).thenReturn(Optional.of(staging));
+            when(importStagingRepository.findRowPage(42L, 500, 500)).thenReturn(List.of(new StagedRow(500, row)));
+            when(categorizationContextCache.get(USER_ID)).thenReturn(contextOf(List.of(Category.builder().id(5L).name("Food").build())));
+
+            // Act
+            List<TransactionPreviewDto> result = importService.getStagedRows(USER_ID, ACCOUNT_ID, token, 500, 10_000);
+
+            // Assert
+            assertEquals(1, result.size());
+            assertEquals(TransactionType.EXPENSE, result.get(0).type());
+            assertEquals("Food", result.get(0).suggestedCategory().name());
+        }
+
+        @Test
+        @DisplayName("should not return rows staged for another account")
+        void shouldRejectOtherAccount() {
+            // Arrange
+            ImportStaging staging = ImportStaging.builder().id(42L).token(token).userId(USER_ID).accountId(99L).build();
+            when(importStagingRepository.findActiveByToken(token, USER_ID)).thenReturn(Optional.of(staging));
+
+            // Act & Assert
+            assertThrows(ResourceNotFoundException.class, () -> importService.getStagedRows(USER_ID, ACCOUNT_ID, token, 0, 500));
+            verify(importStagingRepository, never()).findRowPage(anyLong(), anyInt(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("commitStagedTransactions")
+    class CommitStagedTransactionsTests {
+
+        private final UUID token = UUID.randomUUID();
+        private final Account account = Account.builder().id(ACCOUNT_ID).userId(USER_ID).build();
+
+        private void stubStaging(String fileHash) {
+            ImportStaging staging = ImportStaging.builder().id(42L).token(token).userId(USER_ID).accountId(ACCOUNT_ID)
+                    .fileName("test.csv").fileHash(fileHash).build();
+            when(importStagingRepository.findActiveByTokenForUpdate(token, USER_ID)).thenReturn(Optional.of(staging));
+        }
+
+        @Test
+        @DisplayName("should move the staged rows into transactions and drop the staging")
+        void shouldCommitRows() {
+            // Arrange
+            OffsetDateTime now = OffsetDateTime.now();
+            stubStaging("hash");
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
+            when(fileImportHistoryRepository.findByAccountIdAndFileHash(ACCOUNT_ID, "hash")).thenReturn(Optional.empty());
+            when(importStagingRepository.findDescriptions(42L, Set.of(1))).thenReturn(List.of("Coffee"));
+            when(merchantService.findOrCreateMerchants(USER_ID, List.of("Coffee"))).thenReturn(Map.of("Coffee", 7L));
+            when(importStagingRepository.moveToTransactions(42L, Set.of(1), Map.of("Coffee", 7L))).thenReturn(List.of(
+                    TransactionCreateRequest.builder().amount(BigDecimal.TEN).transactionDate(now).type("EXPENSE").build()));
+
+            // Act
+            int saved = importService.commitStagedTransactions(USER_ID, ACCOUNT_ID, token, new CommitStagedImportRequest(Set.of(1), null));
+
+            // Assert
+            assertEquals(1, saved);
+            verify(importStagingRepository).delete(42L);
+            verify(accountRepository).addBalanceDelta(USER_ID, ACCOUNT_ID, new BigDecimal("-10"));
+            verify(fileImportHistoryRepository).save(argThat(h -> h.getTransactionCount() == 1));
+            verify(transactionRollupRepository).refreshDates(USER_ID, List.of(now));
+        }
+
+        @Test
+        @DisplayName("should re-sign overridden rows before moving them")
+        void shouldApplyOverrides() {
+            // Arrange
+            OffsetDateTime now = OffsetDateTime.now();
+            TransactionCreateRequest staged = TransactionCreateRequest.builder()
+                    .amount(BigDecimal.TEN).transactionDate(now).description("Coffee").type("EXPENSE").build();
+            stubStaging(null);
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
+            when(categorizationContextCache.get(USER_ID)).thenReturn(contextOf(List.of(Category.builder().id(5L).build())));
+            when(importStagingRepository.findRows(42L, List.of(0))).thenReturn(List.of(new StagedRow(0, staged)));
+
+            StagedRowOverride override = StagedRowOverride.builder().rowIndex(0).categoryId(5L).description("Cafe").build();
+
+            // Act
+            int saved = importService.commitStagedTransactions(USER_ID, ACCOUNT_ID, token, new CommitStagedImportRequest(null, List.of(override)));
+
+            // Assert
+            assertEquals(0, saved);
+            verify(importStagingRepository).updateRow(eq(42L), argThat(row -> row.rowIndex() == 0
+                    && row.transaction().getDescription().equals("Cafe")
+                    && row.transaction().getCategoryId() == 5L
+                    && row.transaction().getType().equals("EXPENSE")));
+            verify(fileImportHistoryRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should reject an override with a category the user does not have")
+        void shouldRejectForeignCategory() {
+            // Arrange
+            stubStaging(null);
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
+            when(categorizationContextCache.get(USER_ID)).thenReturn(contextOf(List.of()));
+            when(importStagingRepository.findRows(42L, List.of(0))).thenReturn(List.of(new StagedRow(0,
+                    TransactionCreateRequest.builder().amount(BigDecimal.TEN).transactionDate(OffsetDateTime.now()).type("EXPENSE").build())));
+            StagedRowOverride override = StagedRowOverride.builder().rowIndex(0).categoryId(99L).build();
+
+            // Act & Assert
+            assertThrows(ResourceNotFoundException.class, () -> importService.commitStagedTransactions(
+                    USER_ID, ACCOUNT_ID, token, new CommitStagedImportRequest(null, List.of(override))));
+            verify(importStagingRepository, never()).moveToTransactions(anyLong(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should throw ResourceNotFoundException for an unknown or expired token")
+        void shouldThrowOnUnknownToken() {
+            when(importStagingRepository.findActiveByTokenForUpdate(token, USER_ID)).thenReturn(Optional.empty());
+            assertThrows(ResourceNotFoundException.class, () -> importService.commitStagedTransactions(
+                    USER_ID, ACCOUNT_ID, token, new CommitStagedImportRequest(null, null)));
+        }
+
+        @Test
+        @DisplayName("should throw DuplicateImportException if the staged file was already imported")
+        void shouldThrowOnDuplicateHash() {
+            stubStaging("hash");
+            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
+            when(fileImportHistoryRepository.findByAccountIdAndFileHash(ACCOUNT_ID, "hash")).thenReturn(Optional.of(FileImportHistory.builder().build()));
+            assertThrows(DuplicateImportException.class, () -> importService.commitStagedTransactions(
+                    USER_ID, ACCOUNT_ID, token, new CommitStagedImportRequest(null, null)));
+        }
+    }
 }
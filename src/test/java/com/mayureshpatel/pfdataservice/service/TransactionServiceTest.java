@@ -5,17 +5,22 @@ import com.mayureshpatel.pfdataservice.domain.category.Category;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCreateRequest;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransactionCursorPageDto;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionDto;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransactionUpdateRequest;
 import com.mayureshpatel.pfdataservice.dto.transaction.TransferSuggestionDto;
 import com.mayureshpatel.pfdataservice.exception.ResourceNotFoundException;
 import com.mayureshpatel.pfdataservice.repository.account.AccountRepository;
 import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
-import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository;
 import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRollupRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionCursor;
+import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionSortColumn;
 import com.mayureshpatel.pfdataservice.repository.transaction.specification.TransactionSpecification;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationContextCache;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationStrategy.CategorizationContext;
 import com.mayureshpatel.pfdataservice.service.categorization.TransactionCategorizer;
-import com.mayureshpatel.pfdataservice.service.transfer.TransferMatcher;
+import com.mayureshpatel.pfdataservice.service.transfer.TransferSuggestionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -27,6 +32,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
@@ -34,6 +40,7 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,15 +54,17 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
     @Mock
+    private TransactionRollupRepository transactionRollupRepository;
+    @Mock
     private AccountRepository accountRepository;
     @Mock
     private CategoryRepository categoryRepository;
     @Mock
     private TransactionCategorizer categorizer;
     @Mock
-    private CategoryRuleRepository categoryRuleRepository;
+    private CategorizationContextCache categorizationContextCache;
     @Mock
-    private TransferMatcher transferMatcher;
+    private TransferSuggestionService transferSuggestionService;
     @Mock
     private MerchantService merchantService;
 
@@ -74,18 +83,17 @@ class TransactionServiceTest {
     @DisplayName("findPotentialTransfers")
     class FindPotentialTransfersTests {
         @Test
-        @DisplayName("should return transfer matches from matcher")
+        @DisplayName("should return stored transfer suggestions")
         void shouldReturnMatches() {
             // Arrange
-            when(transactionRepository.findRecentNonTransferTransactions(eq(USER_ID), any())).thenReturn(List.of());
-            when(transferMatcher.findMatches(anyList())).thenReturn(List.of(new TransferSuggestionDto(null, null, 0.9)));
+            when(transferSuggestionService.findSuggestions(USER_ID)).thenReturn(List.of(new TransferSuggestionDto(null, null, 0.9)));
 
             // Act
             List<TransferSuggestionDto> result = transactionService.findPotentialTransfers(USER_ID);
 
             // Assert
             assertEquals(1, result.size());
-            verify(transferMatcher).findMatches(anyList());
+            verify(transactionRepository, never()).findRecentNonTransferTransactions(eq(USER_ID), any());
         }
     }
 
@@ -100,14 +108,12 @@ class TransactionServiceTest {
             Transaction t1 = Transaction.builder().id(1L).type(TransactionType.INCOME).amount(BigDecimal.TEN).account(account).build();
             when(transactionRepository.findAllById(eq(USER_ID), anyList())).thenReturn(List.of(t1));
 
-            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
-            
             // Act
             transactionService.markAsTransfer(USER_ID, List.of(1L));
 
             // Assert
             verify(transactionRepository).updateAll(eq(USER_ID), argThat(list -> list.get(0).getType() == TransactionType.TRANSFER_IN));
-            verify(accountRepository).updateBalance(eq(USER_ID), eq(ACCOUNT_ID), any(BigDecimal.class), anyLong());
+            verify(accountRepository).addBalanceDeltas(eq(USER_ID), argThat(deltas -> deltas.containsKey(ACCOUNT_ID)));
         }
 
         @Test
@@ -118,8 +124,6 @@ class TransactionServiceTest {
             Transaction t = Transaction.builder().id(1L).type(TransactionType.EXPENSE).amount(BigDecimal.ONE).account(account).build();
             when(transactionRepository.findAllById(eq(USER_ID), anyList())).thenReturn(List.of(t));
 
-            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
-            
             // Act
             transactionService.markAsTransfer(USER_ID, List.of(1L));
 
@@ -177,6 +181,53 @@ class TransactionServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getTransactionPage")
+    class GetTransactionPageTests {
+        @Test
+        @DisplayName("should seek with the requested sort and return the next cursor")
+        void shouldReturnKeysetPage() {
+            // Arrange
+            when(transactionRepository.findPage(any(), eq(TransactionSortColumn.AMOUNT), eq(true), isNull(), eq(10), eq(false)))
+                    .thenReturn(new TransactionRepository.KeysetPage(List.of(Transaction.builder().id(1L).build()), "next", null));
+
+            // Act
+            TransactionCursorPageDto result = transactionService.getTransactionPage(
+                    USER_ID, null, Sort.by(Sort.Direction.ASC, "amount"), null, 10, false);
+
+            // Assert
+            assertEquals(1, result.content().size());
+            assertEquals("next", result.nextCursor());
+            assertNull(result.totalElements());
+        }
+
+        @Test
+        @DisplayName("should decode the cursor and clamp the page size")
+        void shouldDecodeCursorAndClampSize() {
+            // Arrange
+            TransactionCursor cursor = new TransactionCursor(TransactionSortColumn.DATE, false, "2026-03-01T00:00Z", 42L);
+            when(transactionRepository.findPage(any(), eq(TransactionSortColumn.DATE), eq(false), eq(cursor),
+                    eq(TransactionService.MAX_PAGE_SIZE), eq(true)))
+                    .thenReturn(new TransactionRepository.KeysetPage(List.of(), null, 7L));
+
+            // Act
+            TransactionCursorPageDto result = transactionService.getTransactionPage(
+                    USER_ID, null, Sort.unsorted(), cursor.encode(), 10_000, true);
+
+            // Assert
+            assertNull(result.nextCursor());
+            assertEquals(7L, result.totalElements());
+        }
+
+        @Test
+        @DisplayName("should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> transactionService.getTransactionPage(
+                    USER_ID, null, Sort.unsorted(), "not-a-cursor", 10, false));
+        }
+    }
+
     @Nested
     @DisplayName("deleteTransactions")
     class DeleteTransactionsTests {
@@ -196,14 +247,32 @@ class TransactionServiceTest {
             Transaction t = Transaction.builder().id(1L).account(account).amount(BigDecimal.TEN).type(TransactionType.INCOME).build();
             when(transactionRepository.findAllById(eq(USER_ID), anyList())).thenReturn(List.of(t));
 
-            when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
-            
             // Act
             transactionService.deleteTransactions(USER_ID, List.of(1L));
 
             // Assert
             verify(transactionRepository).deleteAll(eq(USER_ID), anyList());
-            verify(accountRepository).updateBalance(eq(USER_ID), eq(ACCOUNT_ID), any(BigDecimal.class), anyLong());
+            verify(accountRepository).addBalanceDeltas(eq(USER_ID), argThat(deltas -> deltas.containsKey(ACCOUNT_ID)));
+        }
+
+        @Test
+        @DisplayName("should fold balance changes into one delta per account")
+        void shouldUpdateEachAccountOnce() {
+            // Arrange
+            Account account = createMockAccount(USER_ID);
+            Account savings = Account.builder().id(20L).userId(USER_ID).currentBalance(new BigDecimal("50.00")).version(3L).build();
+            Transaction income = Transaction.builder().id(1L).account(account).amount(BigDecimal.TEN).type(TransactionType.INCOME).build();
+            Transaction expense = Transaction.builder().id(2L).account(account).amount(new BigDecimal("4.00")).type(TransactionType.EXPENSE).build();
+            Transaction other = Transaction.builder().id(3L).account(savings).amount(BigDecimal.ONE).type(TransactionType.INCOME).build();
+            when(transactionRepository.findAllById(eq(USER_ID), anyList())).thenReturn(List.of(income, expense, other));
+
+            // Act
+            transactionService.deleteTransactions(USER_ID, List.of(1L, 2L, 3L));
+
+            // Assert
+            verify(accountRepository).addBalanceDeltas(USER_ID, Map.of(ACCOUNT_ID, new BigDecimal("-6.00"), 20L, new BigDecimal("-1")));
+            verify(accountRepository, never()).findById(anyLong());
+            verify(transactionRepository).deleteAll(USER_ID, List.of(income, expense, other));
         }
 
         @Test
@@ -251,7 +320,7 @@ class TransactionServiceTest {
 
             // Assert
             assertEquals(1, result);
-            verify(accountRepository).updateBalance(eq(USER_ID), eq(ACCOUNT_ID), any(BigDecimal.class), anyLong());
+            verify(accountRepository).addBalanceDelta(eq(USER_ID), eq(ACCOUNT_ID), any(BigDecimal.class));
             verify(transactionRepository).insert(any(Transaction.class));
         }
 
@@ -272,10 +341,11 @@ class TransactionServiceTest {
             // Arrange
             Account account = createMockAccount(USER_ID);
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
-            when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of());
             Category cat = Category.builder().id(10L).build();
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(cat));
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(10L);
+            CategorizationContext context = CategorizationContext.builder()
+                    .userId(USER_ID).rules(List.of()).categories(List.of(cat)).build();
+            when(categorizationContextCache.get(USER_ID)).thenReturn(context);
+            when(categorizer.guessCategory(any(Transaction.class), eq(context))).thenReturn(10L);
             when(transactionRepository.insert(any(Transaction.class))).thenReturn(1);
             when(merchantService.findOrCreateMerchant(eq(USER_ID), any())).thenReturn(1001L);
 
@@ -295,10 +365,11 @@ class TransactionServiceTest {
             // Arrange
             Account account = createMockAccount(USER_ID);
             when(accountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account));
-            when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of());
-            when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of());
+            CategorizationContext context = CategorizationContext.builder()
+                    .userId(USER_ID).rules(List.of()).categories(List.of()).build();
+            when(categorizationContextCache.get(USER_ID)).thenReturn(context);
 
-            when(categorizer.guessCategory(any(), anyList(), anyList())).thenReturn(null);
+            when(categorizer.guessCategory(any(Transaction.class), eq(context))).thenReturn(null);
             when(transactionRepository.insert(any(Transaction.class))).thenReturn(1);
             when(merchantService.findOrCreateMerchant(eq(USER_ID), any())).thenReturn(1001L);
 
@@ -339,11 +410,124 @@ class TransactionServiceTest {
 
             // Assert
             assertEquals(1, result);
-            verify(accountRepository).updateBalance(eq(USER_ID), eq(ACCOUNT_ID), any(BigDecimal.class), anyLong());
+            verify(accountRepository).addBalanceDelta(USER_ID, ACCOUNT_ID, new BigDecimal("11"));
             verify(transactionRepository).update(eq(USER_ID), (Transaction) argThat(t -> ((Transaction) t).getAmount().equals(BigDecimal.TEN)));
         }
     }
 
+    @Nested
+    @DisplayName("updateTransactionsBulk")
+    class UpdateTransactionsBulkTests {
+        @Test
+        @DisplayName("should return 0 for empty list")
+        void shouldReturnEarly() {
+            assertEquals(0, transactionService.updateTransactionsBulk(USER_ID, Collections.emptyList()));
+            verifyNoInteractions(transactionRepository);
+        }
+
+        @Test
+        @DisplayName("should load, resolve and write the whole batch at once")
+        void shouldUpdateInOnePass() {
+            // Arrange
+            Account account = createMockAccount(USER_ID);
+            Account otherAccount = account.toBuilder().id(20L).currentBalance(new BigDecimal("50.00")).build();
+            Transaction t1 = Transaction.builder().id(1L).account(account).amount(BigDecimal.ONE).type(TransactionType.EXPENSE).build();
+            Transaction t2 = Transaction.builder().id(2L).account(account).amount(BigDecimal.ONE).type(TransactionType.EXPENSE).build();
+            Transaction t3 = Transaction.builder().id(3L).account(otherAccount).amount(BigDecimal.TEN).type(TransactionType.INCOME).build();
+            when(transactionRepository.findAllById(eq(USER_ID), anyList())).thenReturn(List.of(t1, t2, t3));
+            when(merchantService.findOrCreateMerchants(eq(USER_ID), anyList())).thenReturn(Map.of("Coffee", 7L, "Pay", 8L));
+
+            Category subCategory = Category.builder().id(5L).userId(USER_ID).name("Dining").parentId(4L).build();
+            CategorizationContext context = CategorizationContext.builder()
+                    .userId(USER_ID).rules(List.of()).categories(List.of(subCategory)).build();
+            when(categorizationContextCache.get(USER_ID)).thenReturn(context);
+            when(transactionRepository.updateAll(eq(USER_ID), anyList())).thenReturn(3);
+
+            List<TransactionUpdateRequest> requests = List.of(
+                    updateRequest(1L, "2.00", "EXPENSE", "Coffee", 5L),
+                    updateRequest(2L, "3.00", "EXPENSE", "Coffee", 5L),
+                    updateRequest(3L, "15.00", "INCOME", "Pay", 5L));
+
+            // Act
+            int result = transactionService.updateTransactionsBulk(USER_ID, requests);
+
+            // Assert
+            assertEquals(3, result);
+            verify(transactionRepository).findAllById(eq(USER_ID), anyList());
+            verify(merchantService).findOrCreateMerchants(eq(USER_ID), anyList());
+            verify(categorizationContextCache).get(USER_ID);
+            verify(categoryRepository, never()).findById(anyLong());
+            verify(transactionRepository, never()).update(anyLong(), any(Transaction.class));
+            verify(transactionRepository).updateAll(eq(USER_ID), argThat(list -> list.size() == 3
+                    && list.get(0).getMerchant().getId().equals(7L)
+                    && list.get(2).getCategory().getId().equals(5L)));
+            verify(accountRepository).addBalanceDeltas(USER_ID, Map.of(ACCOUNT_ID, new BigDecimal("-3.00"), 20L, new BigDecimal("5.00")));
+        }
+
+        @Test
+        @DisplayName("should apply the last request when an id repeats")
+        void shouldKeepLastRequestPerId() {
+            // Arrange
+            Account account = createMockAccount(USER_ID);
+            Transaction t1 = Transaction.builder().id(1L).account(account).amount(BigDecimal.ONE).type(TransactionType.EXPENSE).build();
+            when(transactionRepository.findAllById(eq(USER_ID), anyList())).thenReturn(List.of(t1));
+            when(merchantService.findOrCreateMerchants(eq(USER_ID), anyList())).thenReturn(Map.of("Second", 2L));
+            when(categorizationContextCache.get(USER_ID)).thenReturn(mock(CategorizationContext.class));
+
+            // Act
+            transactionService.updateTransactionsBulk(USER_ID, List.of(
+                    updateRequest(1L, "5.00", "EXPENSE", "First", null),
+                    updateRequest(1L, "4.00", "EXPENSE", "Second", null)));
+
+            // Assert
+            verify(merchantService).findOrCreateMerchants(USER_ID, List.of("Second"));
+            verify(transactionRepository).updateAll(eq(USER_ID), argThat(list -> list.size() == 1
+                    && list.get(0).getAmount().equals(new BigDecimal("4.00"))));
+            verify(accountRepository).addBalanceDeltas(USER_ID, Map.of(ACCOUNT_ID, new BigDecimal("-3.00")));
+        }
+
+        @Test
+        @DisplayName("should resolve a merchant missing from the batch lookup one at a time")
+        void shouldFallBackToSingleMerchantLookup() {
+            // Arrange
+            Account account = createMockAccount(USER_ID);
+            Transaction t1 = Transaction.builder().id(1L).account(account).amount(BigDecimal.ONE).type(TransactionType.EXPENSE).build();
+            when(transactionRepository.findAllById(eq(USER_ID), anyList())).thenReturn(List.of(t1));
+            when(merchantService.findOrCreateMerchants(eq(USER_ID), anyList())).thenReturn(Map.of());
+            when(merchantService.findOrCreateMerchant(USER_ID, "Coffee")).thenReturn(7L);
+            when(categorizationContextCache.get(USER_ID)).thenReturn(mock(CategorizationContext.class));
+
+            // Act
+            transactionService.updateTransactionsBulk(USER_ID, List.of(updateRequest(1L, "2.00", "EXPENSE", "Coffee", null)));
+
+            // Assert
+            verify(transactionRepository).updateAll(eq(USER_ID), argThat(list -> list.size() == 1
+                    && list.get(0).getMerchant().getId().equals(7L)));
+        }
+
+        @Test
+        @DisplayName("should throw ResourceNotFoundException when a transaction is missing")
+        void shouldThrowOnMissingTransaction() {
+            // Arrange
+            when(transactionRepository.findAllById(eq(USER_ID), anyList())).thenReturn(List.of());
+
+            // Act & Assert
+            List<TransactionUpdateRequest> requests = List.of(updateRequest(1L, "1.00", "EXPENSE", "Coffee", null));
+            assertThrows(ResourceNotFoundException.class, () -> transactionService.updateTransactionsBulk(USER_ID, requests));
+            verify(transactionRepository, never()).updateAll(anyLong(), anyList());
+        }
+
+        private TransactionUpdateRequest updateRequest(Long id, String amount, String type, String description, Long categoryId) {
+            return TransactionUpdateRequest.builder()
+                    .id(id)
+                    .amount(new BigDecimal(amount))
+                    .type(type)
+                    .description(description)
+                    .categoryId(categoryId)
+                    .build();
+        }
+    }
+
     @Nested
     @DisplayName("deleteTransaction")
     class DeleteTransactionTests {
@@ -359,7 +543,7 @@ class TransactionServiceTest {
             transactionService.deleteTransaction(USER_ID, TRANSACTION_ID);
 
             // Assert
-            verify(accountRepository).updateBalance(eq(USER_ID), eq(ACCOUNT_ID), any(BigDecimal.class), anyLong());
+            verify(accountRepository).addBalanceDelta(eq(USER_ID), eq(ACCOUNT_ID), any(BigDecimal.class));
             verify(transactionRepository).deleteById(TRANSACTION_ID, USER_ID);
         }
     }
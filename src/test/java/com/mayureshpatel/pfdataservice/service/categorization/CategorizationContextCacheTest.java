@@ -0,0 +1,80 @@
+package com.mayureshpatel.pfdataservice.service.categorization;
+
+import com.mayureshpatel.pfdataservice.domain.category.Category;
+import com.mayureshpatel.pfdataservice.domain.category.CategoryRule;
+import com.mayureshpatel.pfdataservice.repository.category.CategoryRepository;
+import com.mayureshpatel.pfdataservice.repository.category.CategoryRuleRepository;
+import com.mayureshpatel.pfdataservice.service.categorization.CategorizationStrategy.CategorizationContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CategorizationContextCache Unit Tests")
+class CategorizationContextCacheTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private CategoryRuleRepository categoryRuleRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private KeywordMatcherCache keywordMatcherCache;
+
+    private CategorizationContextCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CategorizationContextCache(categoryRuleRepository, categoryRepository, keywordMatcherCache);
+    }
+
+    @Test
+    @DisplayName("should load the context once and reuse it")
+    void shouldLoadOnce() {
+        // Arrange
+        Category groceries = Category.builder().id(10L).name("Groceries").build();
+        CategoryRule rule = CategoryRule.builder().keyword("KROGER").category(groceries).build();
+        when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of(rule));
+        when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of(groceries));
+
+        // Act
+        CategorizationContext first = cache.get(USER_ID);
+        CategorizationContext second = cache.get(USER_ID);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(USER_ID, first.getUserId());
+        assertEquals(List.of(rule), first.getRules());
+        assertSame(groceries, first.findCategory(10L).orElseThrow());
+        assertTrue(first.findCategory(99L).isEmpty());
+        verify(categoryRuleRepository, times(1)).findByUserId(USER_ID);
+        verify(categoryRepository, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("should reload the context and drop the matcher after eviction")
+    void shouldReloadAfterEvict() {
+        // Arrange
+        when(categoryRuleRepository.findByUserId(USER_ID)).thenReturn(List.of());
+        when(categoryRepository.findByUserId(USER_ID)).thenReturn(List.of());
+        CategorizationContext first = cache.get(USER_ID);
+
+        // Act
+        cache.evict(USER_ID);
+        CategorizationContext second = cache.get(USER_ID);
+
+        // Assert
+        assertNotSame(first, second);
+        verify(keywordMatcherCache).evict(USER_ID);
+        verify(categoryRuleRepository, times(2)).findByUserId(USER_ID);
+    }
+}
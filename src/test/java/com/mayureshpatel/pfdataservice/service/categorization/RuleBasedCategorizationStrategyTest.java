@@ -8,16 +8,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("RuleBasedCategorizationStrategy Unit Tests")
 class RuleBasedCategorizationStrategyTest {
 
-    private final RuleBasedCategorizationStrategy strategy = new RuleBasedCategorizationStrategy();
+    private final RuleBasedCategorizationStrategy strategy = new RuleBasedCategorizationStrategy(new KeywordMatcherCache());
 
     @Nested
     @DisplayName("categorize (Domain)")
@@ -81,6 +83,67 @@ class RuleBasedCategorizationStrategyTest {
         }
     }
 
+    @Nested
+    @DisplayName("rule priority")
+    class PriorityTests {
+        @Test
+        @DisplayName("should pick the first rule in list order when several keywords occur")
+        void shouldPreferEarlierRule() {
+            // Arrange
+            Transaction t = Transaction.builder().description("AMAZON PRIME VIDEO").build();
+            CategoryRule prime = CategoryRule.builder().keyword("prime video").category(Category.builder().id(1L).build()).build();
+            CategoryRule amazon = CategoryRule.builder().keyword("amazon").category(Category.builder().id(2L).build()).build();
+
+            CategorizationStrategy.CategorizationContext context = CategorizationStrategy.CategorizationContext.builder()
+                    .rules(List.of(prime, amazon))
+                    .build();
+
+            // Act
+            Optional<Long> result = strategy.categorize(t, context);
+
+            // Assert
+            assertEquals(Optional.of(1L), result);
+        }
+
+        @Test
+        @DisplayName("should match keywords that overlap or are suffixes of other keywords")
+        void shouldMatchOverlappingKeywords() {
+            // Arrange
+            Transaction t = Transaction.builder().description("POS SHELL OIL 1234").build();
+            CategoryRule shellfish = CategoryRule.builder().keyword("shellfish").category(Category.builder().id(1L).build()).build();
+            CategoryRule oil = CategoryRule.builder().keyword("ll oil").category(Category.builder().id(2L).build()).build();
+
+            CategorizationStrategy.CategorizationContext context = CategorizationStrategy.CategorizationContext.builder()
+                    .rules(List.of(shellfish, oil))
+                    .build();
+
+            // Act
+            Optional<Long> result = strategy.categorize(t, context);
+
+            // Assert
+            assertEquals(Optional.of(2L), result);
+        }
+
+        @Test
+        @DisplayName("should reuse a user's matcher only while the rules are unchanged")
+        void shouldReuseUserMatcherWhileRulesUnchanged() {
+            // Arrange
+            KeywordMatcherCache cache = new KeywordMatcherCache();
+            RuleBasedCategorizationStrategy cachedStrategy = new RuleBasedCategorizationStrategy(cache);
+            Transaction t = Transaction.builder().description("Netflix").build();
+            CategoryRule netflix = CategoryRule.builder().id(1L).keyword("netflix").category(Category.builder().id(1L).build()).build();
+            CategoryRule recategorized = netflix.toBuilder().category(Category.builder().id(2L).build()).build();
+
+            CategorizationStrategy.CategorizationContext after = CategorizationStrategy.CategorizationContext.builder()
+                    .userId(7L).rules(List.of(recategorized)).build();
+
+            // Act & Assert
+            KeywordMatcher matcher = cache.get(7L, List.of(netflix));
+            assertSame(matcher, cache.get(7L, new ArrayList<>(List.of(netflix))));
+            assertEquals(Optional.of(2L), cachedStrategy.categorize(t, after));
+        }
+    }
+
     @Nested
     @DisplayName("categorize (Request)")
     class CategorizeRequestTests {
@@ -0,0 +1,159 @@
+package com.mayureshpatel.pfdataservice.service.parser;
+
+import com.mayureshpatel.pfdataservice.exception.CsvParsingException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CsvReader unit tests")
+class CsvReaderTest {
+
+    private static List<List<String>> readAll(CsvReader reader) {
+        List<List<String>> records = new ArrayList<>();
+        while (reader.next()) {
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < reader.size(); i++) {
+                values.add(reader.get(i));
+            }
+            records.add(values);
+        }
+        return records;
+    }
+
+    @Nested
+    @DisplayName("next()")
+    class NextTests {
+
+        @Test
+        @DisplayName("should unquote values, unescape doubled quotes and keep delimiters and line breaks inside quotes")
+        void next_quotedValues_unquoted() {
+            String csv = "\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\"\n";
+
+            List<List<String>> records = readAll(new CsvReader(new StringReader(csv)));
+
+            assertThat(records).containsExactly(List.of("a,b", "say \"hi\"", "two\nlines"));
+        }
+
+        @Test
+        @DisplayName("should trim values, skip blank lines and accept any line ending")
+        void next_mixedLineEndings_trimsAndSkipsBlankLines() {
+            String csv = " a , \"b\" \r\n\r\n  \nc,d\re,f";
+
+            List<List<String>> records = readAll(new CsvReader(new StringReader(csv)));
+
+            assertThat(records).containsExactly(List.of("a", "b"), List.of("c", "d"), List.of("e", "f"));
+        }
+
+        @Test
+        @DisplayName("should keep empty values and split on a custom delimiter")
+        void next_tabDelimited_keepsEmptyValues() {
+            String tsv = "a\t\tc\n";
+
+            List<List<String>> records = readAll(new CsvReader(new StringReader(tsv), '\t'));
+
+            assertThat(records).containsExactly(List.of("a", "", "c"));
+        }
+
+        @Test
+        @DisplayName("should number records after the header from 1 and drop a byte order mark")
+        void next_afterHeader_numbersRecords() {
+            CsvReader reader = new CsvReader(new StringReader("\uFEFFDate,Amount\n1/1/2025,1\n\n1/2/2025,2\n"));
+
+            CsvHeader header = reader.readHeader();
+            assertThat(header.names()).containsExactly("Date", "Amount");
+            assertThat(header.indexOf("date")).isZero();
+
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.recordNumber()).isEqualTo(1);
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.recordNumber()).isEqualTo(2);
+            assertThat(reader.next()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should read records longer than the internal buffers")
+        void next_longRecord_readsCompletely() {
+            String value = "x".repeat(20_000);
+            StringBuilder csv = new StringBuilder();
+            for (int i = 0; i < 40; i++) {
+                csv.append(i).append(',');
+            }
+            csv.append(value).append('\n');
+
+            CsvReader reader = new CsvReader(new StringReader(csv.toString()));
+
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.size()).isEqualTo(41);
+            assertThat(reader.get(40)).isEqualTo(value);
+        }
+
+        @Test
+        @DisplayName("should return records read ahead again before reading on")
+        void peek_recordsReturnedAgain() {
+            CsvReader reader = new CsvReader(new StringReader("h\na,1\n\"b\",2\nc,3\n"));
+            reader.readHeader();
+
+            List<String[]> peeked = reader.peek(2);
+
+            assertThat(peeked).extracting(values -> values[0]).containsExactly("a", "b");
+            assertThat(readAll(reader)).containsExactly(List.of("a", "1"), List.of("b", "2"), List.of("c", "3"));
+            assertThat(reader.recordNumber()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should reject a quoted value that is never closed")
+        void next_unterminatedQuote_throws() {
+            CsvReader reader = new CsvReader(new StringReader("a,\"b\n"));
+
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(CsvParsingException.class)
+                    .hasMessageContaining("record 1");
+        }
+    }
+
+    @Nested
+    @DisplayName("record access")
+    class AccessTests {
+
+        @Test
+        @DisplayName("should read missing trailing columns as empty and reject unmapped columns")
+        void get_shortRecordAndUnmappedColumn() {
+            CsvReader reader = new CsvReader(new StringReader("a\n"));
+            reader.next();
+
+            assertThat(reader.get(3)).isEmpty();
+            assertThat(reader.hasText(3)).isFalse();
+            assertThat(reader.hasText(-1)).isFalse();
+            assertThatThrownBy(() -> reader.get(-1)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("should find text in any value of the record")
+        void contains_findsTextInValues() {
+            CsvReader reader = new CsvReader(new StringReader("\"\",Totals:,9 items\n"));
+            reader.next();
+
+            assertThat(reader.contains("Totals:")).isTrue();
+            assertThat(reader.contains("items ")).isFalse();
+        }
+
+        @Test
+        @DisplayName("should parse amounts from the record and read blank amounts as zero")
+        void amounts_parsedFromRecord() {
+            CsvReader reader = new CsvReader(new StringReader("\"$1,234.56\",(5.00),\n"));
+            reader.next();
+
+            assertThat(reader.numericAmount(0)).isEqualByComparingTo("1234.56");
+            assertThat(reader.currencyAmount(1)).isEqualByComparingTo("-5.00");
+            assertThat(reader.currencyAmount(2)).isEqualByComparingTo("0");
+            assertThat(reader.numericAmount(-1)).isEqualByComparingTo("0");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mayureshpatel.pfdataservice.service.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DateOrder unit tests")
+class DateOrderTest {
+
+    @Nested
+    @DisplayName("parse()")
+    class ParseTests {
+
+        @Test
+        @DisplayName("should read the fields in the order's sequence")
+        void parse_eachOrder() {
+            assertThat(DateOrder.MONTH_FIRST.parse("3/1/2026")).isEqualTo(LocalDate.of(2026, 3, 1));
+            assertThat(DateOrder.DAY_FIRST.parse("03/01/2026")).isEqualTo(LocalDate.of(2026, 1, 3));
+            assertThat(DateOrder.YEAR_FIRST.parse("2026-03-01")).isEqualTo(LocalDate.of(2026, 3, 1));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"13/01/2026", "02/30/2026", "03-Mar-2026", "3/1/26", "3/1-2026", "3/1/2026 10:00", "2026-03-01"})
+        @DisplayName("should return null instead of throwing for values that are not month-first dates")
+        void parse_invalidMonthFirst_returnsNull(String value) {
+            assertThat(DateOrder.MONTH_FIRST.parse(value)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("infer()")
+    class InferTests {
+
+        @Test
+        @DisplayName("should settle on day first when a sample only fits day first")
+        void infer_dayFirst_decided() {
+            DateOrder.Inference inference = DateOrder.infer(List.of("01/02/2026", "25/02/2026"), DateOrder.MONTH_FIRST);
+
+            assertThat(inference.order()).isEqualTo(DateOrder.DAY_FIRST);
+            assertThat(inference.decided()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should settle on year first for ISO dates")
+        void infer_iso_decided() {
+            DateOrder.Inference inference = DateOrder.infer(List.of("2026-02-01"), DateOrder.MONTH_FIRST);
+
+            assertThat(inference.order()).isEqualTo(DateOrder.YEAR_FIRST);
+            assertThat(inference.decided()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should fall back to month first without deciding when every date reads both ways")
+        void infer_ambiguous_undecided() {
+            DateOrder.Inference inference = DateOrder.infer(List.of("01/02/2026", "03/04/2026"), DateOrder.MONTH_FIRST);
+
+            assertThat(inference.order()).isEqualTo(DateOrder.MONTH_FIRST);
+            assertThat(inference.decided()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should keep the preferred order when the sample fits it as well as the others")
+        void infer_ambiguous_keepsPreferred() {
+            DateOrder.Inference inference = DateOrder.infer(List.of("01/02/2026"), DateOrder.DAY_FIRST);
+
+            assertThat(inference.order()).isEqualTo(DateOrder.DAY_FIRST);
+            assertThat(inference.decided()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should not decide when no sampled date parses")
+        void infer_unparseable_undecided() {
+            assertThat(DateOrder.infer(List.of("03-Mar-2026"), DateOrder.MONTH_FIRST).decided()).isFalse();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mayureshpatel.pfdataservice.service.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("FixedPointAmounts unit tests")
+class FixedPointAmountsTest {
+
+    private static BigDecimal numeric(String value) {
+        return FixedPointAmounts.parseNumeric(value.toCharArray(), 0, value.length());
+    }
+
+    private static BigDecimal currency(String value) {
+        return FixedPointAmounts.parseCurrency(value.toCharArray(), 0, value.length());
+    }
+
+    @Nested
+    @DisplayName("parseNumeric()")
+    class ParseNumericTests {
+
+        @ParameterizedTest
+        @CsvSource(delimiter = '|', value = {
+                "$1,234.56|1234.56",
+                "-100.00|-100.00",
+                "USD 12.5|12.5",
+                "(7.25)|7.25",
+                ".5|0.5"
+        })
+        @DisplayName("should keep only digits, the decimal point and the minus sign")
+        void parseNumeric_validValues(String value, String expected) {
+            assertThat(numeric(value)).isEqualTo(new BigDecimal(expected));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"abc", "-", "1.2.3", "5-", "--5"})
+        @DisplayName("should reject values that are not a number once stripped")
+        void parseNumeric_invalidValues_throw(String value) {
+            assertThatThrownBy(() -> numeric(value)).isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("parseCurrency()")
+    class ParseCurrencyTests {
+
+        @ParameterizedTest
+        @CsvSource(delimiter = '|', value = {
+                "$1,234.56|1234.56",
+                "(100.00)|-100.00",
+                "+42|42",
+                "$ -0.99|-0.99",
+                "50.00|50.00"
+        })
+        @DisplayName("should parse currency amounts and keep the scale of the input")
+        void parseCurrency_validValues(String value, String expected) {
+            assertThat(currency(value)).isEqualTo(new BigDecimal(expected));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"ABC", "12 USD", "(-5.00)", "1.2.3", "()"})
+        @DisplayName("should reject anything other than a currency amount")
+        void parseCurrency_invalidValues_throw(String value) {
+            assertThatThrownBy(() -> currency(value)).isInstanceOf(NumberFormatException.class);
+        }
+
+        @Test
+        @DisplayName("should fall back to a wide decimal when the digits do not fit a long")
+        void parseCurrency_wideValue_parsed() {
+            assertThat(currency("$12,345,678,901,234,567,890.12"))
+                    .isEqualTo(new BigDecimal("12345678901234567890.12"));
+        }
+    }
+}
@@ -185,4 +185,28 @@ class SynovusCsvParserTest {
                     .isInstanceOf(NullPointerException.class);
         }
     }
+
+    @Nested
+    @DisplayName("parseRows()")
+    class ParseRowsTests {
+
+        @Test
+        @DisplayName("should stream rows after the preamble and skip the totals footer")
+        void parseRows_withPreambleAndFooter_streamsDataRows() {
+            String csv = "\"Account Name:\",\"Checking\"\n" +
+                    "\"Date\",\"Description\",\"Credit\",\"Debit\"\n" +
+                    "\"1/02/2025\",\"Paycheck\",\"500.00\",\"\"\n" +
+                    "\"1/03/2025\",\"Coffee\",\"\",\"abc\"\n" +
+                    "\"\",\"Totals:\",\"500.00\",\"0\"\n";
+
+            List<ParsedRow> result;
+            try (Stream<ParsedRow> rows = parser.parseRows(ACCOUNT_ID, toStream(csv))) {
+                result = rows.toList();
+            }
+
+            assertThat(result).hasSize(2);
+            assertThat(result.get(0).transaction().getDescription()).isEqualTo("Paycheck");
+            assertThat(result.get(1).isError()).isTrue();
+        }
+    }
 }
@@ -3,9 +3,6 @@ package com.mayureshpatel.pfdataservice.service.parser;
 import com.mayureshpatel.pfdataservice.domain.bank.BankName;
 import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
 import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -14,10 +11,10 @@ import java.io.StringReader;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("TransactionParser interface default methods unit tests")
 class TransactionParserDefaultMethodsTest {
@@ -38,12 +35,13 @@ class TransactionParserDefaultMethodsTest {
     @DisplayName("isValidRecord() should validate mapped and non-empty headers")
     void isValidRecord_variousScenarios() throws Exception {
         String csv = "Header1,Header2\nValue1,";
-        CSVParser csvParser = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(new StringReader(csv));
-        CSVRecord record = csvParser.iterator().next();
+        CsvReader record = new CsvReader(new StringReader(csv));
+        CsvHeader header = record.readHeader();
+        record.next();
 
-        assertThat(parser.isValidRecord(record, "Header1")).isTrue();
-        assertThat(parser.isValidRecord(record, "Header2")).isFalse();
-        assertThat(parser.isValidRecord(record, "NonExistent")).isFalse();
+        assertThat(parser.isValidRecord(record, header.indexOf("Header1"))).isTrue();
+        assertThat(parser.isValidRecord(record, header.indexOf("Header2"))).isFalse();
+        assertThat(parser.isValidRecord(record, header.indexOf("NonExistent"))).isFalse();
     }
 
     @Test
@@ -57,13 +55,11 @@ class TransactionParserDefaultMethodsTest {
     @Test
     @DisplayName("configureTransactionTypeAndAmount() should handle positive and negative amounts")
     void configureTransactionTypeAndAmount_variousAmounts() {
-        Transaction income = new Transaction();
-        parser.configureTransactionTypeAndAmount(income, new BigDecimal("100.50"));
+        Transaction income = parser.configureTransactionTypeAndAmount(Transaction.builder().build(), new BigDecimal("100.50"));
         assertThat(income.getType()).isEqualTo(TransactionType.INCOME);
         assertThat(income.getAmount()).isEqualByComparingTo("100.50");
 
-        Transaction expense = new Transaction();
-        parser.configureTransactionTypeAndAmount(expense, new BigDecimal("-50.25"));
+        Transaction expense = parser.configureTransactionTypeAndAmount(Transaction.builder().build(), new BigDecimal("-50.25"));
         assertThat(expense.getType()).isEqualTo(TransactionType.EXPENSE);
         assertThat(expense.getAmount()).isEqualByComparingTo("50.25");
     }
@@ -76,14 +72,20 @@ class TransactionParserDefaultMethodsTest {
                 "-100.00,x\n" +
                 "invalid,x\n" +
                 ",x\n";
-        CSVParser csvParser = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(new StringReader(csv));
-        
-        List<CSVRecord> records = csvParser.getRecords();
-        
-        assertThat(parser.parseAmount(records.get(0), "Amount")).isEqualByComparingTo("1234.56");
-        assertThat(parser.parseAmount(records.get(1), "Amount")).isEqualByComparingTo("-100.00");
-        assertThat(parser.parseAmount(records.get(2), "Amount")).isEqualByComparingTo("0");
-        assertThat(parser.parseAmount(records.get(3), "Amount")).isEqualByComparingTo("0"); // Empty string case
-        assertThat(parser.parseAmount(records.get(0), "NonExistent")).isEqualByComparingTo("0");
+        CsvReader records = new CsvReader(new StringReader(csv));
+        CsvHeader header = records.readHeader();
+        int amount = header.indexOf("Amount");
+
+        records.next();
+        assertThat(parser.parseAmount(records, amount)).isEqualByComparingTo("1234.56");
+        assertThat(parser.parseAmount(records, header.indexOf("NonExistent"))).isEqualByComparingTo("0");
+        records.next();
+        assertThat(parser.parseAmount(records, amount)).isEqualByComparingTo("-100.00");
+        records.next();
+        assertThatThrownBy(() -> parser.parseAmount(records, amount))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("invalid");
+        records.next();
+        assertThat(parser.parseAmount(records, amount)).isEqualByComparingTo("0"); // Empty string case
     }
 }
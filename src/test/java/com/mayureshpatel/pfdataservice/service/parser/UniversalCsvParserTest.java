@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -211,4 +212,112 @@ class UniversalCsvParserTest {
             assertThrows(com.mayureshpatel.pfdataservice.exception.CsvParsingException.class, () -> parser.parse(1L, new ByteArrayInputStream(csv.getBytes())));
         }
     }
+
+    @Nested
+    @DisplayName("parseRows")
+    class ParseRowsTests {
+        @Test
+        @DisplayName("should emit row errors inline instead of failing the whole file")
+        void shouldEmitErrorRows() {
+            String csv = "Date,Description,Amount\n" +
+                         "03/01/2026,Good,10.00\n" +
+                         "03/02/2026,Bad,ABC\n" +
+                         "03/03/2026,Also Good,-5.00";
+            try (Stream<ParsedRow> rows = parser.parseRows(1L, new ByteArrayInputStream(csv.getBytes()))) {
+                List<ParsedRow> result = rows.toList();
+                assertEquals(3, result.size());
+                assertFalse(result.get(0).isError());
+                assertTrue(result.get(1).isError());
+                assertTrue(result.get(1).describeError().startsWith("Row 2: Invalid amount format detected: ABC"));
+                assertEquals("Also Good", result.get(2).transaction().getDescription());
+            }
+        }
+
+        @Test
+        @DisplayName("should skip zero-amount rows without reporting them")
+        void shouldSkipZeroAmountRows() {
+            String csv = "Date,Description,Amount\n03/01/2026,Hold,0.00\n03/02/2026,Real,1.00";
+            try (Stream<ParsedRow> rows = parser.parseRows(1L, new ByteArrayInputStream(csv.getBytes()))) {
+                List<ParsedRow> result = rows.toList();
+                assertEquals(1, result.size());
+                assertEquals(2, result.get(0).rowNumber());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("schema inference")
+    class SchemaInferenceTests {
+
+        private List<Transaction> parse(Long accountId, String csv) {
+            try (Stream<Transaction> result = parser.parse(accountId, new ByteArrayInputStream(csv.getBytes()))) {
+                return result.toList();
+            }
+        }
+
+        @Test
+        @DisplayName("should read every row day first when a sampled date only fits day first")
+        void shouldInferDayFirstDates() {
+            List<Transaction> txns = parse(1L, "Date,Description,Amount\n25/03/2026,A,1.00\n02/03/2026,B,2.00");
+
+            assertEquals(LocalDate.of(2026, 3, 2), txns.get(1).getTransactionDate().toLocalDate());
+        }
+
+        @Test
+        @DisplayName("should read ambiguous dates month first")
+        void shouldDefaultToMonthFirst() {
+            List<Transaction> txns = parse(1L, "Date,Description,Amount\n03/02/2026,A,1.00");
+
+            assertEquals(LocalDate.of(2026, 3, 2), txns.get(0).getTransactionDate().toLocalDate());
+        }
+
+        @Test
+        @DisplayName("should read ISO dates")
+        void shouldInferIsoDates() {
+            List<Transaction> txns = parse(1L, "Date,Description,Amount\n2026-03-02,A,1.00");
+
+            assertEquals(LocalDate.of(2026, 3, 2), txns.get(0).getTransactionDate().toLocalDate());
+        }
+
+        @Test
+        @DisplayName("should reuse a settled date order for later ambiguous files of the same account and header")
+        void shouldReuseCachedSchemaPerAccount() {
+            parse(1L, "Date,Description,Amount\n25/03/2026,A,1.00");
+
+            String ambiguous = "Date,Description,Amount\n03/02/2026,B,2.00";
+            assertEquals(LocalDate.of(2026, 2, 3), parse(1L, ambiguous).get(0).getTransactionDate().toLocalDate());
+            assertEquals(LocalDate.of(2026, 3, 2), parse(2L, ambiguous).get(0).getTransactionDate().toLocalDate());
+        }
+
+        @Test
+        @DisplayName("should let a later file's own sample override the cached date order")
+        void shouldPreferSampleOverCachedSchema() {
+            parse(4L, "Date,Description,Amount\n2026-03-25,A,1.00");
+
+            List<Transaction> txns = parse(4L, "Date,Description,Amount\n3/1/2026,B,2.00");
+
+            assertEquals(LocalDate.of(2026, 3, 1), txns.get(0).getTransactionDate().toLocalDate());
+        }
+
+        @Test
+        @DisplayName("should report rows that do not fit the inferred date order")
+        void shouldRejectRowsOutsideInferredOrder() {
+            String csv = "Date,Description,Amount\n25/03/2026,A,1.00\n26/03/2026,B,2.00\n03/27/2026,C,3.00";
+            try (Stream<ParsedRow> rows = parser.parseRows(3L, new ByteArrayInputStream(csv.getBytes()))) {
+                List<ParsedRow> result = rows.toList();
+                assertTrue(result.get(2).describeError().startsWith("Row 3: Unknown date format: 03/27/2026"));
+            }
+        }
+
+        @Test
+        @DisplayName("should treat negative debits as expenses when the sample writes debits negative")
+        void shouldInferNegativeDebits() {
+            List<Transaction> txns = parse(1L, "Date,Description,Debit,Credit\n03/01/2026,Coffee,-5.00,\n03/02/2026,Pay,,100.00");
+
+            assertEquals(2, txns.size());
+            assertEquals(new BigDecimal("5.00"), txns.get(0).getAmount());
+            assertEquals(TransactionType.EXPENSE, txns.get(0).getType());
+            assertEquals(TransactionType.INCOME, txns.get(1).getType());
+        }
+    }
 }
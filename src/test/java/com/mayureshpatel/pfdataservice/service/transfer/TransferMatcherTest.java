@@ -10,7 +10,10 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -160,5 +163,71 @@ class TransferMatcherTest {
             assertEquals(1L, result.get(0).sourceTransaction().id());
             assertEquals(2L, result.get(0).targetTransaction().id());
         }
+
+        @Test
+        @DisplayName("should choose the assignment with the highest total confidence over the nearest pairing")
+        void shouldPreferBestAssignment() {
+            // Arrange
+            OffsetDateTime base = OffsetDateTime.parse("2026-01-01T12:00:00Z");
+            // out1 is closest to in1, but pairing them leaves out2 without any partner
+            Transaction out1 = createTxn(1L, 10L, BigDecimal.TEN, TransactionType.EXPENSE, base.plusDays(9));
+            Transaction in1 = createTxn(2L, 20L, BigDecimal.TEN, TransactionType.INCOME, base.plusDays(8));
+            Transaction in2 = createTxn(3L, 30L, BigDecimal.TEN, TransactionType.INCOME, base.plusDays(7));
+            Transaction out2 = createTxn(4L, 30L, BigDecimal.TEN, TransactionType.EXPENSE, base.plusDays(5));
+
+            // Act
+            List<TransferSuggestionDto> result = matcher.findMatches(List.of(out1, in1, in2, out2));
+
+            // Assert
+            assertEquals(2, result.size());
+            assertEquals(1L, result.get(0).sourceTransaction().id());
+            assertEquals(3L, result.get(0).targetTransaction().id());
+            assertEquals(0.7, result.get(0).confidenceScore(), 0.001);
+            assertEquals(4L, result.get(1).sourceTransaction().id());
+            assertEquals(2L, result.get(1).targetTransaction().id());
+            assertEquals(0.6, result.get(1).confidenceScore(), 0.001);
+        }
+
+        @Test
+        @DisplayName("should return the same matches regardless of input order")
+        void shouldIgnoreInputOrder() {
+            // Arrange
+            OffsetDateTime base = OffsetDateTime.parse("2026-01-01T12:00:00Z");
+            List<Transaction> transactions = new ArrayList<>();
+            for (long i = 0; i < 20; i++) {
+                BigDecimal amount = BigDecimal.valueOf(10 + i % 3);
+                transactions.add(createTxn(i * 2, 10L, amount, TransactionType.EXPENSE, base.plusDays(i)));
+                transactions.add(createTxn(i * 2 + 1, 20L, amount, TransactionType.INCOME, base.plusDays(i).plusHours(6)));
+            }
+            List<Transaction> shuffled = new ArrayList<>(transactions);
+            Collections.shuffle(shuffled, new Random(42));
+
+            // Act
+            List<TransferSuggestionDto> sorted = matcher.findMatches(transactions);
+            List<TransferSuggestionDto> unsorted = matcher.findMatches(shuffled);
+
+            // Assert
+            assertEquals(20, sorted.size());
+            assertEquals(sorted, unsorted);
+        }
+
+        @Test
+        @DisplayName("should pair large clusters best score first")
+        void shouldMatchLargeClusters() {
+            // Arrange
+            OffsetDateTime base = OffsetDateTime.parse("2026-01-01T12:00:00Z");
+            List<Transaction> transactions = new ArrayList<>();
+            for (long i = 0; i < 150; i++) {
+                transactions.add(createTxn(i * 2, 10L, BigDecimal.TEN, TransactionType.EXPENSE, base.plusHours(i * 4)));
+                transactions.add(createTxn(i * 2 + 1, 20L, BigDecimal.TEN, TransactionType.INCOME, base.plusHours(i * 4 + 1)));
+            }
+
+            // Act
+            List<TransferSuggestionDto> result = matcher.findMatches(transactions);
+
+            // Assert
+            assertEquals(150, result.size());
+            assertTrue(result.stream().allMatch(s -> s.confidenceScore() == 0.9));
+        }
     }
 }
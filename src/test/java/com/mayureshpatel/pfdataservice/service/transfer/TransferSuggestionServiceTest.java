@@ -0,0 +1,163 @@
+package com.mayureshpatel.pfdataservice.service.transfer;
+
+import com.mayureshpatel.pfdataservice.domain.account.Account;
+import com.mayureshpatel.pfdataservice.domain.transaction.Transaction;
+import com.mayureshpatel.pfdataservice.domain.transaction.TransactionType;
+import com.mayureshpatel.pfdataservice.dto.transaction.TransferSuggestionDto;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransactionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransferSuggestionRepository;
+import com.mayureshpatel.pfdataservice.repository.transaction.TransferSuggestionRepository.StoredSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransferSuggestionService Unit Tests")
+class TransferSuggestionServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final OffsetDateTime DAY = OffsetDateTime.parse("2026-03-10T12:00:00Z");
+
+    @Mock
+    private TransferSuggestionRepository suggestionRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private TransferSuggestionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TransferSuggestionService(suggestionRepository, transactionRepository, new TransferMatcher());
+    }
+
+    private Transaction createTxn(Long id, Long accountId, TransactionType type, OffsetDateTime date) {
+        return Transaction.builder()
+                .id(id)
+                .account(Account.builder().id(accountId).userId(USER_ID).build())
+                .amount(BigDecimal.TEN)
+                .type(type)
+                .transactionDate(date)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("countSuggestions")
+    class CountSuggestionsTests {
+        @Test
+        @DisplayName("should count stored suggestions without matching")
+        void shouldCountStored() {
+            // Arrange
+            when(suggestionRepository.countByUserId(USER_ID)).thenReturn(3L);
+
+            // Act
+            long result = service.countSuggestions(USER_ID);
+
+            // Assert
+            assertEquals(3L, result);
+            verify(suggestionRepository, never()).isRefreshed(any());
+            verifyNoInteractions(transactionRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("refreshWindow")
+    class RefreshWindowTests {
+        @Test
+        @DisplayName("should re-match only unpaired transactions around the window")
+        void shouldRematchWindow() {
+            // Arrange
+            Transaction out = createTxn(1L, 10L, TransactionType.EXPENSE, DAY);
+            Transaction in = createTxn(2L, 20L, TransactionType.INCOME, DAY.plusDays(1));
+            Transaction paired = createTxn(3L, 30L, TransactionType.INCOME, DAY);
+            when(suggestionRepository.isRefreshed(USER_ID)).thenReturn(true);
+            when(suggestionRepository.findPairedTransactionIds(USER_ID)).thenReturn(Set.of(3L));
+            when(transactionRepository.findNonTransferTransactionsBetween(USER_ID, DAY.minusDays(6), DAY.plusDays(6)))
+                    .thenReturn(List.of(out, paired, in));
+
+            // Act
+            service.refreshWindow(USER_ID, DAY, DAY);
+
+            // Assert
+            verify(suggestionRepository).deleteTouchingWindow(USER_ID, DAY.minusDays(3), DAY.plusDays(3));
+            verify(suggestionRepository).insertAll(eq(USER_ID), argThat(list -> list.size() == 1
+                    && list.get(0).sourceTransactionId().equals(1L)
+                    && list.get(0).targetTransactionId().equals(2L)));
+        }
+
+        @Test
+        @DisplayName("should build the full history on a user's first write")
+        void shouldBuildUnbuiltUser() {
+            // Arrange
+            Transaction out = createTxn(1L, 10L, TransactionType.EXPENSE, DAY);
+            Transaction in = createTxn(2L, 20L, TransactionType.INCOME, DAY);
+            when(suggestionRepository.isRefreshed(USER_ID)).thenReturn(false);
+            when(transactionRepository.findRecentNonTransferTransactions(eq(USER_ID), any())).thenReturn(List.of(out, in));
+
+            // Act
+            service.refreshDates(USER_ID, List.of(DAY));
+
+            // Assert
+            verify(suggestionRepository, never()).deleteTouchingWindow(any(), any(), any());
+            verify(suggestionRepository).deleteByUserId(USER_ID);
+            verify(suggestionRepository).insertAll(USER_ID, List.of(new StoredSuggestion(1L, 2L, 0.9)));
+            verify(suggestionRepository).markRefreshed(USER_ID);
+        }
+    }
+
+    @Nested
+    @DisplayName("findSuggestions")
+    class FindSuggestionsTests {
+        @Test
+        @DisplayName("should hydrate stored suggestions with their transactions")
+        void shouldHydrate() {
+            // Arrange
+            Transaction out = createTxn(1L, 10L, TransactionType.EXPENSE, DAY);
+            Transaction in = createTxn(2L, 20L, TransactionType.INCOME, DAY);
+            when(suggestionRepository.findByUserId(USER_ID)).thenReturn(List.of(new StoredSuggestion(1L, 2L, 0.9)));
+            when(transactionRepository.findAllById(USER_ID, List.of(1L, 2L))).thenReturn(List.of(in, out));
+
+            // Act
+            List<TransferSuggestionDto> result = service.findSuggestions(USER_ID);
+
+            // Assert
+            assertEquals(1, result.size());
+            assertEquals(1L, result.get(0).sourceTransaction().id());
+            assertEquals(2L, result.get(0).targetTransaction().id());
+            assertEquals(0.9, result.get(0).confidenceScore());
+        }
+    }
+
+    @Nested
+    @DisplayName("pruneExpired")
+    class PruneExpiredTests {
+        @Test
+        @DisplayName("should delete suggestions older than the matched history")
+        void shouldPruneOutsideHistory() {
+            // Arrange
+            OffsetDateTime earliest = OffsetDateTime.now().minusYears(TransferSuggestionService.HISTORY_YEARS);
+            when(suggestionRepository.deleteOlderThan(any())).thenReturn(2);
+
+            // Act
+            int result = service.pruneExpired();
+
+            // Assert
+            assertEquals(2, result);
+            verify(suggestionRepository).deleteOlderThan(argThat(cutoff -> !cutoff.isBefore(earliest)
+                    && cutoff.isBefore(earliest.plusMinutes(1))));
+        }
+    }
+}
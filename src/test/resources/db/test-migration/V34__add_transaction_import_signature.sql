@@ -0,0 +1,33 @@
+-- V34: Import signature for database-side duplicate detection
+-- Imports insert with ON CONFLICT (account_id, import_signature) DO NOTHING instead of loading the
+-- account's existing rows and comparing signatures in memory. Rows created manually keep a NULL
+-- signature and are never treated as duplicates.
+
+ALTER TABLE transactions
+    ADD COLUMN import_signature VARCHAR(64);
+
+-- ====================================================================================
+-- BACKFILL
+--    Must match TransactionSignature: sha256 of epochSecond|amount|description|type.
+--    Only the first row of each duplicate group is signed so the unique index can be built.
+-- ====================================================================================
+WITH signed AS (SELECT id,
+                       account_id,
+                       encode(sha256(convert_to(
+                               floor(extract(epoch FROM date))::BIGINT || '|' ||
+                               amount::TEXT || '|' ||
+                               coalesce(description, '') || '|' ||
+                               type, 'UTF8')), 'hex') AS signature
+                FROM transactions),
+     ranked AS (SELECT id,
+                       signature,
+                       row_number() OVER (PARTITION BY account_id, signature ORDER BY id) AS rn
+                FROM signed)
+UPDATE transactions t
+SET import_signature = ranked.signature
+FROM ranked
+WHERE t.id = ranked.id
+  AND ranked.rn = 1;
+
+CREATE UNIQUE INDEX ux_transactions_account_import_signature
+    ON transactions (account_id, import_signature);
@@ -0,0 +1,24 @@
+-- V35: Materialized transfer suggestions
+-- The dashboard used to re-run transfer matching over five years of history on every load just to show
+-- a count. Suggestions are now stored per user and refreshed for the date window touched by each write.
+
+CREATE TABLE transfer_suggestions
+(
+    id                    BIGSERIAL PRIMARY KEY,
+    user_id               BIGINT        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    source_transaction_id BIGINT        NOT NULL REFERENCES transactions (id) ON DELETE CASCADE,
+    target_transaction_id BIGINT        NOT NULL REFERENCES transactions (id) ON DELETE CASCADE,
+    confidence_score      NUMERIC(3, 2) NOT NULL,
+    created_at            TIMESTAMPTZ   NOT NULL DEFAULT NOW(),
+    CONSTRAINT ux_transfer_suggestions_source UNIQUE (source_transaction_id),
+    CONSTRAINT ux_transfer_suggestions_target UNIQUE (target_transaction_id)
+);
+
+CREATE INDEX idx_transfer_suggestions_user_id ON transfer_suggestions (user_id);
+
+-- Users without a row here have never been matched; their suggestions are rebuilt in full on first use.
+CREATE TABLE transfer_suggestion_refreshes
+(
+    user_id      BIGINT PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    refreshed_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,7 @@
+-- V37: Keyset pagination index
+-- Transaction pages seek past (date, id) of the previous page instead of skipping an offset, so the
+-- default date ordering can be read straight off this index.
+
+CREATE INDEX idx_transactions_date_id
+    ON transactions (date, id)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,16 @@
+-- V38: Account balance ledger
+-- Writes used to compute a new current_balance in the application and update the account row under its
+-- optimistic-lock version, so concurrent imports into one account failed. They now append the change to
+-- this ledger; an account's balance is current_balance plus its pending deltas, and a background job
+-- folds the deltas into current_balance.
+
+CREATE TABLE account_balance_deltas
+(
+    id         BIGSERIAL PRIMARY KEY,
+    account_id BIGINT         NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    delta      NUMERIC(19, 2) NOT NULL,
+    created_at TIMESTAMPTZ    NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_account_balance_deltas_account_id
+    ON account_balance_deltas (account_id);
@@ -0,0 +1,32 @@
+-- V40: Staged imports
+-- A preview stores its parsed and categorized rows here under a random token. Committing the token moves
+-- the rows into transactions with a single insert, so the client never sends the rows back. Stagings
+-- expire and are purged periodically.
+
+CREATE TABLE import_stagings
+(
+    id         BIGSERIAL PRIMARY KEY,
+    token      UUID         NOT NULL UNIQUE,
+    user_id    BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    account_id BIGINT       NOT NULL REFERENCES accounts (id) ON DELETE CASCADE,
+    file_name  VARCHAR(255),
+    file_hash  VARCHAR(64),
+    created_at TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    expires_at TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX idx_import_stagings_expires_at ON import_stagings (expires_at);
+
+CREATE TABLE import_staging_rows
+(
+    staging_id       BIGINT         NOT NULL REFERENCES import_stagings (id) ON DELETE CASCADE,
+    row_index        INT            NOT NULL, -- position of the row in the preview
+    amount           NUMERIC(19, 2) NOT NULL,
+    date             TIMESTAMPTZ    NOT NULL,
+    post_date        TIMESTAMPTZ,
+    description      VARCHAR(255),
+    type             VARCHAR(20)    NOT NULL,
+    category_id      BIGINT,                  -- suggested category; checked against the user's categories on commit
+    import_signature VARCHAR(64)    NOT NULL,
+    PRIMARY KEY (staging_id, row_index)
+);
@@ -96,6 +96,14 @@ VALUES (1, 1, 'Vacation', '#FFEB3B'),
 INSERT INTO transaction_tags (transaction_id, tag_id)
 VALUES (1001, 1);
 
+-- 10b. DAILY ROLLUPS (derived from the transactions above)
+INSERT INTO transaction_daily_rollups (user_id, account_id, category_id, merchant_id, type, day, total, transaction_count)
+SELECT a.user_id, t.account_id, t.category_id, t.merchant_id, t.type, (t.date AT TIME ZONE 'UTC')::date, SUM(t.amount), COUNT(*)
+FROM transactions t
+         JOIN accounts a ON a.id = t.account_id
+WHERE t.deleted_at IS NULL
+GROUP BY a.user_id, t.account_id, t.category_id, t.merchant_id, t.type, (t.date AT TIME ZONE 'UTC')::date;
+
 -- 11. RESTART IDENTITY SEQUENCES
 SELECT setval('users_id_seq', (SELECT MAX(id) FROM users));
 SELECT setval('categories_id_seq', (SELECT MAX(id) FROM categories));